@@ -0,0 +1,39 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.benchmark;
+
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+
+import java.time.Duration;
+
+/**
+ * Utility methods shared by the benchmarks for opening graphs.
+ */
+public class BenchmarkGraphs {
+
+    /**
+     * Opens a new graph on top of the in-memory storage backend, so that the measurements reflect the code paths of
+     * JanusGraph rather than those of a particular storage backend. Like the in-memory test configuration, id block
+     * reservations are not delayed.
+     */
+    public static StandardJanusGraph openInMemory() {
+        return (StandardJanusGraph) JanusGraphFactory.build()
+                .set("storage.backend", "inmemory")
+                .set("ids.authority.wait-time", Duration.ZERO)
+                .open();
+    }
+
+}
@@ -0,0 +1,94 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.benchmark;
+
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link StandardJanusGraph#commit} for transactions which add a number of vertices with indexed properties
+ * and connect them by edges. The graph is recreated for every iteration so that its size does not grow unbounded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommitBenchmark {
+
+    @Param({"1", "100"})
+    public int verticesPerTransaction;
+
+    private StandardJanusGraph graph;
+    private long counter;
+    private JanusGraphTransaction tx;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        graph = BenchmarkGraphs.openInMemory();
+        final JanusGraphManagement mgmt = graph.openManagement();
+        final PropertyKey name = mgmt.makePropertyKey("name").dataType(String.class).make();
+        mgmt.makePropertyKey("time").dataType(Long.class).make();
+        mgmt.makeEdgeLabel("knows").make();
+        mgmt.buildIndex("byName", Vertex.class).addKey(name).buildCompositeIndex();
+        mgmt.commit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        graph.close();
+    }
+
+    /**
+     * Adds the vertices and edges outside of the measured method so that only the commit is timed
+     */
+    @Setup(Level.Invocation)
+    public void addVertices() {
+        tx = graph.newTransaction();
+        JanusGraphVertex previous = null;
+        for (int i = 0; i < verticesPerTransaction; i++) {
+            final long id = counter++;
+            final JanusGraphVertex v = tx.addVertex("name", "v" + id, "time", id);
+            if (previous != null) previous.addEdge("knows", v, "time", id);
+            previous = v;
+        }
+    }
+
+    @Benchmark
+    public void commit() {
+        tx.commit();
+    }
+
+}
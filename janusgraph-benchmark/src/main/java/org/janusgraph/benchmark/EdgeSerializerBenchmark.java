@@ -0,0 +1,119 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.benchmark;
+
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.graphdb.database.EdgeSerializer;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.janusgraph.graphdb.relations.RelationCache;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link EdgeSerializer#writeRelation(InternalRelation, int, org.janusgraph.graphdb.types.TypeInspector)} and
+ * the parsing done by {@link EdgeSerializer#readRelation(Entry, boolean, org.janusgraph.graphdb.types.TypeInspector)}
+ * for entries that have not been decoded before, both for an edge with a sort key and properties and for a vertex property.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EdgeSerializerBenchmark {
+
+    private StandardJanusGraph graph;
+    private StandardJanusGraphTx tx;
+    private EdgeSerializer serializer;
+
+    private InternalRelation edge;
+    private InternalRelation property;
+    private Entry edgeEntry;
+    private Entry propertyEntry;
+
+    @Setup
+    public void setup() {
+        graph = BenchmarkGraphs.openInMemory();
+        final JanusGraphManagement mgmt = graph.openManagement();
+        mgmt.makePropertyKey("name").dataType(String.class).make();
+        mgmt.makePropertyKey("time").dataType(Long.class).make();
+        mgmt.makePropertyKey("weight").dataType(Double.class).make();
+        mgmt.buildEdgeIndex(mgmt.makeEdgeLabel("knows").make(), "byTime", Direction.BOTH, mgmt.getPropertyKey("time"));
+        mgmt.commit();
+
+        JanusGraphTransaction writeTx = graph.newTransaction();
+        final JanusGraphVertex v1 = writeTx.addVertex("name", "marko");
+        final JanusGraphVertex v2 = writeTx.addVertex("name", "vadas");
+        v1.addEdge("knows", v2, "time", 1234567L, "weight", 0.5);
+        writeTx.commit();
+
+        tx = (StandardJanusGraphTx) graph.newTransaction();
+        final JanusGraphVertex v = tx.getVertex(v1.longId());
+        edge = (InternalRelation) v.query().direction(Direction.OUT).labels("knows").edges().iterator().next();
+        property = (InternalRelation) v.query().keys("name").properties().iterator().next();
+        serializer = graph.getEdgeSerializer();
+        edgeEntry = serializer.writeRelation(edge, 0, tx);
+        propertyEntry = serializer.writeRelation(property, 0, tx);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tx.rollback();
+        graph.close();
+    }
+
+    @Benchmark
+    public Entry writeEdge() {
+        return serializer.writeRelation(edge, 0, tx);
+    }
+
+    @Benchmark
+    public RelationCache readEdge() {
+        return serializer.parseRelation(edgeEntry, false, tx);
+    }
+
+    @Benchmark
+    public RelationCache readEdgeHeader() {
+        return serializer.parseRelation(edgeEntry, true, tx);
+    }
+
+    @Benchmark
+    public Entry writeProperty() {
+        return serializer.writeRelation(property, 0, tx);
+    }
+
+    @Benchmark
+    public RelationCache readProperty() {
+        return serializer.parseRelation(propertyEntry, false, tx);
+    }
+
+}
@@ -0,0 +1,102 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.graphdb.database.IndexSerializer;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.internal.InternalRelation;
+import org.janusgraph.graphdb.internal.InternalVertex;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link IndexSerializer} builds the composite index keys and entries for updated vertex properties,
+ * both for a single-key index and for a multi-key index whose remaining keys have to be looked up on the vertex.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexSerializerBenchmark {
+
+    private StandardJanusGraph graph;
+    private StandardJanusGraphTx tx;
+    private IndexSerializer serializer;
+
+    private InternalVertex vertex;
+    private List<InternalRelation> nameUpdate;
+    private List<InternalRelation> ageUpdate;
+
+    @Setup
+    public void setup() {
+        graph = BenchmarkGraphs.openInMemory();
+        final JanusGraphManagement mgmt = graph.openManagement();
+        final PropertyKey name = mgmt.makePropertyKey("name").dataType(String.class).make();
+        final PropertyKey age = mgmt.makePropertyKey("age").dataType(Integer.class).make();
+        final PropertyKey city = mgmt.makePropertyKey("city").dataType(String.class).make();
+        mgmt.buildIndex("byName", Vertex.class).addKey(name).buildCompositeIndex();
+        mgmt.buildIndex("byAgeAndCity", Vertex.class).addKey(age).addKey(city).buildCompositeIndex();
+        mgmt.commit();
+
+        final JanusGraphTransaction writeTx = graph.newTransaction();
+        final long vertexId = ((JanusGraphVertex) writeTx.addVertex("name", "marko", "age", 29, "city", "Santa Fe")).longId();
+        writeTx.commit();
+
+        tx = (StandardJanusGraphTx) graph.newTransaction();
+        vertex = (InternalVertex) tx.getVertex(vertexId);
+        nameUpdate = ImmutableList.of((InternalRelation) vertex.property("name", "marko rodriguez"));
+        ageUpdate = ImmutableList.of((InternalRelation) vertex.property("age", 30));
+        serializer = graph.getIndexSerializer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        tx.rollback();
+        graph.close();
+    }
+
+    @Benchmark
+    public Collection<IndexSerializer.IndexUpdate> singleKeyIndexUpdate() {
+        return serializer.getIndexUpdates(vertex, nameUpdate);
+    }
+
+    @Benchmark
+    public Collection<IndexSerializer.IndexUpdate> multiKeyIndexUpdate() {
+        return serializer.getIndexUpdates(vertex, ageUpdate);
+    }
+
+}
@@ -0,0 +1,119 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.benchmark;
+
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.EntryMetaData;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of {@link StaticArrayEntryList}s, which every slice read from a storage backend goes
+ * through, from individual entries and from backend specific column/value pairs, as well as iterating over the result.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StaticArrayEntryListBenchmark {
+
+    private static final StaticArrayEntry.GetColVal<byte[][],byte[]> COLUMN_VALUE_GETTER = new StaticArrayEntry.GetColVal<byte[][], byte[]>() {
+        @Override
+        public byte[] getColumn(byte[][] element) {
+            return element[0];
+        }
+
+        @Override
+        public byte[] getValue(byte[][] element) {
+            return element[1];
+        }
+
+        @Override
+        public EntryMetaData[] getMetaSchema(byte[][] element) {
+            return StaticArrayEntry.EMPTY_SCHEMA;
+        }
+
+        @Override
+        public Object getMetaData(byte[][] element, EntryMetaData meta) {
+            throw new UnsupportedOperationException("Unsupported meta data: " + meta);
+        }
+    };
+
+    @Param({"10", "100", "10000"})
+    public int size;
+
+    @Param({"16"})
+    public int valueSize;
+
+    private List<Entry> entries;
+    private List<byte[][]> columnValues;
+    private EntryList entryList;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        entries = new ArrayList<>(size);
+        columnValues = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final byte[] column = new byte[8 + random.nextInt(8)];
+            final byte[] value = new byte[valueSize];
+            random.nextBytes(column);
+            random.nextBytes(value);
+            entries.add(StaticArrayEntry.of(StaticArrayBuffer.of(column), StaticArrayBuffer.of(value)));
+            columnValues.add(new byte[][]{column, value});
+        }
+        entryList = StaticArrayEntryList.of(entries);
+    }
+
+    @Benchmark
+    public EntryList ofEntries() {
+        return StaticArrayEntryList.of(entries);
+    }
+
+    @Benchmark
+    public EntryList ofBytes() {
+        return StaticArrayEntryList.ofBytes(columnValues, COLUMN_VALUE_GETTER);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (Entry entry : entryList) {
+            bh.consume(entry.getColumn());
+            bh.consume(entry.getValue());
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.benchmark;
+
+import org.janusgraph.diskstorage.ReadBuffer;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.util.WriteByteBuffer;
+import org.janusgraph.graphdb.database.idhandling.VariableLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the variable length encoding of longs used throughout the serialization of ids and relations.
+ * Each invocation encodes or decodes {@link #NUM_VALUES} values whose bit lengths are uniformly distributed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariableLongBenchmark {
+
+    public static final int NUM_VALUES = 1024;
+
+    private long[] values;
+    private StaticBuffer positive;
+    private StaticBuffer signed;
+    private StaticBuffer backward;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        values = new long[NUM_VALUES];
+        for (int i = 0; i < NUM_VALUES; i++) {
+            final int bits = 1 + random.nextInt(62);
+            values[i] = random.nextLong() >>> (64 - bits);
+        }
+        WriteByteBuffer out = new WriteByteBuffer(NUM_VALUES * 10);
+        for (long value : values) VariableLong.writePositive(out, value);
+        positive = out.getStaticBuffer();
+        out = new WriteByteBuffer(NUM_VALUES * 10);
+        for (int i = 0; i < NUM_VALUES; i++) VariableLong.write(out, i % 2 == 0 ? values[i] : -values[i]);
+        signed = out.getStaticBuffer();
+        out = new WriteByteBuffer(NUM_VALUES * 10);
+        for (long value : values) VariableLong.writePositiveBackward(out, value);
+        backward = out.getStaticBuffer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_VALUES)
+    public StaticBuffer writePositive() {
+        final WriteByteBuffer out = new WriteByteBuffer(NUM_VALUES * 10);
+        for (long value : values) VariableLong.writePositive(out, value);
+        return out.getStaticBuffer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_VALUES)
+    public void readPositive(Blackhole bh) {
+        final ReadBuffer in = positive.asReadBuffer();
+        for (int i = 0; i < NUM_VALUES; i++) bh.consume(VariableLong.readPositive(in));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_VALUES)
+    public StaticBuffer writeSigned() {
+        final WriteByteBuffer out = new WriteByteBuffer(NUM_VALUES * 10);
+        for (int i = 0; i < NUM_VALUES; i++) VariableLong.write(out, i % 2 == 0 ? values[i] : -values[i]);
+        return out.getStaticBuffer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_VALUES)
+    public void readSigned(Blackhole bh) {
+        final ReadBuffer in = signed.asReadBuffer();
+        for (int i = 0; i < NUM_VALUES; i++) bh.consume(VariableLong.read(in));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_VALUES)
+    public StaticBuffer writePositiveBackward() {
+        final WriteByteBuffer out = new WriteByteBuffer(NUM_VALUES * 10);
+        for (long value : values) VariableLong.writePositiveBackward(out, value);
+        return out.getStaticBuffer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_VALUES)
+    public void readPositiveBackward(Blackhole bh) {
+        final ReadBuffer in = backward.asReadBuffer();
+        in.movePositionTo(backward.length());
+        for (int i = 0; i < NUM_VALUES; i++) bh.consume(VariableLong.readPositiveBackward(in));
+    }
+
+}
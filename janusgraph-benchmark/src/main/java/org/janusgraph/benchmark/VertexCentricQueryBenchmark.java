@@ -0,0 +1,140 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.benchmark;
+
+import org.janusgraph.core.JanusGraphEdge;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.attribute.Cmp;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the execution of vertex-centric queries built by
+ * {@link org.janusgraph.graphdb.query.vertex.BasicVertexCentricQueryBuilder} against a vertex with many edges stored
+ * in {@link org.janusgraph.diskstorage.keycolumnvalue.inmemory.InMemoryStoreManager}.
+ * Every invocation uses a new transaction so that the adjacency list is read and deserialized each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VertexCentricQueryBenchmark {
+
+    @Param({"100", "10000"})
+    public int degree;
+
+    private StandardJanusGraph graph;
+    private long vertexId;
+
+    @Setup
+    public void setup() {
+        graph = BenchmarkGraphs.openInMemory();
+        final JanusGraphManagement mgmt = graph.openManagement();
+        mgmt.makePropertyKey("name").dataType(String.class).make();
+        mgmt.makePropertyKey("time").dataType(Long.class).make();
+        mgmt.makePropertyKey("weight").dataType(Double.class).make();
+        mgmt.buildEdgeIndex(mgmt.makeEdgeLabel("knows").make(), "byTime", Direction.BOTH, Order.decr, mgmt.getPropertyKey("time"));
+        mgmt.makeEdgeLabel("likes").make();
+        mgmt.commit();
+
+        final JanusGraphTransaction tx = graph.newTransaction();
+        final JanusGraphVertex v = tx.addVertex("name", "supernode");
+        for (int i = 0; i < degree; i++) {
+            final JanusGraphVertex other = tx.addVertex("name", "v" + i);
+            v.addEdge("knows", other, "time", (long) i, "weight", (i % 100) / 100.0);
+            if (i % 10 == 0) v.addEdge("likes", other);
+        }
+        tx.commit();
+        vertexId = v.longId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.close();
+    }
+
+    @Benchmark
+    public void allEdges(Blackhole bh) {
+        final JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            for (JanusGraphEdge e : tx.getVertex(vertexId).query().direction(Direction.OUT).edges()) bh.consume(e);
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    @Benchmark
+    public void labelEdges(Blackhole bh) {
+        final JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            for (JanusGraphEdge e : tx.getVertex(vertexId).query().labels("likes").direction(Direction.OUT).edges()) bh.consume(e);
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    @Benchmark
+    public void sortKeyRangeWithLimit(Blackhole bh) {
+        final JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            for (JanusGraphEdge e : tx.getVertex(vertexId).query().labels("knows").direction(Direction.OUT)
+                    .interval("time", degree / 4L, degree / 2L).limit(10).edges()) bh.consume(e);
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    @Benchmark
+    public void propertyFilter(Blackhole bh) {
+        final JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            for (JanusGraphEdge e : tx.getVertex(vertexId).query().labels("knows").direction(Direction.OUT)
+                    .has("weight", Cmp.GREATER_THAN, 0.9).edges()) bh.consume(e);
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    @Benchmark
+    public long count() {
+        final JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            return tx.getVertex(vertexId).query().labels("knows").direction(Direction.OUT).edgeCount();
+        } finally {
+            tx.rollback();
+        }
+    }
+
+}
@@ -15,6 +15,8 @@
 package org.janusgraph.diskstorage.berkeleyje;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
 import com.sleepycat.je.*;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.PermanentBackendException;
@@ -30,6 +32,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -119,64 +123,57 @@ public class BerkeleyJEKeyValueStore implements OrderedKeyValueStore {
     public RecordIterator<KeyValueEntry> getSlice(KVQuery query, StoreTransaction txh) throws BackendException {
         log.trace("beginning db={}, op=getSlice, tx={}", name, txh);
         final Transaction tx = getTransaction(txh);
-        final StaticBuffer keyStart = query.getStart();
-        final StaticBuffer keyEnd = query.getEnd();
-        final KeySelector selector = query.getKeySelector();
-        final List<KeyValueEntry> result = new ArrayList<>();
-        final DatabaseEntry foundKey = keyStart.as(ENTRY_FACTORY);
-        final DatabaseEntry foundData = new DatabaseEntry();
-
-        try (final Cursor cursor = db.openCursor(tx, null)) {
-            OperationStatus status = cursor.getSearchKeyRange(foundKey, foundData, getLockMode(txh));
-            //Iterate until given condition is satisfied or end of records
-            while (status == OperationStatus.SUCCESS) {
-                StaticBuffer key = getBuffer(foundKey);
-
-                if (key.compareTo(keyEnd) >= 0)
-                    break;
-
-                if (selector.include(key)) {
-                    result.add(new KeyValueEntry(key, getBuffer(foundData)));
-                }
-
-                if (selector.reachedLimit())
-                    break;
-
-                status = cursor.getNext(foundKey, foundData, getLockMode(txh));
-            }
+        final BerkeleyJETx btx = (BerkeleyJETx) txh;
+        try {
+            final Cursor cursor = db.openCursor(tx, null);
+            btx.registerCursor(cursor);
+            return new CursorIterator(cursor, btx, query, getLockMode(txh));
         } catch (Exception e) {
             throw new PermanentBackendException(e);
         }
-
-        log.trace("db={}, op=getSlice, tx={}, resultcount={}", name, txh, result.size());
-
-        return new RecordIterator<KeyValueEntry>() {
-            private final Iterator<KeyValueEntry> entries = result.iterator();
-
-            @Override
-            public boolean hasNext() {
-                return entries.hasNext();
-            }
-
-            @Override
-            public KeyValueEntry next() {
-                return entries.next();
-            }
-
-            @Override
-            public void close() {
-            }
-
-            @Override
-            public void remove() {
-                throw new UnsupportedOperationException();
-            }
-        };
     }
 
+    /**
+     * Executes the queries in the order of their start keys with a single cursor which is repositioned for each query.
+     */
     @Override
     public Map<KVQuery,RecordIterator<KeyValueEntry>> getSlices(List<KVQuery> queries, StoreTransaction txh) throws BackendException {
-        throw new UnsupportedOperationException();
+        log.trace("beginning db={}, op=getSlices, tx={}, queries={}", name, txh, queries.size());
+        final Transaction tx = getTransaction(txh);
+        final List<KVQuery> sortedQueries = new ArrayList<>(queries);
+        sortedQueries.sort(Comparator.comparing(KVQuery::getStart));
+        final Map<KVQuery,RecordIterator<KeyValueEntry>> results = new HashMap<>(queries.size());
+
+        try (final Cursor cursor = db.openCursor(tx, null)) {
+            for (final KVQuery query : sortedQueries) {
+                final List<KeyValueEntry> entries = Lists.newArrayList(new CursorIterator(cursor, null, query, getLockMode(txh)));
+                results.put(query, new RecordIterator<KeyValueEntry>() {
+                    private final Iterator<KeyValueEntry> iterator = entries.iterator();
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public KeyValueEntry next() {
+                        return iterator.next();
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            throw new PermanentBackendException(e);
+        }
+        return results;
     }
 
     @Override
@@ -231,4 +228,57 @@ public class BerkeleyJEKeyValueStore implements OrderedKeyValueStore {
     private static LockMode getLockMode(StoreTransaction txh) {
         return ((BerkeleyJETx)txh).getLockMode();
     }
+
+    /**
+     * Lazily reads the entries of a slice from a cursor. A cursor that belongs to the iterator is closed as soon as the
+     * slice has been read or the iterator is closed, and otherwise when the transaction is closed.
+     */
+    private static class CursorIterator extends AbstractIterator<KeyValueEntry> implements RecordIterator<KeyValueEntry> {
+
+        private final Cursor cursor;
+        private final BerkeleyJETx owner;
+        private final StaticBuffer keyEnd;
+        private final KeySelector selector;
+        private final LockMode lockMode;
+        private final DatabaseEntry foundKey;
+        private final DatabaseEntry foundData = new DatabaseEntry();
+        private boolean isPositioned = false;
+
+        /**
+         * @param owner the transaction with which the cursor has been registered or null if it is closed by the caller
+         */
+        private CursorIterator(Cursor cursor, BerkeleyJETx owner, KVQuery query, LockMode lockMode) {
+            this.cursor = cursor;
+            this.owner = owner;
+            this.keyEnd = query.getEnd();
+            this.selector = query.getKeySelector();
+            this.lockMode = lockMode;
+            this.foundKey = query.getStart().as(ENTRY_FACTORY);
+        }
+
+        @Override
+        protected KeyValueEntry computeNext() {
+            //Iterate until given condition is satisfied or end of records
+            while (!selector.reachedLimit()) {
+                final OperationStatus status = isPositioned ? cursor.getNext(foundKey, foundData, lockMode)
+                        : cursor.getSearchKeyRange(foundKey, foundData, lockMode);
+                isPositioned = true;
+                if (status != OperationStatus.SUCCESS) break;
+
+                final StaticBuffer key = getBuffer(foundKey);
+                if (key.compareTo(keyEnd) >= 0) break;
+
+                if (selector.include(key)) {
+                    return new KeyValueEntry(key, getBuffer(foundData));
+                }
+            }
+            close();
+            return endOfData();
+        }
+
+        @Override
+        public void close() {
+            if (owner != null) owner.closeCursor(cursor);
+        }
+    }
 }
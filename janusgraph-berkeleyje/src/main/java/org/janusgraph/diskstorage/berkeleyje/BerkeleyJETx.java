@@ -50,8 +50,25 @@ public class BerkeleyJETx extends AbstractStoreTransaction {
         return tx;
     }
 
-    private void closeOpenIterators() {
-        openCursors.forEach(Cursor::close);
+    synchronized void registerCursor(Cursor cursor) {
+        openCursors.add(cursor);
+    }
+
+    /**
+     * Closes the given cursor unless it has already been closed along with the transaction
+     */
+    synchronized void closeCursor(Cursor cursor) {
+        if (openCursors.remove(cursor)) cursor.close();
+    }
+
+    private void closeOpenIterators() throws BackendException {
+        try {
+            openCursors.forEach(Cursor::close);
+        } catch (DatabaseException e) {
+            throw new PermanentBackendException(e);
+        } finally {
+            openCursors.clear();
+        }
     }
 
     LockMode getLockMode() {
@@ -61,11 +78,11 @@ public class BerkeleyJETx extends AbstractStoreTransaction {
     @Override
     public synchronized void rollback() throws BackendException {
         super.rollback();
+        closeOpenIterators();
         if (tx == null) return;
         if (log.isTraceEnabled())
             log.trace("{} rolled back", this.toString(), new TransactionClose(this.toString()));
         try {
-            closeOpenIterators();
             tx.abort();
             tx = null;
         } catch (DatabaseException e) {
@@ -76,12 +93,12 @@ public class BerkeleyJETx extends AbstractStoreTransaction {
     @Override
     public synchronized void commit() throws BackendException {
         super.commit();
+        closeOpenIterators();
         if (tx == null) return;
         if (log.isTraceEnabled())
             log.trace("{} committed", this.toString(), new TransactionClose(this.toString()));
 
         try {
-            closeOpenIterators();
             tx.commit();
             tx = null;
         } catch (DatabaseException e) {
@@ -28,6 +28,7 @@ import org.janusgraph.diskstorage.indexing.*;
 import org.janusgraph.diskstorage.keycolumnvalue.*;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheTransaction;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.ExpirationKCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.OffHeapSliceCache;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.NoKCVSCache;
 import org.janusgraph.diskstorage.keycolumnvalue.keyvalue.*;
@@ -96,6 +97,7 @@ public class Backend implements LockerProvider, AutoCloseable {
 
     public static final String SYSTEM_TX_LOG_NAME = "txlog";
     public static final String SYSTEM_MGMT_LOG_NAME = "systemlog";
+    public static final String SYSTEM_CACHE_LOG_NAME = "cachelog";
 
     public static final double EDGESTORE_CACHE_PERCENT = 0.8;
     public static final double INDEXSTORE_CACHE_PERCENT = 0.2;
@@ -114,6 +116,7 @@ public class Backend implements LockerProvider, AutoCloseable {
     private IDAuthority idAuthority;
     private KCVSConfiguration systemConfig;
     private KCVSConfiguration userConfig;
+    private KCVSConfiguration schemaSnapshotConfig;
     private boolean hasAttemptedClose;
 
     private final StandardScanner scanner;
@@ -244,6 +247,9 @@ public class Backend implements LockerProvider, AutoCloseable {
                 long cacheSizeBytes;
                 double cacheSize = configuration.get(DB_CACHE_SIZE);
                 Preconditions.checkArgument(cacheSize>0.0,"Invalid cache size specified: %s",cacheSize);
+                boolean offHeap = configuration.get(DB_CACHE_OFF_HEAP);
+                Preconditions.checkArgument(!offHeap || cacheSize>=1.0,
+                        "The size of an off-heap cache must be specified in bytes: %s",cacheSize);
                 if (cacheSize<1.0) {
                     //Its a percentage
                     Runtime runtime = Runtime.getRuntime();
@@ -258,8 +264,19 @@ public class Backend implements LockerProvider, AutoCloseable {
                 long edgeStoreCacheSize = Math.round(cacheSizeBytes * EDGESTORE_CACHE_PERCENT);
                 long indexStoreCacheSize = Math.round(cacheSizeBytes * INDEXSTORE_CACHE_PERCENT);
 
-                edgeStore = new ExpirationKCVSCache(edgeStoreRaw,getMetricsCacheName(EDGESTORE_NAME),expirationTime,cleanWaitTime,edgeStoreCacheSize);
-                indexStore = new ExpirationKCVSCache(indexStoreRaw,getMetricsCacheName(INDEXSTORE_NAME),expirationTime,cleanWaitTime,indexStoreCacheSize);
+                if (offHeap) {
+                    final long maxDirectMemory = OffHeapSliceCache.getMaxDirectMemory();
+                    Preconditions.checkArgument(cacheSizeBytes<=maxDirectMemory,
+                            "The off-heap cache size of %s bytes exceeds the maximum direct memory of the JVM of %s bytes, " +
+                            "reduce %s or increase -XX:MaxDirectMemorySize",cacheSizeBytes,maxDirectMemory,DB_CACHE_SIZE.toStringWithoutRoot());
+                    edgeStore = new ExpirationKCVSCache(edgeStoreRaw,getMetricsCacheName(EDGESTORE_NAME),expirationTime,cleanWaitTime,
+                            new OffHeapSliceCache(expirationTime,edgeStoreCacheSize));
+                    indexStore = new ExpirationKCVSCache(indexStoreRaw,getMetricsCacheName(INDEXSTORE_NAME),expirationTime,cleanWaitTime,
+                            new OffHeapSliceCache(expirationTime,indexStoreCacheSize));
+                } else {
+                    edgeStore = new ExpirationKCVSCache(edgeStoreRaw,getMetricsCacheName(EDGESTORE_NAME),expirationTime,cleanWaitTime,edgeStoreCacheSize);
+                    indexStore = new ExpirationKCVSCache(indexStoreRaw,getMetricsCacheName(INDEXSTORE_NAME),expirationTime,cleanWaitTime,indexStoreCacheSize);
+                }
             } else {
                 edgeStore = new NoKCVSCache(edgeStoreRaw);
                 indexStore = new NoKCVSCache(indexStoreRaw);
@@ -273,7 +290,7 @@ public class Backend implements LockerProvider, AutoCloseable {
 
             //Open global configuration
             KeyColumnValueStore systemConfigStore = storeManagerLocking.openDatabase(SYSTEM_PROPERTIES_STORE_NAME);
-            systemConfig = getGlobalConfiguration(new BackendOperation.TransactionalProvider() {
+            final BackendOperation.TransactionalProvider keyConsistentTxProvider = new BackendOperation.TransactionalProvider() {
                 @Override
                 public StoreTransaction openTx() throws BackendException {
                     return storeManagerLocking.beginTransaction(StandardBaseTransactionConfig.of(
@@ -285,7 +302,8 @@ public class Backend implements LockerProvider, AutoCloseable {
                 public void close() throws BackendException {
                     //Do nothing, storeManager is closed explicitly by Backend
                 }
-            },systemConfigStore,configuration);
+            };
+            systemConfig = getGlobalConfiguration(keyConsistentTxProvider,systemConfigStore,configuration);
             userConfig = getConfiguration(new BackendOperation.TransactionalProvider() {
                 @Override
                 public StoreTransaction openTx() throws BackendException {
@@ -297,6 +315,8 @@ public class Backend implements LockerProvider, AutoCloseable {
                     //Do nothing, storeManager is closed explicitly by Backend
                 }
             },systemConfigStore,USER_CONFIGURATION_IDENTIFIER,configuration);
+            schemaSnapshotConfig = getConfiguration(keyConsistentTxProvider,systemConfigStore,
+                    SCHEMA_SNAPSHOT_IDENTIFIER,configuration);
 
         } catch (BackendException e) {
             throw new JanusGraphException("Could not initialize backend", e);
@@ -334,6 +354,30 @@ public class Backend implements LockerProvider, AutoCloseable {
         }
     }
 
+    /**
+     * Returns the log through which the keys mutated by transactions are broadcast to other instances so that they
+     * invalidate them in their database level caches
+     */
+    public Log getSystemCacheLog() {
+        try {
+            return managementLogManager.openLog(SYSTEM_CACHE_LOG_NAME);
+        } catch (BackendException e) {
+            throw new JanusGraphException("Could not open cache invalidation log", e);
+        }
+    }
+
+    public KCVSCache getEdgeStoreCache() {
+        return edgeStore;
+    }
+
+    public KCVSCache getIndexStoreCache() {
+        return indexStore;
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
     public StandardScanner.Builder buildEdgeScanJob() {
         return buildStoreIndexScanJob(EDGESTORE_NAME);
     }
@@ -352,6 +396,7 @@ public class Backend implements LockerProvider, AutoCloseable {
                 .setJobConfiguration(jobConfig)
                 .setGraphConfiguration(configuration)
                 .setNumProcessingThreads(1)
+                .setNumScanPartitions(configuration.get(SCAN_PARTITIONS))
                 .setWorkBlockSize(10000);
     }
 
@@ -376,6 +421,15 @@ public class Backend implements LockerProvider, AutoCloseable {
         return userConfig;
     }
 
+    /**
+     * Returns the configuration store which holds the persisted schema snapshot
+     *
+     * @see org.janusgraph.graphdb.database.cache.SchemaSnapshot
+     */
+    public KCVSConfiguration getSchemaSnapshotConfiguration() {
+        return schemaSnapshotConfig;
+    }
+
     private String getMetricsCacheName(String storeName) {
         if (!configuration.get(BASIC_METRICS)) return null;
         return configuration.get(METRICS_MERGE_STORES) ? METRICS_MERGED_CACHE : storeName + METRICS_CACHE_SUFFIX;
@@ -554,6 +608,7 @@ public class Backend implements LockerProvider, AutoCloseable {
             if (idAuthority != null) idAuthority.close();
             if (systemConfig != null) systemConfig.close();
             if (userConfig != null) userConfig.close();
+            if (schemaSnapshotConfig != null) schemaSnapshotConfig.close();
             storeManager.close();
             if(threadPool != null) {
             	threadPool.shutdown();
@@ -585,6 +640,7 @@ public class Backend implements LockerProvider, AutoCloseable {
             idAuthority.close();
             systemConfig.close();
             userConfig.close();
+            schemaSnapshotConfig.close();
             storeManager.clearStorage();
             storeManager.close();
             //Indexes
@@ -15,13 +15,19 @@
 package org.janusgraph.diskstorage;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
@@ -111,6 +117,13 @@ public class BackendTransaction implements LoggableTransaction {
         return new ExternalCachePersistor(txLogStore,storeTx);
     }
 
+    /**
+     * Returns the executor used to parallelize backend operations or null if they are not parallelized
+     */
+    public Executor getThreadPool() {
+        return threadPool;
+    }
+
     public BaseTransactionConfig getBaseTransactionConfig() {
         return txConfig;
     }
@@ -130,26 +143,110 @@ public class BackendTransaction implements LoggableTransaction {
         this.cacheEnabled = true;
     }
 
+    /**
+     * Returns the edge store keys mutated in this transaction which have not been persisted yet
+     */
+    public Set<StaticBuffer> getMutatedEdgeStoreKeys() {
+        return storeTx.getMutatedKeys(edgeStore);
+    }
+
+    /**
+     * Returns the index store keys mutated in this transaction which have not been persisted yet
+     */
+    public Set<StaticBuffer> getMutatedIndexStoreKeys() {
+        return storeTx.getMutatedKeys(indexStore);
+    }
+
     public void commitStorage() throws BackendException {
         storeTx.commit();
     }
 
+    /**
+     * Commits all index transactions and collects the exceptions of those that failed by index name.
+     * If a thread pool is configured, the index transactions are committed concurrently so that the commit
+     * latency is determined by the slowest index rather than the sum of all indexes. If the calling thread is
+     * interrupted while waiting, the outstanding commits are cancelled and a {@link JanusGraphException} is thrown.
+     *
+     * @return the exceptions of all failed index commits, keyed by index name
+     */
     public Map<String,Throwable> commitIndexes() {
         final Map<String,Throwable> exceptions = new HashMap<>(indexTx.size());
-        for (Map.Entry<String,IndexTransaction> indexTransactionEntry : indexTx.entrySet()) {
+        if (threadPool == null || indexTx.size() < MIN_TASKS_TO_PARALLELIZE) {
+            for (Map.Entry<String,IndexTransaction> indexTransactionEntry : indexTx.entrySet()) {
+                try {
+                    indexTransactionEntry.getValue().commit();
+                } catch (Throwable e) {
+                    exceptions.put(indexTransactionEntry.getKey(),e);
+                }
+            }
+        } else {
+            final Map<String,Throwable> concurrentExceptions = new ConcurrentHashMap<>(indexTx.size());
+            final List<FutureTask<Void>> commits = new ArrayList<>(indexTx.size());
+            for (Map.Entry<String,IndexTransaction> indexTransactionEntry : indexTx.entrySet()) {
+                final FutureTask<Void> commit = new FutureTask<>(new IndexCommitRunner(indexTransactionEntry.getKey(),
+                        indexTransactionEntry.getValue(), concurrentExceptions), null);
+                commits.add(commit);
+                threadPool.execute(commit);
+            }
             try {
-                indexTransactionEntry.getValue().commit();
-            } catch (Throwable e) {
-                exceptions.put(indexTransactionEntry.getKey(),e);
+                for (FutureTask<Void> commit : commits) commit.get();
+            } catch (InterruptedException e) {
+                for (FutureTask<Void> commit : commits) commit.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new JanusGraphException("Interrupted while waiting for index commits to complete", e);
+            } catch (ExecutionException e) {
+                //The runners collect all failures
+                throw new JanusGraphException("Unexpected exception while committing indexes", e.getCause());
             }
+            exceptions.putAll(concurrentExceptions);
         }
         return exceptions;
     }
 
+    private static class IndexCommitRunner implements Runnable {
+
+        final String index;
+        final IndexTransaction itx;
+        final Map<String,Throwable> exceptions;
+
+        private IndexCommitRunner(String index, IndexTransaction itx, Map<String,Throwable> exceptions) {
+            this.index = index;
+            this.itx = itx;
+            this.exceptions = exceptions;
+        }
+
+        @Override
+        public void run() {
+            try {
+                itx.commit();
+            } catch (Throwable e) {
+                exceptions.put(index,e);
+            }
+        }
+    }
+
+    /**
+     * Commits the storage transaction and then all index transactions.
+     * <p>
+     * Unlike a fail-fast commit, every index transaction is attempted even if another one fails: the storage mutations
+     * have already been persisted at that point, so stopping at the first failure would only leave the remaining
+     * indexes out of date as well. Once all indexes have been attempted, the failure of the first failed index in the
+     * order of the index transactions is rethrown.
+     */
     @Override
     public void commit() throws BackendException {
         storeTx.commit();
-        for (IndexTransaction itx : indexTx.values()) itx.commit();
+        final Map<String,Throwable> exceptions = commitIndexes();
+        if (!exceptions.isEmpty()) { //throw any encountered index transaction commit exceptions
+            Throwable exception = null;
+            for (String index : indexTx.keySet()) {
+                exception = exceptions.get(index);
+                if (exception != null) break;
+            }
+            if (exception instanceof BackendException) throw (BackendException)exception;
+            else if (exception instanceof RuntimeException) throw (RuntimeException)exception;
+            else throw new PermanentBackendException("Unexpected exception",exception);
+        }
     }
 
     /**
@@ -295,65 +392,91 @@ public class BackendTransaction implements LoggableTransaction {
                 }
             });
         } else {
-            final Map<StaticBuffer,EntryList> results = new HashMap<>(keys.size());
-            if (threadPool == null || keys.size() < MIN_TASKS_TO_PARALLELIZE) {
-                for (StaticBuffer key : keys) {
-                    results.put(key,edgeStoreQuery(new KeySliceQuery(key, query)));
-                }
-            } else {
-                final CountDownLatch doneSignal = new CountDownLatch(keys.size());
-                final AtomicInteger failureCount = new AtomicInteger(0);
-                EntryList[] resultArray = new EntryList[keys.size()];
-                for (int i = 0; i < keys.size(); i++) {
-                    threadPool.execute(new SliceQueryRunner(new KeySliceQuery(keys.get(i), query),
-                            doneSignal, failureCount, resultArray, i));
-                }
-                try {
-                    doneSignal.await();
-                } catch (InterruptedException e) {
-                    throw new JanusGraphException("Interrupted while waiting for multi-query to complete", e);
-                }
-                if (failureCount.get() > 0) {
-                    throw new JanusGraphException("Could not successfully complete multi-query. " + failureCount.get() + " individual queries failed.");
+            return awaitRead(edgeStoreMultiQueryAsync(keys, query));
+        }
+    }
+
+    /**
+     * Retrieves the results of all given slice queries for all given keys. Stores which support multi-queries answer them
+     * with a single {@link KeyColumnValueStore#getMultiSlices(List, List, StoreTransaction)} call, all others with
+     * concurrent multi-key queries per slice through {@link #edgeStoreMultiQueryAsync(List, SliceQuery)}.
+     */
+    public Map<SliceQuery,Map<StaticBuffer,EntryList>> edgeStoreMultiQuery(final List<StaticBuffer> keys, final List<SliceQuery> queries) {
+        if (storeFeatures.hasMultiQuery()) {
+            return executeRead(new Callable<Map<SliceQuery,Map<StaticBuffer,EntryList>>>() {
+                @Override
+                public Map<SliceQuery,Map<StaticBuffer,EntryList>> call() throws Exception {
+                    return cacheEnabled?edgeStore.getMultiSlices(keys, queries, storeTx):
+                                        edgeStore.getMultiSlicesNoCache(keys, queries, storeTx);
                 }
-                for (int i=0;i<keys.size();i++) {
-                    assert resultArray[i]!=null;
-                    results.put(keys.get(i),resultArray[i]);
+
+                @Override
+                public String toString() {
+                    return "MultiSliceEdgeStoreQuery";
                 }
+            });
+        } else {
+            final Map<SliceQuery,CompletableFuture<Map<StaticBuffer,EntryList>>> futures = new HashMap<>(queries.size());
+            for (SliceQuery query : queries) {
+                if (!futures.containsKey(query)) futures.put(query, edgeStoreMultiQueryAsync(keys, query));
+            }
+            final Map<SliceQuery,Map<StaticBuffer,EntryList>> results = new HashMap<>(futures.size());
+            for (Map.Entry<SliceQuery,CompletableFuture<Map<StaticBuffer,EntryList>>> future : futures.entrySet()) {
+                results.put(future.getKey(), awaitRead(future.getValue()));
             }
             return results;
         }
     }
 
-    private class SliceQueryRunner implements Runnable {
+    /**
+     * Asynchronous variant of {@link #edgeStoreQuery(KeySliceQuery)} which does not block the calling thread while
+     * the query is executed by a store with a non-blocking read path.
+     */
+    public CompletableFuture<EntryList> edgeStoreQueryAsync(final KeySliceQuery query) {
+        return executeReadAsync(new Supplier<CompletableFuture<EntryList>>() {
+            @Override
+            public CompletableFuture<EntryList> get() {
+                return cacheEnabled?edgeStore.getSliceAsync(query, storeTx):
+                                    edgeStore.getSliceNoCacheAsync(query, storeTx);
+            }
 
-        final KeySliceQuery kq;
-        final CountDownLatch doneSignal;
-        final AtomicInteger failureCount;
-        final Object[] resultArray;
-        final int resultPosition;
+            @Override
+            public String toString() {
+                return "EdgeStoreQuery";
+            }
+        });
+    }
 
-        private SliceQueryRunner(KeySliceQuery kq, CountDownLatch doneSignal, AtomicInteger failureCount,
-                                 Object[] resultArray, int resultPosition) {
-            this.kq = kq;
-            this.doneSignal = doneSignal;
-            this.failureCount = failureCount;
-            this.resultArray = resultArray;
-            this.resultPosition = resultPosition;
-        }
+    /**
+     * Asynchronous variant of {@link #edgeStoreMultiQuery(List, SliceQuery)}. If the store does not support multi-queries,
+     * the individual queries are executed on the transaction's thread pool when one is configured.
+     */
+    public CompletableFuture<Map<StaticBuffer,EntryList>> edgeStoreMultiQueryAsync(final List<StaticBuffer> keys, final SliceQuery query) {
+        if (storeFeatures.hasMultiQuery()) {
+            return executeReadAsync(new Supplier<CompletableFuture<Map<StaticBuffer,EntryList>>>() {
+                @Override
+                public CompletableFuture<Map<StaticBuffer,EntryList>> get() {
+                    return cacheEnabled?edgeStore.getSliceAsync(keys, query, storeTx):
+                                        edgeStore.getSliceNoCacheAsync(keys, query, storeTx);
+                }
 
-        @Override
-        public void run() {
-            try {
-                List<Entry> result;
-                result = edgeStoreQuery(kq);
-                resultArray[resultPosition] = result;
-            } catch (Exception e) {
-                failureCount.incrementAndGet();
-                log.warn("Individual query in multi-transaction failed: ", e);
-            } finally {
-                doneSignal.countDown();
+                @Override
+                public String toString() {
+                    return "MultiEdgeStoreQuery";
+                }
+            });
+        } else {
+            final Map<StaticBuffer,EntryList> results = new ConcurrentHashMap<>(keys.size());
+            final CompletableFuture<?>[] futures = new CompletableFuture<?>[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                final StaticBuffer key = keys.get(i);
+                final KeySliceQuery ksq = new KeySliceQuery(key, query);
+                final CompletableFuture<EntryList> future = threadPool == null || keys.size() < MIN_TASKS_TO_PARALLELIZE
+                        ? edgeStoreQueryAsync(ksq)
+                        : CompletableFuture.supplyAsync(() -> edgeStoreQuery(ksq), threadPool);
+                futures[i] = future.thenAccept(result -> results.put(key, result));
             }
+            return CompletableFuture.allOf(futures).thenApply(v -> results);
         }
     }
 
@@ -409,6 +532,40 @@ public class BackendTransaction implements LoggableTransaction {
     }
 
 
+    /**
+     * Asynchronous variant of {@link #indexQuery(KeySliceQuery)}.
+     */
+    public CompletableFuture<EntryList> indexQueryAsync(final KeySliceQuery query) {
+        return executeReadAsync(new Supplier<CompletableFuture<EntryList>>() {
+            @Override
+            public CompletableFuture<EntryList> get() {
+                return cacheEnabled?indexStore.getSliceAsync(query, storeTx):
+                                    indexStore.getSliceNoCacheAsync(query, storeTx);
+            }
+
+            @Override
+            public String toString() {
+                return "VertexIndexQuery";
+            }
+        });
+    }
+
+    /**
+     * Executes the given index queries concurrently through {@link #indexQueryAsync(KeySliceQuery)} and returns their
+     * results in the order of the queries.
+     */
+    public List<EntryList> indexQuery(final List<KeySliceQuery> queries) {
+        final List<CompletableFuture<EntryList>> futures = new ArrayList<>(queries.size());
+        for (KeySliceQuery query : queries) {
+            futures.add(indexQueryAsync(query));
+        }
+        final List<EntryList> results = new ArrayList<>(queries.size());
+        for (CompletableFuture<EntryList> future : futures) {
+            results.add(awaitRead(future));
+        }
+        return results;
+    }
+
     public Stream<String> indexQuery(final String index, final IndexQuery query) {
         final IndexTransaction indexTx = getIndexTransaction(index);
         return executeRead(new Callable<Stream<String>>() {
@@ -465,6 +622,26 @@ public class BackendTransaction implements LoggableTransaction {
     }
 
 
+    /**
+     * Re-attempts of failed reads are issued on the backend thread pool, or on the common pool if backend operations
+     * are not parallelized.
+     */
+    private <V> CompletableFuture<V> executeReadAsync(Supplier<CompletableFuture<V>> exe) {
+        return BackendOperation.executeAsync(exe, maxReadTime, threadPool != null ? threadPool : ForkJoinPool.commonPool());
+    }
+
+    private <V> V awaitRead(CompletableFuture<V> future) throws JanusGraphException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw new TraversalInterruptedException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof JanusGraphException) throw (JanusGraphException) e.getCause();
+            throw new JanusGraphException("Could not execute operation due to backend exception", e.getCause());
+        }
+    }
+
     private <V> V executeRead(Callable<V> exe) throws JanusGraphException {
         try {
             return BackendOperation.execute(exe, maxReadTime);
@@ -101,7 +101,9 @@ public class IndexTransaction implements BaseTransaction, LoggableTransaction {
      */
     @Deprecated
     public List<String> query(IndexQuery query) throws BackendException {
-        return queryStream(query).collect(Collectors.toList());
+        try (Stream<String> results = queryStream(query)) {
+            return results.collect(Collectors.toList());
+        }
     }
 
     public Stream<String> queryStream(IndexQuery query) throws BackendException {
@@ -21,6 +21,7 @@ import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.StaticBuffer;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Wraps a {@link org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore} as a proxy as a basis for
@@ -62,6 +63,16 @@ public class KCVSProxy implements KeyColumnValueStore {
         return store.getKeys(columnQuery, unwrapTx(txh));
     }
 
+    @Override
+    public List<KeyRange> getScanPartitions(int numPartitions, StoreTransaction txh) throws BackendException {
+        return store.getScanPartitions(numPartitions, unwrapTx(txh));
+    }
+
+    @Override
+    public KeyIterator getPartitionKeys(KeyRange partition, SliceQuery query, StoreTransaction txh) throws BackendException {
+        return store.getPartitionKeys(partition, query, unwrapTx(txh));
+    }
+
     @Override
     public String getName() {
         return store.getName();
@@ -81,4 +92,29 @@ public class KCVSProxy implements KeyColumnValueStore {
     public Map<StaticBuffer,EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
         return store.getSlice(keys, query, unwrapTx(txh));
     }
+
+    @Override
+    public Map<SliceQuery,Map<StaticBuffer,EntryList>> getMultiSlices(List<StaticBuffer> keys, List<SliceQuery> queries, StoreTransaction txh) throws BackendException {
+        return store.getMultiSlices(keys, queries, unwrapTx(txh));
+    }
+
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        return store.getSliceAsync(query, unwrapTx(txh));
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) {
+        return store.getSliceAsync(keys, query, unwrapTx(txh));
+    }
+
+    @Override
+    public CompletableFuture<KeyIterator> getKeysAsync(KeyRangeQuery keyQuery, StoreTransaction txh) {
+        return store.getKeysAsync(keyQuery, unwrapTx(txh));
+    }
+
+    @Override
+    public CompletableFuture<KeyIterator> getKeysAsync(SliceQuery columnQuery, StoreTransaction txh) {
+        return store.getKeysAsync(columnQuery, unwrapTx(txh));
+    }
 }
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Contains static utility methods for operating on {@link KeyColumnValueStore}.
@@ -117,4 +118,17 @@ public class KCVSUtil {
         }
         return result;
     }
+
+    /**
+     * Returns a future that has already completed exceptionally with the given cause.
+     *
+     * @param cause the cause of the failure
+     * @return failed future
+     */
+    public static <V> CompletableFuture<V> failedFuture(Throwable cause) {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        future.completeExceptionally(cause);
+        return future;
+    }
+
 }
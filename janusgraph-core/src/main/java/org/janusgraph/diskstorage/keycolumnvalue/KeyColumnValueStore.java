@@ -20,8 +20,11 @@ import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.StaticBuffer;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface to a data store that has a BigTable like representation of its data. In other words, the data store is comprised of a set of rows
@@ -64,6 +67,63 @@ public interface KeyColumnValueStore {
      */
     Map<StaticBuffer,EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException;
 
+    /**
+     * Retrieves the list of entries (i.e. column-value pairs) as specified by each of the given {@link SliceQuery}s for
+     * all of the given keys together, so that stores which can combine several slices of several keys into one request
+     * answer all of them with a single call.
+     * <p/>
+     * The default implementation executes one {@link #getSlice(List, SliceQuery, StoreTransaction)} per distinct query.
+     *
+     * @param keys    List of keys
+     * @param queries Slicequeries specifying matching entries
+     * @param txh     Transaction
+     * @return The result of each query as a map from the key to the list of result entries, keyed by the query.
+     * @throws org.janusgraph.diskstorage.BackendException
+     */
+    default Map<SliceQuery,Map<StaticBuffer,EntryList>> getMultiSlices(List<StaticBuffer> keys, List<SliceQuery> queries, StoreTransaction txh) throws BackendException {
+        final Map<SliceQuery,Map<StaticBuffer,EntryList>> results = new HashMap<>(queries.size());
+        for (SliceQuery query : queries) {
+            if (!results.containsKey(query)) results.put(query, getSlice(keys, query, txh));
+        }
+        return results;
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSlice(KeySliceQuery, StoreTransaction)}. The returned future completes with the
+     * entries of the query or exceptionally with the {@link BackendException} raised by the store.
+     * <p/>
+     * The default implementation executes the query synchronously on the calling thread. Stores backed by a client with
+     * a non-blocking API should override this method so that the calling thread is not pinned while the query is in flight.
+     *
+     * @param query Query to get results for
+     * @param txh   Transaction
+     * @return Future of the list of entries up to a maximum of "limit" entries
+     */
+    default CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        try {
+            return CompletableFuture.completedFuture(getSlice(query, txh));
+        } catch (BackendException | RuntimeException e) {
+            return KCVSUtil.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #getSlice(List, SliceQuery, StoreTransaction)}.
+     *
+     * @param keys  List of keys
+     * @param query Slicequery specifying matching entries
+     * @param txh   Transaction
+     * @return Future of the result of the query for each of the given keys
+     * @see #getSliceAsync(KeySliceQuery, StoreTransaction)
+     */
+    default CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) {
+        try {
+            return CompletableFuture.completedFuture(getSlice(keys, query, txh));
+        } catch (BackendException | RuntimeException e) {
+            return KCVSUtil.failedFuture(e);
+        }
+    }
+
     /**
      * Verifies acquisition of locks {@code txh} from previous calls to
      * {@link #acquireLock(StaticBuffer, StaticBuffer, StaticBuffer, StoreTransaction)}
@@ -171,6 +231,67 @@ public interface KeyColumnValueStore {
      * @throws org.janusgraph.diskstorage.BackendException
      */
     KeyIterator getKeys(SliceQuery query, StoreTransaction txh) throws BackendException;
+
+    /**
+     * Asynchronous variant of {@link #getKeys(KeyRangeQuery, StoreTransaction)}. The future completes once the scan has
+     * been issued; iterating the returned {@link KeyIterator} may still block on subsequent pages.
+     *
+     * @see #getSliceAsync(KeySliceQuery, StoreTransaction)
+     */
+    default CompletableFuture<KeyIterator> getKeysAsync(KeyRangeQuery query, StoreTransaction txh) {
+        try {
+            return CompletableFuture.completedFuture(getKeys(query, txh));
+        } catch (BackendException | RuntimeException e) {
+            return KCVSUtil.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #getKeys(SliceQuery, StoreTransaction)}.
+     *
+     * @see #getKeysAsync(KeyRangeQuery, StoreTransaction)
+     */
+    default CompletableFuture<KeyIterator> getKeysAsync(SliceQuery query, StoreTransaction txh) {
+        try {
+            return CompletableFuture.completedFuture(getKeys(query, txh));
+        } catch (BackendException | RuntimeException e) {
+            return KCVSUtil.failedFuture(e);
+        }
+    }
+
+    /**
+     * Splits the keys of this store into at most the given number of partitions which follow how the storage backend
+     * distributes them, e.g. its regions or token ranges, so that a scan can read the partitions concurrently through
+     * {@link #getPartitionKeys(KeyRange, SliceQuery, StoreTransaction)}. Returns an empty list if this store does not
+     * know how its keys are distributed.
+     *
+     * @param numPartitions maximum number of partitions to return
+     * @param txh
+     * @return disjoint partitions which together cover all keys of this store
+     * @throws org.janusgraph.diskstorage.BackendException
+     */
+    default List<KeyRange> getScanPartitions(int numPartitions, StoreTransaction txh) throws BackendException {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns a {@link KeyIterator} over all keys in the given partition, as returned by
+     * {@link #getScanPartitions(int, StoreTransaction)}, that have one or more columns matching the column-range.
+     * The keys of a partition are returned in the same order for all queries.
+     * <p/>
+     * The default implementation reads the partition as a key range through {@link #getKeys(KeyRangeQuery, StoreTransaction)},
+     * hence it is only supported by stores which keep keys in byte-order. Other stores have to override it together with
+     * {@link #getScanPartitions(int, StoreTransaction)}.
+     *
+     * @param partition
+     * @param query
+     * @param txh
+     * @return
+     * @throws org.janusgraph.diskstorage.BackendException
+     */
+    default KeyIterator getPartitionKeys(KeyRange partition, SliceQuery query, StoreTransaction txh) throws BackendException {
+        return getKeys(new KeyRangeQuery(partition.getStart(), partition.getEnd(), query), txh);
+    }
     // like current getKeys if column-slice is such that it queries for vertex state property
 
     /**
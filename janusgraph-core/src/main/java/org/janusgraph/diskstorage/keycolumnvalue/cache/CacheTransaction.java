@@ -87,6 +87,15 @@ public class CacheTransaction implements StoreTransaction, LoggableTransaction {
         }
     }
 
+    /**
+     * Returns the keys of the given store that have been mutated in this transaction and not been persisted yet
+     */
+    public Set<StaticBuffer> getMutatedKeys(KCVSCache store) {
+        final Map<StaticBuffer, KCVEntryMutation> storeMutations = mutations.get(store);
+        if (storeMutations == null) return Collections.emptySet();
+        return Collections.unmodifiableSet(storeMutations.keySet());
+    }
+
     private int persist(final Map<String, Map<StaticBuffer, KCVMutation>> subMutations) {
         BackendOperation.execute(new Callable<Boolean>() {
             @Override
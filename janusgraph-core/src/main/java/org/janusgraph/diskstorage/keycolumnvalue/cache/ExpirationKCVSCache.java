@@ -24,11 +24,17 @@ import org.janusgraph.diskstorage.util.CacheMetricsAction;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import static org.janusgraph.util.datastructures.ByteSize.*;
 
@@ -39,14 +45,14 @@ public class ExpirationKCVSCache extends KCVSCache {
 
     //Weight estimation
     private static final int STATIC_ARRAY_BUFFER_SIZE = STATICARRAYBUFFER_RAW_SIZE + 10; // 10 = last number is average length
-    private static final int KEY_QUERY_SIZE = OBJECT_HEADER + 4 + 1 + 3 * (OBJECT_REFERENCE + STATIC_ARRAY_BUFFER_SIZE); // object_size + int + boolean + 3 static buffers
+    static final int KEY_QUERY_SIZE = OBJECT_HEADER + 4 + 1 + 3 * (OBJECT_REFERENCE + STATIC_ARRAY_BUFFER_SIZE); // object_size + int + boolean + 3 static buffers
 
     private static final int INVALIDATE_KEY_FRACTION_PENALTY = 1000;
     private static final int PENALTY_THRESHOLD = 5;
 
     private volatile CountDownLatch penaltyCountdown;
 
-    private final Cache<KeySliceQuery,EntryList> cache;
+    private final SliceCache cache;
     private final ConcurrentHashMap<StaticBuffer,Long> expiredKeys;
 
     private final long cacheTimeMS;
@@ -55,21 +61,19 @@ public class ExpirationKCVSCache extends KCVSCache {
 
 
     public ExpirationKCVSCache(final KeyColumnValueStore store, String metricsName, final long cacheTimeMS, final long invalidationGracePeriodMS, final long maximumByteSize) {
+        this(store, metricsName, cacheTimeMS, invalidationGracePeriodMS, new HeapSliceCache(cacheTimeMS, maximumByteSize));
+    }
+
+    public ExpirationKCVSCache(final KeyColumnValueStore store, String metricsName, final long cacheTimeMS, final long invalidationGracePeriodMS, final SliceCache cache) {
         super(store, metricsName);
         Preconditions.checkArgument(cacheTimeMS > 0, "Cache expiration must be positive: %s", cacheTimeMS);
         Preconditions.checkArgument(System.currentTimeMillis()+1000L*3600*24*365*100+cacheTimeMS>0,"Cache expiration time too large, overflow may occur: %s",cacheTimeMS);
+        Preconditions.checkNotNull(cache);
         this.cacheTimeMS = cacheTimeMS;
         final int concurrencyLevel = Runtime.getRuntime().availableProcessors();
         Preconditions.checkArgument(invalidationGracePeriodMS >=0,"Invalid expiration grace period: %s", invalidationGracePeriodMS);
         this.invalidationGracePeriodMS = invalidationGracePeriodMS;
-        CacheBuilder<KeySliceQuery,EntryList> cachebuilder = CacheBuilder.newBuilder()
-                .maximumWeight(maximumByteSize)
-                .concurrencyLevel(concurrencyLevel)
-                .initialCapacity(1000)
-                .expireAfterWrite(cacheTimeMS, TimeUnit.MILLISECONDS)
-                .weigher((keySliceQuery, entries) -> GUAVA_CACHE_ENTRY_SIZE + KEY_QUERY_SIZE + entries.getByteSize());
-
-        cache = cachebuilder.build();
+        this.cache = cache;
         expiredKeys = new ConcurrentHashMap<>(50, 0.75f, concurrencyLevel);
         penaltyCountdown = new CountDownLatch(PENALTY_THRESHOLD);
 
@@ -129,6 +133,98 @@ public class ExpirationKCVSCache extends KCVSCache {
         return results;
     }
 
+    @Override
+    public Map<SliceQuery,Map<StaticBuffer,EntryList>> getMultiSlices(final List<StaticBuffer> keys, final List<SliceQuery> queries, final StoreTransaction txh) throws BackendException {
+        final Map<SliceQuery,Map<StaticBuffer,EntryList>> results = new HashMap<>(queries.size());
+        final Set<StaticBuffer> remainingKeys = new LinkedHashSet<>();
+        final List<SliceQuery> remainingQueries = new ArrayList<>(queries.size());
+        final Set<KeySliceQuery> expired = new HashSet<>();
+        int misses = 0;
+        //Find all cached queries
+        for (SliceQuery query : queries) {
+            if (results.containsKey(query)) continue;
+            final Map<StaticBuffer,EntryList> queryResults = new HashMap<>(keys.size());
+            results.put(query,queryResults);
+            incActionBy(keys.size(), CacheMetricsAction.RETRIEVAL,txh);
+            for (StaticBuffer key : keys) {
+                final KeySliceQuery ksq = new KeySliceQuery(key,query);
+                EntryList result = null;
+                if (!isExpired(ksq)) result = cache.getIfPresent(ksq);
+                else expired.add(ksq);
+                if (result!=null) {
+                    queryResults.put(key,result);
+                } else {
+                    remainingKeys.add(key);
+                    misses++;
+                }
+            }
+            if (queryResults.size()<keys.size()) remainingQueries.add(query);
+        }
+        //Request the remaining ones from the backend together, including cached results of keys that miss another query
+        if (!remainingQueries.isEmpty()) {
+            incActionBy(misses, CacheMetricsAction.MISS,txh);
+            final Map<SliceQuery,Map<StaticBuffer,EntryList>> subresults =
+                    store.getMultiSlices(new ArrayList<>(remainingKeys), remainingQueries, unwrapTx(txh));
+            for (SliceQuery query : remainingQueries) {
+                final Map<StaticBuffer,EntryList> queryResults = results.get(query);
+                for (Map.Entry<StaticBuffer,EntryList> subresult : subresults.get(query).entrySet()) {
+                    if (queryResults.containsKey(subresult.getKey())) continue;
+                    queryResults.put(subresult.getKey(),subresult.getValue());
+                    final KeySliceQuery ksq = new KeySliceQuery(subresult.getKey(),query);
+                    if (!expired.contains(ksq)) cache.put(ksq,subresult.getValue());
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(final KeySliceQuery query, final StoreTransaction txh) {
+        incActionBy(1, CacheMetricsAction.RETRIEVAL,txh);
+        final boolean expired = isExpired(query);
+        if (!expired) {
+            final EntryList cached = cache.getIfPresent(query);
+            if (cached!=null) return CompletableFuture.completedFuture(cached);
+        }
+        incActionBy(1, CacheMetricsAction.MISS,txh);
+        return store.getSliceAsync(query, unwrapTx(txh)).thenApply(result -> {
+            if (!expired) cache.put(query,result);
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) {
+        final Map<StaticBuffer,EntryList> results = new HashMap<>(keys.size());
+        final List<StaticBuffer> remainingKeys = new ArrayList<>(keys.size());
+        final KeySliceQuery[] ksqs = new KeySliceQuery[keys.size()];
+        incActionBy(keys.size(), CacheMetricsAction.RETRIEVAL,txh);
+        //Find all cached queries
+        for (int i=0;i<keys.size();i++) {
+            final StaticBuffer key = keys.get(i);
+            ksqs[i] = new KeySliceQuery(key,query);
+            EntryList result = null;
+            if (!isExpired(ksqs[i])) result = cache.getIfPresent(ksqs[i]);
+            else ksqs[i]=null;
+            if (result!=null) results.put(key,result);
+            else remainingKeys.add(key);
+        }
+        if (remainingKeys.isEmpty()) return CompletableFuture.completedFuture(results);
+        //Request remaining ones from backend
+        incActionBy(remainingKeys.size(), CacheMetricsAction.MISS,txh);
+        return store.getSliceAsync(remainingKeys, query, unwrapTx(txh)).thenApply(subresults -> {
+            for (int i=0;i<keys.size();i++) {
+                StaticBuffer key = keys.get(i);
+                EntryList subresult = subresults.get(key);
+                if (subresult!=null) {
+                    results.put(key,subresult);
+                    if (ksqs[i]!=null) cache.put(ksqs[i],subresult);
+                }
+            }
+            return results;
+        });
+    }
+
     @Override
     public void clearCache() {
         cache.invalidateAll();
@@ -146,6 +242,7 @@ public class ExpirationKCVSCache extends KCVSCache {
     @Override
     public void close() throws BackendException {
         cleanupThread.stopThread();
+        cache.close();
         super.close();
     }
 
@@ -175,6 +272,52 @@ public class ExpirationKCVSCache extends KCVSCache {
         return age;
     }
 
+    /**
+     * Keeps the cached results on the heap in a Guava {@link Cache} whose size is estimated from the sizes of the
+     * cached objects
+     */
+    private static class HeapSliceCache implements SliceCache {
+
+        private final Cache<KeySliceQuery,EntryList> cache;
+
+        private HeapSliceCache(final long cacheTimeMS, final long maximumByteSize) {
+            cache = CacheBuilder.newBuilder()
+                    .maximumWeight(maximumByteSize)
+                    .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                    .initialCapacity(1000)
+                    .expireAfterWrite(cacheTimeMS, TimeUnit.MILLISECONDS)
+                    .weigher((KeySliceQuery keySliceQuery, EntryList entries) -> GUAVA_CACHE_ENTRY_SIZE + KEY_QUERY_SIZE + entries.getByteSize())
+                    .build();
+        }
+
+        @Override
+        public EntryList getIfPresent(KeySliceQuery query) {
+            return cache.getIfPresent(query);
+        }
+
+        @Override
+        public EntryList get(KeySliceQuery query, Callable<EntryList> loader) throws Exception {
+            return cache.get(query, loader);
+        }
+
+        @Override
+        public void put(KeySliceQuery query, EntryList result) {
+            cache.put(query, result);
+        }
+
+        @Override
+        public void invalidate(Predicate<StaticBuffer> keys) {
+            for (KeySliceQuery ksq : cache.asMap().keySet()) {
+                if (keys.test(ksq.getKey())) cache.invalidate(ksq);
+            }
+        }
+
+        @Override
+        public void invalidateAll() {
+            cache.invalidateAll();
+        }
+    }
+
     private class CleanupThread extends Thread {
 
         private boolean stop = false;
@@ -203,9 +346,7 @@ public class ExpirationKCVSCache extends KCVSCache {
                     else if (getAge(expKey.getValue())>= invalidationGracePeriodMS)
                         expiredKeysCopy.put(expKey.getKey(),expKey.getValue());
                 }
-                for (KeySliceQuery ksq : cache.asMap().keySet()) {
-                    if (expiredKeysCopy.containsKey(ksq.getKey())) cache.invalidate(ksq);
-                }
+                cache.invalidate(expiredKeysCopy::containsKey);
                 penaltyCountdown = new CountDownLatch(PENALTY_THRESHOLD);
                 for (Map.Entry<StaticBuffer,Long> expKey : expiredKeysCopy.entrySet()) {
                     expiredKeys.remove(expKey.getKey(),expKey.getValue());
@@ -23,8 +23,10 @@ import org.janusgraph.diskstorage.keycolumnvalue.*;
 import org.janusgraph.diskstorage.util.CacheMetricsAction;
 import org.janusgraph.util.stats.MetricManager;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
@@ -55,6 +57,13 @@ public abstract class KCVSCache extends KCVSProxy {
 
     protected abstract void invalidate(StaticBuffer key, List<CachableStaticBuffer> entries);
 
+    /**
+     * Invalidates all cached results for the given key, e.g. because it has been mutated by another instance
+     */
+    public void invalidate(StaticBuffer key) {
+        invalidate(key, Collections.emptyList());
+    }
+
     @Override
     public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) throws BackendException {
         throw new UnsupportedOperationException("Only supports mutateEntries()");
@@ -79,4 +88,16 @@ public abstract class KCVSCache extends KCVSProxy {
         return store.getSlice(keys,query,unwrapTx(txh));
     }
 
+    public Map<SliceQuery,Map<StaticBuffer,EntryList>> getMultiSlicesNoCache(List<StaticBuffer> keys, List<SliceQuery> queries, StoreTransaction txh) throws BackendException {
+        return store.getMultiSlices(keys,queries,unwrapTx(txh));
+    }
+
+    public CompletableFuture<EntryList> getSliceNoCacheAsync(KeySliceQuery query, StoreTransaction txh) {
+        return store.getSliceAsync(query,unwrapTx(txh));
+    }
+
+    public CompletableFuture<Map<StaticBuffer, EntryList>> getSliceNoCacheAsync(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) {
+        return store.getSliceAsync(keys,query,unwrapTx(txh));
+    }
+
 }
@@ -0,0 +1,478 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import static org.janusgraph.util.datastructures.ByteSize.*;
+
+/**
+ * {@link SliceCache} which stores the serialized query results outside of the Java heap so that large caches do not
+ * add to garbage collection pauses. Each result is held in its own direct {@link ByteBuffer} whose native memory is
+ * released once the buffer has been garbage collected after its eviction, and is bounded by the maximum direct memory
+ * of the JVM. Results for which no direct memory can be allocated are not cached. The size of the cache counts the bytes of these buffers as well as an estimate of the heap memory which
+ * holds the query and the bookkeeping of each result. Hits return views of the buffers which only copy the entries
+ * that are read onto the heap. Results with entry meta data are not cached.
+ * <p>
+ * Eviction follows the W-TinyLFU policy: New results enter a small LRU window. Results leaving the window are only
+ * admitted into the main segmented LRU if they are accessed more frequently than the result the main segment would
+ * evict, as estimated by a {@link FrequencySketch} of recent accesses. Hence, results that are read once, e.g. by a
+ * scan, do not displace frequently read ones. Access order is maintained on a best effort basis under contention.
+ */
+public class OffHeapSliceCache implements SliceCache {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapSliceCache.class);
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+
+    private static final double WINDOW_FRACTION = 0.01;
+    private static final double PROTECTED_FRACTION = 0.8;
+    /**
+     * Assumed average size of a serialized result, used to size the frequency sketch
+     */
+    private static final int EXPECTED_RESULT_SIZE = 512;
+    /**
+     * Estimated heap size of a cached result: its query, the node, the direct buffer and its cleaner, and the entries
+     * in the result map and an eviction queue
+     */
+    private static final int NODE_HEAP_SIZE = ExpirationKCVSCache.KEY_QUERY_SIZE
+            + OBJECT_HEADER + 2 * OBJECT_REFERENCE + 4 * 8 // node
+            + 64 + 72 // direct buffer and cleaner
+            + 32 + 48; // map and queue entries
+
+    private static final int NONE = 0;
+    private static final int WINDOW = 1;
+    private static final int PROBATION = 2;
+    private static final int PROTECTED = 3;
+
+    private final long maximumByteSize;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final long cacheTimeMS;
+
+    private final ConcurrentHashMap<KeySliceQuery,Node> results = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<KeySliceQuery,CompletableFuture<EntryList>> loads = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final LinkedHashSet<Node> window = new LinkedHashSet<>();
+    private final LinkedHashSet<Node> probation = new LinkedHashSet<>();
+    private final LinkedHashSet<Node> protectedSegment = new LinkedHashSet<>();
+
+    private final AtomicBoolean allocationFailed = new AtomicBoolean(false);
+
+    private long windowBytes = 0;
+    private long protectedBytes = 0;
+    private volatile long totalBytes = 0;
+    private volatile long offHeapBytes = 0;
+
+    public OffHeapSliceCache(final long cacheTimeMS, final long maximumByteSize) {
+        Preconditions.checkArgument(cacheTimeMS > 0, "Cache expiration must be positive: %s", cacheTimeMS);
+        Preconditions.checkArgument(maximumByteSize > 0, "Invalid cache size: %s", maximumByteSize);
+        this.cacheTimeMS = cacheTimeMS;
+        this.maximumByteSize = maximumByteSize;
+        this.windowMaximum = (long) (maximumByteSize * WINDOW_FRACTION);
+        this.protectedMaximum = (long) ((maximumByteSize - windowMaximum) * PROTECTED_FRACTION);
+        this.sketch = new FrequencySketch(Math.max(1, maximumByteSize / EXPECTED_RESULT_SIZE));
+    }
+
+    /**
+     * Returns the maximum amount of direct memory the JVM may allocate, as limited by -XX:MaxDirectMemorySize or
+     * otherwise by the maximum heap size
+     */
+    public static long getMaxDirectMemory() {
+        try {
+            final HotSpotDiagnosticMXBean diagnostics = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            final long maxDirectMemory = Long.parseLong(diagnostics.getVMOption("MaxDirectMemorySize").getValue());
+            if (maxDirectMemory > 0) return maxDirectMemory;
+        } catch (RuntimeException | LinkageError e) {
+            //Not a HotSpot VM, which also defaults to the maximum heap size
+        }
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    /**
+     * Returns the size of the cached results in bytes, including the estimated heap memory they hold
+     */
+    public long getByteSize() {
+        return totalBytes;
+    }
+
+    /**
+     * Returns the number of bytes of native memory held by the cached results
+     */
+    public long getOffHeapByteSize() {
+        return offHeapBytes;
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    @Override
+    public EntryList getIfPresent(KeySliceQuery query) {
+        final Node node = results.get(query);
+        if (node == null) {
+            recordAccess(hash(query), null);
+            return null;
+        }
+        if (System.currentTimeMillis() - node.writeTime >= cacheTimeMS) {
+            lock.lock();
+            try {
+                if (results.remove(query, node)) remove(node);
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+        recordAccess(node.hash, node);
+        return node.read();
+    }
+
+    /**
+     * Loads a missing result only once for concurrent callers, which wait for the load of the first of them
+     */
+    @Override
+    public EntryList get(KeySliceQuery query, Callable<EntryList> loader) throws Exception {
+        final EntryList cached = getIfPresent(query);
+        if (cached != null) return cached;
+        final CompletableFuture<EntryList> load = new CompletableFuture<>();
+        final CompletableFuture<EntryList> running = loads.putIfAbsent(query, load);
+        if (running != null) {
+            try {
+                return running.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) throw (Exception) e.getCause();
+                throw e;
+            }
+        }
+        try {
+            final EntryList result = loader.call();
+            put(query, result);
+            load.complete(result);
+            return result;
+        } catch (Throwable e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(query, load);
+        }
+    }
+
+    private void recordAccess(int hash, Node node) {
+        //Accesses are dropped rather than waited for if another thread holds the lock
+        if (!lock.tryLock()) return;
+        try {
+            sketch.increment(hash);
+            if (node != null) onHit(node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(KeySliceQuery query, EntryList result) {
+        long size = 4;
+        for (Entry entry : result) {
+            if (entry.hasMetaData()) return;
+            size += 8 + entry.length();
+        }
+        if (size > Integer.MAX_VALUE || size + NODE_HEAP_SIZE > maximumByteSize - windowMaximum) return;
+        final Node node;
+        try {
+            node = new Node(query, (int) size);
+        } catch (OutOfMemoryError e) {
+            //The direct memory is exhausted, e.g. by buffers of evicted results which have not been collected yet
+            if (allocationFailed.compareAndSet(false, true)) {
+                log.warn("Could not allocate {} bytes of direct memory, results are not cached while direct memory is " +
+                        "exhausted. Consider reducing the cache size or increasing -XX:MaxDirectMemorySize", size, e);
+            }
+            return;
+        }
+        node.write(result);
+        lock.lock();
+        try {
+            final Node previous = results.put(query, node);
+            if (previous != null) remove(previous);
+            node.queue = WINDOW;
+            window.add(node);
+            windowBytes += node.weight;
+            totalBytes += node.weight;
+            offHeapBytes += node.size;
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(Predicate<StaticBuffer> keys) {
+        for (Map.Entry<KeySliceQuery,Node> entry : results.entrySet()) {
+            if (!keys.test(entry.getKey().getKey())) continue;
+            lock.lock();
+            try {
+                if (results.remove(entry.getKey(), entry.getValue())) remove(entry.getValue());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            results.clear();
+            clear(window);
+            clear(probation);
+            clear(protectedSegment);
+            windowBytes = 0;
+            protectedBytes = 0;
+            totalBytes = 0;
+            offHeapBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ---------------------------------------------------------------
+     * Eviction policy, all methods must be called while holding the lock
+     */
+
+    private void onHit(Node node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                window.add(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedSegment.add(node);
+                protectedBytes += node.weight;
+                while (protectedBytes > protectedMaximum) {
+                    final Node demoted = first(protectedSegment);
+                    protectedSegment.remove(demoted);
+                    protectedBytes -= demoted.weight;
+                    demoted.queue = PROBATION;
+                    probation.add(demoted);
+                }
+                break;
+            case PROTECTED:
+                protectedSegment.remove(node);
+                protectedSegment.add(node);
+                break;
+            default:
+                //Node has been removed concurrently
+        }
+    }
+
+    private void evict() {
+        while (windowBytes > windowMaximum) {
+            final Node candidate = first(window);
+            window.remove(candidate);
+            windowBytes -= candidate.weight;
+            candidate.queue = PROBATION;
+            probation.add(candidate);
+            //The candidate is only admitted if it is more frequent than the results it displaces
+            while (totalBytes > maximumByteSize) {
+                Node victim = first(probation);
+                if (victim == candidate) victim = first(protectedSegment);
+                if (victim == null || sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+                    evict(candidate);
+                    break;
+                }
+                evict(victim);
+            }
+        }
+        while (totalBytes > maximumByteSize) {
+            Node victim = first(probation);
+            if (victim == null) victim = first(protectedSegment);
+            if (victim == null) victim = first(window);
+            evict(victim);
+        }
+    }
+
+    private void evict(Node node) {
+        results.remove(node.query, node);
+        remove(node);
+    }
+
+    private void remove(Node node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                windowBytes -= node.weight;
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedSegment.remove(node);
+                protectedBytes -= node.weight;
+                break;
+            default:
+                return;
+        }
+        node.queue = NONE;
+        totalBytes -= node.weight;
+        offHeapBytes -= node.size;
+    }
+
+    /**
+     * Hashes the given query for the frequency sketch, which requires a better distribution than {@link KeySliceQuery#hashCode()}
+     */
+    private static int hash(KeySliceQuery query) {
+        final Hasher hasher = HASH_FUNCTION.newHasher();
+        query.getKey().as((array, offset, limit) -> hasher.putBytes(array, offset, limit - offset));
+        query.getSliceStart().as((array, offset, limit) -> hasher.putBytes(array, offset, limit - offset));
+        query.getSliceEnd().as((array, offset, limit) -> hasher.putBytes(array, offset, limit - offset));
+        return hasher.putInt(query.getLimit()).hash().asInt();
+    }
+
+    private static void clear(LinkedHashSet<Node> queue) {
+        for (Node node : queue) node.queue = NONE;
+        queue.clear();
+    }
+
+    private static Node first(LinkedHashSet<Node> queue) {
+        final Iterator<Node> iterator = queue.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * A cached result which is stored in a direct buffer as the number of entries, followed by the end offsets and the
+     * value positions of the entries and their concatenated bytes. The buffer is only written before the node is
+     * published and is read concurrently through absolute accesses and duplicates afterwards.
+     */
+    private static final class Node {
+
+        private final KeySliceQuery query;
+        private final int hash;
+        private final int size;
+        private final long weight;
+        private final ByteBuffer buffer;
+        private final long writeTime;
+        private int queue = NONE;
+
+        private Node(KeySliceQuery query, int size) {
+            this.query = query;
+            this.hash = hash(query);
+            this.size = size;
+            this.weight = (long) size + NODE_HEAP_SIZE;
+            this.buffer = ByteBuffer.allocateDirect(size);
+            this.writeTime = System.currentTimeMillis();
+        }
+
+        private void write(EntryList result) {
+            final int numEntries = result.size();
+            buffer.putInt(0, numEntries);
+            final ByteBuffer data = buffer.duplicate();
+            data.position(4 + 8 * numEntries);
+            int limit = 0;
+            for (int i = 0; i < numEntries; i++) {
+                final Entry entry = result.get(i);
+                entry.as((array, offset, end) -> data.put(array, offset, end - offset));
+                limit += entry.length();
+                buffer.putInt(4 + 4 * i, limit);
+                buffer.putInt(4 + 4 * (numEntries + i), entry.getValuePosition());
+            }
+        }
+
+        private EntryList read() {
+            final int numEntries = buffer.getInt(0);
+            if (numEntries == 0) return EntryList.EMPTY_LIST;
+            return new BufferEntryList(buffer, numEntries);
+        }
+    }
+
+    /**
+     * A view of a result in a direct buffer, which copies each entry onto the heap when it is first read
+     */
+    private static final class BufferEntryList extends AbstractList<Entry> implements EntryList {
+
+        private final ByteBuffer buffer;
+        private final int numEntries;
+        private final Entry[] entries;
+
+        private BufferEntryList(ByteBuffer buffer, int numEntries) {
+            this.buffer = buffer;
+            this.numEntries = numEntries;
+            this.entries = new Entry[numEntries];
+        }
+
+        @Override
+        public Entry get(int index) {
+            if (index < 0 || index >= numEntries) throw new ArrayIndexOutOfBoundsException(index);
+            Entry entry = entries[index];
+            if (entry == null) {
+                final int dataOffset = 4 + 8 * numEntries;
+                final int start = index == 0 ? 0 : buffer.getInt(4 + 4 * (index - 1));
+                final byte[] bytes = new byte[buffer.getInt(4 + 4 * index) - start];
+                final ByteBuffer data = buffer.duplicate();
+                data.position(dataOffset + start);
+                data.get(bytes);
+                entry = new StaticArrayEntry(bytes, buffer.getInt(4 + 4 * (numEntries + index)));
+                //Concurrent readers may copy the same entry, which is harmless
+                entries[index] = entry;
+            }
+            return entry;
+        }
+
+        @Override
+        public int size() {
+            return numEntries;
+        }
+
+        @Override
+        public Iterator<Entry> reuseIterator() {
+            return iterator();
+        }
+
+        @Override
+        public int getByteSize() {
+            int size = 16 + 3 * 8 + BYTEBUFFER_RAW_SIZE + numEntries * OBJECT_REFERENCE + 16;
+            for (Entry entry : entries) {
+                if (entry != null) size += 40 + entry.length();
+            }
+            return size;
+        }
+    }
+
+}
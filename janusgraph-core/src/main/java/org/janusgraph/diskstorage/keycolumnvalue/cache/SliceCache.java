@@ -0,0 +1,58 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.cache;
+
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded storage of the results of {@link KeySliceQuery}s which backs an {@link ExpirationKCVSCache}.
+ * Implementations evict results once they exceed their maximum size or are older than the expiration time of the
+ * cache. Invalidation of keys which have been mutated is handled by {@link ExpirationKCVSCache}.
+ */
+public interface SliceCache {
+
+    /**
+     * Returns the cached result of the given query or null if it is not cached
+     */
+    EntryList getIfPresent(KeySliceQuery query);
+
+    /**
+     * Returns the cached result of the given query or loads it with the given loader and caches it. Concurrent calls for
+     * a missing result wait for a single load, as for Guava's {@link com.google.common.cache.Cache#get(Object, Callable)}.
+     */
+    EntryList get(KeySliceQuery query, Callable<EntryList> loader) throws Exception;
+
+    void put(KeySliceQuery query, EntryList result);
+
+    /**
+     * Removes the results of all queries for keys that match the given predicate
+     */
+    void invalidate(Predicate<StaticBuffer> keys);
+
+    void invalidateAll();
+
+    /**
+     * Releases all resources held by this cache
+     */
+    default void close() {
+        invalidateAll();
+    }
+
+}
@@ -84,6 +84,33 @@ public class OrderedKeyValueStoreAdapter extends BaseKeyColumnValueAdapter {
         return convertedResults;
     }
 
+    /**
+     * Retrieves all slices of all keys with a single {@link OrderedKeyValueStore#getSlices(List, StoreTransaction)} call
+     */
+    @Override
+    public Map<SliceQuery,Map<StaticBuffer,EntryList>> getMultiSlices(List<StaticBuffer> keys, List<SliceQuery> queries, StoreTransaction txh) throws BackendException {
+        //Equal key-value queries would share their result iterator, hence keys and queries are deduplicated
+        final List<StaticBuffer> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        final List<SliceQuery> distinctQueries = new ArrayList<>(new LinkedHashSet<>(queries));
+        final List<KVQuery> kvQueries = new ArrayList<>(distinctKeys.size()*distinctQueries.size());
+        for (SliceQuery query : distinctQueries) {
+            for (StaticBuffer key : distinctKeys) {
+                kvQueries.add(convertQuery(new KeySliceQuery(key, query)));
+            }
+        }
+        final Map<KVQuery,RecordIterator<KeyValueEntry>> results = store.getSlices(kvQueries,txh);
+        final Map<SliceQuery,Map<StaticBuffer,EntryList>> convertedResults = new HashMap<>(distinctQueries.size());
+        int pos = 0;
+        for (SliceQuery query : distinctQueries) {
+            final Map<StaticBuffer,EntryList> queryResults = new HashMap<>(distinctKeys.size());
+            for (StaticBuffer key : distinctKeys) {
+                queryResults.put(key,convert(results.get(kvQueries.get(pos++))));
+            }
+            convertedResults.put(query,queryResults);
+        }
+        return convertedResults;
+    }
+
     @Override
     public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) throws BackendException {
         if (!deletions.isEmpty()) {
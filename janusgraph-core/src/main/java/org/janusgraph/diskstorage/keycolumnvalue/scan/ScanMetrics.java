@@ -35,6 +35,17 @@ public interface ScanMetrics {
      */
     enum Metric { FAILURE, SUCCESS }
 
+    /**
+     * Returns the name of the custom counter which tracks the number of rows read from the key range
+     * with the given index when a scan is split into multiple key ranges.
+     *
+     * @param partition the index of the key range
+     * @return the name of the custom counter for that key range
+     */
+    static String getPartitionMetric(int partition) {
+        return "partition-" + partition + "-rows";
+    }
+
     /**
      * Get the value of a custom counter.  Only the effects of prior calls to
      * {@link #incrementCustom(String)} and {@link #incrementCustom(String, long)}
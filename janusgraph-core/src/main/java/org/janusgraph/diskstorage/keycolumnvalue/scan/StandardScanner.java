@@ -86,6 +86,7 @@ public class StandardScanner  {
 
         private ScanJob job;
         private int numProcessingThreads;
+        private int numScanPartitions;
         private int workBlockSize;
         private TimestampProvider times;
         private Configuration graphConfiguration;
@@ -96,6 +97,7 @@ public class StandardScanner  {
 
         private Builder() {
             numProcessingThreads = 1;
+            numScanPartitions = 1;
             workBlockSize = DEFAULT_WORKBLOCK_SIZE;
             job = null;
             times = null;
@@ -113,6 +115,20 @@ public class StandardScanner  {
             return this;
         }
 
+        /**
+         * Sets the number of key ranges into which the key space is split. Each key range is read concurrently.
+         * This only applies to stores that support ordered scans, all other stores are read through a single iterator.
+         *
+         * @param numPartitions the number of key ranges
+         * @return this builder
+         */
+        public Builder setNumScanPartitions(int numPartitions) {
+            Preconditions.checkArgument(numPartitions>0,
+                    "Need to specify a positive number of scan partitions: %s",numPartitions);
+            this.numScanPartitions = numPartitions;
+            return this;
+        }
+
         public Builder setWorkBlockSize(int size) {
             Preconditions.checkArgument(size>0, "Need to specify a positive work block size: %s",size);
             this.workBlockSize = size;
@@ -207,7 +223,7 @@ public class StandardScanner  {
             openStores.add(kcvs);
             try {
                 StandardScannerExecutor executor = new StandardScannerExecutor(job, finishJob, kcvs, storeTx,
-                        manager.getFeatures(), numProcessingThreads, workBlockSize, jobConfiguration, graphConfiguration);
+                        manager.getFeatures(), numProcessingThreads, numScanPartitions, workBlockSize, jobConfiguration, graphConfiguration);
                 addJob(jobId,executor);
                 new Thread(executor).start();
                 return executor;
@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -52,21 +53,25 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
     private final StoreTransaction storeTx;
     private final KeyColumnValueStore store;
     private final int numProcessors;
+    private final int numPartitions;
     private final int workBlockSize;
     private final Configuration jobConfiguration;
     private final Configuration graphConfiguration;
     private final ScanMetrics metrics;
 
     private boolean hasCompleted = false;
-    private boolean interrupted = false;
+    private volatile boolean interrupted = false;
 
-    private List<BlockingQueue<SliceResult>> dataQueues;
-    private DataPuller[] pullThreads;
+    private PartitionPuller[] partitionThreads;
+    /**
+     * The first failure of a partition puller, which stops the remaining ones
+     */
+    private final AtomicReference<Throwable> pullFailure = new AtomicReference<>();
 
     StandardScannerExecutor(final ScanJob job, final Consumer<ScanMetrics> finishJob,
                             final KeyColumnValueStore store, final StoreTransaction storeTx,
                             final StoreFeatures storeFeatures,
-                            final int numProcessors, final int workBlockSize,
+                            final int numProcessors, final int numPartitions, final int workBlockSize,
                             final Configuration jobConfiguration,
                             final Configuration graphConfiguration) throws BackendException {
         this.job = job;
@@ -75,6 +80,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         this.storeTx = storeTx;
         this.storeFeatures = storeFeatures;
         this.numProcessors = numProcessors;
+        this.numPartitions = numPartitions;
         this.workBlockSize = workBlockSize;
         this.jobConfiguration = jobConfiguration;
         this.graphConfiguration = graphConfiguration;
@@ -83,25 +89,51 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
 
     }
 
-    private DataPuller addDataPuller(SliceQuery sq, StoreTransaction stx) throws BackendException {
+    private DataPuller addDataPuller(SliceQuery sq, KeyRange range, List<BlockingQueue<SliceResult>> dataQueues,
+                                     StoreTransaction stx) throws BackendException {
         final BlockingQueue<SliceResult> queue = new LinkedBlockingQueue<>(QUEUE_SIZE);
         dataQueues.add(queue);
 
-        DataPuller dp = new DataPuller(sq, queue,
-                KCVSUtil.getKeys(store,sq,storeFeatures,MAX_KEY_LENGTH,stx),job.getKeyFilter());
+        final KeyIterator keyIterator = range == null
+                ? KCVSUtil.getKeys(store,sq,storeFeatures,MAX_KEY_LENGTH,stx)
+                : store.getPartitionKeys(range, sq, stx);
+        DataPuller dp = new DataPuller(sq, queue, keyIterator, job.getKeyFilter());
         dp.start();
         return dp;
     }
 
+    /**
+     * Splits the key space into at most {@link #numPartitions} partitions. The partitions are taken from the store,
+     * which derives them from how the storage backend distributes the keys, e.g. its regions or token ranges. Stores
+     * which do not provide partitions but support ordered scans are split into contiguous ranges of equal width over
+     * the 8 byte key prefix. Returns a single null range if the key space is not partitioned, in which case the whole
+     * store is scanned through {@link KCVSUtil#getKeys(KeyColumnValueStore, SliceQuery, StoreFeatures, int, StoreTransaction)}.
+     */
+    private List<KeyRange> getKeyRanges() throws BackendException {
+        if (numPartitions <= 1) return Collections.singletonList(null);
+        final List<KeyRange> partitions = store.getScanPartitions(numPartitions, storeTx);
+        if (!partitions.isEmpty()) return partitions;
+        if (!storeFeatures.hasOrderedScan()) return Collections.singletonList(null);
+        final List<KeyRange> ranges = new ArrayList<>(numPartitions);
+        final long width = Long.divideUnsigned(-1L, numPartitions);
+        StaticBuffer start = BufferUtil.zeroBuffer(1);
+        for (int i = 1; i < numPartitions; i++) {
+            final StaticBuffer end = BufferUtil.getLongBuffer(width * i);
+            ranges.add(new KeyRange(start, end));
+            start = end;
+        }
+        ranges.add(new KeyRange(start, BufferUtil.oneBuffer(MAX_KEY_LENGTH)));
+        return ranges;
+    }
+
     @Override
     public void run() {
         final List<SliceQuery> queries;
-        final int numQueries;
         try {
             job.workerIterationStart(jobConfiguration, graphConfiguration, metrics);
 
             queries = job.getQueries();
-            numQueries = queries.size();
+            final int numQueries = queries.size();
             Preconditions.checkArgument(numQueries > 0,"Must at least specify one query for job: %s",job);
             if (numQueries > 1) {
                 //It is assumed that the first query is the grounding query if multiple queries exist
@@ -113,12 +145,6 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
                 Preconditions.checkArgument(end.equals(BufferUtil.oneBuffer(end.length())),
                         "Expected end of first query to be all 1s: %s",end);
             }
-            dataQueues = new ArrayList<>(numQueries);
-            pullThreads = new DataPuller[numQueries];
-
-            for (int pos = 0; pos< numQueries; pos++) {
-                pullThreads[pos]=addDataPuller(queries.get(pos),storeTx);
-            }
         }  catch (Throwable e) {
             log.error("Exception trying to setup the job:", e);
             cleanupSilent();
@@ -136,45 +162,28 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         }
 
         try {
-            SliceResult[] currentResults = new SliceResult[numQueries];
-            while (!interrupted) {
-                for (int i = 0; i < numQueries; i++) {
-                    if (currentResults[i]!=null) continue;
-                    BlockingQueue<SliceResult> queue = dataQueues.get(i);
-
-                    SliceResult qr = queue.poll(10,TimeUnit.MILLISECONDS); //Try very short time to see if we are done
-                    if (qr==null) {
-                        if (pullThreads[i].isFinished()) continue; //No more data to be expected
-                        qr = queue.poll(TIMEOUT_MS,TimeUnit.MILLISECONDS); //otherwise, give it more time
-                        if (qr==null && !pullThreads[i].isFinished())
-                            throw new TemporaryBackendException("Timed out waiting for next row data - storage error likely");
-                    }
-                    currentResults[i]=qr;
-                }
-                SliceResult conditionQuery = currentResults[0];
-                if (conditionQuery==null) break; //Termination condition - primary query has no more data
-                final StaticBuffer key = conditionQuery.key;
-
-                Map<SliceQuery,EntryList> queryResults = new HashMap<>(numQueries);
-                for (int i=0;i<currentResults.length;i++) {
-                    SliceQuery query = queries.get(i);
-                    EntryList entries = EntryList.EMPTY_LIST;
-                    if (currentResults[i]!=null && currentResults[i].key.equals(key)) {
-                        assert query.equals(currentResults[i].query);
-                        entries = currentResults[i].entries;
-                        currentResults[i]=null;
-                    }
-                    queryResults.put(query,entries);
-                }
-                processorQueue.put(new Row(key, queryResults));
+            final List<KeyRange> ranges = getKeyRanges();
+            partitionThreads = new PartitionPuller[ranges.size()];
+            for (int i = 0; i < partitionThreads.length; i++) {
+                partitionThreads[i] = new PartitionPuller(i, ranges.get(i), queries, processorQueue);
+                partitionThreads[i].setup();
+            }
+            for (PartitionPuller partitionThread : partitionThreads) {
+                partitionThread.start();
             }
 
-            for (int i = 0; i < pullThreads.length; i++) {
-                pullThreads[i].join(10);
-                if (pullThreads[i].isAlive()) {
-                    log.warn("Data pulling thread [{}] did not terminate. Forcing termination",i);
-                    pullThreads[i].interrupt();
+            for (PartitionPuller partitionThread : partitionThreads) {
+                while (partitionThread.isAlive() && pullFailure.get() == null) {
+                    partitionThread.join(100);
+                }
+            }
+            final Throwable failure = pullFailure.get();
+            if (failure != null) {
+                //Stop the pullers of the other partitions instead of waiting for them to scan their ranges
+                for (PartitionPuller partitionThread : partitionThreads) {
+                    partitionThread.terminate();
                 }
+                throw failure;
             }
 
             for (Processor processor : processors) {
@@ -214,11 +223,9 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
     private void cleanup() throws BackendException {
         if (!hasCompleted) {
             hasCompleted = true;
-            if (pullThreads!=null) {
-                for (DataPuller pullThread : pullThreads) {
-                    if (pullThread.isAlive()) {
-                        pullThread.interrupt();
-                    }
+            if (partitionThreads!=null) {
+                for (PartitionPuller partitionThread : partitionThreads) {
+                    if (partitionThread != null) partitionThread.terminate();
                 }
             }
             storeTx.rollback();
@@ -307,6 +314,110 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
     }
 
 
+    /**
+     * Pulls the rows of all queries for one key range and merges them by key into the shared processor queue.
+     * The bounded data and processor queues provide back-pressure against the storage backend.
+     */
+    private class PartitionPuller extends Thread {
+
+        private final int partition;
+        private final KeyRange range;
+        private final List<SliceQuery> queries;
+        private final BlockingQueue<Row> processorQueue;
+        private final List<BlockingQueue<SliceResult>> dataQueues;
+        private final DataPuller[] pullThreads;
+
+        private PartitionPuller(int partition, KeyRange range, List<SliceQuery> queries, BlockingQueue<Row> processorQueue) {
+            super("PartitionPuller-" + partition);
+            this.partition = partition;
+            this.range = range;
+            this.queries = queries;
+            this.processorQueue = processorQueue;
+            this.dataQueues = new ArrayList<>(queries.size());
+            this.pullThreads = new DataPuller[queries.size()];
+        }
+
+        private void setup() throws BackendException {
+            for (int pos = 0; pos < queries.size(); pos++) {
+                pullThreads[pos] = addDataPuller(queries.get(pos), range, dataQueues, storeTx);
+            }
+        }
+
+        @Override
+        public void run() {
+            final int numQueries = queries.size();
+            final String partitionMetric = ScanMetrics.getPartitionMetric(partition);
+            try {
+                SliceResult[] currentResults = new SliceResult[numQueries];
+                while (!interrupted && pullFailure.get() == null) {
+                    for (int i = 0; i < numQueries; i++) {
+                        if (currentResults[i]!=null) continue;
+                        currentResults[i]=poll(i);
+                    }
+                    SliceResult conditionQuery = currentResults[0];
+                    if (conditionQuery==null) break; //Termination condition - primary query has no more data
+                    final StaticBuffer key = conditionQuery.key;
+
+                    Map<SliceQuery,EntryList> queryResults = new HashMap<>(numQueries);
+                    for (int i=0;i<currentResults.length;i++) {
+                        SliceQuery query = queries.get(i);
+                        EntryList entries = EntryList.EMPTY_LIST;
+                        if (currentResults[i]!=null && currentResults[i].key.equals(key)) {
+                            assert query.equals(currentResults[i].query);
+                            entries = currentResults[i].entries;
+                            currentResults[i]=null;
+                        }
+                        queryResults.put(query,entries);
+                    }
+                    processorQueue.put(new Row(key, queryResults));
+                    metrics.incrementCustom(partitionMetric);
+                }
+
+                for (int i = 0; i < pullThreads.length; i++) {
+                    pullThreads[i].join(10);
+                    if (pullThreads[i].isAlive()) {
+                        log.warn("Data pulling thread [{}] of partition [{}] did not terminate. Forcing termination",i,partition);
+                        pullThreads[i].interrupt();
+                    }
+                }
+            } catch (Throwable e) {
+                //Only the first failure is kept, later ones are usually caused by terminating the other pullers
+                pullFailure.compareAndSet(null, e);
+                terminate();
+            }
+        }
+
+        /**
+         * Returns the next result of the given query, or null if its data puller has finished.
+         * Fails as soon as the data puller fails rather than waiting for the timeout.
+         */
+        private SliceResult poll(int pos) throws InterruptedException, BackendException {
+            final BlockingQueue<SliceResult> queue = dataQueues.get(pos);
+            final DataPuller pullThread = pullThreads[pos];
+            final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+            while (true) {
+                SliceResult qr = queue.poll(10,TimeUnit.MILLISECONDS);
+                if (qr!=null) return qr;
+                if (pullThread.getFailure()!=null)
+                    throw new TemporaryBackendException("Could not load data from storage", pullThread.getFailure());
+                if (pullThread.isFinished()) return queue.poll(); //The last row may have been added after polling
+                if (System.currentTimeMillis() > deadline)
+                    throw new TemporaryBackendException("Timed out waiting for next row data - storage error likely");
+            }
+        }
+
+        private void terminate() {
+            for (DataPuller pullThread : pullThreads) {
+                if (pullThread != null && pullThread.isAlive()) {
+                    pullThread.interrupt();
+                }
+            }
+            if (isAlive() && Thread.currentThread() != this) {
+                interrupt();
+            }
+        }
+    }
+
     private static class DataPuller extends Thread {
 
         private final BlockingQueue<SliceResult> queue;
@@ -314,6 +425,7 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         private final SliceQuery query;
         private final Predicate<StaticBuffer> keyFilter;
         private volatile boolean finished;
+        private volatile Throwable failure;
 
         private DataPuller(SliceQuery query, BlockingQueue<SliceResult> queue,
                            KeyIterator keyIterator, Predicate<StaticBuffer> keyFilter) {
@@ -338,7 +450,8 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
             } catch (InterruptedException e) {
                 log.error("Data-pulling thread interrupted while waiting on queue or data", e);
             } catch (Throwable e) {
-                log.error("Could not load data from storage: {}",e);
+                log.error("Could not load data from storage", e);
+                failure = e;
             } finally {
                 try {
                     keyIterator.close();
@@ -351,6 +464,10 @@ class StandardScannerExecutor extends AbstractFuture<ScanMetrics> implements Jan
         public boolean isFinished() {
             return finished;
         }
+
+        public Throwable getFailure() {
+            return failure;
+        }
     }
 
     private static class SliceResult {
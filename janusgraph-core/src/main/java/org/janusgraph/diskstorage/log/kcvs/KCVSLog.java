@@ -100,6 +100,28 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
             "Whether to require consistency for log reading and writing messages to the storage backend",
             ConfigOption.Type.MASKABLE, false);
 
+    public static final ConfigOption<Boolean> LOG_GROUP_COMMIT = new ConfigOption<>(LOG_NS, "group-commit",
+            "Whether messages added concurrently to a log without send delay are written to the storage backend in shared " +
+            "batches. Adding a message still blocks until it has been persisted, but messages which arrive while a batch is " +
+            "being written are merged into the next batch instead of each being written individually.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Duration> LOG_GROUP_COMMIT_WAIT = new ConfigOption<>(LOG_NS, "group-commit-wait",
+            "Maximum time in ms that a message may wait for other messages to join its batch when group commit is enabled. " +
+            "Larger values produce bigger batches at the expense of the latency of adding a message.",
+            ConfigOption.Type.MASKABLE, Duration.ZERO);
+
+    public static final ConfigOption<String> LOG_COMPRESSION = new ConfigOption<>(LOG_NS, "compression",
+            "The algorithm used to compress the content of log messages, one of 'none', 'lz4' or 'deflate'. Every " +
+            "message records whether and how its content was compressed, so that messages can be read regardless of " +
+            "the algorithm configured for reading and the algorithm can be changed while messages are unread.",
+            ConfigOption.Type.MASKABLE, "none", CompressionAlgorithm::isValidName);
+
+    public static final ConfigOption<Integer> LOG_COMPRESSION_THRESHOLD = new ConfigOption<>(LOG_NS, "compression-threshold",
+            "Minimum size in bytes of the content of a log message for it to be compressed. Smaller messages are " +
+            "written uncompressed since compressing them would not save space.",
+            ConfigOption.Type.MASKABLE, 1024, ConfigOption.nonnegativeInt());
+
     //########## INTERNAL CONSTANTS #############
 
     /**
@@ -155,6 +177,13 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
      */
     private final static StaticBuffer MESSAGE_COUNTER_COLUMN = new WriteByteBuffer(1).putByte(MESSAGE_COUNTER).getStaticBuffer();
 
+    /**
+     * Bit of the message number in the column of a message which marks that its content starts with the header of a
+     * {@link ThresholdCompression}. Message numbers count up from 0 per sender and never reach this bit, hence messages
+     * written without compression, including those written before compression was available, are read as is.
+     */
+    private final static long COMPRESSED_CONTENT_FLAG = 1L << 62;
+
     private static final Random random = new Random();
 
     private static final Duration TWO_MICROSECONDS =
@@ -183,10 +212,23 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
      */
     private final int numBuckets;
     private final boolean keyConsistentOperations;
+    /**
+     * Compression applied to the content of written messages. Read messages are decompressed according to their marker.
+     */
+    private final BackendCompression compression;
 
     private final int sendBatchSize;
     private final Duration maxSendDelay;
     private final Duration maxWriteTime;
+    /**
+     * Whether messages are sent synchronously in shared batches, see {@link #LOG_GROUP_COMMIT}
+     */
+    private final boolean groupCommit;
+    /**
+     * Maximum time the oldest locally queued message waits before its batch is sent. This is the send delay, unless
+     * group commit is enabled in which case it is the group commit wait.
+     */
+    private final Duration maxBatchDelay;
     /**
      * Used for batch addition of messages to the log. Newly added entries are buffered in this queue before being written in batch
      */
@@ -243,18 +285,23 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
         this.keyConsistentOperations = config.get(LOG_KEY_CONSISTENT);
         this.numBuckets = config.get(LOG_NUM_BUCKETS);
         Preconditions.checkArgument(numBuckets>=1 && numBuckets<=Integer.MAX_VALUE);
+        compression = CompressionAlgorithm.getFromName(config.get(LOG_COMPRESSION))
+                .getCompression(config.get(LOG_COMPRESSION_THRESHOLD));
 
         sendBatchSize = config.get(LOG_SEND_BATCH_SIZE);
         maxSendDelay = config.get(LOG_SEND_DELAY);
         maxWriteTime = config.get(LOG_MAX_WRITE_TIME);
+        groupCommit = config.get(LOG_GROUP_COMMIT) && MIN_DELIVERY_DELAY.compareTo(maxSendDelay) > 0;
+        maxBatchDelay = groupCommit ? config.get(LOG_GROUP_COMMIT_WAIT) : maxSendDelay;
+        Preconditions.checkArgument(!maxBatchDelay.isNegative(), "Invalid group commit wait: %s", maxBatchDelay);
 
         numReadThreads = config.get(LOG_READ_THREADS);
         maxReadMsg = config.get(LOG_READ_BATCH_SIZE);
         readPollingInterval = config.get(LOG_READ_INTERVAL);
-        readLagTime = config.get(LOG_READ_LAG_TIME).plus(maxSendDelay);
+        readLagTime = config.get(LOG_READ_LAG_TIME).plus(maxBatchDelay);
         maxReadTime = config.get(LOG_MAX_READ_TIME);
 
-        if (MIN_DELIVERY_DELAY.compareTo(maxSendDelay) <= 0) { // No need to locally queue messages since they will be sent immediately
+        if (groupCommit || MIN_DELIVERY_DELAY.compareTo(maxSendDelay) <= 0) { // No need to locally queue messages since they will be sent immediately
             outgoingMsg = new ArrayBlockingQueue<>(sendBatchSize * BATCH_SIZE_MULTIPLIER);
             sendThread = new SendThread();
             sendThread.start();
@@ -343,13 +390,15 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
     }
 
     private Entry writeMessage(KCVSMessage msg) {
-        StaticBuffer content = msg.getContent();
+        final boolean compressed = compression != BackendCompression.NO_COMPRESSION;
+        StaticBuffer content = compressed ? compression.compress(msg.getContent()) : msg.getContent();
         DataOutput out = manager.serializer.getDataOutput(8 + 8 + manager.senderId.length() + 2 + content.length());
         Instant rawTimestamp = msg.getTimestamp();
         Preconditions.checkArgument(rawTimestamp.isAfter(Instant.EPOCH));
         out.putLong(times.getTime(rawTimestamp));
         out.writeObjectNotNull(manager.senderId);
-        out.putLong(numMsgCounter.incrementAndGet());
+        final long messageNumber = numMsgCounter.incrementAndGet();
+        out.putLong(compressed ? messageNumber | COMPRESSED_CONTENT_FLAG : messageNumber);
         final int valuePos = out.getPosition();
         out.putBytes(content);
         return new StaticArrayEntry(out.getStaticBuffer(),valuePos);
@@ -359,7 +408,9 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
         ReadBuffer r = msg.asReadBuffer();
         Instant timestamp = times.getTime(r.getLong());
         String senderId = manager.serializer.readObjectNotNull(r,String.class);
-        return new KCVSMessage(msg.getValue(),timestamp,senderId);
+        final boolean compressed = (r.getLong() & COMPRESSED_CONTENT_FLAG) != 0;
+        StaticBuffer content = compressed ? ThresholdCompression.decompressValue(msg.getValue()) : msg.getValue();
+        return new KCVSMessage(content,timestamp,senderId);
     }
 
     /**
@@ -436,10 +487,26 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
             } catch (InterruptedException e) {
                 throw new JanusGraphException("Got interrupted waiting to send message",e);
             }
+            if (groupCommit) awaitDelivery(futureMessage);
         }
         return futureMessage;
     }
 
+    /**
+     * Blocks until the batch containing the given message has been persisted by the {@link SendThread}, so that
+     * adding a message under group commit provides the same guarantees as sending it directly.
+     */
+    private static void awaitDelivery(FutureMessage<KCVSMessage> futureMessage) {
+        try {
+            futureMessage.get();
+        } catch (InterruptedException e) {
+            throw new JanusGraphException("Got interrupted waiting for message to be sent",e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof JanusGraphException) throw (JanusGraphException)e.getCause();
+            throw new JanusGraphException("Could not send message",e.getCause());
+        }
+    }
+
     /**
      * Helper class to hold the message and its serialization for writing
      */
@@ -508,6 +575,8 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
      * This background thread only gets started when messages are locally queued for up to a maximum number of microseconds
      * or until the maximum number of local messages is reached.
      * This thread waits for either event and then triggers {@link #sendMessages(java.util.List)} call to persist the messages.
+     * With group commit, the thread also gets started for logs without send delay. Messages which are enqueued while a
+     * batch is being written are then merged into the next batch.
      */
     private class SendThread extends BackgroundThread {
 
@@ -536,7 +605,7 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
 
         private Duration maxWaitTime() {
             if (!toSend.isEmpty()) {
-                return maxSendDelay.minus(timeSinceFirstMsg());
+                return maxBatchDelay.minus(timeSinceFirstMsg());
             }
 
             return FOREVER;
@@ -557,7 +626,7 @@ public class KCVSLog implements Log, BackendOperation.TransactionalProvider {
                 toSend.add(msg);
             }
             //Evaluate send condition: 1) Is the oldest message waiting longer than the delay? or 2) Do we have enough messages to send?
-            if (!toSend.isEmpty() && (maxSendDelay.compareTo(timeSinceFirstMsg()) <= 0 || toSend.size() >= sendBatchSize)) {
+            if (!toSend.isEmpty() && (maxBatchDelay.compareTo(timeSinceFirstMsg()) <= 0 || toSend.size() >= sendBatchSize)) {
                 try {
                     sendMessages(toSend);
                 } finally {
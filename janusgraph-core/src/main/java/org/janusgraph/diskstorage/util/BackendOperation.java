@@ -15,6 +15,7 @@
 package org.janusgraph.diskstorage.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.janusgraph.core.JanusGraphException;
 
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
@@ -29,6 +30,14 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
@@ -67,12 +76,7 @@ public class BackendOperation {
             try {
                 return exe.call();
             } catch (final Throwable e) {
-                //Find inner-most StorageException
-                Throwable ex = e;
-                BackendException storeEx = null;
-                do {
-                    if (ex instanceof BackendException) storeEx = (BackendException)ex;
-                } while ((ex=ex.getCause())!=null);
+                final BackendException storeEx = getInnermostBackendException(e);
                 if (storeEx!=null && storeEx instanceof TemporaryBackendException) {
                     lastException = storeEx;
                 } else if (e instanceof BackendException) {
@@ -100,6 +104,106 @@ public class BackendOperation {
         throw new TemporaryBackendException("Could not successfully complete backend operation due to repeated temporary exceptions after "+totalWaitTime,lastException);
     }
 
+    /**
+     * Asynchronous variant of {@link #execute(Callable, Duration)}. The returned future completes exceptionally with a
+     * {@link JanusGraphException} if the operation fails.
+     */
+    public static <V> CompletableFuture<V> executeAsync(Supplier<CompletableFuture<V>> exe, Duration totalWaitTime,
+                                                        Executor retryExecutor) {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        executeDirectAsync(exe, totalWaitTime, retryExecutor).whenComplete((value, failure) -> {
+            if (failure == null) result.complete(value);
+            else result.completeExceptionally(new JanusGraphException("Could not execute operation due to backend exception",unwrap(failure)));
+        });
+        return result;
+    }
+
+    /**
+     * Asynchronous variant of {@link #executeDirect(Callable, Duration)}. Operations whose future fails with a
+     * {@link TemporaryBackendException} are re-attempted with the same backoff, but without blocking a thread while
+     * waiting for the next attempt. The shared retry scheduler only times the backoff, the re-attempts themselves are
+     * issued on the given executor.
+     */
+    public static <V> CompletableFuture<V> executeDirectAsync(Supplier<CompletableFuture<V>> exe, Duration totalWaitTime,
+                                                              Executor retryExecutor) {
+        Preconditions.checkArgument(!totalWaitTime.isZero(),"Need to specify a positive waitTime: %s",totalWaitTime);
+        Preconditions.checkNotNull(retryExecutor);
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        attemptAsync(exe, result, System.currentTimeMillis()+totalWaitTime.toMillis(), pertubTime(BASE_REATTEMPT_TIME), totalWaitTime, retryExecutor);
+        return result;
+    }
+
+    private static <V> void attemptAsync(final Supplier<CompletableFuture<V>> exe, final CompletableFuture<V> result,
+                                         final long maxTime, final Duration waitTime, final Duration totalWaitTime,
+                                         final Executor retryExecutor) {
+        CompletableFuture<V> attempt;
+        try {
+            attempt = exe.get();
+        } catch (final Throwable e) {
+            attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(e);
+        }
+        attempt.whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+                return;
+            }
+            final Throwable e = unwrap(failure);
+            final BackendException storeEx = getInnermostBackendException(e);
+            if (storeEx!=null && storeEx instanceof TemporaryBackendException) {
+                if (System.currentTimeMillis()+waitTime.toMillis()<maxTime) {
+                    log.info("Temporary exception during backend operation ["+exe.toString()+"]. Attempting backoff retry.",storeEx);
+                    RetryScheduler.INSTANCE.schedule(() -> retry(exe, result, maxTime, pertubTime(waitTime.multipliedBy(2)), totalWaitTime, retryExecutor),
+                            waitTime.toMillis(), TimeUnit.MILLISECONDS);
+                } else {
+                    result.completeExceptionally(new TemporaryBackendException("Could not successfully complete backend operation due to repeated temporary exceptions after "+totalWaitTime,storeEx));
+                }
+            } else if (e instanceof BackendException) {
+                result.completeExceptionally(e);
+            } else {
+                result.completeExceptionally(new PermanentBackendException("Permanent exception while executing backend operation "+exe.toString(),e));
+            }
+        });
+    }
+
+    private static <V> void retry(final Supplier<CompletableFuture<V>> exe, final CompletableFuture<V> result,
+                                  final long maxTime, final Duration waitTime, final Duration totalWaitTime,
+                                  final Executor retryExecutor) {
+        try {
+            retryExecutor.execute(() -> attemptAsync(exe, result, maxTime, waitTime, totalWaitTime, retryExecutor));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new PermanentBackendException("Could not re-attempt backend operation "+exe.toString(),e));
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while (e instanceof CompletionException && e.getCause()!=null) e = e.getCause();
+        return e;
+    }
+
+    /**
+     * Finds the inner-most {@link BackendException} in the cause chain of the given exception
+     */
+    private static BackendException getInnermostBackendException(Throwable e) {
+        Throwable ex = e;
+        BackendException storeEx = null;
+        do {
+            if (ex instanceof BackendException) storeEx = (BackendException)ex;
+        } while ((ex=ex.getCause())!=null);
+        return storeEx;
+    }
+
+    /**
+     * Times the backoff between asynchronous re-attempts. Its single thread only hands the re-attempt over to the
+     * executor of the operation and never runs backend calls itself.
+     */
+    private static class RetryScheduler {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("BackendOperation-retry-%d").build());
+
+    }
+
 //    private static final double WAITTIME_PERTURBATION_PERCENTAGE = 0.5;
 //    private static final double WAITTIME_PERTURBATION_PERCENTAGE_HALF = WAITTIME_PERTURBATION_PERCENTAGE/2;
 //
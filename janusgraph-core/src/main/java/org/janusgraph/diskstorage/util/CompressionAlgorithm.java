@@ -0,0 +1,157 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import com.google.common.base.Preconditions;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression algorithms that can be used by a {@link ThresholdCompression}. Each algorithm is identified by the
+ * header byte written in front of the data it compressed, so these ids must NEVER be changed.
+ */
+public enum CompressionAlgorithm {
+
+    /**
+     * Leaves data uncompressed. {@link #getCompression(int)} returns {@link BackendCompression#NO_COMPRESSION} which
+     * does not write a header byte so that the data remains compatible with data written without compression.
+     */
+    NONE(0) {
+        @Override
+        byte[] compress(byte[] src, int offset, int length) {
+            return Arrays.copyOfRange(src, offset, offset + length);
+        }
+
+        @Override
+        void decompress(byte[] src, int offset, int length, byte[] dest) {
+            Preconditions.checkArgument(length == dest.length, "Invalid length of uncompressed data: %s", length);
+            System.arraycopy(src, offset, dest, 0, length);
+        }
+    },
+
+    /**
+     * Fast compression with a moderate compression ratio, suited for data on the write path
+     */
+    LZ4(1) {
+        @Override
+        byte[] compress(byte[] src, int offset, int length) {
+            final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+            final byte[] dest = new byte[compressor.maxCompressedLength(length)];
+            final int compressedLength = compressor.compress(src, offset, length, dest, 0, dest.length);
+            return Arrays.copyOf(dest, compressedLength);
+        }
+
+        @Override
+        void decompress(byte[] src, int offset, int length, byte[] dest) {
+            //The safe decompressor never reads beyond the compressed data, even if it is corrupt
+            final LZ4SafeDecompressor decompressor = LZ4Factory.fastestInstance().safeDecompressor();
+            final int decompressed;
+            try {
+                decompressed = decompressor.decompress(src, offset, length, dest, 0, dest.length);
+            } catch (LZ4Exception e) {
+                throw new IllegalArgumentException("Corrupt LZ4 data", e);
+            }
+            Preconditions.checkArgument(decompressed == dest.length,
+                    "Corrupt LZ4 data: decompressed %s of %s bytes", decompressed, dest.length);
+        }
+    },
+
+    /**
+     * Slower compression with a higher compression ratio, suited for large and redundant data such as JSON documents
+     */
+    DEFLATE(2) {
+        @Override
+        byte[] compress(byte[] src, int offset, int length) {
+            final Deflater deflater = new Deflater();
+            try {
+                deflater.setInput(src, offset, length);
+                deflater.finish();
+                byte[] dest = new byte[Math.max(64, length / 2)];
+                int compressedLength = 0;
+                while (!deflater.finished()) {
+                    if (compressedLength == dest.length) dest = Arrays.copyOf(dest, dest.length * 2);
+                    compressedLength += deflater.deflate(dest, compressedLength, dest.length - compressedLength);
+                }
+                return Arrays.copyOf(dest, compressedLength);
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        void decompress(byte[] src, int offset, int length, byte[] dest) {
+            final Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(src, offset, length);
+                final int inflated = inflater.inflate(dest);
+                Preconditions.checkArgument(inflated == dest.length && inflater.finished(),
+                        "Corrupt deflate data: inflated %s of %s bytes", inflated, dest.length);
+            } catch (DataFormatException e) {
+                throw new IllegalArgumentException("Corrupt deflate data", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    };
+
+    private final byte id;
+
+    CompressionAlgorithm(int id) {
+        this.id = (byte) id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * Returns a compression which applies this algorithm to data of at least the given number of bytes
+     */
+    public BackendCompression getCompression(int threshold) {
+        if (this == NONE) return BackendCompression.NO_COMPRESSION;
+        return new ThresholdCompression(this, threshold);
+    }
+
+    abstract byte[] compress(byte[] src, int offset, int length);
+
+    /**
+     * Decompresses the given data into the given array which must have the exact size of the uncompressed data
+     */
+    abstract void decompress(byte[] src, int offset, int length, byte[] dest);
+
+    public static CompressionAlgorithm getFromId(byte id) {
+        for (CompressionAlgorithm algorithm : values()) if (algorithm.id == id) return algorithm;
+        throw new IllegalArgumentException("Unknown compression algorithm for id: " + id);
+    }
+
+    public static CompressionAlgorithm getFromName(String name) {
+        Preconditions.checkArgument(isValidName(name), "Unknown compression algorithm: %s", name);
+        return valueOf(name.toUpperCase());
+    }
+
+    public static boolean isValidName(String name) {
+        if (name == null) return false;
+        for (CompressionAlgorithm algorithm : values()) if (algorithm.name().equalsIgnoreCase(name)) return true;
+        return false;
+    }
+
+}
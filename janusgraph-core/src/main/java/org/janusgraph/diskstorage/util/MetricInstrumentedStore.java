@@ -17,6 +17,8 @@ package org.janusgraph.diskstorage.util;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.Entry;
@@ -121,6 +123,44 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         });
     }
 
+    @Override
+    public Map<SliceQuery,Map<StaticBuffer,EntryList>> getMultiSlices(final List<StaticBuffer> keys,
+                                                                     final List<SliceQuery> queries,
+                                                                     final StoreTransaction txh) throws BackendException {
+        return runWithMetrics(txh, metricsStoreName, M_GET_SLICE, () -> {
+            final Map<SliceQuery,Map<StaticBuffer,EntryList>> results = backend.getMultiSlices(keys, queries, txh);
+
+            for (final Map<StaticBuffer,EntryList> queryResults : results.values()) {
+                for (final EntryList result : queryResults.values()) {
+                    recordSliceMetrics(txh, result);
+                }
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(final KeySliceQuery query, final StoreTransaction txh) {
+        return runWithMetricsAsync(txh, metricsStoreName, M_GET_SLICE, () -> backend.getSliceAsync(query, txh)
+            .thenApply(result -> {
+                recordSliceMetrics(txh, result);
+                return result;
+            }));
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(final List<StaticBuffer> keys,
+                                                                        final SliceQuery query,
+                                                                        final StoreTransaction txh) {
+        return runWithMetricsAsync(txh, metricsStoreName, M_GET_SLICE, () -> backend.getSliceAsync(keys, query, txh)
+            .thenApply(results -> {
+                for (final EntryList result : results.values()) {
+                    recordSliceMetrics(txh, result);
+                }
+                return results;
+            }));
+    }
+
     @Override
     public void mutate(final StaticBuffer key,
                        final List<Entry> additions,
@@ -167,6 +207,36 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         });
     }
 
+    @Override
+    public List<KeyRange> getScanPartitions(final int numPartitions, final StoreTransaction txh) throws BackendException {
+        return backend.getScanPartitions(numPartitions, txh);
+    }
+
+    @Override
+    public KeyIterator getPartitionKeys(final KeyRange partition, final SliceQuery query, final StoreTransaction txh) throws BackendException {
+        return runWithMetrics(txh, metricsStoreName, M_GET_KEYS, () -> instrumentKeyIterator(backend.getPartitionKeys(partition, query, txh), txh));
+    }
+
+    @Override
+    public CompletableFuture<KeyIterator> getKeysAsync(final KeyRangeQuery query, final StoreTransaction txh) {
+        return runWithMetricsAsync(txh, metricsStoreName, M_GET_KEYS, () -> backend.getKeysAsync(query, txh)
+            .thenApply(ki -> instrumentKeyIterator(ki, txh)));
+    }
+
+    @Override
+    public CompletableFuture<KeyIterator> getKeysAsync(final SliceQuery query, final StoreTransaction txh) {
+        return runWithMetricsAsync(txh, metricsStoreName, M_GET_KEYS, () -> backend.getKeysAsync(query, txh)
+            .thenApply(ki -> instrumentKeyIterator(ki, txh)));
+    }
+
+    private KeyIterator instrumentKeyIterator(KeyIterator ki, StoreTransaction txh) {
+        if (txh.getConfiguration().hasGroupName()) {
+            return MetricInstrumentedIterator.of(ki, txh.getConfiguration().getGroupName(), metricsStoreName, M_GET_KEYS, M_ITERATOR);
+        } else {
+            return ki;
+        }
+    }
+
     @Override
     public String getName() {
         return backend.getName();
@@ -210,6 +280,35 @@ public class MetricInstrumentedStore implements KeyColumnValueStore {
         }
     }
 
+    static <T> CompletableFuture<T> runWithMetricsAsync(StoreTransaction txh, String storeName, String name, Supplier<CompletableFuture<T>> impl) {
+
+        if (!txh.getConfiguration().hasGroupName()) {
+            return impl.get();
+        }
+        String prefix = txh.getConfiguration().getGroupName();
+        Preconditions.checkNotNull(name);
+        Preconditions.checkNotNull(impl);
+
+        final MetricManager mgr = MetricManager.INSTANCE;
+        mgr.getCounter(prefix, storeName, name, M_CALLS).inc();
+        final Timer.Context tc = mgr.getTimer(prefix, storeName, name, M_TIME).time();
+
+        final CompletableFuture<T> future;
+        try {
+            future = impl.get();
+        } catch (RuntimeException e) {
+            mgr.getCounter(prefix, storeName, name, M_EXCEPTIONS).inc();
+            tc.stop();
+            throw e;
+        }
+        return future.whenComplete((result, failure) -> {
+            if (failure != null) {
+                mgr.getCounter(prefix, storeName, name, M_EXCEPTIONS).inc();
+            }
+            tc.stop();
+        });
+    }
+
     static <T> void runWithMetrics(String prefix, String name, IOCallable<T> impl) throws IOException {
 
         if (null == prefix) {
@@ -0,0 +1,93 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Iterates over the entries of a {@link SliceQuery} by retrieving them in pages of bounded size. The next page is
+ * only retrieved once all entries of the current page have been consumed, so that the entries beyond the point at
+ * which a consumer stops iterating are never read.
+ * <p>
+ * A page is retrieved as a slice starting at the last column of the previous page. This column is retrieved again and
+ * skipped, so that no assumption on the structure of the columns is made. The limit of the given slice query, if any,
+ * bounds the total number of entries returned.
+ */
+public class PagedSliceIterator implements Iterator<Entry> {
+
+    private final SliceQuery query;
+    private final int pageSize;
+    private final Function<SliceQuery, EntryList> pageRetriever;
+
+    private int remaining;
+    private StaticBuffer lastColumn = null;
+    private boolean exhausted = false;
+    private Iterator<Entry> page = null;
+    private Entry next = null;
+
+    public PagedSliceIterator(SliceQuery query, int pageSize, Function<SliceQuery, EntryList> pageRetriever) {
+        Preconditions.checkArgument(query!=null && pageRetriever!=null);
+        Preconditions.checkArgument(pageSize>0, "Invalid page size: %s", pageSize);
+        this.query = query;
+        this.pageSize = pageSize;
+        this.pageRetriever = pageRetriever;
+        this.remaining = query.getLimit();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next==null && remaining>0) {
+            if (page!=null && page.hasNext()) {
+                final Entry entry = page.next();
+                if (lastColumn!=null && lastColumn.equals(entry.getColumn())) continue;
+                next = entry;
+            } else if (exhausted) {
+                return false;
+            } else {
+                page = nextPage();
+            }
+        }
+        return next!=null;
+    }
+
+    private Iterator<Entry> nextPage() {
+        final boolean first = page==null;
+        final int limit = Math.min(pageSize, remaining) + (first ? 0 : 1);
+        final SliceQuery pageQuery = new SliceQuery(first ? query.getSliceStart() : lastColumn, query.getSliceEnd())
+                .setLimit(limit);
+        final EntryList entries = pageRetriever.apply(pageQuery);
+        exhausted = entries.size()<limit;
+        return entries.iterator();
+    }
+
+    @Override
+    public Entry next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        final Entry entry = next;
+        next = null;
+        remaining--;
+        lastColumn = entry.getColumn();
+        return entry;
+    }
+
+}
@@ -302,6 +302,22 @@ public class StaticArrayEntryList extends AbstractList<Entry> implements EntryLi
         return new StaticArrayEntryList(data,limitAndValuePos,metadataSchema);
     }
 
+    /**
+     * Constructs an entry list without meta data from entries which are stored consecutively in the given data array.
+     * The i-th entry ends at offset limits[i] of the array and its value starts at position valuePositions[i] relative
+     * to the start of the entry.
+     */
+    public static EntryList of(byte[] data, int[] limits, int[] valuePositions) {
+        Preconditions.checkArgument(data!=null && limits!=null && valuePositions!=null);
+        Preconditions.checkArgument(limits.length==valuePositions.length);
+        if (limits.length==0) return EMPTY_LIST;
+        final long[] limitAndValuePos = new long[limits.length];
+        for (int i = 0; i < limits.length; i++) {
+            limitAndValuePos[i] = getOffsetAndValue(limits[i], valuePositions[i]);
+        }
+        return new StaticArrayEntryList(data,limitAndValuePos,StaticArrayEntry.EMPTY_SCHEMA);
+    }
+
     private static class CopyFactory implements StaticBuffer.Factory<Boolean> {
 
         private final byte[] data;
@@ -0,0 +1,98 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.StaticBuffer;
+
+/**
+ * {@link BackendCompression} which compresses values of at least a given number of bytes with a
+ * {@link CompressionAlgorithm}. Every compressed value starts with a header byte that identifies the algorithm used,
+ * followed by the length of the uncompressed value as an int and the compressed bytes. Values below the threshold
+ * and values that do not shrink under compression are stored uncompressed behind the header byte of
+ * {@link CompressionAlgorithm#NONE}.
+ * <p>
+ * Decompression relies on the header byte only, so values that were compressed with a different algorithm or
+ * threshold remain readable.
+ */
+public class ThresholdCompression implements BackendCompression {
+
+    private static final int HEADER_LENGTH = 1;
+    private static final int LENGTH_BYTES = 4;
+
+    private final CompressionAlgorithm algorithm;
+    private final int threshold;
+
+    public ThresholdCompression(CompressionAlgorithm algorithm, int threshold) {
+        Preconditions.checkArgument(algorithm != null && algorithm != CompressionAlgorithm.NONE,
+                "Invalid compression algorithm: %s", algorithm);
+        Preconditions.checkArgument(threshold >= 0, "Invalid compression threshold: %s", threshold);
+        this.algorithm = algorithm;
+        this.threshold = threshold;
+    }
+
+    public CompressionAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public StaticBuffer compress(StaticBuffer value) {
+        return value.as((array, offset, limit) -> {
+            final int length = limit - offset;
+            if (length >= threshold && length > 0) {
+                final byte[] compressed = algorithm.compress(array, offset, length);
+                if (compressed.length + LENGTH_BYTES < length) {
+                    final byte[] result = new byte[HEADER_LENGTH + LENGTH_BYTES + compressed.length];
+                    result[0] = algorithm.getId();
+                    StaticArrayBuffer.putInt(result, HEADER_LENGTH, length);
+                    System.arraycopy(compressed, 0, result, HEADER_LENGTH + LENGTH_BYTES, compressed.length);
+                    return new StaticArrayBuffer(result);
+                }
+            }
+            final byte[] result = new byte[HEADER_LENGTH + length];
+            result[0] = CompressionAlgorithm.NONE.getId();
+            System.arraycopy(array, offset, result, HEADER_LENGTH, length);
+            return new StaticArrayBuffer(result);
+        });
+    }
+
+    @Override
+    public StaticBuffer decompress(StaticBuffer value) {
+        return decompressValue(value);
+    }
+
+    /**
+     * Decompresses a value written by any {@link ThresholdCompression}, whatever its algorithm and threshold
+     */
+    public static StaticBuffer decompressValue(StaticBuffer value) {
+        Preconditions.checkArgument(value.length() >= HEADER_LENGTH, "Compressed value lacks header");
+        final CompressionAlgorithm valueAlgorithm = CompressionAlgorithm.getFromId(value.getByte(0));
+        if (valueAlgorithm == CompressionAlgorithm.NONE) return value.subrange(HEADER_LENGTH, value.length() - HEADER_LENGTH);
+        Preconditions.checkArgument(value.length() >= HEADER_LENGTH + LENGTH_BYTES, "Compressed value lacks length");
+        final int length = value.getInt(HEADER_LENGTH);
+        Preconditions.checkArgument(length >= 0, "Invalid length of compressed value: %s", length);
+        return value.as((array, offset, limit) -> {
+            final byte[] result = new byte[length];
+            final int dataOffset = offset + HEADER_LENGTH + LENGTH_BYTES;
+            valueAlgorithm.decompress(array, dataOffset, limit - dataOffset, result);
+            return new StaticArrayBuffer(result);
+        });
+    }
+
+}
@@ -212,6 +212,29 @@ public class GraphDatabaseConfiguration {
             "How the graph computer should return the computed results. 'persist' for writing them into the graph, " +
                     "'localtx' for writing them into the local transaction, or 'none' (default)", ConfigOption.Type.MASKABLE, "none");
 
+    /**
+     * Whether the graph computer loads the adjacency lists of all vertices once into an in-memory snapshot and runs
+     * all iterations of a vertex program against that snapshot instead of re-scanning the storage backend.
+     */
+    public static final ConfigOption<Boolean> COMPUTER_ADJACENCY_SNAPSHOT = new ConfigOption<>(COMPUTER_NS,"adjacency-snapshot",
+            "When true, the graph computer loads the adjacency lists of all vertices into a compact snapshot once and runs " +
+            "all iterations of a vertex program as well as the map phase against it instead of scanning the storage backend " +
+            "in every iteration", ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Long> COMPUTER_SNAPSHOT_HEAP_SIZE = new ConfigOption<>(COMPUTER_NS,"snapshot-heap-size",
+            "The maximum number of bytes of the adjacency snapshot that are held on the heap. Any data beyond this is " +
+            "spilled to memory-mapped files", ConfigOption.Type.MASKABLE, 512L * 1024 * 1024);
+
+    public static final ConfigOption<String> COMPUTER_SNAPSHOT_DIRECTORY = new ConfigOption<>(COMPUTER_NS,"snapshot-directory",
+            "Directory for the memory-mapped files of the adjacency snapshot. Defaults to the system's temporary directory",
+            ConfigOption.Type.MASKABLE, String.class);
+
+    public static final ConfigOption<String> COMPUTER_VERTEX_STATE = new ConfigOption<>(COMPUTER_NS,"vertex-state",
+            "How the graph computer stores the compute key values and messages of vertices. 'object' (default) keeps one " +
+            "state object per vertex, 'columnar' stores numeric values in primitive arrays indexed by a dense vertex " +
+            "ordinal which greatly reduces heap usage and garbage collection for large graphs",
+            ConfigOption.Type.MASKABLE, "object", s -> "object".equals(s) || "columnar".equals(s));
+
 
     // ################ Transaction #######################
     // ################################################
@@ -273,6 +296,38 @@ public class GraphDatabaseConfiguration {
                     "performance improvement if there is a non-trivial latency to the backend.",
             ConfigOption.Type.MASKABLE, false);
 
+    public static final ConfigOption<Boolean> LOOKUP_PREFETCH_LABEL = new ConfigOption<>(QUERY_NS,"lookup-prefetch-label",
+            "Whether to load the vertex labels of vertices retrieved by id, e.g. g.V(ids), with the same backend call " +
+                    "as their existence check instead of one call per vertex upon first label access.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<String[]> LOOKUP_PREFETCH_KEYS = new ConfigOption<>(QUERY_NS,"lookup-prefetch-keys",
+            "The property keys to load for vertices retrieved by id, e.g. g.V(ids), with the same backend call as their " +
+                    "existence check. If query.fast-property is enabled, all properties are loaded instead since that " +
+                    "is what the first property access would retrieve.",
+            ConfigOption.Type.MASKABLE, new String[0]);
+
+    public static final ConfigOption<Integer> LOOKUP_BATCH_SIZE = new ConfigOption<>(QUERY_NS,"lookup-batch-size",
+            "The maximum number of vertices whose existence is verified, and whose label and properties are prefetched, " +
+                    "with a single multi-slice backend call. Besides the ids of a vertex lookup, a batch collects the " +
+                    "adjacent vertices of loaded adjacency lists whose existence is verified when they are first accessed.",
+            ConfigOption.Type.MASKABLE, 500, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> SLICE_PAGE_SIZE = new ConfigOption<>(QUERY_NS,"slice-page-size",
+            "If positive, adjacency lists that are not yet cached in the transaction and may contain more than " +
+                    "this many entries are read from the storage backend in pages of this size as the vertex-centric query " +
+                    "consumes them, so that queries on vertices with many edges or properties stop reading once their limit " +
+                    "is reached after filtering. The additions and removals of the transaction are merged into the pages. " +
+                    "Read-write transactions cache an adjacency list once it has been read to its end, read-only " +
+                    "transactions do not cache paged results. Queries which sort the adjacency list in memory read it at once.",
+            ConfigOption.Type.MASKABLE, 0);
+
+    public static final ConfigOption<Boolean> INDEX_STATISTICS = new ConfigOption<>(QUERY_NS,"index-statistics",
+            "Whether to maintain cardinality statistics for graph indexes and use them to order and prune the index " +
+                    "lookups of graph queries. Statistics are kept in memory and updated from the index mutations of " +
+                    "committed transactions; they can be rebuilt for composite indexes with an index store scan.",
+            ConfigOption.Type.MASKABLE, false);
+
     // ################ SCHEMA #######################
     // ################################################
 
@@ -301,6 +356,20 @@ public class GraphDatabaseConfiguration {
                     "default", JanusGraphDefaultSchemaMaker.INSTANCE,
                     "tp3", Tp3DefaultSchemaMaker.INSTANCE);
 
+    public static final ConfigOption<Boolean> SCHEMA_PRELOAD = new ConfigOption<>(SCHEMA_NS,"preload",
+            "Whether to load all schema elements into the schema cache when the graph is opened. The schema vertices " +
+            "are found through the system index and their definitions are retrieved in bulk, instead of being " +
+            "looked up one by one as transactions first encounter them. Enable this for graphs with many schema " +
+            "elements whose first transactions would otherwise be slowed down by schema lookups.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Boolean> SCHEMA_SNAPSHOT = new ConfigOption<>(SCHEMA_NS,"snapshot",
+            "Whether to persist a snapshot of the schema in the storage backend from which the schema cache is " +
+            "loaded when the graph is opened. The snapshot is written by the first instance that opens the graph " +
+            "after a schema change and is invalidated by every transaction that commits schema changes. This implies " +
+            SCHEMA_PRELOAD.getName() + " for instances that find no valid snapshot.",
+            ConfigOption.Type.GLOBAL_OFFLINE, false);
+
 
     // ################ CACHE #######################
     // ################################################
@@ -326,6 +395,22 @@ public class GraphDatabaseConfiguration {
             "of VM heap, while larger values are interpreted as an absolute size in bytes.",
             ConfigOption.Type.MASKABLE, 0.3);
 
+    public static final ConfigOption<Boolean> DB_CACHE_OFF_HEAP = new ConfigOption<>(CACHE_NS,"db-cache-off-heap",
+            "Whether to keep the entries of the database level cache in direct buffers outside of the JVM heap. This " +
+            "allows for large caches without long garbage collection pauses at the cost of copying entries onto the " +
+            "heap when they are read. The size of an off-heap cache must be given in bytes by cache.db-cache-size, " +
+            "includes the heap memory held by each cached result and may not exceed the maximum direct memory of the " +
+            "JVM. Results are admitted into the cache according to their " +
+            "access frequency so that results which are read once do not displace frequently read ones.",
+            ConfigOption.Type.MASKABLE, false);
+
+    public static final ConfigOption<Boolean> DB_CACHE_INVALIDATION = new ConfigOption<>(CACHE_NS,"db-cache-invalidation",
+            "Whether the keys mutated by a transaction are broadcast to all other JanusGraph instances upon commit so " +
+            "that they evict them from their database level caches. This bounds the time for which an instance can " +
+            "read stale data from its cache by the read interval of the system logs rather than by cache.db-cache-time. " +
+            "Keys which are persisted before commit by batch loading transactions are not broadcast.",
+            ConfigOption.Type.MASKABLE, false);
+
     /**
      * How long the database level cache will keep keys expired while the mutations that triggered the expiration
      * are being persisted. This value should be larger than the time it takes for persisted mutations to become visible.
@@ -502,6 +587,18 @@ public class GraphDatabaseConfiguration {
             "Whether JanusGraph should attempt to parallelize storage operations",
             ConfigOption.Type.MASKABLE, true);
 
+    /**
+     * Maximum number of partitions into which scan jobs split the key space of the storage backend. Each partition is
+     * read by its own set of data pulling threads, so that full graph scans are not limited to the throughput of a single
+     * storage iterator. The partitions follow the regions or token ranges of the storage backend where it exposes
+     * them and are otherwise equal-width key ranges, which requires a storage backend supporting ordered scans.
+     */
+    public static final ConfigOption<Integer> SCAN_PARTITIONS = new ConfigOption<>(STORAGE_NS,"scan-partitions",
+            "Maximum number of partitions into which scan jobs split the key space. Each partition is read concurrently. " +
+            "Partitions follow the regions or token ranges of the storage backend where available and are otherwise " +
+            "equal-width key ranges, which are only applicable to storage backends supporting ordered scans",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
     /**
      * A unique identifier for the machine running the JanusGraph instance.
      * It must be ensured that no other machine accessing the storage backend can have the same identifier.
@@ -736,6 +833,39 @@ public class GraphDatabaseConfiguration {
             "This helps avoid transaction commits waiting on ID reservation even if the block size is relatively small.",
             ConfigOption.Type.MASKABLE, 0.3);
 
+    /**
+     * Whether the size of id blocks should adapt to the rate at which ids are allocated. When enabled, the block size
+     * configured via {@link #IDS_BLOCK_SIZE} is only the starting point: blocks grow when they are used up quickly or
+     * the id pool had to wait for a renewal, and shrink again when they take a long time to be used up.
+     */
+    public static final ConfigOption<Boolean> IDS_ADAPTIVE_BLOCK_SIZE = new ConfigOption<>(IDS_NS,"adaptive-block-size",
+            "When true, the size of reserved ID blocks adapts to the observed allocation rate, starting from " +
+            "ids.block-size.  Blocks grow when they are consumed quickly or commits had to wait on ID reservation " +
+            "and shrink when they take long to consume.",
+            ConfigOption.Type.MASKABLE, false);
+
+    /**
+     * Bounds the adaptive block size to the range [block-size/factor, block-size*factor].
+     */
+    public static final ConfigOption<Integer> IDS_ADAPTIVE_MAX_FACTOR = new ConfigOption<>(IDS_NS,"adaptive-max-factor",
+            "When adaptive-block-size is enabled, the factor by which the block size may grow beyond or shrink below ids.block-size",
+            ConfigOption.Type.MASKABLE, 16, ConfigOption.positiveInt());
+
+    /**
+     * When adaptive block sizing is enabled, blocks that take longer than this to be consumed cause the block size to shrink.
+     */
+    public static final ConfigOption<Duration> IDS_ADAPTIVE_SHRINK_TIME = new ConfigOption<>(IDS_NS,"adaptive-shrink-time",
+            "When adaptive-block-size is enabled, ID blocks that take longer than this to consume cause the block size to shrink",
+            ConfigOption.Type.MASKABLE, Duration.ofMinutes(5L));
+
+    /**
+     * The number of id blocks the id pool reserves ahead of the block it is currently handing out ids from.
+     */
+    public static final ConfigOption<Integer> IDS_PREFETCH_BLOCKS = new ConfigOption<>(IDS_NS,"prefetch-blocks",
+            "The number of ID blocks each ID pool reserves ahead of the block it is currently using.  Values larger " +
+            "than 1 reduce the chance of commits waiting on ID reservation under bursty load",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
     // ################ IDAUTHORITY ###################
     // ################################################
 
@@ -1203,6 +1333,7 @@ public class GraphDatabaseConfiguration {
     public static final String SYSTEM_PROPERTIES_STORE_NAME = "system_properties";
     public static final String SYSTEM_CONFIGURATION_IDENTIFIER = "configuration";
     public static final String USER_CONFIGURATION_IDENTIFIER = "userconfig";
+    public static final String SCHEMA_SNAPSHOT_IDENTIFIER = "schemasnapshot";
     private static final String INCOMPATIBLE_VERSION_EXCEPTION = "StorageBackend version is incompatible with current JanusGraph version: storage [%1s] vs. runtime [%2s]";
 
     private final Configuration configuration;
@@ -1219,6 +1350,11 @@ public class GraphDatabaseConfiguration {
     private DefaultSchemaMaker defaultSchemaMaker;
     private Boolean propertyPrefetching;
     private boolean adjustQueryLimit;
+    private boolean indexStatistics;
+    private boolean lookupPrefetchLabel;
+    private String[] lookupPrefetchKeys;
+    private int lookupBatchSize;
+    private int slicePageSize;
     private Boolean useMultiQuery;
     private boolean allowVertexIdSetting;
     private boolean logTransactions;
@@ -1537,6 +1673,11 @@ public class GraphDatabaseConfiguration {
         propertyPrefetching = configuration.get(PROPERTY_PREFETCHING);
         useMultiQuery = configuration.get(USE_MULTIQUERY);
         adjustQueryLimit = configuration.get(ADJUST_LIMIT);
+        indexStatistics = configuration.get(INDEX_STATISTICS);
+        lookupPrefetchLabel = configuration.get(LOOKUP_PREFETCH_LABEL);
+        lookupPrefetchKeys = configuration.get(LOOKUP_PREFETCH_KEYS);
+        lookupBatchSize = configuration.get(LOOKUP_BATCH_SIZE);
+        slicePageSize = configuration.get(SLICE_PAGE_SIZE);
         allowVertexIdSetting = configuration.get(ALLOW_SETTING_VERTEX_ID);
         logTransactions = configuration.get(SYSTEM_LOG_TRANSACTIONS);
 
@@ -1694,6 +1835,26 @@ public class GraphDatabaseConfiguration {
         return adjustQueryLimit;
     }
 
+    public boolean hasIndexStatistics() {
+        return indexStatistics;
+    }
+
+    public boolean hasLookupPrefetchLabel() {
+        return lookupPrefetchLabel;
+    }
+
+    public String[] getLookupPrefetchKeys() {
+        return lookupPrefetchKeys;
+    }
+
+    public int getLookupBatchSize() {
+        return lookupBatchSize;
+    }
+
+    public int getSlicePageSize() {
+        return slicePageSize;
+    }
+
     public String getUnknownIndexKeyName() {
         return unknownIndexKeyName;
     }
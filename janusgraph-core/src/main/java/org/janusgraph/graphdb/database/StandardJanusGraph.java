@@ -26,10 +26,12 @@ import org.janusgraph.core.schema.JanusGraphManagement;
 import org.janusgraph.diskstorage.*;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.configuration.backend.KCVSConfiguration;
 import org.janusgraph.diskstorage.indexing.IndexEntry;
 import org.janusgraph.diskstorage.indexing.IndexTransaction;
 import org.janusgraph.diskstorage.keycolumnvalue.*;
 import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
 import org.janusgraph.diskstorage.log.Log;
 import org.janusgraph.diskstorage.log.Message;
 import org.janusgraph.diskstorage.log.ReadMarker;
@@ -38,7 +40,9 @@ import org.janusgraph.diskstorage.util.RecordIterator;
 import org.janusgraph.diskstorage.util.StaticArrayEntry;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.database.cache.CacheInvalidationLogger;
 import org.janusgraph.graphdb.database.cache.SchemaCache;
+import org.janusgraph.graphdb.database.cache.SchemaSnapshot;
 import org.janusgraph.graphdb.database.idassigner.VertexIDAssigner;
 import org.janusgraph.graphdb.database.idhandling.IDHandler;
 import org.janusgraph.graphdb.database.log.LogTxStatus;
@@ -46,11 +50,14 @@ import org.janusgraph.graphdb.database.log.TransactionLogHeader;
 import org.janusgraph.graphdb.database.management.ManagementLogger;
 import org.janusgraph.graphdb.database.management.ManagementSystem;
 import org.janusgraph.graphdb.database.serialize.Serializer;
+import org.janusgraph.graphdb.database.statistics.GraphStatistics;
 import org.janusgraph.graphdb.idmanagement.IDManager;
 import org.janusgraph.graphdb.internal.InternalRelation;
 import org.janusgraph.graphdb.internal.InternalRelationType;
 import org.janusgraph.graphdb.internal.InternalVertex;
 import org.janusgraph.graphdb.internal.InternalVertexLabel;
+import org.janusgraph.graphdb.internal.JanusGraphSchemaCategory;
+import org.janusgraph.graphdb.olap.job.IndexStatisticsJob;
 import org.janusgraph.graphdb.query.QueryUtil;
 import org.janusgraph.graphdb.relations.EdgeDirection;
 import org.janusgraph.graphdb.tinkerpop.JanusGraphBlueprintsGraph;
@@ -70,7 +77,10 @@ import org.janusgraph.graphdb.util.ExceptionFactory;
 import org.janusgraph.util.system.IOUtils;
 import org.janusgraph.util.system.TXUtils;
 
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_INVALIDATION;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.REPLACE_INSTANCE_IF_EXISTS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SCHEMA_PRELOAD;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.SCHEMA_SNAPSHOT;
 
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.structure.Direction;
@@ -119,8 +129,15 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
     private final RelationQueryCache queryCache;
     private final SchemaCache schemaCache;
 
+    //Index statistics, null if disabled
+    private final GraphStatistics indexStatistics;
+
     //Log
     private final ManagementLogger managementLogger;
+    //null if cache invalidation is disabled
+    private final CacheInvalidationLogger cacheInvalidationLogger;
+    //Whether a persisted schema snapshot must be invalidated upon schema changes
+    private final boolean schemaSnapshot;
 
     //Shutdown hook
     private volatile ShutdownThread shutdownHook;
@@ -151,6 +168,7 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
         this.queryCache = new RelationQueryCache(this.edgeSerializer);
         this.schemaCache = configuration.getTypeCache(typeCacheRetrieval);
         this.times = configuration.getTimestampProvider();
+        this.indexStatistics = configuration.hasIndexStatistics() ? new GraphStatistics() : null;
 
         isOpen = true;
         txCounter = new AtomicLong(0);
@@ -172,6 +190,18 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
         managementLogger = new ManagementLogger(this, managementLog, schemaCache, this.times);
         managementLog.registerReader(ReadMarker.fromNow(), managementLogger);
 
+        if (backend.isCacheEnabled() && configuration.getConfiguration().get(DB_CACHE_INVALIDATION)) {
+            Log cacheLog = backend.getSystemCacheLog();
+            cacheInvalidationLogger = new CacheInvalidationLogger(cacheLog, backend.getEdgeStoreCache(),
+                    backend.getIndexStoreCache(), serializer, uniqueInstanceId);
+            cacheLog.registerReader(ReadMarker.fromNow(), cacheInvalidationLogger);
+        } else {
+            cacheInvalidationLogger = null;
+        }
+
+        schemaSnapshot = configuration.getConfiguration().get(SCHEMA_SNAPSHOT);
+        if (schemaSnapshot || configuration.getConfiguration().get(SCHEMA_PRELOAD)) preloadSchema();
+
         shutdownHook = new ShutdownThread(this);
         Runtime.getRuntime().addShutdownHook(shutdownHook);
         log.debug("Installed shutdown hook {}", shutdownHook, new Throwable("Hook creation trace"));
@@ -286,6 +316,34 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
         return backend;
     }
 
+    /**
+     * Returns the statistics on the graph indexes used to plan graph-centric queries or null if they are disabled.
+     *
+     * @see GraphDatabaseConfiguration#INDEX_STATISTICS
+     */
+    public GraphStatistics getIndexStatistics() {
+        return indexStatistics;
+    }
+
+    /**
+     * Rebuilds the statistics on all composite graph indexes from a scan of the graph index store, e.g. to collect
+     * statistics on index entries written before statistics were enabled or by other instances.
+     * The statistics are replaced once the returned future completes.
+     */
+    public JanusGraphManagement.IndexJobFuture refreshIndexStatistics() {
+        Preconditions.checkState(indexStatistics!=null,"Index statistics are not enabled");
+        final IndexStatisticsJob job = new IndexStatisticsJob(indexSerializer, indexStatistics);
+        final StandardScanner.Builder builder = backend.buildGraphIndexScanJob();
+        builder.setFinishJob(job.getFinishJob());
+        builder.setJobId("index-statistics-" + txCounter.incrementAndGet());
+        builder.setJob(job);
+        try {
+            return builder.execute();
+        } catch (BackendException e) {
+            throw new JanusGraphException(e);
+        }
+    }
+
     public IDManager getIDManager() {
         return idManager;
     }
@@ -395,6 +453,80 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
 
     };
 
+    /**
+     * Loads all schema elements into the schema cache, either from the persisted schema snapshot if it is enabled and
+     * valid or by retrieving them in bulk, in which case the snapshot is persisted if enabled.
+     */
+    private void preloadSchema() {
+        final KCVSConfiguration snapshotStore = backend.getSchemaSnapshotConfiguration();
+        long version = 0;
+        if (schemaSnapshot) {
+            version = SchemaSnapshot.getVersion(snapshotStore);
+            final SchemaSnapshot snapshot = SchemaSnapshot.read(snapshotStore, serializer, version);
+            if (snapshot != null) {
+                snapshot.addTo(schemaCache);
+                log.debug("Loaded {} schema elements from schema snapshot", snapshot.size());
+                return;
+            }
+        }
+        final SchemaSnapshot snapshot = retrieveSchema();
+        snapshot.addTo(schemaCache);
+        log.debug("Retrieved {} schema elements", snapshot.size());
+        if (schemaSnapshot && !config.isReadOnly()) snapshot.write(snapshotStore, serializer, version);
+    }
+
+    /**
+     * Retrieves all schema vertices through the system index and their relations with one multi-query per relation
+     * type held by the schema cache
+     */
+    private SchemaSnapshot retrieveSchema() {
+        final SchemaSnapshot snapshot = new SchemaSnapshot();
+        Configuration customTxOptions = backend.getStoreFeatures().getKeyConsistentTxConfig();
+        StandardJanusGraphTx consistentTx = null;
+        try {
+            consistentTx = newTransaction(new StandardTransactionBuilder(getConfiguration(), this, customTxOptions)
+                    .groupName(GraphDatabaseConfiguration.METRICS_SCHEMA_PREFIX_DEFAULT));
+            consistentTx.getTxHandle().disableCache();
+            final LongArrayList schemaIds = new LongArrayList();
+            for (JanusGraphSchemaCategory category : JanusGraphSchemaCategory.values()) {
+                for (JanusGraphVertex v : QueryUtil.getVertices(consistentTx, BaseKey.SchemaCategory, category)) {
+                    schemaIds.add(v.longId());
+                }
+            }
+            if (schemaIds.isEmpty()) return snapshot;
+            final List<List<EntryList>> relations = new ArrayList<>(SchemaSnapshot.RELATION_TYPES.length);
+            for (int i = 0; i < SchemaSnapshot.RELATION_TYPES.length; i++) {
+                final SliceQuery query = queryCache.getQuery(SchemaSnapshot.RELATION_TYPES[i], SchemaSnapshot.RELATION_DIRECTIONS[i]);
+                relations.add(edgeMultiQuery(schemaIds, query, consistentTx.getTxHandle()));
+            }
+            for (int i = 0; i < schemaIds.size(); i++) {
+                final EntryList[] schemaRelations = new EntryList[relations.size()];
+                for (int j = 0; j < schemaRelations.length; j++) schemaRelations[j] = relations.get(j).get(i);
+                snapshot.addSchemaRelations(schemaIds.get(i), schemaRelations);
+                //Schema names are the values of the schema name properties, absent for type modifiers
+                final EntryList names = schemaRelations[0];
+                if (!names.isEmpty()) {
+                    final String schemaName = (String) edgeSerializer.readRelation(names.get(0), false, consistentTx).getValue();
+                    snapshot.addSchemaId(schemaName, schemaIds.get(i));
+                }
+            }
+            return snapshot;
+        } finally {
+            TXUtils.rollbackQuietly(consistentTx);
+        }
+    }
+
+    private void invalidateSchemaSnapshot() {
+        if (!schemaSnapshot) return;
+        try {
+            SchemaSnapshot.invalidate(backend.getSchemaSnapshotConfiguration());
+        } catch (Throwable e) {
+            log.error("Could not invalidate schema snapshot. Remove it or disable " + SCHEMA_SNAPSHOT.getName() +
+                    " to prevent instances from loading an outdated schema", e);
+            throw e;
+        }
+    }
+
     public RecordIterator<Long> getVertexIDs(final BackendTransaction tx) {
         Preconditions.checkArgument(backend.getStoreFeatures().hasOrderedScan() ||
                 backend.getStoreFeatures().hasUnorderedScan(),
@@ -437,16 +569,39 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
     }
 
     public List<EntryList> edgeMultiQuery(LongArrayList vertexIdsAsLongs, SliceQuery query, BackendTransaction tx) {
+        final List<StaticBuffer> vertexIds = getVertexKeys(vertexIdsAsLongs);
+        final Map<StaticBuffer,EntryList> result = tx.edgeStoreMultiQuery(vertexIds, query);
+        final List<EntryList> resultList = new ArrayList<>(result.size());
+        for (StaticBuffer v : vertexIds) resultList.add(result.get(v));
+        return resultList;
+    }
+
+    /**
+     * Retrieves all given slices of all given vertices with a single multi-slice query and returns the results of each
+     * slice, in the order of the slices, as a list in the order of the vertex ids.
+     */
+    public List<List<EntryList>> edgeMultiQuery(LongArrayList vertexIdsAsLongs, List<SliceQuery> queries, BackendTransaction tx) {
+        Preconditions.checkArgument(queries != null && !queries.isEmpty());
+        final List<StaticBuffer> vertexIds = getVertexKeys(vertexIdsAsLongs);
+        final Map<SliceQuery,Map<StaticBuffer,EntryList>> result = tx.edgeStoreMultiQuery(vertexIds, queries);
+        final List<List<EntryList>> resultLists = new ArrayList<>(queries.size());
+        for (SliceQuery query : queries) {
+            final Map<StaticBuffer,EntryList> queryResult = result.get(query);
+            final List<EntryList> resultList = new ArrayList<>(vertexIds.size());
+            for (StaticBuffer v : vertexIds) resultList.add(queryResult.get(v));
+            resultLists.add(resultList);
+        }
+        return resultLists;
+    }
+
+    private List<StaticBuffer> getVertexKeys(LongArrayList vertexIdsAsLongs) {
         Preconditions.checkArgument(vertexIdsAsLongs != null && !vertexIdsAsLongs.isEmpty());
         final List<StaticBuffer> vertexIds = new ArrayList<>(vertexIdsAsLongs.size());
         for (int i = 0; i < vertexIdsAsLongs.size(); i++) {
             Preconditions.checkArgument(vertexIdsAsLongs.get(i) > 0);
             vertexIds.add(idManager.getKey(vertexIdsAsLongs.get(i)));
         }
-        final Map<StaticBuffer,EntryList> result = tx.edgeStoreMultiQuery(vertexIds, query);
-        final List<EntryList> resultList = new ArrayList<>(result.size());
-        for (StaticBuffer v : vertexIds) resultList.add(result.get(v));
-        return resultList;
+        return vertexIds;
     }
 
 
@@ -506,10 +661,13 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
 
         final boolean hasModifications;
         final boolean has2iModifications;
+        final List<IndexSerializer.IndexUpdate> indexUpdates;
 
-        private ModificationSummary(boolean hasModifications, boolean has2iModifications) {
+        private ModificationSummary(boolean hasModifications, boolean has2iModifications,
+                                    List<IndexSerializer.IndexUpdate> indexUpdates) {
             this.hasModifications = hasModifications;
             this.has2iModifications = has2iModifications;
+            this.indexUpdates = indexUpdates;
         }
     }
 
@@ -635,7 +793,7 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                     itx.delete(indexStore,update.getKey(),update.getEntry().field,update.getEntry().value,update.getElement().isRemoved());
             }
         }
-        return new ModificationSummary(!mutations.isEmpty(),has2iMods);
+        return new ModificationSummary(!mutations.isEmpty(),has2iMods,indexUpdates);
     }
 
     private static final Predicate<InternalRelation> SCHEMA_FILTER =
@@ -703,6 +861,7 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                     throw e;
                 }
 
+                final MutatedKeys schemaKeys = getMutatedKeys(schemaMutator);
                 try {
                     schemaMutator.commit();
                 } catch (Throwable e) {
@@ -710,6 +869,9 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                     log.error("Could not commit transaction ["+transactionId+"] due to storage exception in system-commit",e);
                     throw e;
                 }
+                recordIndexStatistics(commitSummary, true, Collections.emptySet());
+                sendCacheInvalidation(schemaKeys);
+                invalidateSchemaSnapshot();
             }
 
             //[FAILURE] Exceptions during preparation here cause the entire transaction to fail on transactional systems
@@ -729,6 +891,7 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                             txLogHeader.getLogKey(),mutator.getTxLogPersistor());
                 }
 
+                final MutatedKeys mutatedKeys = getMutatedKeys(mutator);
                 try {
                     mutator.commitStorage();
                 } catch (Throwable e) {
@@ -736,6 +899,9 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                     log.error("Could not commit transaction ["+transactionId+"] due to storage exception in commit",e);
                     throw e;
                 }
+                recordIndexStatistics(commitSummary, true, Collections.emptySet());
+                //[FAILURE] Failures to broadcast the mutated keys are logged but do not fail the persisted transaction
+                sendCacheInvalidation(mutatedKeys);
 
                 if (hasSecondaryPersistence) {
                     LogTxStatus status = LogTxStatus.SECONDARY_SUCCESS;
@@ -745,6 +911,7 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                     try {
                         //2. Commit indexes - [FAILURE] all exceptions are collected and logged but nothing is aborted
                         indexFailures = mutator.commitIndexes();
+                        recordIndexStatistics(commitSummary, false, indexFailures.keySet());
                         if (!indexFailures.isEmpty()) {
                             status = LogTxStatus.SECONDARY_FAILURE;
                             for (Map.Entry<String,Throwable> entry : indexFailures.entrySet()) {
@@ -790,6 +957,9 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
                 //are already flushed. Hence, an exception here is unlikely and should abort
                 mutator.commit();
             }
+            //[FAILURE] Schema changes committed together with other mutations invalidate the schema snapshot only once
+            //persisted. A failure to invalidate is escalated since other instances could load an outdated schema.
+            if (hasSchemaElements && hasTxIsolation) invalidateSchemaSnapshot();
         } catch (Throwable e) {
             log.error("Could not commit transaction ["+transactionId+"] due to exception",e);
             try {
@@ -803,6 +973,43 @@ public class StandardJanusGraph extends JanusGraphBlueprintsGraph {
         }
     }
 
+    /**
+     * Records the index updates of a transaction in the index statistics once they have been persisted, either those of
+     * composite indexes after the storage commit or those of the mixed indexes which committed successfully.
+     */
+    private void recordIndexStatistics(ModificationSummary summary, boolean compositeIndexes, Set<String> failedIndexes) {
+        if (indexStatistics == null) return;
+        for (IndexSerializer.IndexUpdate update : summary.indexUpdates) {
+            if (update.isCompositeIndex() != compositeIndexes) continue;
+            if (!compositeIndexes && failedIndexes.contains(update.getIndex().getBackingIndexName())) continue;
+            indexStatistics.record(update);
+        }
+    }
+
+    /**
+     * Copies the keys mutated by the given transaction prior to its commit so that they can be broadcast to other
+     * instances for cache invalidation afterwards. Returns null if cache invalidation is disabled.
+     */
+    private MutatedKeys getMutatedKeys(BackendTransaction mutator) {
+        if (cacheInvalidationLogger == null) return null;
+        return new MutatedKeys(new ArrayList<>(mutator.getMutatedEdgeStoreKeys()),
+                new ArrayList<>(mutator.getMutatedIndexStoreKeys()));
+    }
+
+    private void sendCacheInvalidation(MutatedKeys keys) {
+        if (keys == null) return;
+        cacheInvalidationLogger.sendInvalidation(keys.edgeStoreKeys, keys.indexStoreKeys);
+    }
+
+    private static class MutatedKeys {
+        private final List<StaticBuffer> edgeStoreKeys;
+        private final List<StaticBuffer> indexStoreKeys;
+
+        private MutatedKeys(List<StaticBuffer> edgeStoreKeys, List<StaticBuffer> indexStoreKeys) {
+            this.edgeStoreKeys = edgeStoreKeys;
+            this.indexStoreKeys = indexStoreKeys;
+        }
+    }
 
     private static class ShutdownThread extends Thread {
         private final StandardJanusGraph graph;
@@ -0,0 +1,122 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.cache;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.ReadBuffer;
+import org.janusgraph.diskstorage.ResourceUnavailableException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
+import org.janusgraph.diskstorage.log.Log;
+import org.janusgraph.diskstorage.log.Message;
+import org.janusgraph.diskstorage.log.MessageReader;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.graphdb.database.idhandling.VariableLong;
+import org.janusgraph.graphdb.database.serialize.DataOutput;
+import org.janusgraph.graphdb.database.serialize.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Broadcasts the edge and index store keys mutated by the transactions of this instance through the system cache log
+ * and invalidates the keys mutated by other instances in the database level caches of this instance.
+ * <p>
+ * The keys mutated by a transaction are sent in messages of at most {@link #MAX_KEYS_PER_MESSAGE} keys each, which
+ * list the mutated edge store keys followed by the mutated index store keys. Other instances read these messages
+ * periodically and expire the keys as if they had been mutated locally, so that their caches are stale for at most
+ * the time it takes to read the log.
+ *
+ * @see org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#DB_CACHE_INVALIDATION
+ */
+public class CacheInvalidationLogger implements MessageReader {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationLogger.class);
+
+    public static final int MAX_KEYS_PER_MESSAGE = 1000;
+
+    private final Log cacheLog;
+    private final KCVSCache edgeStore;
+    private final KCVSCache indexStore;
+    private final Serializer serializer;
+    private final String uniqueInstanceId;
+
+    public CacheInvalidationLogger(Log cacheLog, KCVSCache edgeStore, KCVSCache indexStore, Serializer serializer,
+                                   String uniqueInstanceId) {
+        Preconditions.checkArgument(cacheLog != null && edgeStore != null && indexStore != null);
+        Preconditions.checkArgument(serializer != null && uniqueInstanceId != null);
+        this.cacheLog = cacheLog;
+        this.edgeStore = edgeStore;
+        this.indexStore = indexStore;
+        this.serializer = serializer;
+        this.uniqueInstanceId = uniqueInstanceId;
+    }
+
+    /**
+     * Sends the given mutated keys to all other instances. Failures are logged but not escalated since the mutations
+     * have been persisted already and the caches of other instances will expire the keys eventually.
+     */
+    public void sendInvalidation(Collection<StaticBuffer> edgeStoreKeys, Collection<StaticBuffer> indexStoreKeys) {
+        final Iterator<StaticBuffer> edgeKeys = edgeStoreKeys.iterator();
+        final Iterator<StaticBuffer> indexKeys = indexStoreKeys.iterator();
+        int remainingEdgeKeys = edgeStoreKeys.size();
+        int remainingIndexKeys = indexStoreKeys.size();
+        while (remainingEdgeKeys > 0 || remainingIndexKeys > 0) {
+            final int numEdgeKeys = Math.min(remainingEdgeKeys, MAX_KEYS_PER_MESSAGE);
+            final int numIndexKeys = Math.min(remainingIndexKeys, MAX_KEYS_PER_MESSAGE - numEdgeKeys);
+            final DataOutput out = serializer.getDataOutput(16 * (numEdgeKeys + numIndexKeys) + 8);
+            writeKeys(out, edgeKeys, numEdgeKeys);
+            writeKeys(out, indexKeys, numIndexKeys);
+            remainingEdgeKeys -= numEdgeKeys;
+            remainingIndexKeys -= numIndexKeys;
+            try {
+                cacheLog.add(out.getStaticBuffer());
+            } catch (ResourceUnavailableException e) {
+                log.warn("Cache invalidation log has already shut down. Did not send invalidation of {} keys",
+                        numEdgeKeys + numIndexKeys);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Could not send invalidation of " + (numEdgeKeys + numIndexKeys) + " keys", e);
+                return;
+            }
+        }
+    }
+
+    private static void writeKeys(DataOutput out, Iterator<StaticBuffer> keys, int numKeys) {
+        VariableLong.writePositive(out, numKeys);
+        for (int i = 0; i < numKeys; i++) BufferUtil.writeBuffer(out, keys.next());
+    }
+
+    @Override
+    public void read(Message message) {
+        //Keys mutated by this instance have already been invalidated upon commit
+        if (uniqueInstanceId.equals(message.getSenderId())) return;
+        final ReadBuffer in = message.getContent().asReadBuffer();
+        invalidateKeys(in, edgeStore);
+        invalidateKeys(in, indexStore);
+    }
+
+    private static void invalidateKeys(ReadBuffer in, KCVSCache store) {
+        final long numKeys = VariableLong.readPositive(in);
+        for (long i = 0; i < numKeys; i++) store.invalidate(BufferUtil.readBuffer(in));
+    }
+
+    @Override
+    public void updateState() {
+    }
+
+}
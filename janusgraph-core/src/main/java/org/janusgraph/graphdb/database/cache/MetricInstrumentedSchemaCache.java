@@ -70,4 +70,14 @@ public class MetricInstrumentedSchemaCache implements SchemaCache {
         cache.expireSchemaElement(schemaId);
     }
 
+    @Override
+    public void putSchemaId(String schemaName, long schemaId) {
+        cache.putSchemaId(schemaName, schemaId);
+    }
+
+    @Override
+    public void putSchemaRelations(long schemaId, BaseRelationType type, Direction dir, EntryList entries) {
+        cache.putSchemaRelations(schemaId, type, dir, entries);
+    }
+
 }
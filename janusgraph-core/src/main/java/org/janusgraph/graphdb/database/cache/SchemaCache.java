@@ -39,6 +39,16 @@ public interface SchemaCache {
 
     void expireSchemaElement(final long schemaId);
 
+    /**
+     * Adds the id of the schema element with the given name to the cache, e.g. when the schema is loaded in bulk
+     */
+    void putSchemaId(String schemaName, long schemaId);
+
+    /**
+     * Adds the relations of a schema vertex to the cache, e.g. when the schema is loaded in bulk
+     */
+    void putSchemaRelations(long schemaId, BaseRelationType type, final Direction dir, EntryList entries);
+
     interface StoreRetrieval {
 
         Long retrieveSchemaByName(final String typeName);
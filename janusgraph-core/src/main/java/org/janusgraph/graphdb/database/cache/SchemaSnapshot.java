@@ -0,0 +1,171 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.cache;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.ReadBuffer;
+import org.janusgraph.diskstorage.configuration.backend.KCVSConfiguration;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+import org.janusgraph.graphdb.database.idhandling.VariableLong;
+import org.janusgraph.graphdb.database.serialize.DataOutput;
+import org.janusgraph.graphdb.database.serialize.Serializer;
+import org.janusgraph.graphdb.types.system.BaseKey;
+import org.janusgraph.graphdb.types.system.BaseLabel;
+import org.janusgraph.graphdb.types.system.BaseRelationType;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The names and relations of all schema vertices as they are held by a {@link SchemaCache}. A snapshot is either
+ * retrieved in bulk from the graph or read from its serialized form in the storage backend, and then added to the
+ * schema cache so that transactions do not need to look up schema elements individually.
+ * <p>
+ * A persisted snapshot records the schema version it was retrieved under. The version is changed by
+ * {@link #invalidate(KCVSConfiguration)} whenever schema changes are committed, so that a snapshot which was
+ * retrieved before the change is not used afterwards. Schema elements which are missing from a snapshot are still
+ * retrieved individually by the schema cache.
+ */
+public class SchemaSnapshot {
+
+    /**
+     * The relations of a schema vertex that are held by the schema cache. The order must NEVER be changed since it
+     * is part of the serialized form.
+     */
+    public static final BaseRelationType[] RELATION_TYPES =
+            {BaseKey.SchemaName, BaseKey.SchemaDefinitionProperty, BaseLabel.SchemaDefinitionEdge, BaseLabel.SchemaDefinitionEdge};
+    public static final Direction[] RELATION_DIRECTIONS = {Direction.OUT, Direction.OUT, Direction.OUT, Direction.IN};
+
+    private static final String VERSION_KEY = "version";
+    private static final String SNAPSHOT_KEY = "snapshot";
+    private static final long FORMAT_VERSION = 1;
+
+    private final Map<String, Long> schemaIds;
+    private final Map<Long, EntryList[]> schemaRelations;
+
+    public SchemaSnapshot() {
+        schemaIds = new HashMap<>();
+        schemaRelations = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds the relations of the given schema vertex in the order of {@link #RELATION_TYPES}
+     */
+    public void addSchemaRelations(long schemaId, EntryList[] relations) {
+        Preconditions.checkArgument(relations.length == RELATION_TYPES.length);
+        schemaRelations.put(schemaId, relations);
+    }
+
+    public void addSchemaId(String schemaName, long schemaId) {
+        schemaIds.put(schemaName, schemaId);
+    }
+
+    public int size() {
+        return schemaRelations.size();
+    }
+
+    public void addTo(SchemaCache cache) {
+        for (Map.Entry<Long, EntryList[]> relations : schemaRelations.entrySet()) {
+            for (int i = 0; i < RELATION_TYPES.length; i++) {
+                cache.putSchemaRelations(relations.getKey(), RELATION_TYPES[i], RELATION_DIRECTIONS[i], relations.getValue()[i]);
+            }
+        }
+        schemaIds.forEach(cache::putSchemaId);
+    }
+
+    // ########### Persistence #############
+
+    /**
+     * Returns the current schema version, which must be read before the schema is retrieved in order to write the
+     * snapshot with {@link #write(KCVSConfiguration, Serializer, long)}
+     */
+    public static long getVersion(KCVSConfiguration store) {
+        final Long version = store.get(VERSION_KEY, Long.class);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Invalidates any persisted snapshot by changing the schema version
+     */
+    public static void invalidate(KCVSConfiguration store) {
+        long version;
+        do {
+            version = ThreadLocalRandom.current().nextLong();
+        } while (version == 0);
+        store.set(VERSION_KEY, version);
+    }
+
+    /**
+     * Returns the persisted snapshot if it was retrieved under the given schema version or null otherwise
+     */
+    public static SchemaSnapshot read(KCVSConfiguration store, Serializer serializer, long version) {
+        final byte[] data = store.get(SNAPSHOT_KEY, byte[].class);
+        if (data == null) return null;
+        final ReadBuffer in = new StaticArrayBuffer(data).asReadBuffer();
+        if (VariableLong.readPositive(in) != FORMAT_VERSION || in.getLong() != version) return null;
+        final SchemaSnapshot snapshot = new SchemaSnapshot();
+        final long numNames = VariableLong.readPositive(in);
+        for (long i = 0; i < numNames; i++) {
+            final String schemaName = serializer.readObjectNotNull(in, String.class);
+            snapshot.addSchemaId(schemaName, VariableLong.readPositive(in));
+        }
+        final long numSchemaVertices = VariableLong.readPositive(in);
+        for (long i = 0; i < numSchemaVertices; i++) {
+            final long schemaId = VariableLong.readPositive(in);
+            final EntryList[] relations = new EntryList[RELATION_TYPES.length];
+            for (int j = 0; j < relations.length; j++) {
+                final int numEntries = (int) VariableLong.readPositive(in);
+                final List<Entry> entries = new ArrayList<>(numEntries);
+                for (int k = 0; k < numEntries; k++) entries.add(BufferUtil.readEntry(in, serializer));
+                relations[j] = StaticArrayEntryList.of(entries);
+            }
+            snapshot.addSchemaRelations(schemaId, relations);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Persists this snapshot as retrieved under the given schema version
+     */
+    public void write(KCVSConfiguration store, Serializer serializer, long version) {
+        final DataOutput out = serializer.getDataOutput(128 * (schemaRelations.size() + 1));
+        VariableLong.writePositive(out, FORMAT_VERSION);
+        out.putLong(version);
+        VariableLong.writePositive(out, schemaIds.size());
+        for (Map.Entry<String, Long> schemaId : schemaIds.entrySet()) {
+            out.writeObjectNotNull(schemaId.getKey());
+            VariableLong.writePositive(out, schemaId.getValue());
+        }
+        VariableLong.writePositive(out, schemaRelations.size());
+        for (Map.Entry<Long, EntryList[]> relations : schemaRelations.entrySet()) {
+            VariableLong.writePositive(out, relations.getKey());
+            for (EntryList entries : relations.getValue()) {
+                VariableLong.writePositive(out, entries.size());
+                for (Entry entry : entries) BufferUtil.writeEntry(out, entry);
+            }
+        }
+        store.set(SNAPSHOT_KEY, out.getStaticBuffer().as(StaticArrayBuffer.ARRAY_FACTORY));
+    }
+
+}
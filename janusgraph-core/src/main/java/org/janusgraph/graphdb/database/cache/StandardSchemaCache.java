@@ -175,6 +175,23 @@ public class StandardSchemaCache implements SchemaCache {
         return entries;
     }
 
+    @Override
+    public void putSchemaId(final String schemaName, final long schemaId) {
+        ConcurrentMap<String,Long> types = typeNames;
+        if (types!=null && types.size()<=maxCachedTypes) types.put(schemaName,schemaId);
+        else typeNamesBackup.put(schemaName,schemaId);
+    }
+
+    @Override
+    public void putSchemaRelations(final long schemaId, final BaseRelationType type, final Direction dir, final EntryList entries) {
+        Preconditions.checkArgument(IDManager.VertexIDType.Schema.is(schemaId));
+        Preconditions.checkNotNull(entries);
+        final long typePlusRelation = getIdentifier(schemaId,type,dir);
+        ConcurrentMap<Long,EntryList> types = schemaRelations;
+        if (types!=null && types.size()<=maxCachedRelations) types.put(typePlusRelation,entries);
+        else if (!entries.isEmpty()) schemaRelationsBackup.put(typePlusRelation,entries);
+    }
+
 //    @Override
 //    public void expireSchemaName(final String name) {
 //        ConcurrentMap<String,Long> types = typeNames;
@@ -0,0 +1,110 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.idassigner;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link IDBlockSizer} which adapts the block size of each id namespace to the rate at which ids are allocated.
+ * <p>
+ * The block sizes returned by the wrapped sizer serve as starting points. A namespace's block size is doubled when
+ * an id pool had to wait for a new block or consumed a block in less time than {@link #GROWTH_RENEWAL_MULTIPLE} times
+ * the latency of reserving a block. It is halved when consuming a block took longer than the configured shrink time.
+ * Block sizes always stay within [base/maxFactor, base*maxFactor] and far enough below the namespace's id upper bound
+ * to leave room for the unique id bits of the id authority.
+ *
+ * @see org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#IDS_ADAPTIVE_BLOCK_SIZE
+ */
+public class AdaptiveIDBlockSizer implements IDBlockSizer {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveIDBlockSizer.class);
+
+    /**
+     * A block is considered consumed quickly if it is used up in less than this multiple of the renewal latency
+     */
+    public static final int GROWTH_RENEWAL_MULTIPLE = 10;
+
+    /**
+     * Number of low-order bits of the id upper bound reserved for the id authority's unique id prefix
+     */
+    private static final int RESERVED_UPPER_BOUND_BITS = 20;
+
+    private final IDBlockSizer baseSizer;
+    private final int maxFactor;
+    private final Duration shrinkTime;
+    private final ConcurrentMap<Integer,AtomicLong> blockSizes;
+
+    public AdaptiveIDBlockSizer(IDBlockSizer baseSizer, int maxFactor, Duration shrinkTime) {
+        Preconditions.checkNotNull(baseSizer);
+        Preconditions.checkArgument(maxFactor>0,"Invalid max factor: %s",maxFactor);
+        Preconditions.checkArgument(shrinkTime!=null && !shrinkTime.isNegative() && !shrinkTime.isZero(),
+                "Invalid shrink time: %s",shrinkTime);
+        this.baseSizer = baseSizer;
+        this.maxFactor = maxFactor;
+        this.shrinkTime = shrinkTime;
+        this.blockSizes = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public long getBlockSize(int idNamespace) {
+        return getCurrentSize(idNamespace).get();
+    }
+
+    @Override
+    public long getIdUpperBound(int idNamespace) {
+        return baseSizer.getIdUpperBound(idNamespace);
+    }
+
+    @Override
+    public void blockConsumed(int idNamespace, long numIds, Duration consumptionTime, Duration renewalTime, Duration waitTime) {
+        final AtomicLong size = getCurrentSize(idNamespace);
+        final long current = size.get();
+        final long updated;
+        if (!waitTime.isZero() || consumptionTime.compareTo(renewalTime.multipliedBy(GROWTH_RENEWAL_MULTIPLE)) < 0) {
+            updated = Math.min(getMaxSize(idNamespace), current * 2);
+        } else if (consumptionTime.compareTo(shrinkTime) > 0) {
+            updated = Math.max(getMinSize(idNamespace), current / 2);
+        } else {
+            return;
+        }
+        if (updated != current && size.compareAndSet(current, updated)) {
+            log.debug("Adjusted id block size for namespace [{}] from {} to {} (consumed {} ids in {}, renewal took {}, waited {})",
+                    idNamespace, current, updated, numIds, consumptionTime, renewalTime, waitTime);
+        }
+    }
+
+    private AtomicLong getCurrentSize(int idNamespace) {
+        return blockSizes.computeIfAbsent(idNamespace, ns -> new AtomicLong(baseSizer.getBlockSize(ns)));
+    }
+
+    long getMinSize(int idNamespace) {
+        return Math.max(1, baseSizer.getBlockSize(idNamespace) / maxFactor);
+    }
+
+    long getMaxSize(int idNamespace) {
+        final long base = baseSizer.getBlockSize(idNamespace);
+        final long limit = baseSizer.getIdUpperBound(idNamespace) >>> RESERVED_UPPER_BOUND_BITS;
+        final long scaled = base > Long.MAX_VALUE / maxFactor ? Long.MAX_VALUE : base * maxFactor;
+        return Math.max(base, Math.min(scaled, limit));
+    }
+
+}
@@ -43,4 +43,18 @@ public interface IDBlockSizer {
      */
     long getIdUpperBound(int idNamespace);
 
+    /**
+     * Notifies this sizer that an id pool has used up all ids of a block it obtained for the given id namespace.
+     * Sizers that adapt the block size to the observed allocation rate can use this to grow or shrink subsequent blocks.
+     *
+     * @param idNamespace the id namespace of the consumed block
+     * @param numIds the number of ids in the consumed block
+     * @param consumptionTime the time it took to hand out all ids of the block
+     * @param renewalTime the time it took the id authority to allocate the most recent block
+     * @param waitTime the time the id pool was blocked waiting for the next block
+     */
+    default void blockConsumed(int idNamespace, long numIds, Duration consumptionTime, Duration renewalTime, Duration waitTime) {
+        //Static sizers ignore the allocation rate
+    }
+
 }
@@ -25,6 +25,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
@@ -34,6 +35,8 @@ import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.IDBlock;
 
 import org.janusgraph.diskstorage.IDAuthority;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.util.stats.MetricManager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,6 +77,10 @@ public class StandardIDPool implements IDPool {
 
     private static final int RENEW_ID_COUNT = 100;
 
+    public static final String METRICS_GROUP = "idpool";
+    public static final String M_RENEWAL_WAITS = "renewalWaits";
+    public static final String M_RENEWAL_WAIT_TIME = "renewalWaitTime";
+
     private final IDAuthority idAuthority;
     private final long idUpperBound; //exclusive
     private final int partition;
@@ -81,17 +88,21 @@ public class StandardIDPool implements IDPool {
 
     private final Duration renewTimeout;
     private final double renewBufferPercentage;
+    private final IDBlockSizer blockSizer;
+    private final int prefetchBlocks;
 
     private IDBlock currentBlock;
+    private Stopwatch currentBlockTimer;
     private long currentIndex;
     private long renewBlockIndex;
 //    private long nextID;
 //    private long currentMaxID;
 //    private long renewBufferID;
 
-    private volatile IDBlock nextBlock;
+    private final Queue<IDBlock> nextBlocks;
     private Future<IDBlock> idBlockFuture;
     private IDBlockGetter idBlockGetter;
+    private volatile Duration lastRenewalTime;
     private final ThreadPoolExecutor exec;
 
     private volatile boolean closed;
@@ -99,6 +110,15 @@ public class StandardIDPool implements IDPool {
     private final Queue<Future<?>> closeBlockers;
 
     public StandardIDPool(IDAuthority idAuthority, int partition, int idNamespace, long idUpperBound, Duration renewTimeout, double renewBufferPercentage) {
+        this(idAuthority, partition, idNamespace, idUpperBound, renewTimeout, renewBufferPercentage, null, 1);
+    }
+
+    /**
+     * @param blockSizer the block sizer to notify whenever a block has been consumed, may be null
+     * @param prefetchBlocks the number of id blocks to allocate ahead of the current one
+     */
+    public StandardIDPool(IDAuthority idAuthority, int partition, int idNamespace, long idUpperBound, Duration renewTimeout,
+                          double renewBufferPercentage, IDBlockSizer blockSizer, int prefetchBlocks) {
         Preconditions.checkArgument(idUpperBound > 0);
         this.idAuthority = idAuthority;
         Preconditions.checkArgument(partition>=0);
@@ -110,12 +130,17 @@ public class StandardIDPool implements IDPool {
         this.renewTimeout = renewTimeout;
         Preconditions.checkArgument(renewBufferPercentage>0.0 && renewBufferPercentage<=1.0,"Renew-buffer percentage must be in (0.0,1.0]");
         this.renewBufferPercentage = renewBufferPercentage;
+        this.blockSizer = blockSizer;
+        Preconditions.checkArgument(prefetchBlocks>0,"Number of prefetched blocks must be positive");
+        this.prefetchBlocks = prefetchBlocks;
 
         currentBlock = UNINITIALIZED_BLOCK;
+        currentBlockTimer = null;
         currentIndex = 0;
         renewBlockIndex = 0;
 
-        nextBlock = null;
+        nextBlocks = new ArrayDeque<>(prefetchBlocks);
+        lastRenewalTime = Duration.ZERO;
 
         // daemon=true would probably be fine too
         exec = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
@@ -136,7 +161,7 @@ public class StandardIDPool implements IDPool {
         Stopwatch sw = Stopwatch.createStarted();
         if (null != idBlockFuture) {
             try {
-                nextBlock = idBlockFuture.get(renewTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                nextBlocks.add(idBlockFuture.get(renewTimeout.toMillis(), TimeUnit.MILLISECONDS));
             } catch (ExecutionException e) {
                 String msg = String.format("ID block allocation on partition(%d)-namespace(%d) failed with an exception in %s",
                         partition, idNamespace, sw.stop());
@@ -174,26 +199,39 @@ public class StandardIDPool implements IDPool {
         Preconditions.checkState(!closed,"ID Pool has been closed for partition(%s)-namespace(%s) - cannot apply for new id block",
                 partition,idNamespace);
 
-        if (null == nextBlock && null == idBlockFuture) {
+        final Duration consumptionTime = currentBlockTimer == null ? null : Duration.ofNanos(currentBlockTimer.elapsed(TimeUnit.NANOSECONDS));
+
+        if (nextBlocks.isEmpty() && null == idBlockFuture) {
             startIDBlockGetter();
         }
 
-        if (null == nextBlock) {
+        Duration waitTime = Duration.ZERO;
+        if (nextBlocks.isEmpty()) {
+            Stopwatch sw = Stopwatch.createStarted();
             waitForIDBlockGetter();
+            waitTime = Duration.ofNanos(sw.stop().elapsed(TimeUnit.NANOSECONDS));
+            MetricManager.INSTANCE.getCounter(GraphDatabaseConfiguration.getSystemMetricsPrefix(), METRICS_GROUP,
+                    String.valueOf(idNamespace), M_RENEWAL_WAITS).inc();
+            MetricManager.INSTANCE.getTimer(GraphDatabaseConfiguration.getSystemMetricsPrefix(), METRICS_GROUP,
+                    String.valueOf(idNamespace), M_RENEWAL_WAIT_TIME).update(waitTime.toNanos(), TimeUnit.NANOSECONDS);
         }
 
+        final IDBlock nextBlock = nextBlocks.peek();
         if (nextBlock == ID_POOL_EXHAUSTION)
             throw new IDPoolExhaustedException("Exhausted ID Pool for partition(" + partition+")-namespace("+idNamespace+")");
 
-        currentBlock = nextBlock;
+        if (blockSizer != null && consumptionTime != null) {
+            blockSizer.blockConsumed(idNamespace, currentBlock.numIds(), consumptionTime, lastRenewalTime, waitTime);
+        }
+
+        currentBlock = nextBlocks.remove();
+        currentBlockTimer = Stopwatch.createStarted();
         currentIndex = 0;
 
         log.debug("ID partition({})-namespace({}) acquired block: [{}]", partition, idNamespace, currentBlock);
 
         assert currentBlock.numIds()>0;
 
-        nextBlock = null;
-
         assert RENEW_ID_COUNT>0;
         renewBlockIndex = Math.max(0,currentBlock.numIds()-Math.max(RENEW_ID_COUNT, Math.round(currentBlock.numIds()*renewBufferPercentage)));
         assert renewBlockIndex<currentBlock.numIds() && renewBlockIndex>=currentIndex;
@@ -211,7 +249,17 @@ public class StandardIDPool implements IDPool {
             }
         }
 
-        if (currentIndex == renewBlockIndex) {
+        //Collect finished renewals early so that further blocks can be prefetched
+        if (prefetchBlocks > 1 && null != idBlockFuture && idBlockFuture.isDone()) {
+            try {
+                waitForIDBlockGetter();
+            } catch (InterruptedException e) {
+                throw new JanusGraphException("Could not collect id block due to interruption", e);
+            }
+        }
+
+        if (currentIndex >= renewBlockIndex && null == idBlockFuture && nextBlocks.size() < prefetchBlocks
+                && !nextBlocks.contains(ID_POOL_EXHAUSTION)) {
             startIDBlockGetter();
         }
 
@@ -248,7 +296,8 @@ public class StandardIDPool implements IDPool {
         if (closed) return; //Don't renew anymore if closed
         //Renew buffer
         log.debug("Starting id block renewal thread upon {}", currentIndex);
-        idBlockGetter = new IDBlockGetter(idAuthority, partition, idNamespace, renewTimeout);
+        idBlockGetter = new IDBlockGetter(idAuthority, partition, idNamespace, renewTimeout,
+                renewalTime -> lastRenewalTime = renewalTime);
         idBlockFuture = exec.submit(idBlockGetter);
     }
 
@@ -259,13 +308,16 @@ public class StandardIDPool implements IDPool {
         private final int partition;
         private final int idNamespace;
         private final Duration renewTimeout;
+        private final Consumer<Duration> renewalTimeConsumer;
         private volatile boolean stopRequested;
 
-        public IDBlockGetter(IDAuthority idAuthority, int partition, int idNamespace, Duration renewTimeout) {
+        public IDBlockGetter(IDAuthority idAuthority, int partition, int idNamespace, Duration renewTimeout,
+                             Consumer<Duration> renewalTimeConsumer) {
             this.idAuthority = idAuthority;
             this.partition = partition;
             this.idNamespace = idNamespace;
             this.renewTimeout = renewTimeout;
+            this.renewalTimeConsumer = renewalTimeConsumer;
             this.alive = Stopwatch.createStarted();
         }
 
@@ -286,6 +338,7 @@ public class StandardIDPool implements IDPool {
                     throw new JanusGraphException("ID block retrieval aborted by caller");
                 }
                 IDBlock idBlock = idAuthority.getIDBlock(partition, idNamespace, renewTimeout);
+                renewalTimeConsumer.accept(Duration.ofNanos(running.elapsed(TimeUnit.NANOSECONDS)));
                 log.debug("Retrieved ID block from authority on partition({})-namespace({}), " +
                           "exec time {}, exec+q time {}",
                           partition, idNamespace, running.stop(), alive.stop());
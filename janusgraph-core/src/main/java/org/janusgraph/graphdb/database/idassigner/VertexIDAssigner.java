@@ -74,6 +74,8 @@ public class VertexIDAssigner implements AutoCloseable {
     //For StandardIDPool
     private final Duration renewTimeoutMS;
     private final double renewBufferPercentage;
+    private final IDBlockSizer blockSizer;
+    private final int prefetchBlocks;
 
     private final int partitionIdBound;
     private final boolean hasLocalPartitions;
@@ -95,16 +97,22 @@ public class VertexIDAssigner implements AutoCloseable {
         log.debug("Partition IDs? [{}], Local Partitions? [{}]",true,hasLocalPartitions);
 
         long baseBlockSize = config.get(IDS_BLOCK_SIZE);
-        idAuthority.setIDBlockSizer(new SimpleVertexIDBlockSizer(baseBlockSize));
+        IDBlockSizer sizer = new SimpleVertexIDBlockSizer(baseBlockSize);
+        if (config.get(IDS_ADAPTIVE_BLOCK_SIZE)) {
+            sizer = new AdaptiveIDBlockSizer(sizer, config.get(IDS_ADAPTIVE_MAX_FACTOR), config.get(IDS_ADAPTIVE_SHRINK_TIME));
+        }
+        blockSizer = sizer;
+        idAuthority.setIDBlockSizer(blockSizer);
 
         renewTimeoutMS = config.get(IDS_RENEW_TIMEOUT);
         renewBufferPercentage = config.get(IDS_RENEW_BUFFER_PERCENTAGE);
+        prefetchBlocks = config.get(IDS_PREFETCH_BLOCKS);
 
         idPools = new ConcurrentHashMap<>(partitionIdBound);
         schemaIdPool = new StandardIDPool(idAuthority, IDManager.SCHEMA_PARTITION, PoolType.SCHEMA.getIDNamespace(),
-                IDManager.getSchemaCountBound(), renewTimeoutMS, renewBufferPercentage);
+                IDManager.getSchemaCountBound(), renewTimeoutMS, renewBufferPercentage, blockSizer, prefetchBlocks);
         partitionVertexIdPool = new StandardIDPool(idAuthority, IDManager.PARTITIONED_VERTEX_PARTITION, PoolType.PARTITIONED_VERTEX.getIDNamespace(),
-                PoolType.PARTITIONED_VERTEX.getCountBound(idManager), renewTimeoutMS, renewBufferPercentage);
+                PoolType.PARTITIONED_VERTEX.getCountBound(idManager), renewTimeoutMS, renewBufferPercentage, blockSizer, prefetchBlocks);
         setLocalPartitions(partitionBits);
     }
 
@@ -313,7 +321,8 @@ public class VertexIDAssigner implements AutoCloseable {
         } else {
             PartitionIDPool partitionPool = idPools.get(partitionID);
             if (partitionPool == null) {
-                partitionPool = new PartitionIDPool(partitionID, idAuthority, idManager, renewTimeoutMS, renewBufferPercentage);
+                partitionPool = new PartitionIDPool(partitionID, idAuthority, idManager, renewTimeoutMS, renewBufferPercentage,
+                        blockSizer, prefetchBlocks);
                 idPools.putIfAbsent(partitionID,partitionPool);
                 partitionPool = idPools.get(partitionID);
             }
@@ -457,11 +466,13 @@ public class VertexIDAssigner implements AutoCloseable {
         private volatile long lastAccess;
         private volatile boolean exhausted;
 
-        PartitionIDPool(int partitionID, IDAuthority idAuthority, IDManager idManager, Duration renewTimeoutMS, double renewBufferPercentage) {
+        PartitionIDPool(int partitionID, IDAuthority idAuthority, IDManager idManager, Duration renewTimeoutMS, double renewBufferPercentage,
+                        IDBlockSizer blockSizer, int prefetchBlocks) {
             super(PoolType.class);
             for (PoolType type : PoolType.values()) {
                 if (!type.hasOnePerPartition()) continue;
-                put(type,new StandardIDPool(idAuthority, partitionID, type.getIDNamespace(), type.getCountBound(idManager), renewTimeoutMS, renewBufferPercentage));
+                put(type,new StandardIDPool(idAuthority, partitionID, type.getIDNamespace(), type.getCountBound(idManager), renewTimeoutMS, renewBufferPercentage,
+                        blockSizer, prefetchBlocks));
             }
         }
 
@@ -58,6 +58,7 @@ import org.janusgraph.diskstorage.log.Log;
 import org.janusgraph.graphdb.database.IndexSerializer;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.janusgraph.graphdb.database.cache.SchemaCache;
+import org.janusgraph.graphdb.database.cache.SchemaSnapshot;
 import org.janusgraph.graphdb.database.serialize.DataOutput;
 import org.janusgraph.graphdb.internal.ElementCategory;
 import org.janusgraph.graphdb.internal.InternalRelationType;
@@ -232,6 +233,10 @@ public class ManagementSystem implements JanusGraphManagement {
             out.writeObjectNotNull(MgmtLogType.CONFIG_MUTATION);
             transactionalConfig.logMutations(out);
             sysLog.add(out.getStaticBuffer());
+            //Schema changes made while the schema snapshot was disabled did not invalidate it
+            if (modifyConfig.get(SCHEMA_SNAPSHOT) && !graph.getConfiguration().getConfiguration().get(SCHEMA_SNAPSHOT)) {
+                SchemaSnapshot.invalidate(graph.getBackend().getSchemaSnapshotConfiguration());
+            }
         }
         transactionalConfig.commit();
 
@@ -0,0 +1,86 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.statistics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Immutable equi-depth histogram over numeric values: each bucket holds the same fraction of the values it was built
+ * from. The fraction of values within a range is estimated by interpolating linearly within the buckets at its bounds.
+ */
+public class EquiDepthHistogram {
+
+    /**
+     * Bucket boundaries in ascending order; bucket i spans [bounds[i], bounds[i+1]]
+     */
+    private final double[] bounds;
+
+    private EquiDepthHistogram(double[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Builds a histogram with at most the given number of buckets from the given values, which need not be sorted.
+     */
+    public static EquiDepthHistogram of(double[] values, int numBuckets) {
+        Preconditions.checkArgument(values.length>0,"Need at least one value");
+        Preconditions.checkArgument(numBuckets>0,"Invalid number of buckets: %s",numBuckets);
+        final double[] sorted = Arrays.copyOf(values, values.length);
+        Arrays.sort(sorted);
+        final int buckets = Math.min(numBuckets, sorted.length);
+        final double[] bounds = new double[buckets+1];
+        for (int i = 0; i <= buckets; i++) {
+            bounds[i] = sorted[(int)Math.min(sorted.length-1, (long)i*sorted.length/buckets)];
+        }
+        bounds[buckets] = sorted[sorted.length-1];
+        return new EquiDepthHistogram(bounds);
+    }
+
+    public int numBuckets() {
+        return bounds.length-1;
+    }
+
+    /**
+     * Estimates the fraction of values which are at most the given value
+     */
+    public double fractionBelow(double value) {
+        final int buckets = numBuckets();
+        if (value<bounds[0]) return 0.0;
+        if (value>=bounds[buckets]) return 1.0;
+        int bucket = Arrays.binarySearch(bounds, value);
+        if (bucket<0) bucket = -bucket-2;
+        else while (bucket<buckets && bounds[bucket+1]==value) bucket++;
+        if (bucket>=buckets) return 1.0;
+        final double lower = bounds[bucket], upper = bounds[bucket+1];
+        final double withinBucket = upper>lower ? (value-lower)/(upper-lower) : 1.0;
+        return (bucket + withinBucket) / buckets;
+    }
+
+    /**
+     * Estimates the fraction of values within the given range
+     */
+    public double fractionBetween(double lower, double upper) {
+        if (upper<lower) return 0.0;
+        return Math.max(0.0, fractionBelow(upper) - fractionBelow(lower));
+    }
+
+    @Override
+    public String toString() {
+        return "histogram" + Arrays.toString(bounds);
+    }
+
+}
@@ -0,0 +1,82 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.statistics;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics on the values of a single field of a mixed index: the number of indexed values, an estimate of the number
+ * of distinct values and, for numeric values, an {@link EquiDepthHistogram} built from a reservoir sample.
+ */
+public class FieldStatistics {
+
+    public static final int SAMPLE_SIZE = 1024;
+    public static final int HISTOGRAM_BUCKETS = 32;
+
+    private final LongAdder count = new LongAdder();
+    private final HyperLogLog distinct = new HyperLogLog();
+
+    private final double[] sample = new double[SAMPLE_SIZE];
+    private long numSampled = 0;
+    private volatile EquiDepthHistogram histogram = null;
+
+    public void add(Object value) {
+        count.increment();
+        distinct.offer(HyperLogLog.mix(value.hashCode()));
+        if (value instanceof Number) sample(((Number)value).doubleValue());
+    }
+
+    public void remove(Object value) {
+        count.decrement();
+    }
+
+    private synchronized void sample(double value) {
+        if (numSampled<SAMPLE_SIZE) {
+            sample[(int)numSampled] = value;
+        } else {
+            final long position = ThreadLocalRandom.current().nextLong(numSampled+1);
+            if (position<SAMPLE_SIZE) sample[(int)position] = value;
+        }
+        numSampled++;
+        //Rebuild the histogram lazily once the sample has changed noticeably
+        if (histogram!=null && Long.bitCount(numSampled)==1) histogram = null;
+    }
+
+    public long getCount() {
+        return Math.max(0, count.sum());
+    }
+
+    public long getDistinctValues() {
+        return Math.max(1, Math.min(distinct.cardinality(), getCount()));
+    }
+
+    /**
+     * Returns the histogram of the numeric values of this field or null if none have been indexed
+     */
+    public EquiDepthHistogram getHistogram() {
+        EquiDepthHistogram result = histogram;
+        if (result==null) {
+            synchronized (this) {
+                if (numSampled==0) return null;
+                result = EquiDepthHistogram.of(Arrays.copyOf(sample, (int)Math.min(numSampled, SAMPLE_SIZE)), HISTOGRAM_BUCKETS);
+                histogram = result;
+            }
+        }
+        return result;
+    }
+
+}
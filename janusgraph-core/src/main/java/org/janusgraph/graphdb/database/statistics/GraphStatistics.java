@@ -0,0 +1,182 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.statistics;
+
+import com.google.common.base.Preconditions;
+import org.janusgraph.core.JanusGraphElement;
+import org.janusgraph.core.attribute.Cmp;
+import org.janusgraph.core.attribute.Contain;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.indexing.IndexEntry;
+import org.janusgraph.graphdb.database.IndexSerializer;
+import org.janusgraph.graphdb.query.JanusGraphPredicate;
+import org.janusgraph.graphdb.query.condition.Condition;
+import org.janusgraph.graphdb.query.condition.PredicateCondition;
+import org.janusgraph.graphdb.query.graph.JointIndexQuery;
+import org.janusgraph.graphdb.types.CompositeIndexType;
+import org.janusgraph.graphdb.types.IndexType;
+import org.janusgraph.graphdb.types.indextype.IndexTypeWrapper;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps {@link IndexStatistics} for the graph indexes of a graph and estimates the number of hits of index queries
+ * from them.
+ * <p>
+ * Statistics are kept in memory and maintained incrementally from the index updates of committed transactions. The
+ * statistics of composite indexes can be rebuilt from a scan of the index store, see
+ * {@link org.janusgraph.graphdb.olap.job.IndexStatisticsJob}. Estimates are only available for indexes which have
+ * statistics, so that queries against indexes populated before statistics were enabled are planned as without them.
+ *
+ * @see org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#INDEX_STATISTICS
+ */
+public class GraphStatistics {
+
+    /**
+     * Returned by the estimation methods if there are not enough statistics to estimate the number of hits
+     */
+    public static final long UNKNOWN = -1;
+
+    /**
+     * Selectivity assumed for range predicates on fields without a histogram
+     */
+    private static final double DEFAULT_RANGE_SELECTIVITY = 1.0/3;
+    /**
+     * Selectivity assumed for predicates whose selectivity cannot be estimated, e.g. text or geo predicates
+     */
+    private static final double DEFAULT_SELECTIVITY = 0.1;
+
+    private final ConcurrentMap<Long,IndexStatistics> indexes = new ConcurrentHashMap<>();
+
+    public IndexStatistics get(IndexType index) {
+        return indexes.get(getId(index));
+    }
+
+    private IndexStatistics getOrCreate(IndexType index) {
+        return indexes.computeIfAbsent(getId(index), id -> new IndexStatistics());
+    }
+
+    private static long getId(IndexType index) {
+        if (index.isCompositeIndex()) return ((CompositeIndexType) index).getID();
+        return ((IndexTypeWrapper) index).getSchemaBase().longId();
+    }
+
+    /**
+     * Updates the statistics with the given index update of a committed transaction
+     */
+    public void record(IndexSerializer.IndexUpdate update) {
+        final IndexStatistics stats = getOrCreate(update.getIndex());
+        if (update.isCompositeIndex()) {
+            if (update.isAddition()) stats.addEntry((StaticBuffer) update.getKey());
+            else stats.removeEntry();
+        } else {
+            final IndexEntry entry = (IndexEntry) update.getEntry();
+            if (update.isAddition()) stats.getOrCreateField(entry.field).add(entry.value);
+            else stats.getOrCreateField(entry.field).remove(entry.value);
+        }
+    }
+
+    /**
+     * Replaces the statistics of the indexes with the given ids, e.g. after they have been rebuilt from a scan
+     */
+    public void replace(Map<Long,IndexStatistics> statistics) {
+        indexes.putAll(statistics);
+    }
+
+    public void clear() {
+        indexes.clear();
+    }
+
+    /**
+     * Estimates the number of elements returned by the given index query or returns {@link #UNKNOWN}.
+     */
+    public long estimateHits(JointIndexQuery.Subquery query) {
+        final IndexStatistics stats = get(query.getIndex());
+        if (stats==null || stats.isEmpty()) return UNKNOWN;
+        if (query.getIndex().isCompositeIndex()) {
+            return Math.round(query.getCompositeQuery().size() * stats.getEntriesPerKey());
+        } else {
+            final double hits = estimateHits(query.getMixedQuery().getCondition(), stats, stats.getDocuments());
+            return hits<0 ? UNKNOWN : Math.round(hits);
+        }
+    }
+
+    private static double estimateHits(Condition<JanusGraphElement> condition, IndexStatistics stats, long documents) {
+        switch (condition.getType()) {
+            case LITERAL:
+                Preconditions.checkArgument(condition instanceof PredicateCondition, "Unexpected condition: %s", condition);
+                return estimateHits((PredicateCondition<String,JanusGraphElement>) condition, stats);
+            case NOT:
+                final double negated = estimateHits(condition.getChildren().iterator().next(), stats, documents);
+                return negated<0 ? UNKNOWN : Math.max(0, documents - negated);
+            case AND:
+                double fraction = 1.0;
+                for (Condition<JanusGraphElement> child : condition.getChildren()) {
+                    final double hits = estimateHits(child, stats, documents);
+                    if (hits<0) return UNKNOWN;
+                    fraction *= documents>0 ? Math.min(1.0, hits/documents) : 0.0;
+                }
+                return fraction*documents;
+            case OR:
+                double sum = 0;
+                for (Condition<JanusGraphElement> child : condition.getChildren()) {
+                    final double hits = estimateHits(child, stats, documents);
+                    if (hits<0) return UNKNOWN;
+                    sum += hits;
+                }
+                return Math.min(documents, sum);
+            default:
+                throw new IllegalArgumentException("Unexpected condition type: " + condition.getType());
+        }
+    }
+
+    private static double estimateHits(PredicateCondition<String,JanusGraphElement> condition, IndexStatistics stats) {
+        final FieldStatistics field = stats.getField(condition.getKey());
+        if (field==null) return UNKNOWN;
+        final long count = field.getCount();
+        final double perValue = (double) count / field.getDistinctValues();
+        final JanusGraphPredicate predicate = condition.getPredicate();
+        final Object value = condition.getValue();
+        if (predicate==Cmp.EQUAL) {
+            return perValue;
+        } else if (predicate==Cmp.NOT_EQUAL) {
+            return Math.max(0, count - perValue);
+        } else if (predicate==Contain.IN && value instanceof Collection) {
+            return Math.min(count, ((Collection) value).size() * perValue);
+        } else if (predicate==Contain.NOT_IN && value instanceof Collection) {
+            return Math.max(0, count - ((Collection) value).size() * perValue);
+        } else if (predicate instanceof Cmp && value instanceof Number) {
+            final EquiDepthHistogram histogram = field.getHistogram();
+            if (histogram==null) return count * DEFAULT_RANGE_SELECTIVITY;
+            final double below = histogram.fractionBelow(((Number) value).doubleValue());
+            switch ((Cmp) predicate) {
+                case LESS_THAN:
+                case LESS_THAN_EQUAL:
+                    return count * below;
+                case GREATER_THAN:
+                case GREATER_THAN_EQUAL:
+                    return count * (1.0 - below);
+                default:
+                    return count * DEFAULT_SELECTIVITY;
+            }
+        } else {
+            return count * DEFAULT_SELECTIVITY;
+        }
+    }
+
+}
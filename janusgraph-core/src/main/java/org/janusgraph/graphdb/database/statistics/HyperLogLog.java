@@ -0,0 +1,94 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.statistics;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * HyperLogLog sketch which estimates the number of distinct 64 bit hashes offered to it.
+ * <p>
+ * The relative standard error of the estimate is about 1.04/sqrt(2^precision). Small cardinalities are estimated through
+ * linear counting of the empty registers.
+ */
+public class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        Preconditions.checkArgument(precision>=4 && precision<=16,"Invalid precision: %s",precision);
+        this.precision = precision;
+        this.registers = new byte[1<<precision];
+    }
+
+    public synchronized void offer(long hash) {
+        final int index = (int)(hash >>> (Long.SIZE - precision));
+        final long remainder = hash << precision;
+        final int rank = remainder==0 ? Long.SIZE - precision + 1 : Long.numberOfLeadingZeros(remainder) + 1;
+        if (rank>registers[index]) registers[index]=(byte)rank;
+    }
+
+    public synchronized long cardinality() {
+        final int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register==0) zeros++;
+        }
+        final double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(estimate);
+    }
+
+    public synchronized void merge(HyperLogLog other) {
+        Preconditions.checkArgument(other.precision==precision,"Cannot merge sketches of different precision");
+        synchronized (other) {
+            for (int i = 0; i < registers.length; i++) {
+                if (other.registers[i]>registers[i]) registers[i]=other.registers[i];
+            }
+        }
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16: return 0.673;
+            case 32: return 0.697;
+            case 64: return 0.709;
+            default: return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * Spreads the bits of a hash code over all 64 bits (finalization step of MurmurHash3)
+     */
+    public static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
@@ -0,0 +1,94 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.statistics;
+
+import org.janusgraph.diskstorage.StaticBuffer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics on a single graph index.
+ * <p>
+ * For composite indexes, these are the number of index entries and an estimate of the number of distinct index keys,
+ * i.e. of distinct combinations of indexed values. For mixed indexes, {@link FieldStatistics} are kept per index field.
+ * <p>
+ * The estimate of distinct keys is monotone: a {@link HyperLogLog} cannot forget keys, so removed entries only reduce
+ * the number of entries. The estimate is corrected when the statistics are rebuilt by an
+ * {@link org.janusgraph.graphdb.olap.job.IndexStatisticsJob}.
+ */
+public class IndexStatistics {
+
+    private final LongAdder entries = new LongAdder();
+    private final HyperLogLog keys = new HyperLogLog();
+    private final ConcurrentMap<String,FieldStatistics> fields = new ConcurrentHashMap<>();
+
+    public void addEntry(StaticBuffer key) {
+        addEntries(key, 1);
+    }
+
+    /**
+     * Records an index key with the given number of entries, e.g. when scanning the index store
+     */
+    public void addEntries(StaticBuffer key, int numEntries) {
+        entries.add(numEntries);
+        keys.offer(HyperLogLog.mix(key.hashCode()));
+    }
+
+    /**
+     * Records the removal of an entry, which does not affect the estimate of distinct keys
+     */
+    public void removeEntry() {
+        entries.decrement();
+    }
+
+    public long getEntries() {
+        return Math.max(0, entries.sum());
+    }
+
+    public long getDistinctKeys() {
+        return Math.max(1, Math.min(keys.cardinality(), getEntries()));
+    }
+
+    /**
+     * Estimates the number of entries returned by a lookup of a single index key
+     */
+    public double getEntriesPerKey() {
+        return (double) getEntries() / getDistinctKeys();
+    }
+
+    public FieldStatistics getField(String field) {
+        return fields.get(field);
+    }
+
+    public FieldStatistics getOrCreateField(String field) {
+        return fields.computeIfAbsent(field, f -> new FieldStatistics());
+    }
+
+    /**
+     * Estimates the number of documents in a mixed index as the number of values of its most frequent field
+     */
+    public long getDocuments() {
+        long max = 0;
+        for (FieldStatistics field : fields.values()) max = Math.max(max, field.getCount());
+        return max;
+    }
+
+    public boolean isEmpty() {
+        return entries.sum()==0 && fields.isEmpty();
+    }
+
+}
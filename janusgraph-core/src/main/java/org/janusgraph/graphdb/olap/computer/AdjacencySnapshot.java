@@ -0,0 +1,488 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanJob;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanMetrics;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.idmanagement.IDManager;
+import org.janusgraph.util.system.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Read-only snapshot of the adjacency lists of all vertices in the graph which allows iterative vertex programs
+ * to scan the graph from memory instead of re-reading it from the storage backend in every iteration.
+ * <p>
+ * The snapshot is laid out in compressed sparse row form: a primitive array of row addresses indexed by row ordinal
+ * points into large byte segments which hold the vertex key followed by the serialized relations of that vertex in
+ * column order. Segments are allocated on the heap until the configured heap budget is used up and are memory-mapped
+ * from a temporary file beyond that, so that the snapshot can exceed the available heap.
+ * <p>
+ * Relations are retained in their serialized form so that vertex programs retain full access to edge labels and
+ * properties. The queries of each iteration are answered by slicing the snapshotted rows. Rows of heap segments are
+ * returned as views into the segment, rows of memory-mapped segments are copied to the heap when they are read since
+ * all {@link StaticBuffer}s are backed by arrays.
+ *
+ * @see org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#COMPUTER_ADJACENCY_SNAPSHOT
+ */
+public class AdjacencySnapshot implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(AdjacencySnapshot.class);
+
+    /**
+     * Slice covering all relations of a vertex. Equivalent to the grounding query of vertex scan jobs without the limit.
+     */
+    static final SliceQuery ROW_QUERY = new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(4));
+
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 24;
+    private static final int INITIAL_ROW_CAPACITY = 1024;
+
+    private final long maxHeapBytes;
+    private final File spillDirectory;
+    private final int segmentSize;
+
+    private final List<ByteBuffer> segments;
+    private ByteBuffer currentSegment;
+    private long[] rowAddresses;
+    private int numRows;
+    private long numEntries;
+    private long heapBytes;
+    private long mappedBytes;
+
+    private File spillFile;
+    private RandomAccessFile spillRaf;
+
+    private volatile boolean sealed;
+
+    AdjacencySnapshot(long maxHeapBytes, File spillDirectory) {
+        this(maxHeapBytes, spillDirectory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    AdjacencySnapshot(long maxHeapBytes, File spillDirectory, int segmentSize) {
+        Preconditions.checkArgument(maxHeapBytes>=0,"Invalid heap size: %s",maxHeapBytes);
+        Preconditions.checkArgument(segmentSize>0,"Invalid segment size: %s",segmentSize);
+        this.maxHeapBytes = maxHeapBytes;
+        this.spillDirectory = spillDirectory;
+        this.segmentSize = segmentSize;
+        this.segments = new ArrayList<>();
+        this.rowAddresses = new long[INITIAL_ROW_CAPACITY];
+        this.numRows = 0;
+        this.sealed = false;
+    }
+
+    /**
+     * Loads the adjacency lists of all vertices of the given graph into a new snapshot by scanning the edge store once.
+     */
+    public static AdjacencySnapshot load(StandardJanusGraph graph, String jobId, int numThreads, int workBlockSize,
+                                         long maxHeapBytes, File spillDirectory) {
+        final AdjacencySnapshot snapshot = new AdjacencySnapshot(maxHeapBytes, spillDirectory);
+        try {
+            StandardScanner.Builder scanBuilder = graph.getBackend().buildEdgeScanJob();
+            scanBuilder.setJobId(jobId);
+            scanBuilder.setNumProcessingThreads(numThreads);
+            scanBuilder.setWorkBlockSize(workBlockSize);
+            scanBuilder.setJob(new Loader(snapshot, graph.getIDManager()));
+            ScanMetrics jobResult = scanBuilder.execute().get();
+            long failures = jobResult.get(ScanMetrics.Metric.FAILURE);
+            if (failures > 0) {
+                throw new JanusGraphException("Failed to load [" + failures + "] vertices into adjacency snapshot");
+            }
+        } catch (Throwable e) {
+            snapshot.close();
+            if (e instanceof JanusGraphException) throw (JanusGraphException)e;
+            throw new JanusGraphException("Could not load adjacency snapshot", e);
+        }
+        snapshot.seal();
+        log.info("Loaded adjacency snapshot with {} vertices and {} relations ({} bytes on heap, {} bytes memory-mapped)",
+                snapshot.numRows, snapshot.numEntries, snapshot.heapBytes, snapshot.mappedBytes);
+        return snapshot;
+    }
+
+    synchronized void add(StaticBuffer key, EntryList entries) {
+        Preconditions.checkState(!sealed,"Snapshot has already been sealed");
+        int rowLength = 4 + 4 + key.length() + 4;
+        for (Entry entry : entries) rowLength += 8 + entry.length();
+
+        if (currentSegment == null || currentSegment.remaining() < rowLength) {
+            currentSegment = allocateSegment(Math.max(segmentSize, rowLength));
+            segments.add(currentSegment);
+        }
+        final long address = (((long)(segments.size()-1)) << Integer.SIZE) | currentSegment.position();
+
+        currentSegment.putInt(rowLength);
+        currentSegment.putInt(key.length());
+        currentSegment.put(key.as(StaticBuffer.BB_FACTORY));
+        currentSegment.putInt(entries.size());
+        for (Entry entry : entries) {
+            currentSegment.putInt(entry.length());
+            currentSegment.putInt(entry.getValuePosition());
+            currentSegment.put(entry.as(StaticBuffer.BB_FACTORY));
+        }
+
+        if (numRows == rowAddresses.length) rowAddresses = Arrays.copyOf(rowAddresses, rowAddresses.length * 2);
+        rowAddresses[numRows++] = address;
+        numEntries += entries.size();
+    }
+
+    private ByteBuffer allocateSegment(int size) {
+        if (heapBytes + size <= maxHeapBytes) {
+            heapBytes += size;
+            return ByteBuffer.allocate(size);
+        }
+        try {
+            if (spillRaf == null) {
+                spillFile = File.createTempFile("janusgraph-adjacency", ".snapshot", spillDirectory);
+                spillFile.deleteOnExit();
+                spillRaf = new RandomAccessFile(spillFile, "rw");
+                log.debug("Spilling adjacency snapshot to memory-mapped file [{}]", spillFile);
+            }
+            ByteBuffer segment = spillRaf.getChannel().map(FileChannel.MapMode.READ_WRITE, mappedBytes, size);
+            mappedBytes += size;
+            return segment;
+        } catch (IOException e) {
+            throw new JanusGraphException("Could not allocate memory-mapped snapshot segment in: " + spillDirectory, e);
+        }
+    }
+
+    synchronized void seal() {
+        sealed = true;
+        currentSegment = null;
+    }
+
+    public int getNumVertices() {
+        return numRows;
+    }
+
+    public long getNumRelations() {
+        return numEntries;
+    }
+
+    long getHeapBytes() {
+        return heapBytes;
+    }
+
+    long getMappedBytes() {
+        return mappedBytes;
+    }
+
+    /**
+     * Adds the entries of the row with the given ordinal to {@code entries} and returns its key.
+     */
+    StaticBuffer getRow(int row, List<Entry> entries) {
+        Preconditions.checkState(sealed,"Snapshot has not yet been loaded");
+        Preconditions.checkElementIndex(row, numRows);
+        final long address = rowAddresses[row];
+        final ByteBuffer segment = segments.get((int)(address >>> Integer.SIZE));
+        final int rowStart = (int)address;
+        final int rowLength = segment.getInt(rowStart);
+        final byte[] data;
+        int pos;
+        if (segment.hasArray()) {
+            data = segment.array();
+            pos = segment.arrayOffset() + rowStart;
+        } else {
+            final ByteBuffer rowBuffer = segment.duplicate();
+            rowBuffer.position(rowStart);
+            data = new byte[rowLength];
+            rowBuffer.get(data);
+            pos = 0;
+        }
+        final int rowEnd = pos + rowLength;
+        pos += 4;
+
+        final int keyLength = StaticArrayBuffer.getInt(data, pos);
+        pos += 4;
+        final StaticBuffer key = new StaticArrayBuffer(data, pos, pos + keyLength);
+        pos += keyLength;
+        final int size = StaticArrayBuffer.getInt(data, pos);
+        pos += 4;
+        for (int i = 0; i < size; i++) {
+            final int length = StaticArrayBuffer.getInt(data, pos);
+            final int valuePosition = StaticArrayBuffer.getInt(data, pos + 4);
+            pos += 8;
+            entries.add(new StaticArrayEntry(data, pos, pos + length, valuePosition));
+            pos += length;
+        }
+        assert pos == rowEnd;
+        return key;
+    }
+
+    /**
+     * Returns the entries of the given row that fall into the given slice, emulating the store's answer to the query.
+     */
+    static EntryList slice(List<Entry> row, SliceQuery query) {
+        int low = 0, high = row.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (row.get(mid).getColumn().compareTo(query.getSliceStart()) < 0) low = mid + 1;
+            else high = mid;
+        }
+        int end = low;
+        while (end < row.size() && end - low < query.getLimit()
+                && row.get(end).getColumn().compareTo(query.getSliceEnd()) < 0) {
+            end++;
+        }
+        if (end == low) return EntryList.EMPTY_LIST;
+        return new SliceList(row.subList(low, end));
+    }
+
+    /**
+     * View of a slice of a row which avoids copying the entries into a new list.
+     */
+    private static class SliceList extends AbstractList<Entry> implements EntryList {
+
+        private final List<Entry> entries;
+
+        private SliceList(List<Entry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Entry get(int index) {
+            return entries.get(index);
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public Iterator<Entry> reuseIterator() {
+            return iterator();
+        }
+
+        @Override
+        public int getByteSize() {
+            int byteSize = 0;
+            for (Entry entry : entries) byteSize += entry.length();
+            return byteSize;
+        }
+    }
+
+    /**
+     * Executes the given scan job against this snapshot with the same life cycle semantics as
+     * {@link StandardScanner}: the job itself is set up and torn down once while each worker thread processes rows
+     * on a clone of it that is renewed every {@code workBlockSize} rows.
+     */
+    public ScanMetrics execute(ScanJob job, int numThreads, int workBlockSize) throws InterruptedException {
+        Preconditions.checkState(sealed,"Snapshot has not yet been loaded");
+        Preconditions.checkArgument(numThreads > 0 && workBlockSize > 0);
+        final ScanMetrics metrics = new StandardScanMetrics();
+        job.workerIterationStart(Configuration.EMPTY, Configuration.EMPTY, metrics);
+        final List<SliceQuery> queries;
+        final Predicate<StaticBuffer> keyFilter;
+        try {
+            queries = job.getQueries();
+            Preconditions.checkArgument(!queries.isEmpty(),"Must at least specify one query for job: %s",job);
+            keyFilter = job.getKeyFilter();
+        } catch (Throwable e) {
+            job.workerIterationEnd(metrics);
+            throw e;
+        }
+
+        final AtomicInteger nextRow = new AtomicInteger(0);
+        final Worker[] workers = new Worker[numThreads];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(job.clone(), queries, keyFilter, nextRow, workBlockSize, metrics);
+            workers[i].start();
+        }
+        try {
+            for (Worker worker : workers) worker.join();
+        } catch (InterruptedException e) {
+            for (Worker worker : workers) worker.interrupt();
+            //Workers must have stopped reading before the snapshot can be closed and its segments unmapped
+            for (Worker worker : workers) Uninterruptibles.joinUninterruptibly(worker);
+            throw e;
+        } finally {
+            job.workerIterationEnd(metrics);
+        }
+        return metrics;
+    }
+
+    private class Worker extends Thread {
+
+        private static final int BATCH_SIZE = 64;
+
+        private ScanJob job;
+        private final List<SliceQuery> queries;
+        private final Predicate<StaticBuffer> keyFilter;
+        private final AtomicInteger nextRow;
+        private final int workBlockSize;
+        private final ScanMetrics metrics;
+
+        private Worker(ScanJob job, List<SliceQuery> queries, Predicate<StaticBuffer> keyFilter,
+                       AtomicInteger nextRow, int workBlockSize, ScanMetrics metrics) {
+            this.job = job;
+            this.queries = queries;
+            this.keyFilter = keyFilter;
+            this.nextRow = nextRow;
+            this.workBlockSize = workBlockSize;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void run() {
+            int numProcessed = 0;
+            try {
+                job.workerIterationStart(Configuration.EMPTY, Configuration.EMPTY, metrics);
+                int start;
+                while ((start = nextRow.getAndAdd(BATCH_SIZE)) < numRows && !isInterrupted()) {
+                    for (int r = start; r < Math.min(numRows, start + BATCH_SIZE); r++) {
+                        //The slices passed to the job are views of the row, hence every row gets its own list
+                        final List<Entry> row = new ArrayList<>();
+                        final StaticBuffer key = getRow(r, row);
+                        if (!keyFilter.test(key)) continue;
+                        final Map<SliceQuery,EntryList> entries = new HashMap<>(queries.size());
+                        for (SliceQuery query : queries) entries.put(query, slice(row, query));
+                        //Like the scanner, only process keys that are part of the grounding query
+                        if (entries.get(queries.get(0)).isEmpty()) continue;
+
+                        if (numProcessed >= workBlockSize) {
+                            //Setup new chunk of work
+                            job.workerIterationEnd(metrics);
+                            job = job.clone();
+                            job.workerIterationStart(Configuration.EMPTY, Configuration.EMPTY, metrics);
+                            numProcessed = 0;
+                        }
+                        try {
+                            job.process(key, entries, metrics);
+                            metrics.increment(ScanMetrics.Metric.SUCCESS);
+                        } catch (Throwable ex) {
+                            log.error("Exception processing row [" + key + "]: ", ex);
+                            metrics.increment(ScanMetrics.Metric.FAILURE);
+                        }
+                        numProcessed++;
+                    }
+                }
+            } catch (Throwable e) {
+                log.error("Unexpected error processing snapshot data", e);
+                metrics.increment(ScanMetrics.Metric.FAILURE);
+            } finally {
+                job.workerIterationEnd(metrics);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        for (ByteBuffer segment : segments) {
+            if (segment instanceof MappedByteBuffer) unmap(segment);
+        }
+        segments.clear();
+        currentSegment = null;
+        rowAddresses = new long[0];
+        numRows = 0;
+        if (spillRaf != null) {
+            IOUtils.closeQuietly(spillRaf);
+            spillRaf = null;
+            if (!spillFile.delete()) log.warn("Could not delete adjacency snapshot file [{}]", spillFile);
+        }
+    }
+
+    /**
+     * Releases the memory mapping of the given segment right away rather than when it is garbage collected, so that
+     * the address space and the spill file are freed on close. Since there is no public API for this, it is
+     * attempted through the buffer's cleaner on Java 8 and through {@code Unsafe.invokeCleaner} on later versions.
+     */
+    private static void unmap(ByteBuffer segment) {
+        try {
+            final Method cleanerMethod = segment.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(segment);
+            cleaner.getClass().getMethod("clean").invoke(cleaner);
+            return;
+        } catch (Exception | LinkageError e) {
+            //Not accessible on this Java version
+        }
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(unsafeField.get(null), segment);
+        } catch (Exception | LinkageError e) {
+            log.debug("Could not unmap adjacency snapshot segment, it is released once it is garbage collected", e);
+        }
+    }
+
+    /**
+     * Scan job which copies the full row of every visible vertex into the snapshot.
+     */
+    private static class Loader implements ScanJob {
+
+        private final AdjacencySnapshot snapshot;
+        private final IDManager idManager;
+
+        private Loader(AdjacencySnapshot snapshot, IDManager idManager) {
+            this.snapshot = snapshot;
+            this.idManager = idManager;
+        }
+
+        @Override
+        public void process(StaticBuffer key, Map<SliceQuery, EntryList> entries, ScanMetrics metrics) {
+            snapshot.add(key, entries.get(ROW_QUERY));
+        }
+
+        @Override
+        public List<SliceQuery> getQueries() {
+            return Collections.singletonList(ROW_QUERY);
+        }
+
+        @Override
+        public Predicate<StaticBuffer> getKeyFilter() {
+            return buffer -> !IDManager.VertexIDType.Invisible.is(idManager.getKeyID(buffer));
+        }
+
+        @Override
+        public Loader clone() {
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,376 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import com.carrotsearch.hppc.BitMixer;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.google.common.base.Preconditions;
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.cliffc.high_scale_lib.NonBlockingHashMapLong;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link VertexStateStore} which stores compute key values and messages column by column instead of one state object
+ * per vertex.
+ * <p>
+ * Vertices are mapped to dense ordinals on first access. Each compute key and each message scope is a column which
+ * holds numeric values (longs, integers, doubles and floats) encoded into primitive long arrays indexed by ordinal,
+ * so that the per-vertex heap overhead of such values reduces to a few bytes. Values of any other type, or values
+ * whose type differs from the one the column was first written with, are kept in a per-column hash map.
+ * <p>
+ * Like {@link VertexState}, writes of messages are atomic per vertex while properties are only written by the
+ * thread executing the vertex program on the respective vertex. Values written in one iteration are visible to all
+ * threads in the next since iterations are separated by joining the worker threads.
+ */
+class ColumnarVertexStateStore<M> implements VertexStateStore<M> {
+
+    private static final int NUM_LOCKS = 1024;
+
+    private final VertexOrdinals ordinals;
+    private final Map<String,Integer> elementKeyMap;
+    private final Column[] properties;
+    private final MessageCombiner<M> combiner;
+    private final Object[] locks;
+
+    private volatile Column[] previousMessages;
+    private volatile Column[] currentMessages;
+
+    ColumnarVertexStateStore(Map<String,Integer> elementKeyMap, MessageCombiner<M> combiner) {
+        this.ordinals = new VertexOrdinals();
+        this.elementKeyMap = elementKeyMap;
+        this.properties = newColumns(elementKeyMap.size());
+        this.combiner = combiner;
+        this.locks = new Object[NUM_LOCKS];
+        for (int i = 0; i < locks.length; i++) locks[i] = new Object();
+        this.previousMessages = null;
+        this.currentMessages = null;
+    }
+
+    private static Column[] newColumns(int size) {
+        Column[] columns = new Column[size];
+        for (int i = 0; i < size; i++) columns[i] = new Column();
+        return columns;
+    }
+
+    private Object getLock(int ordinal) {
+        return locks[ordinal & (NUM_LOCKS - 1)];
+    }
+
+    @Override
+    public <V> void setProperty(long vertexId, String key, V value) {
+        assert elementKeyMap.containsKey(key);
+        properties[elementKeyMap.get(key)].set(ordinals.getOrCreate(vertexId), value);
+    }
+
+    @Override
+    public <V> V getProperty(long vertexId, String key) {
+        assert elementKeyMap.containsKey(key);
+        final int ordinal = ordinals.get(vertexId);
+        if (ordinal < 0) return null;
+        return (V) properties[elementKeyMap.get(key)].get(ordinal);
+    }
+
+    private Column getCurrentMessages(MessageScope scope, Map<MessageScope,Integer> scopeMap) {
+        Preconditions.checkArgument(scopeMap.containsKey(scope),"Provided scope was not declared in the VertexProgram: %s",scope);
+        Column[] columns = currentMessages;
+        if (columns == null) {
+            synchronized (this) {
+                columns = currentMessages;
+                if (columns == null) currentMessages = columns = newColumns(scopeMap.size());
+            }
+        }
+        return columns[scopeMap.get(scope)];
+    }
+
+    @Override
+    public void setMessage(long vertexId, M message, MessageScope scope, Map<MessageScope,Integer> scopeMap) {
+        assert message!=null && scope!=null;
+        final Column column = getCurrentMessages(scope, scopeMap);
+        final int ordinal = ordinals.getOrCreate(vertexId);
+        synchronized (getLock(ordinal)) {
+            column.set(ordinal, message);
+        }
+    }
+
+    @Override
+    public void addMessage(long vertexId, M message, MessageScope scope, Map<MessageScope,Integer> scopeMap) {
+        assert message!=null && scope!=null && combiner!=null;
+        final Column column = getCurrentMessages(scope, scopeMap);
+        final int ordinal = ordinals.getOrCreate(vertexId);
+        synchronized (getLock(ordinal)) {
+            final M current = (M) column.get(ordinal);
+            column.set(ordinal, current == null ? message : combiner.combine(message, current));
+        }
+    }
+
+    @Override
+    public M getMessage(long vertexId, MessageScope scope, Map<MessageScope,Integer> scopeMap) {
+        assert scope!=null && scopeMap.containsKey(scope);
+        final Column[] columns = previousMessages;
+        if (columns == null) return null;
+        final int ordinal = ordinals.get(vertexId);
+        if (ordinal < 0) return null;
+        return (M) columns[scopeMap.get(scope)].get(ordinal);
+    }
+
+    @Override
+    public synchronized void completeIteration() {
+        previousMessages = currentMessages;
+        currentMessages = null;
+    }
+
+    @Override
+    public Map<Long,Map<String,Object>> getVertexProperties() {
+        return new AbstractMap<Long,Map<String,Object>>() {
+            @Override
+            public Set<Entry<Long,Map<String,Object>>> entrySet() {
+                return new AbstractSet<Entry<Long,Map<String,Object>>>() {
+                    @Override
+                    public Iterator<Entry<Long,Map<String,Object>>> iterator() {
+                        final int size = ordinals.size();
+                        return new Iterator<Entry<Long,Map<String,Object>>>() {
+                            private int next = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return next < size;
+                            }
+
+                            @Override
+                            public Entry<Long,Map<String,Object>> next() {
+                                if (!hasNext()) throw new NoSuchElementException();
+                                final int ordinal = next++;
+                                final Map<String,Object> map = new HashMap<>(elementKeyMap.size());
+                                for (Map.Entry<String,Integer> key : elementKeyMap.entrySet()) {
+                                    Object v = properties[key.getValue()].get(ordinal);
+                                    if (v!=null) map.put(key.getKey(),v);
+                                }
+                                return new SimpleImmutableEntry<>(ordinals.getVertexId(ordinal), map);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return ordinals.size();
+                    }
+                };
+            }
+        };
+    }
+
+    int getNumVertices() {
+        return ordinals.size();
+    }
+
+    /**
+     * Growable array of fixed size chunks. Chunks are created and the chunk directory is grown under the lock of the
+     * array, chunk contents are read and written without synchronization.
+     */
+    private abstract static class ChunkedArray<C> {
+
+        static final int CHUNK_BITS = 12;
+        static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+        static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+        private volatile Object[] chunks = new Object[16];
+
+        abstract C newChunk();
+
+        final C getChunk(int index) {
+            final Object[] c = chunks;
+            final int chunk = index >>> CHUNK_BITS;
+            return chunk < c.length ? (C) c[chunk] : null;
+        }
+
+        final C getOrCreateChunk(int index) {
+            C result = getChunk(index);
+            if (result != null) return result;
+            synchronized (this) {
+                final int chunk = index >>> CHUNK_BITS;
+                Object[] c = chunks;
+                if (chunk >= c.length) c = Arrays.copyOf(c, Math.max(c.length * 2, chunk + 1));
+                if (c[chunk] == null) c[chunk] = newChunk();
+                chunks = c;
+                return (C) c[chunk];
+            }
+        }
+    }
+
+    private static class LongArray extends ChunkedArray<long[]> {
+        @Override
+        long[] newChunk() {
+            return new long[CHUNK_SIZE];
+        }
+    }
+
+    private static class ByteArray extends ChunkedArray<byte[]> {
+        @Override
+        byte[] newChunk() {
+            return new byte[CHUNK_SIZE];
+        }
+    }
+
+    /**
+     * Primitive value types which are stored in the long arrays of a {@link Column}
+     */
+    enum PrimitiveType {
+        LONG {
+            @Override long encode(Object value) { return (Long) value; }
+            @Override Object decode(long bits) { return bits; }
+        },
+        INTEGER {
+            @Override long encode(Object value) { return (Integer) value; }
+            @Override Object decode(long bits) { return (int) bits; }
+        },
+        DOUBLE {
+            @Override long encode(Object value) { return Double.doubleToRawLongBits((Double) value); }
+            @Override Object decode(long bits) { return Double.longBitsToDouble(bits); }
+        },
+        FLOAT {
+            @Override long encode(Object value) { return Float.floatToRawIntBits((Float) value); }
+            @Override Object decode(long bits) { return Float.intBitsToFloat((int) bits); }
+        };
+
+        abstract long encode(Object value);
+
+        abstract Object decode(long bits);
+
+        /**
+         * Returns the primitive type of the given value or null if it is stored as an object
+         */
+        static PrimitiveType of(Object value) {
+            if (value instanceof Long) return LONG;
+            else if (value instanceof Integer) return INTEGER;
+            else if (value instanceof Double) return DOUBLE;
+            else if (value instanceof Float) return FLOAT;
+            else return null;
+        }
+    }
+
+    /**
+     * Values of one compute key or message scope for all vertices. The primitive type of a column is determined by
+     * the first primitive value written to it, all other values are stored as objects.
+     */
+    static class Column {
+
+        private static final byte ABSENT = 0;
+        private static final byte PRIMITIVE = 1;
+        private static final byte OBJECT = 2;
+
+        private final AtomicReference<PrimitiveType> type = new AtomicReference<>();
+        private final LongArray values = new LongArray();
+        private final ByteArray states = new ByteArray();
+        private final NonBlockingHashMapLong<Object> objects = new NonBlockingHashMapLong<>(16);
+
+        Object get(int ordinal) {
+            final byte[] stateChunk = states.getChunk(ordinal);
+            if (stateChunk == null) return null;
+            final int pos = ordinal & ChunkedArray.CHUNK_MASK;
+            switch (stateChunk[pos]) {
+                case ABSENT: return null;
+                case PRIMITIVE: return type.get().decode(values.getChunk(ordinal)[pos]);
+                case OBJECT: return objects.get(ordinal);
+                default: throw new AssertionError();
+            }
+        }
+
+        void set(int ordinal, Object value) {
+            final byte[] stateChunk = states.getOrCreateChunk(ordinal);
+            final int pos = ordinal & ChunkedArray.CHUNK_MASK;
+            final byte previous = stateChunk[pos];
+            if (value == null) {
+                stateChunk[pos] = ABSENT;
+            } else {
+                final PrimitiveType valueType = PrimitiveType.of(value);
+                if (valueType != null) type.compareAndSet(null, valueType);
+                if (valueType != null && valueType == type.get()) {
+                    values.getOrCreateChunk(ordinal)[pos] = valueType.encode(value);
+                    stateChunk[pos] = PRIMITIVE;
+                } else {
+                    objects.put(ordinal, value);
+                    stateChunk[pos] = OBJECT;
+                    return;
+                }
+            }
+            if (previous == OBJECT) objects.remove(ordinal);
+        }
+    }
+
+    /**
+     * Assigns dense, consecutive ordinals to vertex ids. The mapping is partitioned into segments which are each
+     * guarded by their own lock to limit contention between worker threads.
+     */
+    static class VertexOrdinals {
+
+        private static final int NUM_SEGMENTS = 64;
+
+        private final LongIntHashMap[] segments;
+        private final AtomicInteger size;
+        private final LongArray vertexIds;
+
+        VertexOrdinals() {
+            segments = new LongIntHashMap[NUM_SEGMENTS];
+            for (int i = 0; i < segments.length; i++) segments[i] = new LongIntHashMap();
+            size = new AtomicInteger(0);
+            vertexIds = new LongArray();
+        }
+
+        private LongIntHashMap getSegment(long vertexId) {
+            return segments[(int) (BitMixer.mix64(vertexId) & (NUM_SEGMENTS - 1))];
+        }
+
+        int get(long vertexId) {
+            final LongIntHashMap segment = getSegment(vertexId);
+            synchronized (segment) {
+                return segment.getOrDefault(vertexId, -1);
+            }
+        }
+
+        int getOrCreate(long vertexId) {
+            final LongIntHashMap segment = getSegment(vertexId);
+            synchronized (segment) {
+                int ordinal = segment.getOrDefault(vertexId, -1);
+                if (ordinal < 0) {
+                    ordinal = size.getAndIncrement();
+                    vertexIds.getOrCreateChunk(ordinal)[ordinal & ChunkedArray.CHUNK_MASK] = vertexId;
+                    segment.put(vertexId, ordinal);
+                }
+                return ordinal;
+            }
+        }
+
+        long getVertexId(int ordinal) {
+            Preconditions.checkElementIndex(ordinal, size.get());
+            return vertexIds.getChunk(ordinal)[ordinal & ChunkedArray.CHUNK_MASK];
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+
+}
@@ -22,6 +22,7 @@ import org.janusgraph.core.JanusGraphComputer;
 import org.janusgraph.core.JanusGraphTransaction;
 import org.janusgraph.core.schema.JanusGraphManagement;
 import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanJob;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
 import org.janusgraph.diskstorage.keycolumnvalue.scan.StandardScanner;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
@@ -47,6 +48,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -73,11 +75,16 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
     private final int expectedNumVertices = 10000;
     private FulgoraMemory memory;
     private FulgoraVertexMemory vertexMemory;
+    private AdjacencySnapshot snapshot;
     private boolean executed = false;
 
     private int numThreads = 1;//Math.max(1,Runtime.getRuntime().availableProcessors());
     private final int readBatchSize;
     private final int writeBatchSize;
+    private final boolean useAdjacencySnapshot;
+    private final long snapshotHeapSize;
+    private final File snapshotDirectory;
+    private final String vertexStateStore;
 
     private ResultGraph resultGraphMode = null;
     private Persist persistMode = null;
@@ -92,6 +99,11 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
         this.graph = graph;
         this.writeBatchSize = configuration.get(GraphDatabaseConfiguration.BUFFER_SIZE);
         this.readBatchSize = this.writeBatchSize * 10;
+        this.useAdjacencySnapshot = configuration.get(GraphDatabaseConfiguration.COMPUTER_ADJACENCY_SNAPSHOT);
+        this.snapshotHeapSize = configuration.get(GraphDatabaseConfiguration.COMPUTER_SNAPSHOT_HEAP_SIZE);
+        this.snapshotDirectory = configuration.has(GraphDatabaseConfiguration.COMPUTER_SNAPSHOT_DIRECTORY) ?
+                new File(configuration.get(GraphDatabaseConfiguration.COMPUTER_SNAPSHOT_DIRECTORY)) : null;
+        this.vertexStateStore = configuration.get(GraphDatabaseConfiguration.COMPUTER_VERTEX_STATE);
         this.name = "compute" + computerCounter.incrementAndGet();
     }
 
@@ -169,11 +181,16 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
 
         memory = new FulgoraMemory(vertexProgram, mapReduces);
 
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.<ComputerResult>supplyAsync(() -> {
             final long time = System.currentTimeMillis();
             if (null != vertexProgram) {
+                if (useAdjacencySnapshot) {
+                    // ##### Load adjacency lists once so that iterations do not have to scan the storage backend
+                    snapshot = AdjacencySnapshot.load(graph, name + "#snapshot", numThreads, readBatchSize,
+                            snapshotHeapSize, snapshotDirectory);
+                }
                 // ##### Execute vertex program
-                vertexMemory = new FulgoraVertexMemory(expectedNumVertices, graph.getIDManager(), vertexProgram);
+                vertexMemory = new FulgoraVertexMemory(expectedNumVertices, graph.getIDManager(), vertexProgram, vertexStateStore);
                 // execute the vertex program
                 vertexProgram.setup(memory);
 
@@ -183,15 +200,10 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
                         vertexMemory.nextIteration(vertexProgram.getMessageScopes(memory));
 
                         jobId = name + "#" + iteration;
-                        StandardScanner.Builder scanBuilder = graph.getBackend().buildEdgeScanJob();
-                        scanBuilder.setJobId(jobId);
-                        scanBuilder.setNumProcessingThreads(numThreads);
-                        scanBuilder.setWorkBlockSize(readBatchSize);
-                        scanBuilder.setJob(job);
                         PartitionedVertexProgramExecutor programExecutor = new PartitionedVertexProgramExecutor(graph, memory, vertexMemory, vertexProgram);
                         try {
                             //Iterates over all vertices and computes the vertex program on all non-partitioned vertices. For partitioned ones, the data is aggregated
-                            ScanMetrics jobResult = scanBuilder.execute().get();
+                            ScanMetrics jobResult = executeScan(job);
                             long failures = jobResult.get(ScanMetrics.Metric.FAILURE);
                             if (failures > 0) {
                                 throw new JanusGraphException("Failed to process [" + failures + "] vertices in vertex program iteration [" + iteration + "]. Computer is aborting.");
@@ -231,13 +243,8 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
             // Execute map jobs
             jobId = name + "#map";
             try (VertexMapJob.Executor job = VertexMapJob.getVertexMapJob(graph, vertexMemory, mapJobs)) {
-                StandardScanner.Builder scanBuilder = graph.getBackend().buildEdgeScanJob();
-                scanBuilder.setJobId(jobId);
-                scanBuilder.setNumProcessingThreads(numThreads);
-                scanBuilder.setWorkBlockSize(readBatchSize);
-                scanBuilder.setJob(job);
                 try {
-                    ScanMetrics jobResult = scanBuilder.execute().get();
+                    ScanMetrics jobResult = executeScan(job);
                     long failures = jobResult.get(ScanMetrics.Metric.FAILURE);
                     if (failures > 0) {
                         throw new JanusGraphException("Failed to process [" + failures + "] vertices in map phase. Computer is aborting.");
@@ -345,9 +352,30 @@ public class FulgoraGraphComputer implements JanusGraphComputer {
             this.memory.setRuntime(System.currentTimeMillis() - time);
             this.memory.complete();
             return new DefaultComputerResult(resultgraph, this.memory);
+        }).whenComplete((result, failure) -> {
+            if (snapshot != null) {
+                snapshot.close();
+                snapshot = null;
+            }
         });
     }
 
+    /**
+     * Runs the given job over all vertices, either against the adjacency snapshot if one has been loaded or by
+     * scanning the edge store.
+     */
+    private ScanMetrics executeScan(ScanJob job) throws Exception {
+        if (snapshot != null) {
+            return snapshot.execute(job, numThreads, readBatchSize);
+        }
+        StandardScanner.Builder scanBuilder = graph.getBackend().buildEdgeScanJob();
+        scanBuilder.setJobId(jobId);
+        scanBuilder.setNumProcessingThreads(numThreads);
+        scanBuilder.setWorkBlockSize(readBatchSize);
+        scanBuilder.setJob(job);
+        return scanBuilder.execute().get();
+    }
+
 
     private class VertexPropertyWriter implements Runnable {
 
@@ -38,7 +38,7 @@ public class FulgoraVertexMemory<M> {
 
 
 
-    private final NonBlockingHashMapLong<VertexState<M>> vertexStates;
+    private final VertexStateStore<M> vertexStates;
     private final IDManager idManager;
     private final Set<VertexComputeKey> computeKeys;
     private final Map<String,Integer> elementKeyMap;
@@ -50,25 +50,32 @@ public class FulgoraVertexMemory<M> {
     private final NonBlockingHashMapLong<PartitionVertexAggregate<M>> partitionVertices;
 
     public FulgoraVertexMemory(int numVertices, final IDManager idManager, final VertexProgram<M> vertexProgram) {
+        this(numVertices, idManager, vertexProgram, VertexStateStore.OBJECT);
+    }
+
+    /**
+     * @param vertexStateStore the name of the {@link VertexStateStore} used to store compute key values and messages
+     * @see org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#COMPUTER_VERTEX_STATE
+     */
+    public FulgoraVertexMemory(int numVertices, final IDManager idManager, final VertexProgram<M> vertexProgram,
+                               final String vertexStateStore) {
         Preconditions.checkArgument(numVertices>=0 && vertexProgram!=null && idManager!=null);
-        vertexStates = new NonBlockingHashMapLong<>(numVertices);
         partitionVertices = new NonBlockingHashMapLong<>(64);
         this.idManager = idManager;
         this.combiner = FulgoraUtil.getMessageCombiner(vertexProgram);
         this.computeKeys = vertexProgram.getVertexComputeKeys();
         this.elementKeyMap = getIdMap(vertexProgram.getVertexComputeKeys().stream().map(VertexComputeKey::getKey).collect(Collectors.toCollection(HashSet::new)));
         this.previousScopes = ImmutableMap.of();
-    }
-
-    private VertexState<M> get(long vertexId, boolean create) {
-        assert vertexId==getCanonicalId(vertexId);
-        VertexState<M> state = vertexStates.get(vertexId);
-        if (state==null) {
-            if (!create) return VertexState.EMPTY_STATE;
-            vertexStates.putIfAbsent(vertexId,new VertexState<>(elementKeyMap));
-            state = vertexStates.get(vertexId);
+        switch (vertexStateStore) {
+            case VertexStateStore.OBJECT:
+                vertexStates = new ObjectVertexStateStore<>(numVertices, elementKeyMap, combiner);
+                break;
+            case VertexStateStore.COLUMNAR:
+                vertexStates = new ColumnarVertexStateStore<>(elementKeyMap, combiner);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown vertex state store: " + vertexStateStore);
         }
-        return state;
     }
 
     public long getCanonicalId(long vertexId) {
@@ -81,25 +88,28 @@ public class FulgoraVertexMemory<M> {
     }
 
     public<V> void setProperty(long vertexId, String key, V value) {
-        get(vertexId,true).setProperty(key,value,elementKeyMap);
+        assert vertexId==getCanonicalId(vertexId);
+        vertexStates.setProperty(vertexId,key,value);
     }
 
     public<V> V getProperty(long vertexId, String key) {
-        return get(vertexId,false).getProperty(key,elementKeyMap);
+        assert vertexId==getCanonicalId(vertexId);
+        return vertexStates.getProperty(vertexId,key);
     }
 
     void sendMessage(long vertexId, M message, MessageScope scope) {
-        VertexState<M> state = get(vertexId,true);
-        if (scope instanceof MessageScope.Global) state.addMessage(message,GLOBAL_SCOPE,currentScopes,combiner);
-        else state.setMessage(message,scope,currentScopes);
+        assert vertexId==getCanonicalId(vertexId);
+        if (scope instanceof MessageScope.Global) vertexStates.addMessage(vertexId,message,GLOBAL_SCOPE,currentScopes);
+        else vertexStates.setMessage(vertexId,message,scope,currentScopes);
     }
 
     M getMessage(long vertexId, MessageScope scope) {
-        return get(vertexId,false).getMessage(normalizeScope(scope),previousScopes);
+        assert vertexId==getCanonicalId(vertexId);
+        return vertexStates.getMessage(vertexId,normalizeScope(scope),previousScopes);
     }
 
     void completeIteration() {
-        for (VertexState<M> state : vertexStates.values()) state.completeIteration();
+        vertexStates.completeIteration();
         partitionVertices.clear();
         previousScopes = currentScopes;
         inExecute = false;
@@ -112,14 +122,7 @@ public class FulgoraVertexMemory<M> {
     }
 
     public Map<Long,Map<String,Object>> getMutableVertexProperties() {
-        return Maps.transformValues(vertexStates, vs -> {
-            Map<String,Object> map = new HashMap<>(elementKeyMap.size());
-            for (String key : elementKeyMap.keySet()) {
-                Object v = vs.getProperty(key,elementKeyMap);
-                if (v!=null) map.put(key,v);
-            }
-            return map;
-        });
+        return vertexStates.getVertexProperties();
     }
 
     public Set<String> getMemoryKeys() {
@@ -0,0 +1,63 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+
+import java.util.Map;
+
+/**
+ * Stores the compute key values and messages of all vertices for {@link FulgoraVertexMemory}.
+ * <p>
+ * Vertex ids passed to a store are canonical. Messages are written for the current iteration and read from the
+ * previous one, where the scope maps identify the message scopes of the respective iteration.
+ *
+ * @see org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration#COMPUTER_VERTEX_STATE
+ */
+interface VertexStateStore<M> {
+
+    String OBJECT = "object";
+    String COLUMNAR = "columnar";
+
+    <V> void setProperty(long vertexId, String key, V value);
+
+    <V> V getProperty(long vertexId, String key);
+
+    /**
+     * Sets the message for the given scope of the current iteration, replacing any previous one
+     */
+    void setMessage(long vertexId, M message, MessageScope scope, Map<MessageScope,Integer> scopeMap);
+
+    /**
+     * Combines the message with any existing message for the given scope of the current iteration
+     */
+    void addMessage(long vertexId, M message, MessageScope scope, Map<MessageScope,Integer> scopeMap);
+
+    /**
+     * Returns the message received in the given scope during the previous iteration
+     */
+    M getMessage(long vertexId, MessageScope scope, Map<MessageScope,Integer> scopeMap);
+
+    /**
+     * Makes the messages of the current iteration the ones of the previous iteration
+     */
+    void completeIteration();
+
+    /**
+     * Returns a view of the compute key values of all vertices that have a state, keyed by vertex id
+     */
+    Map<Long,Map<String,Object>> getVertexProperties();
+
+}
@@ -0,0 +1,91 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.job;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanJob;
+import org.janusgraph.diskstorage.keycolumnvalue.scan.ScanMetrics;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.graphdb.database.IndexSerializer;
+import org.janusgraph.graphdb.database.statistics.GraphStatistics;
+import org.janusgraph.graphdb.database.statistics.IndexStatistics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Rebuilds the {@link IndexStatistics} of all composite graph indexes by scanning the graph index store.
+ * The statistics collected by all workers are published to the {@link GraphStatistics} of the graph once the scan
+ * has completed, see {@link #getFinishJob()}.
+ * <p>
+ * This job collects statistics into the memory of the scanning instance and can therefore only be executed locally.
+ */
+public class IndexStatisticsJob implements ScanJob {
+
+    public static final String INDEX_KEYS_COUNT = "index-keys";
+    public static final String INDEX_ENTRIES_COUNT = "index-entries";
+
+    private final IndexSerializer indexSerializer;
+    private final GraphStatistics statistics;
+    private final ConcurrentMap<Long,IndexStatistics> collected;
+
+    public IndexStatisticsJob(IndexSerializer indexSerializer, GraphStatistics statistics) {
+        this(indexSerializer, statistics, new ConcurrentHashMap<>());
+    }
+
+    private IndexStatisticsJob(IndexSerializer indexSerializer, GraphStatistics statistics,
+                               ConcurrentMap<Long,IndexStatistics> collected) {
+        Preconditions.checkNotNull(indexSerializer);
+        Preconditions.checkNotNull(statistics);
+        this.indexSerializer = indexSerializer;
+        this.statistics = statistics;
+        this.collected = collected;
+    }
+
+    @Override
+    public void process(StaticBuffer key, Map<SliceQuery, EntryList> entries, ScanMetrics metrics) {
+        int numEntries = 0;
+        for (EntryList list : entries.values()) numEntries += list.size();
+        if (numEntries==0) return;
+        final long indexId = indexSerializer.getIndexIdFromKey(key);
+        collected.computeIfAbsent(indexId, id -> new IndexStatistics()).addEntries(key, numEntries);
+        metrics.incrementCustom(INDEX_KEYS_COUNT);
+        metrics.incrementCustom(INDEX_ENTRIES_COUNT, numEntries);
+    }
+
+    @Override
+    public List<SliceQuery> getQueries() {
+        return ImmutableList.of(new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(128)));
+    }
+
+    /**
+     * Returns the job to run after the scan, which replaces the statistics of the scanned indexes with those collected
+     */
+    public Consumer<ScanMetrics> getFinishJob() {
+        return metrics -> statistics.replace(collected);
+    }
+
+    @Override
+    public IndexStatisticsJob clone() {
+        return new IndexStatisticsJob(indexSerializer, statistics, collected);
+    }
+}
@@ -14,6 +14,7 @@
 
 package org.janusgraph.graphdb.query;
 import java.util.Iterator;
+import java.util.List;
 import com.codahale.metrics.Timer;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
@@ -60,6 +61,19 @@ public class MetricsQueryExecutor<Q extends ElementQuery,R extends JanusGraphEle
         return runWithMetrics("execute", v -> qe.execute(query, subquery, executionInfo, profiler));
     }
 
+    @Override
+    public boolean isStreamed(final Q query, final B subquery) {
+        return qe.isStreamed(query, subquery);
+    }
+
+    @Override
+    public void prefetch(final Q query, final List<B> subqueries) {
+        runWithMetrics("prefetch", v -> {
+            qe.prefetch(query, subqueries);
+            return null;
+        });
+    }
+
     private <T> T runWithMetrics(String opName, Function<Void,T> impl) {
 
         Preconditions.checkNotNull(opName);
@@ -18,6 +18,7 @@ import org.janusgraph.core.JanusGraphElement;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
 
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Executes a given query and its subqueries against an underlying data store and transaction.
@@ -65,4 +66,28 @@ public interface QueryExecutor<Q extends ElementQuery,R extends JanusGraphElemen
      */
     Iterator<R> execute(Q query, B subquery, Object executionInfo, QueryProfiler profiler);
 
+    /**
+     * Whether the results of the given sub-query are streamed from the data store as they are consumed. In that case, the
+     * {@link QueryProcessor} executes the sub-query without a limit instead of re-executing it with increasing limits
+     * until enough results have passed in-memory filtering.
+     *
+     * @param query
+     * @param subquery
+     * @return
+     */
+    default boolean isStreamed(Q query, B subquery) {
+        return false;
+    }
+
+    /**
+     * Gives the executor the opportunity to retrieve the results of the given sub-queries ahead of their execution, which
+     * the {@link QueryProcessor} calls once per execution of a query with multiple sub-queries. The sub-queries are passed
+     * with the limits they will be executed with.
+     *
+     * @param query
+     * @param subqueries
+     */
+    default void prefetch(Q query, List<B> subqueries) {
+    }
+
 }
@@ -70,11 +70,12 @@ public class QueryProcessor<Q extends ElementQuery<R, B>, R extends JanusGraphEl
         Iterator<R> iterator = null;
         boolean hasDeletions = executor.hasDeletions(query);
         Iterator<R> newElements = executor.getNew(query);
+        if (query.numSubQueries() > 1) prefetch();
         if (query.isSorted()) {
             for (int i = query.numSubQueries() - 1; i >= 0; i--) {
                 BackendQueryHolder<B> subquery = query.getSubQuery(i);
                 Iterator<R> subqueryIterator = getFilterIterator((subquery.isSorted())
-                                                            ? new LimitAdjustingIterator(subquery)
+                                                            ? getSubqueryIterator(subquery)
                                                             : new PreSortingIterator(subquery),
                                                          hasDeletions,
                                                          !subquery.isFitted());
@@ -102,7 +103,7 @@ public class QueryProcessor<Q extends ElementQuery<R, B>, R extends JanusGraphEl
             final List<Iterator<R>> iterators = new ArrayList<>(query.numSubQueries());
             for (int i = 0; i < query.numSubQueries(); i++) {
                 final BackendQueryHolder<B> subquery = query.getSubQuery(i);
-                Iterator<R> subIterator = new LimitAdjustingIterator(subquery);
+                Iterator<R> subIterator = getSubqueryIterator(subquery);
                 subIterator = getFilterIterator(subIterator, hasDeletions, !subquery.isFitted());
                 if (!allNew.isEmpty()) {
                     subIterator = Iterators.filter(subIterator, r -> !allNew.contains(r));
@@ -128,6 +129,27 @@ public class QueryProcessor<Q extends ElementQuery<R, B>, R extends JanusGraphEl
         return iterator;
     }
 
+    private void prefetch() {
+        final List<B> subqueries = new ArrayList<>(query.numSubQueries());
+        for (int i = 0; i < query.numSubQueries(); i++) {
+            final BackendQueryHolder<B> subquery = query.getSubQuery(i);
+            final B backendQuery = subquery.getBackendQuery();
+            if (query.isSorted() && !subquery.isSorted()) subqueries.add(backendQuery.updateLimit(MAX_SORT_ITERATION));
+            else if (executor.isStreamed(query, backendQuery)) subqueries.add(backendQuery.updateLimit(Query.NO_LIMIT));
+            else subqueries.add(backendQuery);
+        }
+        executor.prefetch(query, subqueries);
+    }
+
+    private Iterator<R> getSubqueryIterator(BackendQueryHolder<B> subquery) {
+        final B backendQuery = subquery.getBackendQuery();
+        if (executor.isStreamed(query, backendQuery)) {
+            return executor.execute(query, backendQuery.updateLimit(Query.NO_LIMIT), subquery.getExecutionInfo(),
+                    subquery.getProfiler());
+        }
+        return new LimitAdjustingIterator(subquery);
+    }
+
     private Iterator<R> getFilterIterator(final Iterator<R> iterator, final boolean filterDeletions, final boolean filterMatches) {
         if (filterDeletions || filterMatches) {
             return Iterators.filter(iterator, r -> (!filterDeletions || !executor.isDeleted(query, r)) && (!filterMatches || query.matches(r)));
@@ -23,6 +23,9 @@ import org.janusgraph.graphdb.internal.InternalRelationType;
 import org.janusgraph.graphdb.query.condition.*;
 import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Utility methods used in query optimization and processing.
@@ -162,16 +165,7 @@ public class QueryUtil {
 
             Object value = atom.getValue();
             JanusGraphPredicate predicate = atom.getPredicate();
-
-
-            if (type.isPropertyKey()) {
-                PropertyKey key = (PropertyKey) type;
-                assert predicate.isValidCondition(value);
-                Preconditions.checkArgument(key.dataType()==Object.class || predicate.isValidValueType(key.dataType()), "Data type of key is not compatible with condition");
-            } else { //its a label
-                Preconditions.checkArgument(((EdgeLabel) type).isUnidirected());
-                Preconditions.checkArgument(predicate.isValidValueType(JanusGraphVertex.class), "Data type of key is not compatible with condition");
-            }
+            verifyConstraint(type, predicate, value);
 
             if (predicate instanceof Contain) {
                 //Rewrite contains conditions
@@ -200,6 +194,61 @@ public class QueryUtil {
         return conditions;
     }
 
+    /**
+     * Like {@link #constraints2QNF(StandardJanusGraphTx, List)} but additionally adds the given disjunctions of
+     * constraints, each as an {@link Or} of literals, to the returned condition. Negated containment is not supported
+     * within a disjunction.
+     */
+    public static <E extends JanusGraphElement> And<E> constraints2QNF(StandardJanusGraphTx tx, List<PredicateCondition<String, E>> constraints,
+                                                                      List<List<PredicateCondition<String, E>>> disjunctions) {
+        final And<E> conditions = constraints2QNF(tx, constraints);
+        if (conditions == null) return null;
+        for (List<PredicateCondition<String, E>> disjunction : disjunctions) {
+            final Or<E> or = new Or<>(disjunction.size());
+            boolean satisfied = false;
+            for (PredicateCondition<String, E> atom : disjunction) {
+                final RelationType type = getType(tx, atom.getKey());
+                if (type == null) {
+                    if (atom.getPredicate() == Cmp.EQUAL && atom.getValue() == null ||
+                            (atom.getPredicate() == Cmp.NOT_EQUAL && atom.getValue() != null)) {
+                        satisfied = true; //The entire disjunction is trivially satisfied
+                        break;
+                    }
+                    continue; //This alternative cannot be satisfied
+                }
+                final JanusGraphPredicate predicate = atom.getPredicate();
+                final Object value = atom.getValue();
+                verifyConstraint(type, predicate, value);
+                if (predicate instanceof Contain) {
+                    Preconditions.checkArgument(predicate == Contain.IN, "Negated containment is not supported in disjunctions: %s", atom);
+                    for (Object inValue : (Collection) value)
+                        addConstraint(type, Cmp.EQUAL, inValue, or, tx);
+                } else {
+                    addConstraint(type, predicate, value, or, tx);
+                }
+            }
+            if (satisfied) continue;
+            if (or.isEmpty()) return null; //Cannot be satisfied
+            if (or.size() == 1) {
+                if (!conditions.contains(or.get(0))) conditions.add(or.get(0));
+            } else {
+                conditions.add(or);
+            }
+        }
+        return conditions;
+    }
+
+    private static void verifyConstraint(RelationType type, JanusGraphPredicate predicate, Object value) {
+        if (type.isPropertyKey()) {
+            PropertyKey key = (PropertyKey) type;
+            assert predicate.isValidCondition(value);
+            Preconditions.checkArgument(key.dataType()==Object.class || predicate.isValidValueType(key.dataType()), "Data type of key is not compatible with condition");
+        } else { //its a label
+            Preconditions.checkArgument(((EdgeLabel) type).isUnidirected());
+            Preconditions.checkArgument(predicate.isValidValueType(JanusGraphVertex.class), "Data type of key is not compatible with condition");
+        }
+    }
+
     private static <E extends JanusGraphElement> void addConstraint(RelationType type, JanusGraphPredicate predicate,
                                                                Object value, MultiCondition<E> conditions, StandardJanusGraphTx tx) {
         if (type.isPropertyKey()) {
@@ -234,43 +283,190 @@ public class QueryUtil {
 
 
     public static <R> List<R> processIntersectingRetrievals(List<IndexCall<R>> retrievals, final int limit) {
+        return processIntersectingRetrievals(retrievals, limit, null);
+    }
+
+    /**
+     * Computes the intersection of the results of the given retrievals, retrying with larger limits on the individual
+     * retrievals until either the intersection contains at least limit elements or all retrievals are exhausted.
+     * <p>
+     * If an executor is given, the retrievals are issued concurrently on it. An exhausted, empty retrieval short-circuits
+     * the computation since the intersection must be empty. If all retrievals return vertex ids, the intersection is
+     * computed as a merge over sorted primitive ids and the returned list supports efficient {@link List#contains(Object)}.
+     * The order of the returned elements is unspecified.
+     *
+     * @param executor executor on which to issue the retrievals concurrently or null to issue them sequentially
+     */
+    public static <R> List<R> processIntersectingRetrievals(List<IndexCall<R>> retrievals, final int limit,
+                                                            final Executor executor) {
         Preconditions.checkArgument(!retrievals.isEmpty());
         Preconditions.checkArgument(limit >= 0, "Invalid limit: %s", limit);
         List<R> results;
-        /*
-         * Iterate over the clauses in the and collection
-         * query.getCondition().getChildren(), taking the intersection
-         * of current results with cumulative results on each iteration.
-         */
         //TODO: smarter limit estimation
         int multiplier = Math.min(16, (int) Math.pow(2, retrievals.size() - 1));
         int subLimit = Integer.MAX_VALUE;
         if (Integer.MAX_VALUE / multiplier >= limit) subLimit = limit * multiplier;
         boolean exhaustedResults;
         do {
+            final List<Collection<R>> subResults = executor == null || retrievals.size() < 2
+                    ? callSequentially(retrievals, subLimit) : callConcurrently(retrievals, subLimit, executor);
+            if (subResults == null) return Collections.emptyList();
             exhaustedResults = true;
-            results = null;
-            for (IndexCall<R> call : retrievals) {
-                Collection<R> subResult;
-                try {
-                    subResult = call.call(subLimit);
-                } catch (Exception e) {
-                    throw new JanusGraphException("Could not process individual retrieval call ", e);
-                }
-
+            for (Collection<R> subResult : subResults) {
                 if (subResult.size() >= subLimit) exhaustedResults = false;
-                if (results == null) {
-                    results = Lists.newArrayList(subResult);
-                } else {
-                    Set<R> subResultSet = ImmutableSet.copyOf(subResult);
-                    results.removeIf(o -> !subResultSet.contains(o));
-                }
             }
+            results = intersect(subResults);
             subLimit = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(Math.pow(subLimit, 1.5),(subLimit+1)*2));
-        } while (results != null && results.size() < limit && !exhaustedResults);
+        } while (results.size() < limit && !exhaustedResults);
+        return results;
+    }
+
+    /**
+     * Returns the results of the given retrievals or null if one of them is exhausted without any results
+     */
+    private static <R> List<Collection<R>> callSequentially(List<IndexCall<R>> retrievals, int subLimit) {
+        final List<Collection<R>> subResults = new ArrayList<>(retrievals.size());
+        for (IndexCall<R> call : retrievals) {
+            final Collection<R> subResult = call(call, subLimit);
+            if (isExhaustedEmpty(subResult, subLimit)) return null;
+            subResults.add(subResult);
+        }
+        return subResults;
+    }
+
+    /**
+     * Like {@link #callSequentially(List, int)} but issues all retrievals but the first one on the given executor and
+     * the first one on the calling thread.
+     */
+    private static <R> List<Collection<R>> callConcurrently(List<IndexCall<R>> retrievals, int subLimit, Executor executor) {
+        final CompletableFuture<Void> exhaustedEmpty = new CompletableFuture<>();
+        final List<CompletableFuture<Collection<R>>> futures = new ArrayList<>(retrievals.size());
+        try {
+            for (IndexCall<R> call : retrievals.subList(1, retrievals.size())) {
+                final CompletableFuture<Collection<R>> future = CompletableFuture.supplyAsync(() -> call(call, subLimit), executor);
+                future.thenAccept(subResult -> {
+                    if (isExhaustedEmpty(subResult, subLimit)) exhaustedEmpty.complete(null);
+                });
+                futures.add(future);
+            }
+            final Collection<R> first = call(retrievals.get(0), subLimit);
+            if (isExhaustedEmpty(first, subLimit)) return null;
+            CompletableFuture.anyOf(exhaustedEmpty, CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))).join();
+            if (exhaustedEmpty.isDone()) return null;
+            final List<Collection<R>> subResults = new ArrayList<>(retrievals.size());
+            subResults.add(first);
+            for (CompletableFuture<Collection<R>> future : futures) subResults.add(future.join());
+            return subResults;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new JanusGraphException("Could not process individual retrieval call ", e.getCause());
+        } finally {
+            //Retrievals which have not started yet are no longer needed when short-circuiting or failing
+            for (CompletableFuture<Collection<R>> future : futures) future.cancel(false);
+        }
+    }
+
+    private static <R> Collection<R> call(IndexCall<R> call, int subLimit) {
+        try {
+            return call.call(subLimit);
+        } catch (Exception e) {
+            throw new JanusGraphException("Could not process individual retrieval call ", e);
+        }
+    }
+
+    private static boolean isExhaustedEmpty(Collection<?> subResult, int subLimit) {
+        return subResult.isEmpty() && subLimit > 0;
+    }
+
+    private static <R> List<R> intersect(List<Collection<R>> subResults) {
+        final long[] ids = intersectIds(subResults);
+        if (ids != null) return (List<R>) new SortedIdList(ids);
+        final List<R> results = Lists.newArrayList(subResults.get(0));
+        for (Collection<R> subResult : subResults.subList(1, subResults.size())) {
+            Set<R> subResultSet = ImmutableSet.copyOf(subResult);
+            results.removeIf(o -> !subResultSet.contains(o));
+        }
         return results;
     }
 
+    /**
+     * Intersects the given results through a merge over their sorted ids, starting with the smallest result.
+     * Returns null if the results are not all vertex ids.
+     */
+    private static long[] intersectIds(List<? extends Collection<?>> subResults) {
+        final long[][] sorted = new long[subResults.size()][];
+        for (int i = 0; i < sorted.length; i++) {
+            final Collection<?> subResult = subResults.get(i);
+            final long[] ids = new long[subResult.size()];
+            int pos = 0;
+            for (Object id : subResult) {
+                if (!(id instanceof Long)) return null;
+                ids[pos++] = (Long) id;
+            }
+            Arrays.sort(ids);
+            sorted[i] = ids;
+        }
+        Arrays.sort(sorted, Comparator.comparingInt(ids -> ids.length));
+        long[] result = sorted[0];
+        int size = distinct(result);
+        for (int i = 1; i < sorted.length && size > 0; i++) {
+            size = intersectSorted(result, size, sorted[i]);
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Removes duplicates from the given sorted ids in place and returns the number of distinct ids
+     */
+    private static int distinct(long[] ids) {
+        if (ids.length == 0) return 0;
+        int size = 1;
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] != ids[size - 1]) ids[size++] = ids[i];
+        }
+        return size;
+    }
+
+    /**
+     * Retains those of the first size distinct sorted ids in result which are contained in the sorted other ids,
+     * in place, and returns their number
+     */
+    private static int intersectSorted(long[] result, int size, long[] other) {
+        int retained = 0, pos = 0;
+        for (int i = 0; i < size && pos < other.length; i++) {
+            final long id = result[i];
+            while (pos < other.length && other[pos] < id) pos++;
+            if (pos < other.length && other[pos] == id) result[retained++] = id;
+        }
+        return retained;
+    }
+
+    /**
+     * Immutable list view of sorted, distinct ids with a binary search based {@link #contains(Object)}
+     */
+    private static class SortedIdList extends AbstractList<Long> implements RandomAccess {
+
+        private final long[] ids;
+
+        private SortedIdList(long[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public Long get(int index) {
+            return ids[index];
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Long && Arrays.binarySearch(ids, (Long) o) >= 0;
+        }
+    }
 
     public interface IndexCall<R> {
 
@@ -29,11 +29,14 @@ import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.apache.commons.collections.comparators.ComparableComparator;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 
 /**
  * An executable {@link ElementQuery} for {@link org.janusgraph.core.JanusGraphQuery}. This query contains
- * the condition, and only one sub-query {@link JointIndexQuery}.
+ * the condition and one sub-query {@link JointIndexQuery} or, for a disjunctive condition which cannot be answered
+ * by a single joint index query, a union of them whose results are de-duplicated.
  * It also maintains the ordering for the query result which is needed by the {@link org.janusgraph.graphdb.query.QueryProcessor}
  * to correctly order the result.
  *
@@ -47,9 +50,10 @@ public class GraphCentricQuery extends BaseQuery implements ElementQuery<JanusGr
      */
     private final Condition<JanusGraphElement> condition;
     /**
-     * The {@link JointIndexQuery} to execute against the indexing backends and index store.
+     * The {@link JointIndexQuery}s to execute against the indexing backends and index store. The result set is the
+     * union of their results.
      */
-    private final BackendQueryHolder<JointIndexQuery> indexQuery;
+    private final List<BackendQueryHolder<JointIndexQuery>> indexQueries;
     /**
      * The result order of this query (if any)
      */
@@ -61,16 +65,21 @@ public class GraphCentricQuery extends BaseQuery implements ElementQuery<JanusGr
 
     public GraphCentricQuery(ElementCategory resultType, Condition<JanusGraphElement> condition, OrderList orders,
                              BackendQueryHolder<JointIndexQuery> indexQuery, int limit) {
+        this(resultType, condition, orders, Collections.singletonList(indexQuery), limit);
+    }
+
+    public GraphCentricQuery(ElementCategory resultType, Condition<JanusGraphElement> condition, OrderList orders,
+                             List<BackendQueryHolder<JointIndexQuery>> indexQueries, int limit) {
         super(limit);
         Preconditions.checkNotNull(condition);
         Preconditions.checkArgument(orders != null && orders.isImmutable());
         Preconditions.checkArgument(QueryUtil.isQueryNormalForm(condition));
         Preconditions.checkNotNull(resultType);
-        Preconditions.checkNotNull(indexQuery);
+        Preconditions.checkArgument(indexQueries != null && !indexQueries.isEmpty());
         this.condition = condition;
         this.orders = orders;
         this.resultType = resultType;
-        this.indexQuery = indexQuery;
+        this.indexQueries = indexQueries;
     }
 
     public static GraphCentricQuery emptyQuery(ElementCategory resultType) {
@@ -124,13 +133,12 @@ public class GraphCentricQuery extends BaseQuery implements ElementQuery<JanusGr
 
     @Override
     public int numSubQueries() {
-        return 1;
+        return indexQueries.size();
     }
 
     @Override
     public BackendQueryHolder<JointIndexQuery> getSubQuery(int position) {
-        if (position == 0) return indexQuery;
-        else throw new IndexOutOfBoundsException();
+        return indexQueries.get(position);
     }
 
     @Override
@@ -141,12 +149,14 @@ public class GraphCentricQuery extends BaseQuery implements ElementQuery<JanusGr
     @Override
     public Comparator<JanusGraphElement> getSortOrder() {
         if (orders.isEmpty()) return new ComparableComparator();
+        //The results of a union are merged and de-duplicated in this order, which therefore has to be total
+        else if (hasDuplicateResults()) return orders.thenComparingLong(JanusGraphElement::longId);
         else return orders;
     }
 
     @Override
     public boolean hasDuplicateResults() {
-        return false;
+        return indexQueries.size() > 1;
     }
 
     @Override
@@ -160,6 +170,6 @@ public class GraphCentricQuery extends BaseQuery implements ElementQuery<JanusGr
         profiler.setAnnotation(QueryProfiler.CONDITION_ANNOTATION,condition);
         profiler.setAnnotation(QueryProfiler.ORDERS_ANNOTATION,orders);
         if (hasLimit()) profiler.setAnnotation(QueryProfiler.LIMIT_ANNOTATION,getLimit());
-        indexQuery.observeWith(profiler);
+        indexQueries.forEach(bqh -> bqh.observeWith(profiler));
     }
 }
@@ -20,9 +20,11 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import org.janusgraph.core.*;
 import org.janusgraph.core.attribute.Cmp;
+import org.janusgraph.core.attribute.Contain;
 import org.janusgraph.core.schema.SchemaStatus;
 import org.janusgraph.core.schema.JanusGraphSchemaType;
 import org.janusgraph.graphdb.database.IndexSerializer;
+import org.janusgraph.graphdb.database.statistics.GraphStatistics;
 import org.janusgraph.graphdb.internal.ElementCategory;
 import org.janusgraph.graphdb.internal.InternalRelationType;
 import org.janusgraph.graphdb.internal.Order;
@@ -61,6 +63,11 @@ public class GraphCentricQueryBuilder implements JanusGraphQuery<GraphCentricQue
      * The constraints added to this query. None by default.
      */
     private final List<PredicateCondition<String, JanusGraphElement>> constraints;
+    /**
+     * The disjunctions of constraints added to this query, of which each element must match at least one constraint.
+     * None by default.
+     */
+    private final List<List<PredicateCondition<String, JanusGraphElement>>> disjunctions;
     /**
      * The order in which the elements should be returned. None by default.
      */
@@ -80,6 +87,7 @@ public class GraphCentricQueryBuilder implements JanusGraphQuery<GraphCentricQue
         this.tx = tx;
         this.serializer = serializer;
         this.constraints = new ArrayList<>(5);
+        this.disjunctions = new ArrayList<>(1);
     }
 
     /* ---------------------------------------------------------------
@@ -103,6 +111,30 @@ public class GraphCentricQueryBuilder implements JanusGraphQuery<GraphCentricQue
         return this;
     }
 
+    /**
+     * The returned elements must match at least one of the given constraints. Each constraint is specified as in
+     * {@link #has(String, JanusGraphPredicate, Object)}, except that negated containment is not supported.
+     * <p>
+     * If the constraints cannot be answered through a single index, each of them is answered through its own index
+     * query and the results are combined.
+     *
+     * @param alternatives the constraints of which the returned elements must match at least one
+     * @return This query
+     */
+    public GraphCentricQueryBuilder or(List<PredicateCondition<String, JanusGraphElement>> alternatives) {
+        Preconditions.checkArgument(alternatives != null && !alternatives.isEmpty(), "Need to specify at least one alternative");
+        for (PredicateCondition<String, JanusGraphElement> alternative : alternatives) {
+            Preconditions.checkNotNull(alternative.getKey());
+            Preconditions.checkNotNull(alternative.getPredicate());
+            Preconditions.checkArgument(alternative.getPredicate().isValidCondition(alternative.getValue()),
+                    "Invalid condition: %s", alternative.getValue());
+            Preconditions.checkArgument(alternative.getPredicate() != Contain.NOT_IN,
+                    "Negated containment is not supported in disjunctions: %s", alternative);
+        }
+        disjunctions.add(new ArrayList<>(alternatives));
+        return this;
+    }
+
     public GraphCentricQueryBuilder has(PropertyKey key, JanusGraphPredicate predicate, Object condition) {
         Preconditions.checkNotNull(key);
         return has(key.name(),predicate,condition);
@@ -195,6 +227,14 @@ public class GraphCentricQueryBuilder implements JanusGraphQuery<GraphCentricQue
     private static final double CARDINALITY_SINGE_SCORE = 1000;
     private static final double CARDINALITY_OTHER_SCORE = 1000;
 
+    /**
+     * With index statistics enabled, a subquery is skipped (and its conditions filtered in memory instead) if it is
+     * estimated to return more than this many elements and more than SKIP_RATIO times the estimate of the most
+     * selective subquery
+     */
+    private static final long SKIP_MIN_HITS = 1000;
+    private static final long SKIP_RATIO = 100;
+
 
     public GraphCentricQuery constructQuery(final ElementCategory resultType) {
         QueryProfiler optProfiler = profiler.addNested(QueryProfiler.OPTIMIZATION);
@@ -210,7 +250,7 @@ public class GraphCentricQueryBuilder implements JanusGraphQuery<GraphCentricQue
         if (limit == 0) return GraphCentricQuery.emptyQuery(resultType);
 
         //Prepare constraints
-        And<JanusGraphElement> conditions = QueryUtil.constraints2QNF(tx, constraints);
+        And<JanusGraphElement> conditions = QueryUtil.constraints2QNF(tx, constraints, disjunctions);
         if (conditions == null) return GraphCentricQuery.emptyQuery(resultType);
 
         //Prepare orders
@@ -229,6 +269,21 @@ public class GraphCentricQueryBuilder implements JanusGraphQuery<GraphCentricQue
             return true;
         });
 
+        BackendQueryHolder<JointIndexQuery> query = constructIndexQuery(conditions, indexCandidates);
+        if (query != null) return new GraphCentricQuery(resultType, conditions, orders, query, limit);
+        //No index applies to the query as a whole, try to answer it through a union of index queries
+        final List<BackendQueryHolder<JointIndexQuery>> union = constructUnionQuery(conditions, indexCandidates);
+        if (union != null) return new GraphCentricQuery(resultType, conditions, orders, union, limit);
+        query = new BackendQueryHolder<>(new JointIndexQuery(), false, orders.isEmpty());
+        return new GraphCentricQuery(resultType, conditions, orders, query, limit);
+    }
+
+    /**
+     * Determines the best joint index query to answer the given condition or returns null if no index covers any of its
+     * clauses.
+     */
+    private BackendQueryHolder<JointIndexQuery> constructIndexQuery(final And<JanusGraphElement> conditions,
+                                                                    final Set<IndexType> indexCandidates) {
         /*
         Determine the best join index query to answer this query:
         Iterate over all potential indexes (as compiled above) and compute a score based on how many clauses
@@ -310,28 +365,89 @@ public class GraphCentricQueryBuilder implements JanusGraphQuery<GraphCentricQue
             } else {
                 break;
             }
-            /* TODO: smarter optimization:
-            - use in-memory histograms to estimate selectivity of PredicateConditions and filter out low-selectivity ones
-                    if they would result in an individual index call (better to filter afterwards in memory)
-            - move OR's up and extend GraphCentricQuery to allow multiple JointIndexQuery for proper or'ing of queries
-            */
         }
 
-        BackendQueryHolder<JointIndexQuery> query;
-        if (!coveredClauses.isEmpty()) {
-            int indexLimit = limit == Query.NO_LIMIT ? HARD_MAX_LIMIT : limit;
-            if (tx.getGraph().getConfiguration().adjustQueryLimit()) {
-                indexLimit = limit == Query.NO_LIMIT ? DEFAULT_NO_LIMIT : Math.min(MAX_BASE_LIMIT, limit);
+        if (coveredClauses.isEmpty()) return null;
+
+        int indexLimit = limit == Query.NO_LIMIT ? HARD_MAX_LIMIT : limit;
+        if (tx.getGraph().getConfiguration().adjustQueryLimit()) {
+            indexLimit = limit == Query.NO_LIMIT ? DEFAULT_NO_LIMIT : Math.min(MAX_BASE_LIMIT, limit);
+        }
+        indexLimit = Math.min(HARD_MAX_LIMIT,
+            QueryUtil.adjustLimitForTxModifications(tx, coveredClauses.size(), indexLimit));
+        boolean isFitted = coveredClauses.size() == conditions.numChildren();
+        final GraphStatistics statistics = tx.getGraph().getIndexStatistics();
+        if (statistics!=null && jointQuery.size()>1) {
+            final JointIndexQuery optimized = optimizeJointQuery(jointQuery, statistics, !orders.isEmpty() && isSorted);
+            if (optimized.size()<jointQuery.size()) isFitted = false;
+            jointQuery = optimized;
+        }
+        jointQuery.setLimit(indexLimit);
+        return new BackendQueryHolder<>(jointQuery, isFitted, isSorted);
+    }
+
+    /**
+     * Constructs a union of joint index queries which answers the given condition by splitting one of its disjunctive
+     * clauses into one query per alternative. Returns null if there is no such clause for which every alternative can
+     * be answered through an index.
+     * <p>
+     * Each query of the union answers the condition with the disjunction replaced by the respective alternative,
+     * which implies the original condition. The queries are never considered sorted, even without a result order, so
+     * that the {@link org.janusgraph.graphdb.query.QueryProcessor} sorts their results in the total order of the query
+     * before merging them or, for unordered queries, removes duplicates through a set of the returned elements.
+     */
+    private List<BackendQueryHolder<JointIndexQuery>> constructUnionQuery(final And<JanusGraphElement> conditions,
+                                                                          final Set<IndexType> indexCandidates) {
+        for (int i = 0; i < conditions.size(); i++) {
+            final Condition<JanusGraphElement> disjunction = conditions.get(i);
+            if (!(disjunction instanceof Or)) continue;
+            final List<BackendQueryHolder<JointIndexQuery>> union = new ArrayList<>(disjunction.numChildren());
+            for (Condition<JanusGraphElement> alternative : disjunction.getChildren()) {
+                final And<JanusGraphElement> branch = new And<>(conditions.size());
+                for (int j = 0; j < conditions.size(); j++) {
+                    branch.add(i == j ? alternative : conditions.get(j));
+                }
+                final BackendQueryHolder<JointIndexQuery> query = constructIndexQuery(branch, indexCandidates);
+                if (query == null) break;
+                union.add(new BackendQueryHolder<>(query.getBackendQuery(), query.isFitted(), false));
             }
-            indexLimit = Math.min(HARD_MAX_LIMIT,
-                QueryUtil.adjustLimitForTxModifications(tx, coveredClauses.size(), indexLimit));
-            jointQuery.setLimit(indexLimit);
-            query = new BackendQueryHolder<>(jointQuery,
-                    coveredClauses.size() == conditions.numChildren(), isSorted);
-        } else {
-            query = new BackendQueryHolder<>(new JointIndexQuery(), false, isSorted);
+            if (union.size() == disjunction.numChildren()) return union;
         }
-        return new GraphCentricQuery(resultType, conditions, orders, query, limit);
+        return null;
+    }
+
+    /**
+     * Reorders the subqueries of the given joint query by their estimated number of hits so that the most selective
+     * subquery drives the retrieval and skips subqueries which are much less selective than that one, since filtering
+     * their conditions in memory is cheaper than retrieving and intersecting their results.
+     * Returns the given query unchanged if the hits of any subquery cannot be estimated.
+     *
+     * @param keepFirst whether the first subquery must remain first because it provides the result order
+     */
+    private static JointIndexQuery optimizeJointQuery(JointIndexQuery jointQuery, GraphStatistics statistics,
+                                                      boolean keepFirst) {
+        final int size = jointQuery.size();
+        final long[] hits = new long[size];
+        final List<Integer> positions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            hits[i] = statistics.estimateHits(jointQuery.getQuery(i));
+            if (hits[i]==GraphStatistics.UNKNOWN) return jointQuery;
+            if (!keepFirst || i>0) positions.add(i);
+        }
+        positions.sort(Comparator.comparingLong(i -> hits[i]));
+        if (keepFirst) positions.add(0, 0);
+        final long maxHits = Math.max(SKIP_MIN_HITS, hits[positions.get(0)] * SKIP_RATIO);
+        final JointIndexQuery optimized = new JointIndexQuery();
+        for (int i = 0; i < size; i++) {
+            final JointIndexQuery.Subquery subquery = jointQuery.getQuery(positions.get(i));
+            if (i>0 && hits[positions.get(i)]>maxHits) continue;
+            if (subquery.getIndex().isCompositeIndex()) {
+                optimized.add((CompositeIndexType) subquery.getIndex(), subquery.getCompositeQuery());
+            } else {
+                optimized.add((MixedIndexType) subquery.getIndex(), subquery.getMixedQuery());
+            }
+        }
+        return optimized;
     }
 
     public static boolean indexCoversOrder(MixedIndexType index, OrderList orders) {
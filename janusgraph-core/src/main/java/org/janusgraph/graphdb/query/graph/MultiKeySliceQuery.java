@@ -44,7 +44,18 @@ public class MultiKeySliceQuery extends BaseQuery implements BackendQuery<MultiK
         return newQuery;
     }
 
+    /**
+     * Returns the number of index keys looked up by this query
+     */
+    public int size() {
+        return queries.size();
+    }
+
     public List<EntryList> execute(final BackendTransaction tx) {
+        if (!hasLimit() && queries.size() > 1) {
+            //Without a limit, the results of one key do not affect the lookup of the next one
+            return tx.indexQuery(queries);
+        }
         int total = 0;
         final List<EntryList> result = new ArrayList<>(Math.min(getLimit(), queries.size()));
         for (KeySliceQuery ksq : queries) {
@@ -122,6 +122,20 @@ public class MultiVertexCentricQueryBuilder extends BasicVertexCentricQueryBuild
         return result;
     }
 
+    /**
+     * Returns the slice queries which this query retrieves for each vertex when executed for the given return type,
+     * so that they can be retrieved together with other slices and loaded into the vertex caches by the caller.
+     *
+     * @param returnType
+     * @return
+     */
+    public List<SliceQuery> getSliceQueries(RelationCategory returnType) {
+        final BaseVertexCentricQuery bq = super.constructQueryWithoutProfile(returnType);
+        final List<SliceQuery> queries = new ArrayList<>(bq.numSubQueries());
+        for (BackendQueryHolder<SliceQuery> sq : bq.getQueries()) queries.add(sq.getBackendQuery());
+        return queries;
+    }
+
     public Map<JanusGraphVertex, Iterable<? extends JanusGraphRelation>> executeImplicitKeyQuery() {
         return new HashMap<JanusGraphVertex, Iterable<? extends JanusGraphRelation>>(vertices.size()){{
             for (InternalVertex v : vertices ) put(v,executeImplicitKeyQuery(v));
@@ -69,6 +69,9 @@ public class SimpleVertexQueryProcessor implements Iterable<Entry> {
     @Override
     public Iterator<Entry> iterator() {
         Iterator<Entry> iterator;
+        //Large slices which are not cached are streamed in pages up to the limit of the query
+        final SliceQuery pagedQuery = sliceQuery.updateLimit(query.getLimit());
+        if (tx.isPagedSlice(vertex, pagedQuery)) return tx.getPagedSlice(vertex, pagedQuery, profiler);
         //If there is a limit we need to wrap the basic iterator in a LimitAdjustingIterator which ensures the right number
         //of elements is returned. Otherwise we just return the basic iterator.
         if (sliceQuery.hasLimit() && sliceQuery.getLimit()!=query.getLimit()) {
@@ -117,7 +120,11 @@ public class SimpleVertexQueryProcessor implements Iterable<Entry> {
      * @return
      */
     private Iterator<Entry> getBasicIterator() {
-        final EntryList result = vertex.loadRelations(sliceQuery, query -> QueryProfiler.profile(profiler, query, q -> tx.getGraph().edgeQuery(vertex.longId(), q, tx.getTxHandle())));
+        final EntryList result = vertex.loadRelations(sliceQuery, query -> {
+            final EntryList entries = QueryProfiler.profile(profiler, query, q -> tx.getGraph().edgeQuery(vertex.longId(), q, tx.getTxHandle()));
+            tx.addPendingVertexLookups(entries);
+            return entries;
+        });
         return result.iterator();
     }
 
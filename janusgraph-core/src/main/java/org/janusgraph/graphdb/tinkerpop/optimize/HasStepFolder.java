@@ -19,9 +19,12 @@ import org.apache.tinkerpop.gremlin.process.traversal.lambda.ElementValueTravers
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.OrStep;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.janusgraph.core.Cardinality;
 import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.attribute.Contain;
 import org.janusgraph.graphdb.query.QueryUtil;
 import org.janusgraph.graphdb.query.JanusGraphPredicate;
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
@@ -145,6 +148,12 @@ public interface HasStepFolder<S, E> extends Step<S, E> {
                     currentStep.getLabels().forEach(janusgraphStep::addLabel);
                     traversal.removeStep(currentStep);
                 }
+            } else if (currentStep instanceof OrStep && janusgraphStep instanceof JanusGraphStep) {
+                final List<HasContainer> alternatives = getOrAlternatives((OrStep<?>) currentStep);
+                if (alternatives == null) break;
+                ((JanusGraphStep<?, ?>) janusgraphStep).addOr(alternatives);
+                currentStep.getLabels().forEach(janusgraphStep::addLabel);
+                traversal.removeStep(currentStep);
             } else if (!(currentStep instanceof IdentityStep) && !(currentStep instanceof NoOpBarrierStep)) {
                 break;
             }
@@ -152,6 +161,28 @@ public interface HasStepFolder<S, E> extends Step<S, E> {
         }
     }
 
+    /**
+     * Returns the alternatives of the given or-step if each of them is a single has-condition which JanusGraph can
+     * answer as part of a disjunction, or null otherwise.
+     */
+    static List<HasContainer> getOrAlternatives(final OrStep<?> orStep) {
+        final List<HasContainer> alternatives = new ArrayList<>();
+        for (Traversal.Admin<?, ?> child : orStep.getLocalChildren()) {
+            final List<Step> steps = child.getSteps();
+            if (steps.size() != 1 || !(steps.get(0) instanceof HasStep)) return null;
+            final List<HasContainer> containers = ((HasStep<?>) steps.get(0)).getHasContainers();
+            if (containers.size() != 1) return null;
+            final HasContainer has = containers.get(0);
+            if (Graph.Hidden.isHidden(has.getKey()) || has.getPredicate() instanceof AndP
+                    || !validJanusGraphHas(has)
+                    || JanusGraphPredicate.Converter.convert(has.getBiPredicate()) == Contain.NOT_IN) {
+                return null;
+            }
+            alternatives.add(has);
+        }
+        return alternatives.isEmpty() ? null : alternatives;
+    }
+
     static void foldInOrder(final HasStepFolder janusgraphStep, final Traversal.Admin<?, ?> traversal,
                                    final Traversal<?, ?> rootTraversal, boolean isVertexOrder) {
         Step<?, ?> currentStep = janusgraphStep.getNextStep();
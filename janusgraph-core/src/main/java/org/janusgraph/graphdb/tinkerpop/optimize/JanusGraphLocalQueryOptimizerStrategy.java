@@ -21,14 +21,22 @@ import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.LocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -76,6 +84,7 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
 
             if (useMultiQuery) {
                 vertexStep.setUseMultiQuery(true);
+                if (JanusGraphTraversalUtil.isVertexReturnStep(vertexStep)) configurePrefetching(vertexStep);
             }
         });
 
@@ -139,6 +148,41 @@ public class JanusGraphLocalQueryOptimizerStrategy extends AbstractTraversalStra
         });
     }
 
+    /**
+     * Determines the vertex labels and properties which the filter and map steps directly following the given vertex
+     * step access on the adjacent vertices, so that those can be loaded for all of them in a batch. Nothing is
+     * prefetched if a range or limit step further down the traversal bounds the number of adjacent vertices accessed.
+     */
+    private static void configurePrefetching(JanusGraphVertexStep<?> vertexStep) {
+        for (Step s = vertexStep.getNextStep(); !(s instanceof EmptyStep); s = s.getNextStep()) {
+            if (s instanceof RangeGlobalStep) return;
+        }
+        final Set<String> keys = new HashSet<>();
+        boolean label = false;
+        boolean allProperties = false;
+        Step step = JanusGraphTraversalUtil.getNextNonIdentityStep(vertexStep);
+        while (step instanceof NoOpBarrierStep) step = JanusGraphTraversalUtil.getNextNonIdentityStep(step);
+        while (step instanceof HasStep) {
+            for (HasContainer has : ((HasStep<?>) step).getHasContainers()) {
+                if (has.getKey().equals(T.label.getAccessor())) label = true;
+                else if (!has.getKey().equals(T.id.getAccessor())) keys.add(has.getKey());
+            }
+            step = JanusGraphTraversalUtil.getNextNonIdentityStep(step);
+        }
+        if (step instanceof PropertyMapStep && ((PropertyMapStep) step).getLocalChildren().isEmpty()) {
+            final PropertyMapStep<?,?> mapStep = (PropertyMapStep) step;
+            label |= mapStep.isIncludeTokens();
+            if (mapStep.getPropertyKeys().length==0) allProperties = true;
+            else keys.addAll(Arrays.asList(mapStep.getPropertyKeys()));
+        } else if (step instanceof PropertiesStep) {
+            final PropertiesStep<?> propertiesStep = (PropertiesStep) step;
+            if (propertiesStep.getPropertyKeys().length==0) allProperties = true;
+            else keys.addAll(Arrays.asList(propertiesStep.getPropertyKeys()));
+        }
+        if (allProperties) vertexStep.setPrefetch(label, new String[0]);
+        else vertexStep.setPrefetch(label, keys.isEmpty() ? null : keys.toArray(new String[keys.size()]));
+    }
+
     private static void unfoldLocalTraversal(final Traversal.Admin<?, ?> traversal,
                                              LocalStep<?,?> localStep, Traversal.Admin localTraversal,
                                              MultiQueriable vertexStep, boolean useMultiQuery) {
@@ -15,10 +15,12 @@
 package org.janusgraph.graphdb.tinkerpop.optimize;
 
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.janusgraph.core.JanusGraphElement;
 import org.janusgraph.core.JanusGraphQuery;
 import org.janusgraph.core.JanusGraphTransaction;
 import org.janusgraph.graphdb.query.BaseQuery;
 import org.janusgraph.graphdb.query.JanusGraphPredicate;
+import org.janusgraph.graphdb.query.condition.PredicateCondition;
 import org.janusgraph.graphdb.query.graph.GraphCentricQueryBuilder;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.janusgraph.graphdb.tinkerpop.profile.TP3ProfileWrapper;
@@ -44,6 +46,7 @@ import java.util.List;
 public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasStepFolder<S, E>, Profiling, HasContainerHolder {
 
     private final List<HasContainer> hasContainers = new ArrayList<>();
+    private final List<List<HasContainer>> hasContainerDisjunctions = new ArrayList<>();
     private int limit = BaseQuery.NO_LIMIT;
     private final List<OrderEntry> orders = new ArrayList<>();
     private QueryProfiler queryProfiler = QueryProfiler.NO_OP;
@@ -65,6 +68,14 @@ public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implem
             for (HasContainer condition : hasContainers) {
                 query.has(condition.getKey(), JanusGraphPredicate.Converter.convert(condition.getBiPredicate()), condition.getValue());
             }
+            for (List<HasContainer> disjunction : hasContainerDisjunctions) {
+                final List<PredicateCondition<String, JanusGraphElement>> alternatives = new ArrayList<>(disjunction.size());
+                for (HasContainer condition : disjunction) {
+                    alternatives.add(new PredicateCondition<>(condition.getKey(),
+                            JanusGraphPredicate.Converter.convert(condition.getBiPredicate()), condition.getValue()));
+                }
+                ((GraphCentricQueryBuilder) query).or(alternatives);
+            }
             for (OrderEntry order : orders) query.orderBy(order.key, order.order);
             if (limit != BaseQuery.NO_LIMIT) query.limit(limit);
             ((GraphCentricQueryBuilder) query).profiler(queryProfiler);
@@ -74,8 +85,9 @@ public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implem
 
     @Override
     public String toString() {
-        return this.hasContainers.isEmpty() ?
-                super.toString() : StringFactory.stepString(this, Arrays.toString(this.ids), this.hasContainers, this.orders);
+        if (this.hasContainers.isEmpty() && this.hasContainerDisjunctions.isEmpty()) return super.toString();
+        else if (this.hasContainerDisjunctions.isEmpty()) return StringFactory.stepString(this, Arrays.toString(this.ids), this.hasContainers, this.orders);
+        else return StringFactory.stepString(this, Arrays.toString(this.ids), this.hasContainers, this.hasContainerDisjunctions, this.orders);
     }
 
     @Override
@@ -83,6 +95,13 @@ public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implem
         HasStepFolder.splitAndP(hasContainers, has);
     }
 
+    /**
+     * Adds a disjunction of has-conditions of which each returned element must satisfy at least one
+     */
+    public void addOr(List<HasContainer> alternatives) {
+        hasContainerDisjunctions.add(new ArrayList<>(alternatives));
+    }
+
     @Override
     public void orderBy(String key, Order order) {
         orders.add(new OrderEntry(key, order));
@@ -117,7 +136,8 @@ public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implem
         final List<A> list = new ArrayList<>();
         while (iterator.hasNext()) {
             final A e = iterator.next();
-            if (HasContainer.testAll(e, this.hasContainers))
+            if (HasContainer.testAll(e, this.hasContainers) && this.hasContainerDisjunctions.stream()
+                    .allMatch(disjunction -> disjunction.stream().anyMatch(has -> has.test(e))))
                 list.add(e);
         }
         return list.iterator();
@@ -127,6 +147,7 @@ public class JanusGraphStep<S, E extends Element> extends GraphStep<S, E> implem
     public int hashCode() {
         int result = super.hashCode();
         result = 31 * result + (hasContainers != null ? hasContainers.hashCode() : 0);
+        result = 31 * result + hasContainerDisjunctions.hashCode();
         result = 31 * result + limit;
         result = 31 * result + (orders != null ? orders.hashCode() : 0);
         return result;
@@ -14,9 +14,11 @@
 
 package org.janusgraph.graphdb.tinkerpop.optimize;
 
+import com.google.common.collect.Lists;
 import org.janusgraph.core.BaseVertexQuery;
 import org.janusgraph.core.JanusGraphElement;
 import org.janusgraph.core.JanusGraphMultiVertexQuery;
+import org.janusgraph.core.JanusGraphTransaction;
 import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.core.JanusGraphVertexQuery;
 import org.janusgraph.graphdb.query.BaseQuery;
@@ -25,6 +27,7 @@ import org.janusgraph.graphdb.query.JanusGraphPredicate;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.janusgraph.graphdb.query.vertex.BasicVertexCentricQueryBuilder;
 import org.janusgraph.graphdb.tinkerpop.profile.TP3ProfileWrapper;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
@@ -37,9 +40,11 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
@@ -57,12 +62,25 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
     private boolean useMultiQuery = false;
     private Map<JanusGraphVertex, Iterable<? extends JanusGraphElement>> multiQueryResults = null;
     private QueryProfiler queryProfiler = QueryProfiler.NO_OP;
+    private boolean prefetchLabel = false;
+    private String[] prefetchKeys = null;
 
     @Override
     public void setUseMultiQuery(boolean useMultiQuery) {
         this.useMultiQuery = useMultiQuery;
     }
 
+    /**
+     * Configures the vertex labels and properties to load for the adjacent vertices when using multi-queries.
+     *
+     * @param label whether to load the vertex labels
+     * @param keys the keys of the properties to load, all properties if empty or none if null
+     */
+    public void setPrefetch(boolean label, String[] keys) {
+        this.prefetchLabel = label;
+        this.prefetchKeys = keys;
+    }
+
     public <Q extends BaseVertexQuery> Q makeQuery(Q query) {
         query.labels(getEdgeLabels());
         query.direction(getDirection());
@@ -92,7 +110,27 @@ public class JanusGraphVertexStep<E extends Element> extends VertexStep<E> imple
             makeQuery(multiQuery);
 
             multiQueryResults = (Vertex.class.isAssignableFrom(getReturnClass())) ? multiQuery.vertices() : multiQuery.edges();
+            if (prefetchLabel || prefetchKeys != null) prefetchAdjacentVertices();
+        }
+    }
+
+    /**
+     * Loads the vertex labels and properties accessed by the subsequent steps for all adjacent vertices of this batch
+     * with one multi-query per slice instead of one query per adjacent vertex.
+     */
+    private void prefetchAdjacentVertices() {
+        final JanusGraphTransaction tx = JanusGraphTraversalUtil.getTx(traversal);
+        if (!(tx instanceof StandardJanusGraphTx)) return;
+        final Set<JanusGraphVertex> adjacent = new HashSet<>();
+        for (Map.Entry<JanusGraphVertex, Iterable<? extends JanusGraphElement>> entry : multiQueryResults.entrySet()) {
+            //Materialize the results so that the adjacent vertices are not constructed a second time upon iteration
+            final List<JanusGraphElement> result = Lists.newArrayList(entry.getValue());
+            entry.setValue(result);
+            for (JanusGraphElement element : result) adjacent.add((JanusGraphVertex) element);
         }
+        if (adjacent.size() < 2) return;
+        if (prefetchLabel) ((StandardJanusGraphTx) tx).prefetchLabels(adjacent);
+        if (prefetchKeys != null) ((StandardJanusGraphTx) tx).prefetchProperties(adjacent, prefetchKeys);
     }
 
     @Override
@@ -26,16 +26,21 @@ import org.janusgraph.core.attribute.Cmp;
 import org.janusgraph.core.schema.*;
 import org.janusgraph.diskstorage.BackendException;
 
+import org.janusgraph.diskstorage.util.PagedSliceIterator;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.diskstorage.BackendTransaction;
+import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.janusgraph.graphdb.relations.RelationComparator;
 import org.janusgraph.graphdb.tinkerpop.JanusGraphBlueprintsTransaction;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.database.EdgeSerializer;
 import org.janusgraph.graphdb.database.IndexSerializer;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.database.idhandling.IDHandler;
 import org.janusgraph.graphdb.database.idassigner.IDPool;
 import org.janusgraph.graphdb.database.serialize.AttributeHandler;
 import org.janusgraph.graphdb.idmanagement.IDManager;
@@ -90,6 +95,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Matthias Broecheler (me@matthiasb.com)
@@ -187,6 +193,12 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
     private final VertexConstructor existingVertexRetriever;
     private final VertexConstructor externalVertexRetriever;
     private final VertexConstructor internalVertexRetriever;
+    private final Retriever<Long, InternalVertex> removedVertexRetriever;
+
+    /**
+     * Ids of persisted adjacent vertices whose existence is verified together with the next vertex lookup
+     */
+    private final Set<Long> pendingVertexLookups;
 
     public StandardJanusGraphTx(StandardJanusGraph graph, TransactionConfiguration config) {
         Preconditions.checkNotNull(graph);
@@ -223,17 +235,20 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
             concurrencyLevel = 1;
             newTypeCache = new HashMap<>();
             newVertexIndexEntries = new SimpleIndexCache();
+            pendingVertexLookups = new HashSet<>();
         } else {
             addedRelations = new ConcurrentBufferAddedRelations();
             concurrencyLevel = 1; //TODO: should we increase this?
             newTypeCache = new NonBlockingHashMap<>();
             newVertexIndexEntries = new ConcurrentIndexCache();
+            pendingVertexLookups = ConcurrentHashMap.newKeySet();
         }
 
         boolean preloadedData = config.hasPreloadedData();
         externalVertexRetriever = new VertexConstructor(config.hasVerifyExternalVertexExistence(), preloadedData);
         internalVertexRetriever = new VertexConstructor(config.hasVerifyInternalVertexExistence(), preloadedData);
         existingVertexRetriever = new VertexConstructor(false, preloadedData);
+        removedVertexRetriever = vertexId -> existingVertexRetriever.construct(vertexId, ElementLifeCycle.Removed);
 
         long effectiveVertexCacheSize = config.getVertexCacheSize();
         if (!config.isReadOnly()) {
@@ -408,18 +423,9 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
             }
         }
         if (!vertexIds.isEmpty()) {
-            if (externalVertexRetriever.hasVerifyExistence()) {
-                List<EntryList> existence = graph.edgeMultiQuery(vertexIds,graph.vertexExistenceQuery,txHandle);
-                for (int i = 0; i < vertexIds.size(); i++) {
-                    if (!existence.get(i).isEmpty()) {
-                        long id = vertexIds.get(i);
-                        result.add(vertexCache.get(id, existingVertexRetriever));
-                    }
-                }
-            } else {
-                for (int i = 0; i < vertexIds.size(); i++) {
-                    result.add(vertexCache.get(vertexIds.get(i),externalVertexRetriever));
-                }
+            loadVertices(vertexIds, externalVertexRetriever.hasVerifyExistence());
+            for (int i = 0; i < vertexIds.size(); i++) {
+                result.add(vertexCache.get(vertexIds.get(i), existingVertexRetriever));
             }
         }
         //Filter out potentially removed vertices
@@ -427,6 +433,166 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
         return result;
     }
 
+    /**
+     * Retrieves the persisted vertices with the given ids, which are not yet cached, into the vertex cache and returns
+     * whether each of them exists. Their existence check, if enabled, and the configured prefetching of their labels and
+     * properties are answered with a single multi-key, multi-slice backend call per batch of vertices, see
+     * {@link GraphDatabaseConfiguration#LOOKUP_BATCH_SIZE}. Vertices which do not exist are cached as removed.
+     *
+     * @see GraphDatabaseConfiguration#LOOKUP_PREFETCH_LABEL
+     * @see GraphDatabaseConfiguration#LOOKUP_PREFETCH_KEYS
+     */
+    private boolean[] loadVertices(LongArrayList vertexIds, boolean verifyExistence) {
+        final boolean[] exists = new boolean[vertexIds.size()];
+        final List<SliceQuery> queries = new ArrayList<>();
+        if (verifyExistence) queries.add(graph.vertexExistenceQuery);
+        queries.addAll(getLookupPrefetchQueries());
+        if (queries.isEmpty()) {
+            Arrays.fill(exists, true);
+            return exists;
+        }
+        final int batchSize = graph.getConfiguration().getLookupBatchSize();
+        for (int offset = 0; offset < vertexIds.size(); offset += batchSize) {
+            final LongArrayList batch = new LongArrayList(Math.min(batchSize, vertexIds.size() - offset));
+            for (int i = offset; i < vertexIds.size() && i < offset + batchSize; i++) batch.add(vertexIds.get(i));
+            final List<List<EntryList>> results = graph.edgeMultiQuery(batch, queries, txHandle);
+            for (int i = 0; i < batch.size(); i++) {
+                exists[offset + i] = !verifyExistence || !results.get(0).get(i).isEmpty();
+                final InternalVertex vertex = vertexCache.get(batch.get(i),
+                        exists[offset + i] ? existingVertexRetriever : removedVertexRetriever);
+                if (!exists[offset + i] || vertex.isNew() || !(vertex instanceof CacheVertex) || vertex instanceof PreloadedVertex) continue;
+                for (int q = verifyExistence ? 1 : 0; q < queries.size(); q++) {
+                    final EntryList entries = results.get(q).get(i);
+                    vertex.loadRelations(queries.get(q), query -> entries);
+                }
+            }
+        }
+        return exists;
+    }
+
+    /**
+     * Returns the slices of the vertex label and the configured property keys which are retrieved alongside the
+     * existence check of vertices looked up by id, as built by the queries that later access them
+     */
+    private List<SliceQuery> getLookupPrefetchQueries() {
+        final List<SliceQuery> queries = new ArrayList<>();
+        if (graph.getConfiguration().hasLookupPrefetchLabel()) {
+            queries.addAll(new MultiVertexCentricQueryBuilder(this).noPartitionRestriction().type(BaseLabel.VertexLabelEdge)
+                    .direction(Direction.OUT).getSliceQueries(RelationCategory.EDGE));
+        }
+        final String[] keys = graph.getConfiguration().getLookupPrefetchKeys();
+        if (keys.length>0) {
+            final MultiVertexCentricQueryBuilder query = new MultiVertexCentricQueryBuilder(this);
+            //Property prefetching loads all properties upon first access, hence those are the ones to load in a batch
+            if (!config.hasPropertyPrefetching()) query.keys(keys);
+            queries.addAll(query.getSliceQueries(RelationCategory.PROPERTY));
+        }
+        return queries;
+    }
+
+    /**
+     * Verifies the existence of the given vertex together with a batch of pending vertex lookups, see
+     * {@link #addPendingVertexLookups(Iterable)}, and returns whether it exists
+     */
+    private boolean verifyVertexExistence(long vertexId) {
+        final LongArrayList vertexIds = new LongArrayList();
+        vertexIds.add(vertexId);
+        final int batchSize = graph.getConfiguration().getLookupBatchSize();
+        final Iterator<Long> pending = pendingVertexLookups.iterator();
+        while (pending.hasNext() && vertexIds.size() < batchSize) {
+            final long pendingId = pending.next();
+            pending.remove();
+            if (pendingId != vertexId && !vertexCache.contains(pendingId)) vertexIds.add(pendingId);
+        }
+        return loadVertices(vertexIds, true)[0];
+    }
+
+    /**
+     * Registers the adjacent vertices of the edges in the given entries, which have just been retrieved from the storage
+     * backend, as pending lookups if the existence of internally retrieved vertices is verified. The first of them to be
+     * retrieved then verifies the existence of all of them with a single backend call instead of one call per vertex.
+     */
+    public void addPendingVertexLookups(Iterable<Entry> entries) {
+        if (!internalVertexRetriever.hasVerifyExistence()) return;
+        for (Entry entry : entries) {
+            //Only edges are parsed, property values are not deserialized
+            if (!idInspector.isEdgeLabelId(IDHandler.readRelationType(entry.asReadBuffer()).typeId)) continue;
+            long otherId = edgeSerializer.readRelation(entry, true, this).getOtherVertexId();
+            if (!isValidVertexId(otherId)) continue;
+            if (idInspector.isPartitionedVertex(otherId)) otherId = idManager.getCanonicalVertexId(otherId);
+            if (!vertexCache.contains(otherId)) pendingVertexLookups.add(otherId);
+        }
+    }
+
+    /**
+     * Loads the vertex labels of the given vertices with a single multi-query into their vertex caches
+     */
+    public void prefetchLabels(Collection<? extends JanusGraphVertex> vertices) {
+        new MultiVertexCentricQueryBuilder(this).noPartitionRestriction().type(BaseLabel.VertexLabelEdge)
+                .direction(Direction.OUT).addAllVertices(vertices).vertices();
+    }
+
+    /**
+     * Loads the properties with the given keys, or all properties if none are given, of the given vertices with one
+     * multi-query per slice into their vertex caches
+     */
+    public void prefetchProperties(Collection<? extends JanusGraphVertex> vertices, String... keys) {
+        final MultiVertexCentricQueryBuilder query = new MultiVertexCentricQueryBuilder(this);
+        //Property prefetching loads all properties upon first access, hence those are the ones to load in a batch
+        if (!config.hasPropertyPrefetching()) query.keys(keys);
+        query.addAllVertices(vertices).properties();
+    }
+
+    /**
+     * Whether the given slice of the given vertex is read from the storage backend in pages as it is consumed, see
+     * {@link GraphDatabaseConfiguration#SLICE_PAGE_SIZE}. This applies to slices of persisted vertices which are not yet
+     * cached and may contain more entries than fit into a single page. The additions and removals of the transaction
+     * are merged into the paged entries by the query processor like into any other retrieved slice.
+     */
+    public boolean isPagedSlice(InternalVertex vertex, SliceQuery query) {
+        final int pageSize = graph.getConfiguration().getSlicePageSize();
+        return pageSize > 0 && !vertex.isNew() && (vertex instanceof CacheVertex) && !(vertex instanceof PreloadedVertex)
+                && (!query.hasLimit() || query.getLimit() > pageSize) && !vertex.hasLoadedRelations(query);
+    }
+
+    /**
+     * Returns the entries of the given slice of the given vertex which are retrieved page by page as they are consumed.
+     * Read-only transactions do not add the entries to the cache of the vertex. Read-write transactions add them once
+     * the slice has been read to its end, so that subsequent reads of the slice are repeatable like those of slices
+     * which are not paged. A slice which is only read in part is not cached.
+     */
+    public Iterator<Entry> getPagedSlice(InternalVertex vertex, SliceQuery query, QueryProfiler profiler) {
+        final Iterator<Entry> pages = new PagedSliceIterator(query, graph.getConfiguration().getSlicePageSize(),
+                page -> {
+                    final EntryList entries = QueryProfiler.profile(profiler, page, q -> graph.edgeQuery(vertex.longId(), q, txHandle));
+                    addPendingVertexLookups(entries);
+                    return entries;
+                });
+        if (config.isReadOnly()) return pages;
+        return new Iterator<Entry>() {
+
+            private List<Entry> read = new ArrayList<>();
+
+            @Override
+            public boolean hasNext() {
+                final boolean hasNext = pages.hasNext();
+                if (!hasNext && read != null) {
+                    final EntryList entries = StaticArrayEntryList.of(read);
+                    vertex.loadRelations(query, q -> entries);
+                    read = null;
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Entry next() {
+                final Entry entry = pages.next();
+                read.add(entry);
+                return entry;
+            }
+        };
+    }
+
     private InternalVertex getExistingVertex(long vertexId) {
         //return vertex no matter what, even if deleted, and assume the id has the correct format
         return vertexCache.get(vertexId, existingVertexRetriever);
@@ -459,14 +625,17 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
             byte lifecycle = ElementLifeCycle.Loaded;
             long canonicalVertexId = idInspector.isPartitionedVertex(vertexId)?idManager.getCanonicalVertexId(vertexId):vertexId;
             if (verifyExistence) {
-                if (graph.edgeQuery(canonicalVertexId, graph.vertexExistenceQuery, txHandle).isEmpty())
+                if (!verifyVertexExistence(canonicalVertexId))
                     lifecycle = ElementLifeCycle.Removed;
             }
             if (canonicalVertexId!=vertexId) {
                 //Take lifecycle from canonical representative
                 lifecycle = getExistingVertex(canonicalVertexId).getLifeCycle();
             }
+            return construct(vertexId, lifecycle);
+        }
 
+        private InternalVertex construct(long vertexId, byte lifecycle) {
             final InternalVertex vertex;
             if (idInspector.isRelationTypeId(vertexId)) {
                 if (idInspector.isPropertyKeyId(vertexId)) {
@@ -1042,6 +1211,7 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
                 if (pos<vertexIds.size() && vertexIds.get(pos) == v.longId()) {
                     final EntryList vresults = results.get(pos);
                     ((CacheVertex) v).loadRelations(sq, query -> vresults);
+                    addPendingVertexLookups(vresults);
                     pos++;
                 }
             }
@@ -1108,14 +1278,36 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
 
             final InternalVertex v = query.getVertex();
 
-            final EntryList iterable = v.loadRelations(sq, query1 -> QueryProfiler.profile(profiler, query1, q -> graph.edgeQuery(v.longId(), q, txHandle)));
+            //Only slices that the QueryProcessor consumes as a stream are paged, since retrievals with a limit, e.g. to
+            //sort the slice in memory, read the entire slice anyway
+            if (!sq.hasLimit() && isPagedSlice(v, sq)) {
+                final Iterator<Entry> entries = getPagedSlice(v, sq, profiler);
+                return RelationConstructor.readRelation(v, () -> entries, StandardJanusGraphTx.this).iterator();
+            }
+
+            final EntryList iterable = v.loadRelations(sq, query1 -> {
+                final EntryList entries = QueryProfiler.profile(profiler, query1, q -> graph.edgeQuery(v.longId(), q, txHandle));
+                addPendingVertexLookups(entries);
+                return entries;
+            });
 
             return RelationConstructor.readRelation(v, iterable, StandardJanusGraphTx.this).iterator();
         }
+
+        @Override
+        public boolean isStreamed(final VertexCentricQuery query, final SliceQuery sq) {
+            return isPagedSlice(query.getVertex(), sq);
+        }
     };
 
     public final QueryExecutor<GraphCentricQuery, JanusGraphElement, JointIndexQuery> elementProcessor;
 
+    private List<Object> queryIndex(JointIndexQuery.Subquery query) {
+        try (Stream<Object> results = indexSerializer.query(query, txHandle)) {
+            return results.collect(Collectors.toList());
+        }
+    }
+
     public final QueryExecutor<GraphCentricQuery, JanusGraphElement, JointIndexQuery> elementProcessorImpl = new QueryExecutor<GraphCentricQuery, JanusGraphElement, JointIndexQuery>() {
 
         private PredicateCondition<PropertyKey, JanusGraphElement> getEqualityCondition(Condition<JanusGraphElement> condition) {
@@ -1214,14 +1406,17 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
                         final JointIndexQuery.Subquery adjustedQuery = subquery.updateLimit(limit);
                         try {
                             return indexCache.get(adjustedQuery,
-                                () -> QueryProfiler.profile(subquery.getProfiler(), adjustedQuery, q -> indexSerializer.query(q, txHandle).collect(Collectors.toList())));
+                                () -> QueryProfiler.profile(subquery.getProfiler(), adjustedQuery, StandardJanusGraphTx.this::queryIndex));
                         } catch (Exception e) {
                             throw new JanusGraphException("Could not call index", e.getCause());
                         }
                     });
                 }
+                final List<Object> otherResults = retrievals.isEmpty() ? null
+                        : QueryUtil.processIntersectingRetrievals(retrievals, indexQuery.getLimit(), txHandle.getThreadPool());
+                if (otherResults != null && otherResults.isEmpty()) return Collections.emptyIterator();
                 iterator = new SubqueryIterator(indexQuery.getQuery(0), indexSerializer, txHandle, indexCache, indexQuery.getLimit(), getConversionFunction(query.getResultType()),
-                        retrievals.isEmpty() ? null: QueryUtil.processIntersectingRetrievals(retrievals, indexQuery.getLimit()));
+                        otherResults);
             } else {
                 if (config.hasForceIndexUsage()) throw new JanusGraphException("Could not find a suitable index to answer graph query and graph scans are disabled: " + query);
                 log.warn("Query requires iterating over all vertices [{}]. For better performance, use indexes", query.getCondition());
@@ -1249,6 +1444,41 @@ public class StandardJanusGraphTx extends JanusGraphBlueprintsTransaction implem
             return iterator;
         }
 
+        /**
+         * Retrieves the driving index queries of all branches of a union concurrently into the index cache, since the
+         * {@link QueryProcessor} executes the branches one after another.
+         */
+        @Override
+        public void prefetch(final GraphCentricQuery query, final List<JointIndexQuery> branchQueries) {
+            final Executor executor = txHandle.getThreadPool();
+            if (executor == null) return;
+            final List<JointIndexQuery.Subquery> subqueries = new ArrayList<>(branchQueries.size());
+            for (final JointIndexQuery branchQuery : branchQueries) {
+                if (branchQuery.isEmpty()) continue;
+                final JointIndexQuery.Subquery subquery = branchQuery.getQuery(0);
+                if (indexCache.getIfPresent(subquery) == null) subqueries.add(subquery);
+            }
+            if (subqueries.size() < 2) return;
+            final CompletableFuture[] futures = new CompletableFuture[subqueries.size()];
+            for (int i = 0; i < futures.length; i++) {
+                final JointIndexQuery.Subquery subquery = subqueries.get(i);
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        indexCache.get(subquery,
+                            () -> QueryProfiler.profile(subquery.getProfiler(), subquery, StandardJanusGraphTx.this::queryIndex));
+                    } catch (Exception e) {
+                        throw new JanusGraphException("Could not call index", e.getCause());
+                    }
+                }, executor);
+            }
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw new JanusGraphException("Could not call index", e.getCause());
+            }
+        }
+
     };
 
     public Function<Object, ? extends JanusGraphElement> getConversionFunction(final ElementCategory elementCategory) {
@@ -41,6 +41,8 @@ public class SubqueryIterator implements Iterator<JanusGraphElement>, AutoClosea
 
     private final Cache<JointIndexQuery.Subquery, List<Object>> indexCache;
 
+    private final Stream<?> stream;
+
     private Iterator<? extends JanusGraphElement> elementIterator;
 
     private List<Object> currentIds;
@@ -55,7 +57,6 @@ public class SubqueryIterator implements Iterator<JanusGraphElement>, AutoClosea
         this.subQuery = subQuery;
         this.indexCache = indexCache;
         final List<Object> cacheResponse = indexCache.getIfPresent(subQuery);
-        final Stream<?> stream;
         if (cacheResponse != null) {
             stream = cacheResponse.stream();
         } else {
@@ -78,6 +79,9 @@ public class SubqueryIterator implements Iterator<JanusGraphElement>, AutoClosea
             profiler.stopTimer();
             isTimerRunning = false;
             profiler.setResultSize(currentIds.size());
+            //Releases the resources of the index query, such as open scroll contexts, once all results have been read
+            stream.close();
+            currentIds = null;
         }
         return elementIterator.hasNext();
     }
@@ -92,6 +96,7 @@ public class SubqueryIterator implements Iterator<JanusGraphElement>, AutoClosea
         if (isTimerRunning) {
             profiler.stopTimer();
         }
+        stream.close();
     }
 
 }
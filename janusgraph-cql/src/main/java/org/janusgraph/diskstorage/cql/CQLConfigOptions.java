@@ -81,6 +81,16 @@ public interface CQLConfigOptions {
             ConfigOption.Type.MASKABLE,
             false);
 
+    // The number of concurrent slice queries issued for multi-key queries against a table
+    ConfigOption<Integer> MULTI_QUERY_MAX_IN_FLIGHT = new ConfigOption<>(
+            CQL_NS,
+            "multi-query-max-in-flight",
+            "The maximum number of single-key slice queries which the multi-key queries against a table keep in flight at once, " +
+            "shared by all concurrent multi-key queries against that table",
+            ConfigOption.Type.MASKABLE,
+            256,
+            ConfigOption.positiveInt());
+
     // Replication
     ConfigOption<Integer> REPLICATION_FACTOR = new ConfigOption<>(
             CQL_NS,
@@ -18,6 +18,7 @@ import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.column;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.gt;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.gte;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.lt;
@@ -45,11 +46,24 @@ import static org.janusgraph.diskstorage.cql.CQLConfigOptions.COMPACTION_OPTIONS
 import static org.janusgraph.diskstorage.cql.CQLConfigOptions.COMPACTION_STRATEGY;
 import static org.janusgraph.diskstorage.cql.CQLTransaction.getTransaction;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
 import org.janusgraph.diskstorage.BackendException;
@@ -61,28 +75,39 @@ import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.TemporaryBackendException;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSUtil;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.util.BufferUtil;
 import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.diskstorage.util.StaticArrayEntry.GetColVal;
 import org.janusgraph.diskstorage.util.StaticArrayEntryList;
 
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Host;
 import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.Token;
+import com.datastax.driver.core.TokenRange;
 import com.datastax.driver.core.exceptions.QueryValidationException;
 import com.datastax.driver.core.exceptions.UnsupportedFeatureException;
 import com.datastax.driver.core.schemabuilder.TableOptions.CompactionOptions;
 import com.datastax.driver.core.schemabuilder.TableOptions.CompressionOptions;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 import io.vavr.Lazy;
 import io.vavr.Tuple;
@@ -128,10 +153,13 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
     private final String tableName;
     private final CQLColValGetter getter;
     private final Runnable closer;
+    private final MultiQueryLimiter multiQueryLimiter;
 
     private final PreparedStatement getSlice;
     private final PreparedStatement getKeysAll;
     private final PreparedStatement getKeysRanged;
+    private final PreparedStatement getKeysTokenRange;
+    private final PreparedStatement getKeysTokenTail;
     private final PreparedStatement deleteColumn;
     private final PreparedStatement insertColumn;
     private final PreparedStatement insertColumnWithTTL;
@@ -151,6 +179,7 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
         this.closer = closer;
         this.session = this.storeManager.getSession();
         this.getter = new CQLColValGetter(storeManager.getMetaDataSchema(this.tableName));
+        this.multiQueryLimiter = new MultiQueryLimiter(this.storeManager.getMultiQueryMaxInFlight());
 
         initializeTable(this.session, this.storeManager.getKeyspaceName(), tableName, configuration);
 
@@ -179,6 +208,31 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
                 .and(gte(COLUMN_COLUMN_NAME, bindMarker(SLICE_START_BINDING)))
                 .and(lte(COLUMN_COLUMN_NAME, bindMarker(SLICE_END_BINDING))));
 
+        this.getKeysTokenRange = this.session.prepare(select()
+                .column(KEY_COLUMN_NAME)
+                .column(COLUMN_COLUMN_NAME)
+                .column(VALUE_COLUMN_NAME)
+                .fcall(WRITETIME_FUNCTION_NAME, column(VALUE_COLUMN_NAME)).as(WRITETIME_COLUMN_NAME)
+                .fcall(TTL_FUNCTION_NAME, column(VALUE_COLUMN_NAME)).as(TTL_COLUMN_NAME)
+                .from(this.storeManager.getKeyspaceName(), this.tableName)
+                .allowFiltering()
+                .where(gt(token(KEY_COLUMN_NAME), bindMarker(KEY_START_BINDING)))
+                .and(lte(token(KEY_COLUMN_NAME), bindMarker(KEY_END_BINDING)))
+                .and(gte(COLUMN_COLUMN_NAME, bindMarker(SLICE_START_BINDING)))
+                .and(lte(COLUMN_COLUMN_NAME, bindMarker(SLICE_END_BINDING))));
+
+        this.getKeysTokenTail = this.session.prepare(select()
+                .column(KEY_COLUMN_NAME)
+                .column(COLUMN_COLUMN_NAME)
+                .column(VALUE_COLUMN_NAME)
+                .fcall(WRITETIME_FUNCTION_NAME, column(VALUE_COLUMN_NAME)).as(WRITETIME_COLUMN_NAME)
+                .fcall(TTL_FUNCTION_NAME, column(VALUE_COLUMN_NAME)).as(TTL_COLUMN_NAME)
+                .from(this.storeManager.getKeyspaceName(), this.tableName)
+                .allowFiltering()
+                .where(gt(token(KEY_COLUMN_NAME), bindMarker(KEY_START_BINDING)))
+                .and(gte(COLUMN_COLUMN_NAME, bindMarker(SLICE_START_BINDING)))
+                .and(lte(COLUMN_COLUMN_NAME, bindMarker(SLICE_END_BINDING))));
+
         this.getKeysAll = this.session.prepare(select()
                 .column(KEY_COLUMN_NAME)
                 .column(COLUMN_COLUMN_NAME)
@@ -262,16 +316,20 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
         return this.tableName;
     }
 
+    private Statement getSliceStatement(final StaticBuffer key, final SliceQuery query, final ConsistencyLevel consistencyLevel) {
+        return this.getSlice.bind()
+                .setBytes(KEY_BINDING, key.asByteBuffer())
+                .setBytes(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
+                .setBytes(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
+                .setInt(LIMIT_BINDING, query.getLimit())
+                .setConsistencyLevel(consistencyLevel);
+    }
+
     @Override
     public EntryList getSlice(final KeySliceQuery query, final StoreTransaction txh) throws BackendException {
         final Future<EntryList> result = Future.fromJavaFuture(
                 this.executorService,
-                this.session.executeAsync(this.getSlice.bind()
-                        .setBytes(KEY_BINDING, query.getKey().asByteBuffer())
-                        .setBytes(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
-                        .setBytes(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
-                        .setInt(LIMIT_BINDING, query.getLimit())
-                        .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel())))
+                this.session.executeAsync(getSliceStatement(query.getKey(), query, getTransaction(txh).getReadConsistencyLevel())))
                 .map(resultSet -> fromResultSet(resultSet, this.getter));
         interruptibleWait(result);
         return result.getValue().get().getOrElseThrow(EXCEPTION_MAPPER);
@@ -279,7 +337,181 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
 
     @Override
     public Map<StaticBuffer, EntryList> getSlice(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) throws BackendException {
-        throw new UnsupportedOperationException("The CQL backend does not support multi-key queries");
+        final ConsistencyLevel consistencyLevel = getTransaction(txh).getReadConsistencyLevel();
+        final Map<StaticBuffer, ResultSetFuture> futures = new LinkedHashMap<>(keys.size());
+        final AtomicReference<ResultSetFuture> failed = new AtomicReference<>();
+        try {
+            for (final StaticBuffer key : orderByReplica(keys)) {
+                this.multiQueryLimiter.acquire();
+                // Stop issuing queries once one of them has failed, since the multi-key query fails as a whole
+                if (failed.get() != null) {
+                    this.multiQueryLimiter.release();
+                    break;
+                }
+                final ResultSetFuture future = this.session.executeAsync(getSliceStatement(key, query, consistencyLevel));
+                future.addListener(() -> {
+                    if (getFailure(future) != null) failed.compareAndSet(null, future);
+                    this.multiQueryLimiter.release();
+                }, MoreExecutors.directExecutor());
+                futures.put(key, future);
+            }
+            if (failed.get() != null) {
+                futures.values().forEach(future -> future.cancel(true));
+                failed.get().get();
+            }
+
+            final Map<StaticBuffer, EntryList> result = new LinkedHashMap<>(futures.size());
+            for (final StaticBuffer key : keys) {
+                result.put(key, fromResultSet(futures.get(key).get(), this.getter));
+            }
+            return result;
+        } catch (final InterruptedException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new PermanentBackendException(e);
+        } catch (final ExecutionException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            throw EXCEPTION_MAPPER.apply(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the cause of the failure of the given completed query or null if it has succeeded or been cancelled
+     */
+    private static Throwable getFailure(final ResultSetFuture future) {
+        try {
+            Uninterruptibles.getUninterruptibly(future);
+            return null;
+        } catch (final ExecutionException e) {
+            return e.getCause();
+        } catch (final CancellationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(final KeySliceQuery query, final StoreTransaction txh) {
+        return toCompletableFuture(
+                this.session.executeAsync(getSliceStatement(query.getKey(), query, getTransaction(txh).getReadConsistencyLevel())),
+                resultSet -> fromResultSet(resultSet, this.getter));
+    }
+
+    /**
+     * Issues the queries for the individual keys in the same order and under the same in-flight limit as
+     * {@link #getSlice(List, SliceQuery, StoreTransaction)}, but queues them with the limiter instead of blocking the
+     * calling thread. The queries still in flight are cancelled as soon as one of them fails.
+     */
+    @Override
+    public CompletableFuture<Map<StaticBuffer, EntryList>> getSliceAsync(final List<StaticBuffer> keys, final SliceQuery query, final StoreTransaction txh) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        final ConsistencyLevel consistencyLevel = getTransaction(txh).getReadConsistencyLevel();
+        final Map<StaticBuffer, EntryList> results = new ConcurrentHashMap<>(keys.size());
+        final Queue<ResultSetFuture> inFlight = new ConcurrentLinkedQueue<>();
+        final AtomicInteger remaining = new AtomicInteger(keys.size());
+        final CompletableFuture<Map<StaticBuffer, EntryList>> result = new CompletableFuture<>();
+        for (final StaticBuffer key : orderByReplica(keys)) {
+            this.multiQueryLimiter.acquireAsync(() -> issueSlice(key, query, consistencyLevel, inFlight, remaining, results, result));
+        }
+        return result.whenComplete((unordered, failure) -> {
+            if (failure != null) inFlight.forEach(future -> future.cancel(true));
+        }).thenApply(unordered -> {
+            final Map<StaticBuffer, EntryList> inKeyOrder = new LinkedHashMap<>(unordered.size());
+            keys.forEach(key -> inKeyOrder.put(key, unordered.get(key)));
+            return inKeyOrder;
+        });
+    }
+
+    /**
+     * Issues the query for a single key of {@link #getSliceAsync(List, SliceQuery, StoreTransaction)} once the limiter
+     * has granted it a permit.
+     *
+     * @return whether the query has been issued and releases the permit on completion
+     */
+    private boolean issueSlice(final StaticBuffer key, final SliceQuery query, final ConsistencyLevel consistencyLevel,
+                            final Queue<ResultSetFuture> inFlight, final AtomicInteger remaining,
+                            final Map<StaticBuffer, EntryList> results, final CompletableFuture<Map<StaticBuffer, EntryList>> result) {
+        if (result.isDone()) {
+            return false;
+        }
+        final ResultSetFuture future;
+        try {
+            future = this.session.executeAsync(getSliceStatement(key, query, consistencyLevel));
+        } catch (final RuntimeException e) {
+            result.completeExceptionally(EXCEPTION_MAPPER.apply(e));
+            return false;
+        }
+        future.addListener(() -> {
+            // Fail the result before the permit is handed on, so that no further queries are issued
+            final Throwable failure = getFailure(future);
+            if (failure != null) result.completeExceptionally(EXCEPTION_MAPPER.apply(failure));
+            this.multiQueryLimiter.release();
+        }, MoreExecutors.directExecutor());
+        inFlight.add(future);
+        // The result may have failed while the query was issued, after the in-flight queries had been cancelled
+        if (result.isCompletedExceptionally()) {
+            future.cancel(true);
+        }
+        toCompletableFuture(future, resultSet -> fromResultSet(resultSet, this.getter))
+                .whenComplete((entries, failure) -> {
+                    if (failure != null) {
+                        result.completeExceptionally(failure);
+                        return;
+                    }
+                    results.put(key, entries);
+                    if (remaining.decrementAndGet() == 0) {
+                        result.complete(results);
+                    }
+                });
+        return true;
+    }
+
+    /**
+     * Adapts the driver's future to a {@link CompletableFuture}. The result set is mapped on the store's executor service rather than on
+     * a driver I/O thread, since fetching further pages of a result set blocks.
+     */
+    private <V> CompletableFuture<V> toCompletableFuture(final ResultSetFuture future, final Function<ResultSet, V> mapper) {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        future.addListener(() -> {
+            try {
+                result.complete(mapper.apply(Uninterruptibles.getUninterruptibly(future)));
+            } catch (final ExecutionException e) {
+                result.completeExceptionally(EXCEPTION_MAPPER.apply(e.getCause()));
+            } catch (final RuntimeException e) {
+                result.completeExceptionally(EXCEPTION_MAPPER.apply(e));
+            }
+        }, this.executorService);
+        return result;
+    }
+
+    /**
+     * Groups the keys by the first replica owning their token and interleaves the groups, so that the in-flight window of a multi-key
+     * query is spread evenly over the replicas rather than queueing up on a single host.
+     *
+     * @param keys the keys of a multi-key query
+     * @return the keys in the order in which their queries should be issued
+     */
+    private List<StaticBuffer> orderByReplica(final List<StaticBuffer> keys) {
+        final Metadata metadata = this.session.getCluster().getMetadata();
+        final Map<Optional<Host>, List<StaticBuffer>> keysByReplica = new LinkedHashMap<>();
+        for (final StaticBuffer key : keys) {
+            final Optional<Host> replica = metadata.getReplicas(this.storeManager.getKeyspaceName(), key.asByteBuffer()).stream().findFirst();
+            keysByReplica.computeIfAbsent(replica, r -> new ArrayList<>()).add(key);
+        }
+        if (keysByReplica.size() <= 1) {
+            return keys;
+        }
+
+        final List<StaticBuffer> ordered = new ArrayList<>(keys.size());
+        for (int position = 0; ordered.size() < keys.size(); position++) {
+            for (final List<StaticBuffer> group : keysByReplica.values()) {
+                if (position < group.size()) {
+                    ordered.add(group.get(position));
+                }
+            }
+        }
+        return ordered;
     }
 
     /**
@@ -375,6 +607,39 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
                 .getOrElseThrow(EXCEPTION_MAPPER);
     }
 
+    @Override
+    public CompletableFuture<KeyIterator> getKeysAsync(final KeyRangeQuery query, final StoreTransaction txh) {
+        if (!this.storeManager.getFeatures().hasOrderedScan()) {
+            return KCVSUtil.failedFuture(new PermanentBackendException("This operation is only allowed when the byteorderedpartitioner is used."));
+        }
+
+        final Metadata metadata = this.session.getCluster().getMetadata();
+        return toCompletableFuture(
+                this.session.executeAsync(this.getKeysRanged.bind()
+                        .setToken(KEY_START_BINDING, metadata.newToken(query.getKeyStart().asByteBuffer()))
+                        .setToken(KEY_END_BINDING, metadata.newToken(query.getKeyEnd().asByteBuffer()))
+                        .setBytes(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
+                        .setBytes(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
+                        .setFetchSize(this.storeManager.getPageSize())
+                        .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel())),
+                resultSet -> new CQLResultSetKeyIterator(query, this.getter, resultSet));
+    }
+
+    @Override
+    public CompletableFuture<KeyIterator> getKeysAsync(final SliceQuery query, final StoreTransaction txh) {
+        if (this.storeManager.getFeatures().hasOrderedScan()) {
+            return KCVSUtil.failedFuture(new PermanentBackendException("This operation is only allowed when a random partitioner (md5 or murmur3) is used."));
+        }
+
+        return toCompletableFuture(
+                this.session.executeAsync(this.getKeysAll.bind()
+                        .setBytes(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
+                        .setBytes(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
+                        .setFetchSize(this.storeManager.getPageSize())
+                        .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel())),
+                resultSet -> new CQLResultSetKeyIterator(query, this.getter, resultSet));
+    }
+
     @Override
     public KeyIterator getKeys(final SliceQuery query, final StoreTransaction txh) throws BackendException {
         if (this.storeManager.getFeatures().hasOrderedScan()) {
@@ -391,4 +656,103 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
                         .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()))))
                 .getOrElseThrow(EXCEPTION_MAPPER);
     }
+
+    /**
+     * Splits the token ring of a random partitioner into at most the given number of partitions, each of which is a
+     * contiguous group of the token ranges owned by the nodes of the cluster. The bounds of a partition are the string
+     * representations of its tokens, where the partition that reaches the end of the ring has an empty end. Byte ordered
+     * keys are split into key ranges by the scanner instead.
+     */
+    @Override
+    public List<KeyRange> getScanPartitions(final int numPartitions, final StoreTransaction txh) {
+        if (this.storeManager.getFeatures().hasOrderedScan()) return Collections.emptyList();
+
+        final List<TokenRange> ranges = new ArrayList<>();
+        for (final TokenRange range : this.session.getCluster().getMetadata().getTokenRanges()) {
+            ranges.addAll(range.unwrap());
+        }
+        Collections.sort(ranges);
+        final int size = Math.min(numPartitions, ranges.size());
+        final List<KeyRange> partitions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final TokenRange first = ranges.get(i * ranges.size() / size);
+            final TokenRange last = ranges.get((i + 1) * ranges.size() / size - 1);
+            //Unwrapping leaves the range which wraps around the ring ending at the minimum token
+            final boolean endOfRing = last.getEnd().compareTo(last.getStart()) <= 0;
+            partitions.add(new KeyRange(toBuffer(first.getStart()), endOfRing ? BufferUtil.emptyBuffer() : toBuffer(last.getEnd())));
+        }
+        return partitions;
+    }
+
+    @Override
+    public KeyIterator getPartitionKeys(final KeyRange partition, final SliceQuery query, final StoreTransaction txh) throws BackendException {
+        if (this.storeManager.getFeatures().hasOrderedScan()) {
+            return KeyColumnValueStore.super.getPartitionKeys(partition, query, txh);
+        }
+
+        final Metadata metadata = this.session.getCluster().getMetadata();
+        final BoundStatement statement = partition.getEnd().length() == 0
+                ? this.getKeysTokenTail.bind()
+                : this.getKeysTokenRange.bind().setToken(KEY_END_BINDING, metadata.newToken(toTokenString(partition.getEnd())));
+        return Try.of(() -> new CQLResultSetKeyIterator(
+                query,
+                this.getter,
+                this.session.execute(statement
+                        .setToken(KEY_START_BINDING, metadata.newToken(toTokenString(partition.getStart())))
+                        .setBytes(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
+                        .setBytes(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
+                        .setFetchSize(this.storeManager.getPageSize())
+                        .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()))))
+                .getOrElseThrow(EXCEPTION_MAPPER);
+    }
+
+    private static StaticBuffer toBuffer(final Token token) {
+        return StaticArrayBuffer.of(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toTokenString(final StaticBuffer buffer) {
+        return new String(buffer.as(StaticBuffer.ARRAY_FACTORY), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Bounds the number of slice queries of multi-key reads which are in flight against this store at any time,
+     * across all concurrent reads. Synchronous reads block for a permit while asynchronous reads queue up and are
+     * issued by whichever query releases a permit.
+     */
+    private static final class MultiQueryLimiter {
+
+        private final Semaphore permits;
+        private final Queue<BooleanSupplier> waiting = new ConcurrentLinkedQueue<>();
+
+        private MultiQueryLimiter(final int maxInFlight) {
+            this.permits = new Semaphore(maxInFlight);
+        }
+
+        private void acquire() throws InterruptedException {
+            this.permits.acquire();
+        }
+
+        /**
+         * Runs the given query once a permit is available. The query returns whether it has been issued, in which case
+         * it has to release the permit on completion.
+         */
+        private void acquireAsync(final BooleanSupplier query) {
+            this.waiting.add(query);
+            dispatch();
+        }
+
+        private void release() {
+            this.permits.release();
+            dispatch();
+        }
+
+        private void dispatch() {
+            while (!this.waiting.isEmpty() && this.permits.tryAcquire()) {
+                final BooleanSupplier query = this.waiting.poll();
+                if (query == null || !query.getAsBoolean()) {
+                    this.permits.release();
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,380 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.cql;
+
+import static org.janusgraph.diskstorage.cql.CQLConfigOptions.CF_COMPRESSION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Tests the in-flight limit, the failure handling and the result order of multi-key slice queries of
+ * {@link CQLKeyColumnValueStore} against a mocked session whose queries are completed by the test
+ */
+public class CQLMultiQueryTest {
+
+    private static final String KEYSPACE = "janusgraph";
+    private static final String TABLE = "edgestore";
+    private static final SliceQuery QUERY = new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(1));
+    private static final long TIMEOUT_MS = 10000;
+
+    private final Map<Statement, StaticBuffer> statementKeys = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final List<StaticBuffer> issued = Collections.synchronizedList(new ArrayList<>());
+    private final Map<StaticBuffer, TestResultSetFuture> queries = new ConcurrentHashMap<>();
+    private final List<TestResultSetFuture> issuedQueries = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger completed = new AtomicInteger(0);
+    private final AtomicInteger maxInFlight = new AtomicInteger(0);
+
+    private ExecutorService executor;
+    private ExecutorService caller;
+    private CQLStoreManager storeManager;
+    private CQLTransaction tx;
+    private Configuration configuration;
+    private CQLKeyColumnValueStore store;
+
+    @Before
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+        caller = Executors.newSingleThreadExecutor();
+
+        //Keys with an even first byte are owned by the first host, all others by the second one
+        final Host host1 = mock(Host.class), host2 = mock(Host.class);
+        final Metadata metadata = mock(Metadata.class);
+        when(metadata.getReplicas(eq(KEYSPACE), any(ByteBuffer.class))).thenAnswer(invocation -> {
+            final ByteBuffer key = (ByteBuffer) invocation.getArguments()[1];
+            return ImmutableSet.of(key.get(key.position()) % 2 == 0 ? host1 : host2);
+        });
+        final Cluster cluster = mock(Cluster.class);
+        when(cluster.getMetadata()).thenReturn(metadata);
+
+        final PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(preparedStatement.bind()).thenAnswer(invocation -> newStatement());
+        final Session session = mock(Session.class);
+        when(session.getCluster()).thenReturn(cluster);
+        when(session.prepare(any(RegularStatement.class))).thenReturn(preparedStatement);
+        when(session.executeAsync(any(Statement.class))).thenAnswer(invocation -> issue((Statement) invocation.getArguments()[0]));
+
+        storeManager = mock(CQLStoreManager.class);
+        when(storeManager.getExecutorService()).thenReturn(executor);
+        when(storeManager.getSession()).thenReturn(session);
+        when(storeManager.getKeyspaceName()).thenReturn(KEYSPACE);
+        when(storeManager.getMetaDataSchema(TABLE)).thenReturn(StaticArrayEntry.EMPTY_SCHEMA);
+
+        tx = mock(CQLTransaction.class);
+        when(tx.getReadConsistencyLevel()).thenReturn(ConsistencyLevel.ONE);
+
+        configuration = mock(Configuration.class);
+        when(configuration.get(CF_COMPRESSION)).thenReturn(false);
+    }
+
+    private void openStore(int multiQueryMaxInFlight) {
+        when(storeManager.getMultiQueryMaxInFlight()).thenReturn(multiQueryMaxInFlight);
+        store = new CQLKeyColumnValueStore(storeManager, TABLE, configuration, () -> {});
+    }
+
+    @After
+    public void teardown() {
+        caller.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns a bound statement which remembers the key it has been bound to
+     */
+    private BoundStatement newStatement() {
+        final BoundStatement[] statement = new BoundStatement[1];
+        statement[0] = mock(BoundStatement.class, (Answer<Object>) invocation -> {
+            final Class<?> returnType = invocation.getMethod().getReturnType();
+            if (invocation.getMethod().getName().equals("setBytes") && "key".equals(invocation.getArguments()[0])) {
+                statementKeys.put(statement[0], StaticArrayBuffer.of((ByteBuffer) invocation.getArguments()[1]));
+            }
+            if (returnType.isPrimitive()) return RETURNS_DEFAULTS.answer(invocation);
+            return returnType.isInstance(statement[0]) ? statement[0] : null;
+        });
+        return statement[0];
+    }
+
+    private ResultSetFuture issue(Statement statement) {
+        final StaticBuffer key = statementKeys.get(statement);
+        final TestResultSetFuture query = new TestResultSetFuture(key);
+        issued.add(key);
+        queries.put(key, query);
+        issuedQueries.add(query);
+        final int inFlight = issued.size() - completed.get();
+        maxInFlight.accumulateAndGet(inFlight, Math::max);
+        return query;
+    }
+
+    private static StaticBuffer getKey(int key) {
+        return StaticArrayBuffer.of(new byte[]{(byte) key});
+    }
+
+    private static List<StaticBuffer> getKeys(int... keys) {
+        final List<StaticBuffer> result = new ArrayList<>(keys.length);
+        for (int key : keys) result.add(getKey(key));
+        return result;
+    }
+
+    private void awaitIssued(int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (issued.size() < count) {
+            if (System.currentTimeMillis() > deadline) fail("Only " + issued.size() + " of " + count + " queries were issued");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Completes the queries in the order in which they are issued, once they have been issued
+     */
+    private void completeInIssueOrder(int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            awaitIssued(i + 1);
+            completed.incrementAndGet();
+            issuedQueries.get(i).complete();
+        }
+    }
+
+    private Future<Map<StaticBuffer, EntryList>> getSlice(List<StaticBuffer> keys) {
+        return caller.submit(() -> store.getSlice(keys, QUERY, tx));
+    }
+
+    private static void assertResults(List<StaticBuffer> keys, Map<StaticBuffer, EntryList> result) {
+        assertEquals(keys, new ArrayList<>(result.keySet()));
+        for (StaticBuffer key : keys) {
+            final EntryList entries = result.get(key);
+            assertEquals(1, entries.size());
+            assertEquals(key, entries.get(0).getColumn());
+            assertEquals(key, entries.get(0).getValue());
+        }
+    }
+
+    @Test
+    public void testInFlightLimit() throws Exception {
+        openStore(2);
+        final List<StaticBuffer> keys = getKeys(0, 1, 2, 3, 4, 5);
+        final Future<Map<StaticBuffer, EntryList>> result = getSlice(keys);
+        awaitIssued(2);
+        Thread.sleep(100);
+        assertEquals(2, issued.size());
+        completeInIssueOrder(keys.size());
+        assertResults(keys, result.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    public void testAsyncInFlightLimit() throws Exception {
+        openStore(2);
+        final List<StaticBuffer> keys = getKeys(0, 1, 2, 3, 4, 5);
+        final CompletableFuture<Map<StaticBuffer, EntryList>> result = store.getSliceAsync(keys, QUERY, tx);
+        awaitIssued(2);
+        Thread.sleep(100);
+        assertEquals(2, issued.size());
+        completeInIssueOrder(keys.size());
+        assertResults(keys, result.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    public void testInFlightLimitIsSharedByConcurrentReads() throws Exception {
+        openStore(2);
+        final List<StaticBuffer> keys1 = getKeys(0, 1, 2), keys2 = getKeys(3, 4, 5);
+        final Future<Map<StaticBuffer, EntryList>> result1 = getSlice(keys1);
+        final CompletableFuture<Map<StaticBuffer, EntryList>> result2 = store.getSliceAsync(keys2, QUERY, tx);
+        awaitIssued(2);
+        Thread.sleep(100);
+        assertEquals(2, issued.size());
+        completeInIssueOrder(keys1.size() + keys2.size());
+        assertResults(keys1, result1.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertResults(keys2, result2.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    public void testFailureStopsIssuingQueries() throws Exception {
+        openStore(2);
+        final List<StaticBuffer> keys = getKeys(0, 1, 2, 3);
+        final Future<Map<StaticBuffer, EntryList>> result = getSlice(keys);
+        awaitIssued(2);
+        final RuntimeException failure = new RuntimeException("Read timeout");
+        completed.incrementAndGet();
+        issuedQueries.get(0).fail(failure);
+        try {
+            result.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TemporaryBackendException);
+            assertEquals(failure, e.getCause().getCause());
+        }
+        //The query in flight is cancelled and the permit of the failed one is not used for further queries
+        assertEquals(2, issued.size());
+        assertTrue(issuedQueries.get(1).isCancelled());
+        //All permits have been released
+        assertPermitsReleased();
+    }
+
+    @Test
+    public void testAsyncFailureCancelsQueriesInFlight() throws Exception {
+        openStore(2);
+        final CompletableFuture<Map<StaticBuffer, EntryList>> result = store.getSliceAsync(getKeys(0, 1, 2, 3), QUERY, tx);
+        awaitIssued(2);
+        final RuntimeException failure = new RuntimeException("Read timeout");
+        issuedQueries.get(0).fail(failure);
+        try {
+            result.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BackendException);
+            assertEquals(failure, e.getCause().getCause());
+        }
+        assertTrue(issuedQueries.get(1).isCancelled());
+        //No further queries are issued once the result has failed
+        Thread.sleep(100);
+        assertEquals(2, issued.size());
+        assertPermitsReleased();
+    }
+
+    /**
+     * Asserts that the store can still issue as many queries at once as its in-flight limit allows
+     */
+    private void assertPermitsReleased() throws Exception {
+        final int issuedBefore = issued.size();
+        final CompletableFuture<Map<StaticBuffer, EntryList>> result = store.getSliceAsync(getKeys(10, 11), QUERY, tx);
+        awaitIssued(issuedBefore + 2);
+        issuedQueries.get(issuedBefore).complete();
+        issuedQueries.get(issuedBefore + 1).complete();
+        assertResults(getKeys(10, 11), result.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testResultOrder() throws Exception {
+        openStore(10);
+        final List<StaticBuffer> keys = getKeys(0, 2, 4, 1, 6, 3, 5, 7);
+        final Future<Map<StaticBuffer, EntryList>> result = getSlice(keys);
+        awaitIssued(keys.size());
+        //The queries are issued alternating between the replicas
+        assertEquals(getKeys(0, 1, 2, 3, 4, 5, 6, 7), issued);
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            queries.get(issued.get(i)).complete();
+        }
+        assertResults(keys, result.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testAsyncResultOrder() throws Exception {
+        openStore(10);
+        final List<StaticBuffer> keys = getKeys(0, 2, 4, 1, 6, 3, 5, 7);
+        final CompletableFuture<Map<StaticBuffer, EntryList>> result = store.getSliceAsync(keys, QUERY, tx);
+        awaitIssued(keys.size());
+        assertEquals(getKeys(0, 1, 2, 3, 4, 5, 6, 7), issued);
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            queries.get(issued.get(i)).complete();
+        }
+        assertResults(keys, result.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * A query which is completed by the test with a single row whose column and value are the key of the query
+     */
+    private static class TestResultSetFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+        private final StaticBuffer key;
+
+        private TestResultSetFuture(StaticBuffer key) {
+            this.key = key;
+        }
+
+        private void complete() {
+            final Row row = mock(Row.class);
+            when(row.getBytes(CQLKeyColumnValueStore.COLUMN_COLUMN_NAME)).thenReturn(key.asByteBuffer());
+            when(row.getBytes(CQLKeyColumnValueStore.VALUE_COLUMN_NAME)).thenReturn(key.asByteBuffer());
+            final ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.iterator()).thenReturn(ImmutableList.of(row).iterator());
+            set(resultSet);
+        }
+
+        private void fail(Throwable failure) {
+            setException(failure);
+        }
+
+        @Override
+        public ResultSet getUninterruptibly() {
+            try {
+                return Uninterruptibles.getUninterruptibly(this);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        @Override
+        public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+            try {
+                return Uninterruptibles.getUninterruptibly(this, timeout, unit);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+}
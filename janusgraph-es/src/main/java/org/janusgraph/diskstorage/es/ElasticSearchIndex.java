@@ -27,6 +27,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.janusgraph.diskstorage.es.compat.ES6Compat;
 import org.janusgraph.diskstorage.es.rest.util.HttpAuthTypes;
 import org.locationtech.spatial4j.shape.Rectangle;
@@ -91,6 +92,12 @@ import java.util.Objects;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -135,6 +142,40 @@ public class ElasticSearchIndex implements IndexProvider {
             "Elasticsearch bulk API refresh setting used to control when changes made by this request are made " +
             "visible to search", ConfigOption.Type.MASKABLE, "false");
 
+    public static final ConfigOption<Integer> BULK_CHUNK_SIZE_LIMIT_BYTES =
+            new ConfigOption<>(ELASTICSEARCH_NS, "bulk-chunk-size-limit-bytes",
+            "The maximum size in bytes of a bulk request. Larger mutations are split into several bulk requests. " +
+            "The actions on a single document are never split and are sent on their own if they exceed this size.",
+            ConfigOption.Type.MASKABLE, 10 * 1024 * 1024, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> BULK_CHUNK_ACTIONS =
+            new ConfigOption<>(ELASTICSEARCH_NS, "bulk-chunk-actions",
+            "The maximum number of actions in a bulk request. Larger mutations are split into several bulk requests.",
+            ConfigOption.Type.MASKABLE, 5000, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> BULK_CONCURRENCY =
+            new ConfigOption<>(ELASTICSEARCH_NS, "bulk-concurrency",
+            "The maximum number of bulk requests that this instance sends concurrently when mutations are split " +
+            "into several bulk requests. The requests of a single mutation are sent one after the other if set to 1.",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> BULK_RETRY_LIMIT =
+            new ConfigOption<>(ELASTICSEARCH_NS, "bulk-retry-limit",
+            "The number of times that bulk actions rejected by Elasticsearch with status 429 (Too Many Requests) " +
+            "or 503 (Service Unavailable) are retried. Only the rejected actions are retried.",
+            ConfigOption.Type.MASKABLE, 5, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Integer> BULK_RETRY_INITIAL_WAIT =
+            new ConfigOption<>(ELASTICSEARCH_NS, "bulk-retry-initial-wait",
+            "The time (in milliseconds) to wait before retrying rejected bulk actions for the first time. The " +
+            "wait time doubles with each subsequent retry up to bulk-retry-max-wait.",
+            ConfigOption.Type.MASKABLE, 100, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> BULK_RETRY_MAX_WAIT =
+            new ConfigOption<>(ELASTICSEARCH_NS, "bulk-retry-max-wait",
+            "The maximum time (in milliseconds) to wait before retrying rejected bulk actions.",
+            ConfigOption.Type.MASKABLE, 10000, ConfigOption.positiveInt());
+
     public static final ConfigNamespace ES_CREATE_NS =
             new ConfigNamespace(ELASTICSEARCH_NS, "create", "Settings related to index creation");
 
@@ -167,6 +208,25 @@ public class ElasticSearchIndex implements IndexProvider {
             new ConfigOption<>(ELASTICSEARCH_NS, "scroll-keep-alive",
             "How long (in seconds) elasticsearch should keep alive the scroll context.", ConfigOption.Type.GLOBAL_OFFLINE, 60);
 
+    public static final ConfigOption<Integer> ES_SCROLL_PREFETCH =
+            new ConfigOption<>(ELASTICSEARCH_NS, "scroll-prefetch",
+            "Number of result pages of a scrolled query that are fetched in the background while the previous pages " +
+            "are consumed. Set to 0 to fetch the next page only once the previous one has been consumed.",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Integer> ES_SCROLL_SLICES =
+            new ConfigOption<>(ELASTICSEARCH_NS, "scroll-slices",
+            "Number of slices into which a scrolled query without sort order is split. The slices are scrolled in " +
+            "parallel and their results are returned in no particular order. Requires Elasticsearch 5.x or later " +
+            "and a positive value for scroll-prefetch.",
+            ConfigOption.Type.MASKABLE, 1, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> ES_SCROLL_THREADS =
+            new ConfigOption<>(ELASTICSEARCH_NS, "scroll-threads",
+            "Maximum number of threads that fetch the result pages of scrolled queries in the background. Fetches " +
+            "beyond this number wait until a thread becomes available. Only used with a positive value for scroll-prefetch.",
+            ConfigOption.Type.MASKABLE, 8, ConfigOption.positiveInt());
+
     public static final ConfigNamespace ES_INGEST_PIPELINES =
             new ConfigNamespace(ELASTICSEARCH_NS, "ingest-pipeline", "Ingest pipeline applicable to a store of an index.");
 
@@ -281,6 +341,10 @@ public class ElasticSearchIndex implements IndexProvider {
     private final boolean useAllField;
     private final boolean useMultitypeIndex;
     private final Map<String, Object> ingestPipelines;
+    private final int scrollPrefetch;
+    private final int scrollSlices;
+    //null if scroll prefetching is disabled
+    private final ExecutorService scrollExecutor;
 
     public ElasticSearchIndex(Configuration config) throws BackendException {
         indexName = config.get(INDEX_NAME);
@@ -294,6 +358,18 @@ public class ElasticSearchIndex implements IndexProvider {
         batchSize = config.get(INDEX_MAX_RESULT_SET_SIZE);
         log.debug("Configured ES query nb result by query to {}", batchSize);
 
+        scrollPrefetch = config.get(ES_SCROLL_PREFETCH);
+        if (scrollPrefetch > 0) {
+            final int scrollThreads = config.get(ES_SCROLL_THREADS);
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(scrollThreads, scrollThreads,
+                    60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+                    .setDaemon(true).setNameFormat("ElasticSearchScroll-%d").build());
+            executor.allowCoreThreadTimeOut(true);
+            scrollExecutor = executor;
+        } else {
+            scrollExecutor = null;
+        }
+
         switch (client.getMajorVersion()) {
             case ONE:
                 compat = new ES1Compat();
@@ -315,6 +391,16 @@ public class ElasticSearchIndex implements IndexProvider {
                 throw new PermanentBackendException("Unsupported Elasticsearch version: " + client.getMajorVersion());
         }
 
+        final int configuredSlices = config.get(ES_SCROLL_SLICES);
+        if (configuredSlices > 1 && (scrollExecutor == null || client.getMajorVersion() == ElasticMajorVersion.ONE
+                || client.getMajorVersion() == ElasticMajorVersion.TWO)) {
+            log.warn("Ignoring {} since it requires Elasticsearch 5.x or later and a positive value for {}",
+                    ES_SCROLL_SLICES.getName(), ES_SCROLL_PREFETCH.getName());
+            scrollSlices = 1;
+        } else {
+            scrollSlices = configuredSlices;
+        }
+
         try {
             client.clusterHealthRequest(config.get(HEALTH_REQUEST_TIMEOUT));
         } catch (final IOException e) {
@@ -1093,22 +1179,71 @@ public class ElasticSearchIndex implements IndexProvider {
             sr.setSize(batchSize);
         }
 
-        ElasticSearchResponse response;
         try {
             final String indexStoreName = getIndexStoreName(query.getStore());
             final String indexType = useMultitypeIndex ? query.getStore() : null;
-            response = client.search(indexStoreName, indexType, compat.createRequestBody(sr, NULL_PARAMETERS),
-                    sr.getSize() >= batchSize);
-            log.debug("First Executed query [{}] in {} ms", query.getCondition(), response.getTook());
-            final ElasticSearchScroll resultIterator = new ElasticSearchScroll(client, response, sr.getSize());
+            final boolean useScroll = sr.getSize() >= batchSize;
+            final List<ElasticSearchResponse> responses;
+            if (useScroll && scrollSlices > 1 && query.getOrder().isEmpty()
+                    && (!query.hasLimit() || query.getLimit() > batchSize)) {
+                responses = searchSlices(indexStoreName, indexType, sr);
+            } else {
+                responses = ImmutableList.of(client.search(indexStoreName, indexType,
+                        compat.createRequestBody(sr, NULL_PARAMETERS), useScroll));
+            }
+            log.debug("First Executed query [{}] in {} ms", query.getCondition(), responses.get(0).getTook());
+            final ElasticSearchScroll resultIterator = newScroll(responses, sr.getSize());
             final Stream<RawQuery.Result<String>> toReturn
-                    = StreamSupport.stream(Spliterators.spliteratorUnknownSize(resultIterator, Spliterator.ORDERED), false);
+                    = StreamSupport.stream(Spliterators.spliteratorUnknownSize(resultIterator, Spliterator.ORDERED), false)
+                    .onClose(resultIterator::close);
             return (query.hasLimit() ? toReturn.limit(query.getLimit()) : toReturn).map(RawQuery.Result::getResult);
         } catch (final IOException | UncheckedIOException e) {
             throw new PermanentBackendException(e);
         }
     }
 
+    /**
+     * Runs the first request of each slice of a sliced scroll in parallel
+     */
+    private List<ElasticSearchResponse> searchSlices(String indexStoreName, String indexType,
+                                                     ElasticSearchRequest sr) throws IOException {
+        final List<Future<ElasticSearchResponse>> futures = new ArrayList<>(scrollSlices);
+        for (int i = 0; i < scrollSlices; i++) {
+            sr.setSlice(i, scrollSlices);
+            final Map<String, Object> requestBody = compat.createRequestBody(sr, NULL_PARAMETERS);
+            futures.add(scrollExecutor.submit(() -> client.search(indexStoreName, indexType, requestBody, true)));
+        }
+        final List<ElasticSearchResponse> responses = new ArrayList<>(scrollSlices);
+        try {
+            for (final Future<ElasticSearchResponse> future : futures) {
+                responses.add(future.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for sliced scroll", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IOException(e.getCause());
+        } finally {
+            if (responses.size() < futures.size()) {
+                //Delete the scroll contexts of the slices that succeeded, the others expire after the keep-alive
+                for (final ElasticSearchResponse response : responses) {
+                    try {
+                        client.deleteScroll(response.getScrollId());
+                    } catch (final IOException e) {
+                        log.warn("Could not delete scroll context", e);
+                    }
+                }
+            }
+        }
+        return responses;
+    }
+
+    private ElasticSearchScroll newScroll(List<ElasticSearchResponse> responses, int size) {
+        return new ElasticSearchScroll(client, responses, size, scrollExecutor,
+                scrollPrefetch + responses.size());
+    }
+
     private String convertToEsDataType(Class<?> dataType, Mapping mapping) {
         if(String.class.isAssignableFrom(dataType)) {
             return "string";
@@ -1161,10 +1296,10 @@ public class ElasticSearchIndex implements IndexProvider {
         final int size = query.hasLimit() ? Math.min(query.getLimit() + query.getOffset(), batchSize) : batchSize;
         final ElasticSearchResponse response = runCommonQuery(query, tx, size, size >= batchSize );
         log.debug("First Executed query [{}] in {} ms", query.getQuery(), response.getTook());
-        final ElasticSearchScroll resultIterator = new ElasticSearchScroll(client, response, size);
+        final ElasticSearchScroll resultIterator = newScroll(ImmutableList.of(response), size);
         final Stream<RawQuery.Result<String>> toReturn
                 = StreamSupport.stream(Spliterators.spliteratorUnknownSize(resultIterator, Spliterator.ORDERED),
-                false).skip(query.getOffset());
+                false).onClose(resultIterator::close).skip(query.getOffset());
         return query.hasLimit() ? toReturn.limit(query.getLimit()) : toReturn;
     }
 
@@ -1251,6 +1386,7 @@ public class ElasticSearchIndex implements IndexProvider {
 
     @Override
     public void close() throws BackendException {
+        if (scrollExecutor != null) scrollExecutor.shutdownNow();
         try {
             client.close();
         } catch (final IOException e) {
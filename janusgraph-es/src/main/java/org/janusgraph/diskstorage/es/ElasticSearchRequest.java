@@ -33,6 +33,8 @@ public class ElasticSearchRequest {
 
     private List<String> fields;
 
+    private Map<String,Integer> slice;
+
     public ElasticSearchRequest() {
         this.sorts = new ArrayList<>();
         this.fields = new ArrayList<>();
@@ -74,6 +76,18 @@ public class ElasticSearchRequest {
         this.fields = fields;
     }
 
+    public Map<String,Integer> getSlice() {
+        return slice;
+    }
+
+    /**
+     * Restricts a scrolled search to the given slice out of the given number of slices (requires Elasticsearch 5.x or
+     * later)
+     */
+    public void setSlice(int id, int max) {
+        this.slice = ImmutableMap.of("id", id, "max", max);
+    }
+
     public void addSort(String key, String order, String unmappedType) {
         this.sorts.add(ImmutableMap.of(key, new RestSortInfo(order, unmappedType)));
     }
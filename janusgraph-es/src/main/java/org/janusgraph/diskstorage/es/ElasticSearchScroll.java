@@ -14,60 +14,203 @@
 
 package org.janusgraph.diskstorage.es;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.google.common.base.Preconditions;
 import org.janusgraph.diskstorage.indexing.RawQuery;
 import org.janusgraph.diskstorage.indexing.RawQuery.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
+ * Iterates over the results of one or more scroll contexts, one for each slice of a sliced scroll.
+ * <p>
+ * If an executor is given, the next pages are fetched in the background while the current ones are consumed, for all
+ * slices in parallel, until the given number of pages is buffered. Otherwise, the next page is fetched only once all
+ * buffered results have been consumed, taking turns between the slices.
+ *
  * @author David Clement (david.clement90@laposte.net)
  */
-public class ElasticSearchScroll implements Iterator<RawQuery.Result<String>> {
+public class ElasticSearchScroll implements Iterator<RawQuery.Result<String>>, Closeable {
 
-    private final BlockingQueue<RawQuery.Result<String>> queue;
-    private boolean isFinished;
+    private static final Logger log = LoggerFactory.getLogger(ElasticSearchScroll.class);
+
+    private final Queue<RawQuery.Result<String>> queue;
     private final ElasticSearchClient client;
-    private final String scrollId;
     private final int batchSize;
+    private final Executor executor;
+    private final int maxBufferedResults;
+
+    //Scroll ids of the slices that have more results and are not being fetched
+    private final Deque<String> idleScrollIds;
+    private int pendingFetches;
+    private IOException failure;
+    private boolean isClosed;
 
     public ElasticSearchScroll(ElasticSearchClient client, ElasticSearchResponse initialResponse, int nbDocByQuery) {
-        queue = new LinkedBlockingQueue<>();
+        this(client, Collections.singletonList(initialResponse), nbDocByQuery, null, 1);
+    }
+
+    /**
+     * @param initialResponses the first page of each slice
+     * @param executor executes the fetches of the next pages in the background or null to fetch them on demand
+     * @param maxBufferedPages number of pages that may be buffered before background fetches are paused
+     */
+    public ElasticSearchScroll(ElasticSearchClient client, List<ElasticSearchResponse> initialResponses, int nbDocByQuery,
+                               Executor executor, int maxBufferedPages) {
+        Preconditions.checkArgument(!initialResponses.isEmpty() && nbDocByQuery > 0 && maxBufferedPages > 0);
+        queue = new ArrayDeque<>();
+        idleScrollIds = new ArrayDeque<>(initialResponses.size());
         this.client = client;
-        this.scrollId = initialResponse.getScrollId();
         this.batchSize = nbDocByQuery;
-        initialResponse.getResults().forEach(queue::add);
-        this.isFinished = initialResponse.numResults() < nbDocByQuery;
+        this.executor = executor;
+        this.maxBufferedResults = maxBufferedPages * nbDocByQuery;
+        for (final ElasticSearchResponse initialResponse : initialResponses) {
+            final String finishedScrollId = addPage(initialResponse.getScrollId(), initialResponse);
+            if (finishedScrollId != null) deleteScroll(finishedScrollId);
+        }
+        synchronized (this) {
+            prefetch();
+        }
     }
 
     @Override
-    public boolean hasNext() {
-        try {
+    public synchronized boolean hasNext() {
+        while (true) {
             if (!queue.isEmpty()) {
+                prefetch();
                 return true;
             }
-            if (isFinished) {
+            if (failure != null) {
+                throw new UncheckedIOException(failure.getMessage(), failure);
+            }
+            if (isClosed || (idleScrollIds.isEmpty() && pendingFetches == 0)) {
                 return false;
             }
-            final ElasticSearchResponse res = client.search(scrollId);
-            res.getResults().forEach(queue::add);
-            isFinished = res.numResults() < batchSize;
-            if (isFinished) client.deleteScroll(scrollId);
-            return res.numResults() > 0;
-        } catch (final IOException e) {
-             throw new UncheckedIOException(e.getMessage(), e);
+            if (executor == null) {
+                fetch(idleScrollIds.poll());
+            } else {
+                prefetch();
+                try {
+                    wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new IOException("Interrupted waiting on scroll", e));
+                }
+            }
         }
     }
 
     @Override
-    public Result<String> next() {
-         try {
-             return queue.take();
-         } catch (final InterruptedException e) {
-              throw new UncheckedIOException(new IOException("Interrupted waiting on queue", e));
-         }
+    public synchronized Result<String> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return queue.poll();
+    }
+
+    /**
+     * Deletes the scroll contexts of all slices that have not been read completely
+     */
+    @Override
+    public void close() {
+        final List<String> scrollIds;
+        synchronized (this) {
+            if (isClosed) return;
+            isClosed = true;
+            queue.clear();
+            scrollIds = new ArrayList<>(idleScrollIds);
+            idleScrollIds.clear();
+            notifyAll();
+        }
+        scrollIds.forEach(this::deleteScroll);
+    }
+
+    /**
+     * Starts background fetches for idle slices as long as the buffer has room for the fetched pages
+     */
+    private void prefetch() {
+        while (executor != null && !isClosed && !idleScrollIds.isEmpty()
+                && queue.size() + (pendingFetches + 1) * batchSize <= maxBufferedResults) {
+            final String scrollId = idleScrollIds.poll();
+            pendingFetches++;
+            try {
+                executor.execute(() -> fetchInBackground(scrollId));
+            } catch (final RejectedExecutionException e) {
+                pendingFetches--;
+                idleScrollIds.addFirst(scrollId);
+                failure = new IOException("Could not fetch next page since the index has been closed", e);
+                return;
+            }
+        }
+    }
+
+    private void fetchInBackground(String scrollId) {
+        ElasticSearchResponse response = null;
+        IOException error = null;
+        try {
+            response = client.search(scrollId);
+        } catch (final IOException e) {
+            error = e;
+        } catch (final RuntimeException e) {
+            error = new IOException(e.getMessage(), e);
+        }
+        String finishedScrollId = null;
+        synchronized (this) {
+            pendingFetches--;
+            if (error != null) {
+                failure = error;
+            } else if (isClosed) {
+                finishedScrollId = response.getScrollId() != null ? response.getScrollId() : scrollId;
+            } else {
+                finishedScrollId = addPage(scrollId, response);
+                prefetch();
+            }
+            notifyAll();
+        }
+        if (finishedScrollId != null) deleteScroll(finishedScrollId);
+    }
+
+    private void fetch(String scrollId) {
+        final String finishedScrollId;
+        try {
+            finishedScrollId = addPage(scrollId, client.search(scrollId));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e.getMessage(), e);
+        }
+        if (finishedScrollId != null) deleteScroll(finishedScrollId);
+    }
+
+    /**
+     * Buffers the results of the given page and returns the scroll id of the slice if it has been read completely
+     */
+    private String addPage(String scrollId, ElasticSearchResponse response) {
+        response.getResults().forEach(queue::add);
+        //Elasticsearch may return a different scroll id with each page
+        final String nextScrollId = response.getScrollId() != null ? response.getScrollId() : scrollId;
+        if (response.numResults() < batchSize) {
+            return nextScrollId;
+        }
+        idleScrollIds.add(nextScrollId);
+        return null;
+    }
+
+    private void deleteScroll(String scrollId) {
+        if (scrollId == null) return;
+        try {
+            client.deleteScroll(scrollId);
+        } catch (final IOException | RuntimeException e) {
+            log.warn("Could not delete scroll context, it expires after the scroll keep-alive", e);
+        }
     }
 }
@@ -180,6 +180,8 @@ public abstract class AbstractESCompat {
         if (!request.getSorts().isEmpty()) {
             requestBody.put("sort", request.getSorts());
         }
+
+        Optional.ofNullable(request.getSlice()).ifPresent(parameter -> requestBody.put("slice", parameter));
         
         Optional.ofNullable(request.getQuery()).ifPresent(parameter -> requestBody.put("query", parameter));
         Optional.ofNullable(parameters).ifPresent(p -> Arrays.stream(p).forEachOrdered(parameter -> requestBody.put(parameter.key(), parameter.value())));
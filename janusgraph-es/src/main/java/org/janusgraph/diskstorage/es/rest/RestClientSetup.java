@@ -14,8 +14,11 @@
 
 package org.janusgraph.diskstorage.es.rest;
 
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.BASIC_METRICS;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.INDEX_HOSTS;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.INDEX_NAME;
 import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.INDEX_PORT;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.METRICS_PREFIX;
 
 import java.io.IOException;
 import java.lang.reflect.Constructor;
@@ -75,6 +78,14 @@ public class RestClientSetup {
         if (config.has(ElasticSearchIndex.BULK_REFRESH)) {
             client.setBulkRefresh(config.get(ElasticSearchIndex.BULK_REFRESH));
         }
+        client.setBulkChunkLimits(config.get(ElasticSearchIndex.BULK_CHUNK_SIZE_LIMIT_BYTES),
+                config.get(ElasticSearchIndex.BULK_CHUNK_ACTIONS));
+        client.setBulkConcurrency(config.get(ElasticSearchIndex.BULK_CONCURRENCY));
+        client.setBulkRetry(config.get(ElasticSearchIndex.BULK_RETRY_LIMIT),
+                config.get(ElasticSearchIndex.BULK_RETRY_INITIAL_WAIT), config.get(ElasticSearchIndex.BULK_RETRY_MAX_WAIT));
+        if (config.get(BASIC_METRICS)) {
+            client.setBulkMetrics(config.get(METRICS_PREFIX), "elasticsearch." + config.get(INDEX_NAME));
+        }
 
         return client;
     }
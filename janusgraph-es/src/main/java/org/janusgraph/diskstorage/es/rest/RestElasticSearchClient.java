@@ -14,9 +14,11 @@
 
 package org.janusgraph.diskstorage.es.rest;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.http.HttpEntity;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
@@ -28,6 +30,7 @@ import org.apache.tinkerpop.shaded.jackson.databind.ObjectWriter;
 import org.apache.tinkerpop.shaded.jackson.databind.SerializationFeature;
 import org.apache.tinkerpop.shaded.jackson.databind.module.SimpleModule;
 import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
 import org.elasticsearch.client.RestClient;
 import org.janusgraph.core.attribute.Geoshape;
 import org.janusgraph.diskstorage.es.ElasticMajorVersion;
@@ -36,19 +39,24 @@ import org.janusgraph.diskstorage.es.ElasticSearchMutation;
 import org.janusgraph.diskstorage.es.IndexMappings;
 import org.janusgraph.diskstorage.es.IndexMappings.IndexMapping;
 import org.janusgraph.diskstorage.es.rest.RestBulkResponse.RestBulkItemResponse;
+import org.janusgraph.util.stats.MetricManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static org.janusgraph.util.encoding.StringEncoding.UTF8_CHARSET;
 
@@ -79,6 +87,13 @@ public class RestElasticSearchClient implements ElasticSearchClient {
         mapWriter = mapper.writerWithView(Map.class);
     }
 
+    private static final String METRICS_BULK = "bulk";
+    public static final String METRICS_BULK_REQUESTS = "requests";
+    public static final String METRICS_BULK_ACTIONS = "actions";
+    public static final String METRICS_BULK_BYTES = "bytes";
+    public static final String METRICS_BULK_REJECTED = "rejected";
+    public static final String METRICS_BULK_FAILURES = "failures";
+
     private static final ElasticMajorVersion DEFAULT_VERSION = ElasticMajorVersion.FIVE;
 
     private static final Function<StringBuilder, StringBuilder> APPEND_OP = sb -> sb.append(sb.length() == 0 ? REQUEST_PARAM_BEGINNING : REQUEST_PARAM_SEPARATOR);
@@ -91,6 +106,24 @@ public class RestElasticSearchClient implements ElasticSearchClient {
 
     private final String scrollKeepAlive;
 
+    private int bulkChunkSizeLimitBytes = Integer.MAX_VALUE;
+
+    private int bulkChunkActions = Integer.MAX_VALUE;
+
+    //null if the requests of a bulk mutation are sent one after the other
+    private volatile ExecutorService bulkExecutor;
+
+    private int bulkRetryLimit = 0;
+
+    private long bulkRetryInitialWait = 100;
+
+    private long bulkRetryMaxWait = 10000;
+
+    //null if metrics are disabled
+    private String metricsPrefix;
+
+    private String metricsName;
+
     public RestElasticSearchClient(RestClient delegate, int scrollKeepAlive) {
         this.delegate = delegate;
         majorVersion = getMajorVersion();
@@ -99,6 +132,9 @@ public class RestElasticSearchClient implements ElasticSearchClient {
 
     @Override
     public void close() throws IOException {
+        synchronized (this) {
+            if (bulkExecutor != null) bulkExecutor.shutdownNow();
+        }
         delegate.close();
     }
 
@@ -232,18 +268,6 @@ public class RestElasticSearchClient implements ElasticSearchClient {
 
     @Override
     public void bulkRequest(List<ElasticSearchMutation> requests, String ingestPipeline) throws IOException {
-        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        for (final ElasticSearchMutation request : requests) {
-            final Map actionData = ImmutableMap.of(request.getRequestType().name().toLowerCase(),
-                    ImmutableMap.of("_index", request.getIndex(), "_type", request.getType(), "_id", request.getId()));
-                outputStream.write(mapWriter.writeValueAsBytes(actionData));
-            outputStream.write("\n".getBytes(UTF8_CHARSET));
-            if (request.getSource() != null) {
-                outputStream.write(mapWriter.writeValueAsBytes(request.getSource()));
-                outputStream.write("\n".getBytes(UTF8_CHARSET));
-            }
-        }
-
         final StringBuilder builder = new StringBuilder();
         if (ingestPipeline != null) {
             APPEND_OP.apply(builder).append("pipeline=").append(ingestPipeline);
@@ -252,18 +276,170 @@ public class RestElasticSearchClient implements ElasticSearchClient {
             APPEND_OP.apply(builder).append("refresh=").append(bulkRefresh);
         }
         builder.insert(0, REQUEST_SEPARATOR + "_bulk");
+        final String path = builder.toString();
 
-        final Response response = performRequest(REQUEST_TYPE_POST, builder.toString(), outputStream.toByteArray());
-        try (final InputStream inputStream = response.getEntity().getContent()) {
-            final RestBulkResponse bulkResponse = mapper.readValue(inputStream, RestBulkResponse.class);
-            final List<Object> errors = bulkResponse.getItems().stream()
-                .flatMap(item -> item.values().stream())
-                .filter(item -> item.getError() != null && item.getStatus() != 404)
-                .map(RestBulkItemResponse::getError).collect(Collectors.toList());
-            if (!errors.isEmpty()) {
-                errors.forEach(error -> log.error("Failed to execute ES query: {}", error));
-                throw new IOException("Failure(s) in Elasticsearch bulk request: " + errors);
+        final List<List<BulkAction>> chunks = splitIntoChunks(requests);
+        final ExecutorService executor = bulkExecutor;
+        if (chunks.size() == 1 || executor == null) {
+            for (final List<BulkAction> chunk : chunks) {
+                bulkRequest(path, chunk);
             }
+            return;
+        }
+        final List<Future<?>> futures = new ArrayList<>(chunks.size());
+        for (final List<BulkAction> chunk : chunks) {
+            futures.add(executor.submit(() -> {
+                bulkRequest(path, chunk);
+                return null;
+            }));
+        }
+        IOException failure = null;
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for bulk requests", e);
+            } catch (final ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Serializes the given requests and groups them into chunks within the configured size and action limits. The
+     * consecutive requests on the same document are kept in the same chunk so that they are applied in order.
+     */
+    private List<List<BulkAction>> splitIntoChunks(List<ElasticSearchMutation> requests) throws IOException {
+        final List<List<BulkAction>> chunks = new ArrayList<>();
+        List<BulkAction> chunk = new ArrayList<>();
+        long chunkBytes = 0;
+        int i = 0;
+        while (i < requests.size()) {
+            final List<BulkAction> document = new ArrayList<>(1);
+            long documentBytes = 0;
+            do {
+                final BulkAction action = new BulkAction(requests.get(i++));
+                document.add(action);
+                documentBytes += action.data.length;
+            } while (i < requests.size() && document.get(0).isSameDocument(requests.get(i)));
+            if (!chunk.isEmpty() && (chunkBytes + documentBytes > bulkChunkSizeLimitBytes
+                    || chunk.size() + document.size() > bulkChunkActions)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.addAll(document);
+            chunkBytes += documentBytes;
+        }
+        if (!chunk.isEmpty()) chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * Sends the given actions in a single bulk request and retries the actions that are rejected with status 429 or
+     * 503 with exponential backoff. The actions on a document that follow a rejected action are retried as well.
+     */
+    private void bulkRequest(String path, List<BulkAction> actions) throws IOException {
+        long waitTime = bulkRetryInitialWait;
+        for (int retry = 0; ; retry++) {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            for (final BulkAction action : actions) {
+                outputStream.write(action.data);
+            }
+            final byte[] requestData = outputStream.toByteArray();
+            updateBulkMetrics(METRICS_BULK_REQUESTS, 1);
+            updateBulkMetrics(METRICS_BULK_ACTIONS, actions.size());
+            updateBulkMetrics(METRICS_BULK_BYTES, requestData.length);
+
+            List<BulkAction> rejected = new ArrayList<>();
+            try {
+                final Response response = performRequest(REQUEST_TYPE_POST, path, requestData);
+                try (final InputStream inputStream = response.getEntity().getContent()) {
+                    final RestBulkResponse bulkResponse = mapper.readValue(inputStream, RestBulkResponse.class);
+                    final List<Object> errors = new ArrayList<>();
+                    BulkAction rejectedDocument = null;
+                    for (int i = 0; i < actions.size(); i++) {
+                        final BulkAction action = actions.get(i);
+                        final Map<String, RestBulkItemResponse> item = bulkResponse.getItems().get(i);
+                        for (final RestBulkItemResponse itemResponse : item.values()) {
+                            if (isRejection(itemResponse.getStatus())
+                                    || (rejectedDocument != null && rejectedDocument.isSameDocument(action.request))) {
+                                rejectedDocument = action;
+                                rejected.add(action);
+                            } else if (itemResponse.getError() != null && itemResponse.getStatus() != 404) {
+                                errors.add(itemResponse.getError());
+                            }
+                        }
+                    }
+                    if (!errors.isEmpty()) {
+                        updateBulkMetrics(METRICS_BULK_FAILURES, errors.size());
+                        errors.forEach(error -> log.error("Failed to execute ES query: {}", error));
+                        throw new IOException("Failure(s) in Elasticsearch bulk request: " + errors);
+                    }
+                }
+            } catch (final ResponseException e) {
+                if (!isRejection(e.getResponse().getStatusLine().getStatusCode())) throw e;
+                rejected = actions;
+            }
+            if (rejected.isEmpty()) return;
+
+            updateBulkMetrics(METRICS_BULK_REJECTED, rejected.size());
+            if (retry >= bulkRetryLimit) {
+                updateBulkMetrics(METRICS_BULK_FAILURES, rejected.size());
+                throw new IOException("Elasticsearch rejected " + rejected.size() + " bulk actions after " + retry +
+                        " retries");
+            }
+            log.debug("Elasticsearch rejected {} bulk actions, retrying in {} ms", rejected.size(), waitTime);
+            try {
+                Thread.sleep(waitTime);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting to retry bulk request", e);
+            }
+            waitTime = Math.min(waitTime * 2, bulkRetryMaxWait);
+            actions = rejected;
+        }
+    }
+
+    private static boolean isRejection(int status) {
+        return status == 429 || status == 503;
+    }
+
+    private void updateBulkMetrics(String name, long count) {
+        if (metricsPrefix != null) {
+            MetricManager.INSTANCE.getCounter(metricsPrefix, metricsName, METRICS_BULK, name).inc(count);
+        }
+    }
+
+    /**
+     * A bulk request action in its serialized form
+     */
+    private static class BulkAction {
+
+        private final ElasticSearchMutation request;
+        private final byte[] data;
+
+        private BulkAction(ElasticSearchMutation request) throws IOException {
+            this.request = request;
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            final Map actionData = ImmutableMap.of(request.getRequestType().name().toLowerCase(),
+                    ImmutableMap.of("_index", request.getIndex(), "_type", request.getType(), "_id", request.getId()));
+            outputStream.write(mapWriter.writeValueAsBytes(actionData));
+            outputStream.write("\n".getBytes(UTF8_CHARSET));
+            if (request.getSource() != null) {
+                outputStream.write(mapWriter.writeValueAsBytes(request.getSource()));
+                outputStream.write("\n".getBytes(UTF8_CHARSET));
+            }
+            this.data = outputStream.toByteArray();
+        }
+
+        private boolean isSameDocument(ElasticSearchMutation other) {
+            return request.getIndex().equals(other.getIndex()) && request.getId().equals(other.getId());
         }
     }
 
@@ -322,6 +498,37 @@ public class RestElasticSearchClient implements ElasticSearchClient {
         this.bulkRefresh = bulkRefresh;
     }
 
+    public void setBulkChunkLimits(int bulkChunkSizeLimitBytes, int bulkChunkActions) {
+        Preconditions.checkArgument(bulkChunkSizeLimitBytes > 0 && bulkChunkActions > 0);
+        this.bulkChunkSizeLimitBytes = bulkChunkSizeLimitBytes;
+        this.bulkChunkActions = bulkChunkActions;
+    }
+
+    /**
+     * Sets the maximum number of bulk requests sent concurrently when a bulk mutation is split into several requests
+     */
+    public synchronized void setBulkConcurrency(int bulkConcurrency) {
+        Preconditions.checkArgument(bulkConcurrency > 0);
+        if (bulkExecutor != null) bulkExecutor.shutdown();
+        bulkExecutor = bulkConcurrency > 1 ? Executors.newFixedThreadPool(bulkConcurrency,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ElasticSearchBulk-%d").build()) : null;
+    }
+
+    public void setBulkRetry(int bulkRetryLimit, long initialWaitMs, long maxWaitMs) {
+        Preconditions.checkArgument(bulkRetryLimit >= 0 && initialWaitMs > 0 && maxWaitMs >= initialWaitMs);
+        this.bulkRetryLimit = bulkRetryLimit;
+        this.bulkRetryInitialWait = initialWaitMs;
+        this.bulkRetryMaxWait = maxWaitMs;
+    }
+
+    /**
+     * Enables the bulk request metrics which are registered under the given prefix and name
+     */
+    public void setBulkMetrics(String metricsPrefix, String name) {
+        this.metricsPrefix = metricsPrefix;
+        this.metricsName = name;
+    }
+
     private Response performRequest(String method, String path, byte[] requestData) throws IOException {
         final HttpEntity entity = requestData != null ? new ByteArrayEntity(requestData, ContentType.APPLICATION_JSON) : null;
         final Response response = delegate.performRequest(
@@ -0,0 +1,141 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.es;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import org.janusgraph.diskstorage.indexing.RawQuery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link ElasticSearchScroll} against a mocked {@link ElasticSearchClient}
+ */
+public class ElasticSearchScrollTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    private ElasticSearchClient client;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        client = mock(ElasticSearchClient.class);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    private static ElasticSearchResponse page(String scrollId, int from, int to) {
+        final ElasticSearchResponse response = new ElasticSearchResponse();
+        response.setScrollId(scrollId);
+        response.setResults(IntStream.range(from, to).mapToObj(i -> new RawQuery.Result<>("doc" + i, 1.0))
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    private static List<String> docs(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "doc" + i).collect(Collectors.toList());
+    }
+
+    private static List<String> consume(ElasticSearchScroll scroll) {
+        final List<String> results = new ArrayList<>();
+        Iterators.transform(scroll, RawQuery.Result::getResult).forEachRemaining(results::add);
+        return results;
+    }
+
+    @Test
+    public void testScrollWithoutPrefetch() throws IOException {
+        when(client.search("s1")).thenReturn(page("s1", 3, 6), page("s1", 6, 8));
+        final ElasticSearchScroll scroll = new ElasticSearchScroll(client, page("s1", 0, 3), BATCH_SIZE);
+        assertEquals(docs(0, 8), consume(scroll));
+        verify(client, times(2)).search("s1");
+        verify(client).deleteScroll("s1");
+    }
+
+    @Test
+    public void testScrollWithPrefetch() throws IOException {
+        when(client.search("s1")).thenReturn(page("s1", 3, 6), page("s1", 6, 9), page("s1", 9, 9));
+        final ElasticSearchScroll scroll = new ElasticSearchScroll(client, ImmutableList.of(page("s1", 0, 3)),
+                BATCH_SIZE, executor, 2);
+        assertEquals(docs(0, 9), consume(scroll));
+        verify(client, times(3)).search("s1");
+        verify(client, timeout(1000)).deleteScroll("s1");
+    }
+
+    @Test
+    public void testSlicedScroll() throws IOException {
+        when(client.search("s1")).thenReturn(page("s1", 3, 6), page("s1", 6, 7));
+        when(client.search("s2")).thenReturn(page("s2", 13, 14));
+        final ElasticSearchScroll scroll = new ElasticSearchScroll(client,
+                ImmutableList.of(page("s1", 0, 3), page("s2", 10, 13), page("s3", 20, 22)), BATCH_SIZE, executor, 4);
+        final List<String> results = consume(scroll);
+        final List<String> expected = new ArrayList<>(docs(0, 7));
+        expected.addAll(docs(10, 14));
+        expected.addAll(docs(20, 22));
+        assertEquals(expected.size(), results.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(results));
+        //Slices read completely in the background are deleted once their last page has been buffered
+        for (final String scrollId : Arrays.asList("s1", "s2", "s3")) {
+            verify(client, timeout(1000)).deleteScroll(scrollId);
+        }
+        verify(client, never()).search("s3");
+    }
+
+    @Test
+    public void testPrefetchFailure() throws IOException {
+        when(client.search("s1")).thenThrow(new IOException("Scroll failed"));
+        final ElasticSearchScroll scroll = new ElasticSearchScroll(client, ImmutableList.of(page("s1", 0, 3)),
+                BATCH_SIZE, executor, 2);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            assertEquals("doc" + i, scroll.next().getResult());
+        }
+        try {
+            scroll.hasNext();
+            fail();
+        } catch (final UncheckedIOException e) {
+            assertEquals("Scroll failed", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testCloseDeletesScroll() throws IOException {
+        final ElasticSearchScroll scroll = new ElasticSearchScroll(client, page("s1", 0, 3), BATCH_SIZE);
+        assertEquals("doc0", scroll.next().getResult());
+        scroll.close();
+        assertFalse(scroll.hasNext());
+        verify(client).deleteScroll("s1");
+        verify(client, never()).search("s1");
+    }
+
+}
@@ -0,0 +1,158 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.es.rest;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.StatusLine;
+import org.apache.http.entity.ByteArrayEntity;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+import org.janusgraph.diskstorage.es.ElasticSearchMutation;
+import org.janusgraph.util.stats.MetricManager;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the splitting and retrying of bulk requests by {@link RestElasticSearchClient} against a mocked
+ * {@link RestClient}
+ */
+public class RestElasticSearchClientTest {
+
+    private static final String METRICS_PREFIX = "RestElasticSearchClientTest";
+
+    private RestClient restClient;
+    private RestElasticSearchClient client;
+    private List<String> requestBodies;
+
+    @Before
+    public void setup() throws IOException {
+        restClient = mock(RestClient.class);
+        when(restClient.performRequest("GET", "/")).thenThrow(new IOException("Version unknown"));
+        client = new RestElasticSearchClient(restClient, 60);
+        client.setBulkRetry(2, 1, 1);
+        client.setBulkMetrics(METRICS_PREFIX, "test");
+        requestBodies = new ArrayList<>();
+        MetricManager.INSTANCE.getRegistry().removeMatching((name, metric) -> name.startsWith(METRICS_PREFIX));
+    }
+
+    private static ElasticSearchMutation index(String id) {
+        return ElasticSearchMutation.createIndexRequest("janusgraph_store", "store", id, ImmutableMap.of("name", id));
+    }
+
+    private static ElasticSearchMutation update(String id) {
+        return ElasticSearchMutation.createUpdateRequest("janusgraph_store", "store", id, ImmutableMap.of("doc", ImmutableMap.of("name", id)));
+    }
+
+    /**
+     * Responds to the bulk requests in order, each with the given item statuses
+     */
+    private void respond(int[]... itemStatuses) throws IOException {
+        final List<Response> responses = new ArrayList<>();
+        for (final int[] statuses : itemStatuses) {
+            final String items = Arrays.stream(statuses).mapToObj(status -> status == 200
+                    ? "{\"index\":{\"status\":200}}" : "{\"index\":{\"status\":" + status + ",\"error\":\"rejected\"}}")
+                    .collect(Collectors.joining(","));
+            final Response response = mock(Response.class);
+            final StatusLine statusLine = mock(StatusLine.class);
+            when(statusLine.getStatusCode()).thenReturn(200);
+            when(response.getStatusLine()).thenReturn(statusLine);
+            when(response.getEntity()).thenReturn(new ByteArrayEntity(("{\"items\":[" + items + "]}").getBytes()));
+            responses.add(response);
+        }
+        when(restClient.performRequest(eq("POST"), eq("/_bulk"), any(Map.class), any(HttpEntity.class)))
+                .thenAnswer(invocation -> {
+                    final HttpEntity entity = (HttpEntity) invocation.getArguments()[3];
+                    requestBodies.add(IOUtils.toString(entity.getContent()));
+                    return responses.remove(0);
+                });
+    }
+
+    private static long countActions(String body) {
+        return Arrays.stream(body.split("\n")).filter(line -> line.startsWith("{\"index\"") || line.startsWith("{\"update\"")).count();
+    }
+
+    private static long getMetric(String name) {
+        return MetricManager.INSTANCE.getCounter(METRICS_PREFIX, "test", "bulk", name).getCount();
+    }
+
+    @Test
+    public void testSplitByActions() throws IOException {
+        client.setBulkChunkLimits(Integer.MAX_VALUE, 2);
+        respond(new int[]{200, 200}, new int[]{200, 200}, new int[]{200});
+        client.bulkRequest(Arrays.asList(index("a"), index("b"), update("c"), update("c"), index("d")), null);
+        assertEquals(3, requestBodies.size());
+        assertEquals(Arrays.asList(2L, 2L, 1L), requestBodies.stream().map(RestElasticSearchClientTest::countActions)
+                .collect(Collectors.toList()));
+        //Actions on the same document are kept together
+        assertTrue(requestBodies.get(1).contains("\"_id\":\"c\"") && !requestBodies.get(1).contains("\"_id\":\"b\""));
+        assertEquals(3, getMetric(RestElasticSearchClient.METRICS_BULK_REQUESTS));
+        assertEquals(5, getMetric(RestElasticSearchClient.METRICS_BULK_ACTIONS));
+    }
+
+    @Test
+    public void testSplitByBytes() throws IOException {
+        client.setBulkChunkLimits(1, Integer.MAX_VALUE);
+        respond(new int[]{200}, new int[]{200});
+        client.bulkRequest(Arrays.asList(index("a"), index("b")), null);
+        assertEquals(2, requestBodies.size());
+    }
+
+    @Test
+    public void testRetryRejectedActions() throws IOException {
+        respond(new int[]{200, 429, 200, 200}, new int[]{200, 200});
+        client.bulkRequest(Arrays.asList(index("a"), update("b"), update("b"), index("c")), null);
+        assertEquals(2, requestBodies.size());
+        //The rejected action and the following action on the same document are retried
+        assertEquals(2, countActions(requestBodies.get(1)));
+        assertFalse(requestBodies.get(1).contains("\"_id\":\"a\"") || requestBodies.get(1).contains("\"_id\":\"c\""));
+        assertEquals(2, getMetric(RestElasticSearchClient.METRICS_BULK_REJECTED));
+    }
+
+    @Test
+    public void testRetryLimit() throws IOException {
+        respond(new int[]{503}, new int[]{503}, new int[]{503});
+        try {
+            client.bulkRequest(Arrays.asList(index("a")), null);
+            fail();
+        } catch (IOException e) {
+            assertEquals(3, requestBodies.size());
+            assertEquals(1, getMetric(RestElasticSearchClient.METRICS_BULK_FAILURES));
+        }
+    }
+
+    @Test
+    public void testFailureIsNotRetried() throws IOException {
+        respond(new int[]{400});
+        try {
+            client.bulkRequest(Arrays.asList(index("a")), null);
+            fail();
+        } catch (IOException e) {
+            assertEquals(1, requestBodies.size());
+        }
+    }
+
+}
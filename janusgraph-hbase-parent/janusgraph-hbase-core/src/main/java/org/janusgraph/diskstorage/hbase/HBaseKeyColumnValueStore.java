@@ -18,10 +18,13 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.janusgraph.diskstorage.*;
 import org.janusgraph.diskstorage.keycolumnvalue.*;
 import org.janusgraph.diskstorage.util.RecordIterator;
+import org.janusgraph.diskstorage.util.StorageCallable;
 import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.diskstorage.util.StaticArrayEntry;
 import org.janusgraph.diskstorage.util.StaticArrayEntryList;
@@ -41,16 +44,16 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Here are some areas that might need work:
  * <p/>
  * - batching? (consider HTable#batch, HTable#setAutoFlush(false)
  * - tuning HTable#setWriteBufferSize (?)
- * - writing a server-side filter to replace ColumnCountGetFilter, which drops
- * all columns on the row where it reaches its limit.  This requires getSlice,
- * currently, to impose its limit on the client side.  That obviously won't
- * scale.
  * - RowMutations for combining Puts+Deletes (need a newer HBase than 0.92 for this)
  * - (maybe) fiddle with HTable#setRegionCachePrefetch and/or #prewarmRegionCache
  * <p/>
@@ -60,6 +63,8 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
 
     private static final Logger logger = LoggerFactory.getLogger(HBaseKeyColumnValueStore.class);
 
+    private static final long REGION_LOCATIONS_REFRESH_MS = 60000;
+
     private final String tableName;
     private final HBaseStoreManager storeManager;
 
@@ -73,6 +78,10 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
 
     private final ConnectionMask cnx;
 
+    // Region locations of the table sorted by start key, used to split multi-key reads by region server
+    private volatile List<HRegionLocation> regionLocations;
+    private volatile long regionLocationsTimestamp;
+
     HBaseKeyColumnValueStore(HBaseStoreManager storeManager, ConnectionMask cnx, String tableName, String columnFamily, String storeName) {
         this.storeManager = storeManager;
         this.cnx = cnx;
@@ -98,6 +107,45 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
         return getHelper(keys, getFilter(query));
     }
 
+    @Override
+    public CompletableFuture<EntryList> getSliceAsync(KeySliceQuery query, StoreTransaction txh) {
+        return executeAsync(() -> getSlice(query, txh));
+    }
+
+    @Override
+    public CompletableFuture<Map<StaticBuffer,EntryList>> getSliceAsync(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) {
+        return executeAsync(() -> getSlice(keys, query, txh));
+    }
+
+    @Override
+    public CompletableFuture<KeyIterator> getKeysAsync(KeyRangeQuery query, StoreTransaction txh) {
+        return executeAsync(() -> getKeys(query, txh));
+    }
+
+    @Override
+    public CompletableFuture<KeyIterator> getKeysAsync(SliceQuery query, StoreTransaction txh) {
+        return executeAsync(() -> getKeys(query, txh));
+    }
+
+    /**
+     * Runs the blocking read on the store manager's read executor, see {@link HBaseStoreManager#ASYNC_READ_THREADS}.
+     */
+    private <V> CompletableFuture<V> executeAsync(StorageCallable<V> read) {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        try {
+            storeManager.getReadExecutor().execute(() -> {
+                try {
+                    result.complete(read.call());
+                } catch (BackendException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new PermanentBackendException("Store manager has been closed", e));
+        }
+        return result;
+    }
+
     @Override
     public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction txh) throws BackendException {
         Map<StaticBuffer, KCVMutation> mutations = ImmutableMap.of(key, new KCVMutation(additions, deletions));
@@ -120,6 +168,32 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
                 query);
     }
 
+    /**
+     * Splits the table into at most the given number of partitions, each of which is a contiguous group of its regions,
+     * so that a scan follows the actual key distribution rather than equal-width key ranges.
+     */
+    @Override
+    public List<KeyRange> getScanPartitions(int numPartitions, StoreTransaction txh) {
+        final List<HRegionLocation> locations = getRegionLocations();
+        final int size = Math.min(numPartitions, locations.size());
+        final List<KeyRange> partitions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final byte[] start = locations.get(i * locations.size() / size).getRegionInfo().getStartKey();
+            final byte[] end = locations.get((i + 1) * locations.size() / size - 1).getRegionInfo().getEndKey();
+            partitions.add(new KeyRange(StaticArrayBuffer.of(start), StaticArrayBuffer.of(end)));
+        }
+        return partitions;
+    }
+
+    @Override
+    public KeyIterator getPartitionKeys(KeyRange partition, SliceQuery query, StoreTransaction txh) throws BackendException {
+        //Empty region bounds denote the start and the end of the table
+        return executeKeySliceQuery(partition.getStart().length() > 0 ? partition.getStart().as(StaticBuffer.ARRAY_FACTORY) : null,
+                partition.getEnd().length() > 0 ? partition.getEnd().as(StaticBuffer.ARRAY_FACTORY) : null,
+                new FilterList(FilterList.Operator.MUST_PASS_ALL),
+                query, true);
+    }
+
     @Override
     public String getName() {
         return storeName;
@@ -130,6 +204,11 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
         return executeKeySliceQuery(new FilterList(FilterList.Operator.MUST_PASS_ALL), query);
     }
 
+    /**
+     * The filters are evaluated by the region servers: the range filter seeks to the start of the slice and moves on to
+     * the next row at its end and the pagination filter moves on to the next row once the limit has been reached, so
+     * that the remainder of the row is neither read nor returned.
+     */
     public static Filter getFilter(SliceQuery query) {
         byte[] colStartBytes = query.getSliceStart().length() > 0 ? query.getSliceStart().as(StaticBuffer.ARRAY_FACTORY) : null;
         byte[] colEndBytes = query.getSliceEnd().length() > 0 ? query.getSliceEnd().as(StaticBuffer.ARRAY_FACTORY) : null;
@@ -147,7 +226,115 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
         return filter;
     }
 
+    /**
+     * Reads the given keys with a single multi-get unless there are enough of them to split them by the region server
+     * hosting them. The parts are then read in parallel on the read executor and by the calling thread, which reads
+     * the parts that have not been picked up by the executor yet.
+     */
     private Map<StaticBuffer,EntryList> getHelper(List<StaticBuffer> keys, Filter getFilter) throws BackendException {
+        final int threshold = storeManager.getParallelMultiGetThreshold();
+        final Collection<List<StaticBuffer>> parts = threshold > 0 && keys.size() >= threshold
+                ? splitByRegionServer(keys) : Collections.singletonList(keys);
+        if (parts.size() <= 1) return get(keys, getFilter);
+
+        final List<PartialGet> gets = new ArrayList<>(parts.size());
+        for (List<StaticBuffer> part : parts) {
+            gets.add(new PartialGet(part, getFilter));
+        }
+        for (PartialGet get : gets.subList(1, gets.size())) {
+            try {
+                storeManager.getReadExecutor().execute(get);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        gets.forEach(PartialGet::run);
+
+        final Map<StaticBuffer,EntryList> resultMap = new HashMap<>(keys.size());
+        try {
+            for (PartialGet get : gets) {
+                resultMap.putAll(get.result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PermanentBackendException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BackendException) throw (BackendException) e.getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new PermanentBackendException(e.getCause());
+        }
+        return resultMap;
+    }
+
+    /**
+     * A part of a multi-key read which is executed by the first thread to run it
+     */
+    private class PartialGet implements Runnable {
+        private final List<StaticBuffer> keys;
+        private final Filter getFilter;
+        private final AtomicBoolean isStarted = new AtomicBoolean(false);
+        private final CompletableFuture<Map<StaticBuffer,EntryList>> result = new CompletableFuture<>();
+
+        private PartialGet(List<StaticBuffer> keys, Filter getFilter) {
+            this.keys = keys;
+            this.getFilter = getFilter;
+        }
+
+        @Override
+        public void run() {
+            if (!isStarted.compareAndSet(false, true)) return;
+            try {
+                result.complete(get(keys, getFilter));
+            } catch (BackendException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the region locations of the table sorted by start key, which are refreshed every
+     * {@link #REGION_LOCATIONS_REFRESH_MS} milliseconds, or an empty list if they cannot be retrieved. Since HBase routes
+     * every request to the current region server anyway, stale locations only affect how reads and scans are split.
+     */
+    private List<HRegionLocation> getRegionLocations() {
+        List<HRegionLocation> locations = regionLocations;
+        if (locations == null || System.currentTimeMillis() - regionLocationsTimestamp > REGION_LOCATIONS_REFRESH_MS) {
+            try {
+                locations = new ArrayList<>(cnx.getRegionLocations(tableName));
+                locations.sort((a, b) -> Bytes.compareTo(a.getRegionInfo().getStartKey(), b.getRegionInfo().getStartKey()));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not retrieve the region locations of table {}, reading keys without splitting", tableName, e);
+                locations = Collections.emptyList();
+            }
+            regionLocations = locations;
+            regionLocationsTimestamp = System.currentTimeMillis();
+        }
+        return locations;
+    }
+
+    /**
+     * Groups the keys by the region server hosting them, based on the region locations of the table.
+     */
+    private Collection<List<StaticBuffer>> splitByRegionServer(List<StaticBuffer> keys) {
+        final List<HRegionLocation> locations = getRegionLocations();
+        if (locations.size() <= 1) return Collections.singletonList(keys);
+
+        final Map<ServerName,List<StaticBuffer>> keysByServer = new HashMap<>();
+        for (StaticBuffer key : keys) {
+            final byte[] row = key.as(StaticBuffer.ARRAY_FACTORY);
+            //Find the last region that starts at or before the row
+            int low = 0, high = locations.size() - 1;
+            while (low < high) {
+                final int mid = (low + high + 1) >>> 1;
+                if (Bytes.compareTo(locations.get(mid).getRegionInfo().getStartKey(), row) <= 0) low = mid;
+                else high = mid - 1;
+            }
+            keysByServer.computeIfAbsent(locations.get(low).getServerName(), server -> new ArrayList<>()).add(key);
+        }
+        return keysByServer.values();
+    }
+
+    private Map<StaticBuffer,EntryList> get(List<StaticBuffer> keys, Filter getFilter) throws BackendException {
         List<Get> requests = new ArrayList<>(keys.size());
         {
             for (StaticBuffer key : keys) {
@@ -213,10 +400,33 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
         return executeKeySliceQuery(null, null, filters, columnSlice);
     }
 
+    /**
+     * Fetches as many rows with each RPC as fit into {@link HBaseStoreManager#SCAN_CELLS_PER_RPC} cells given the limit
+     * of the slice query, since the pagination filter bounds the number of cells returned for each row. Scans over the
+     * whole table, or over one of its scan partitions, bypass the block cache so that they do not evict the blocks of
+     * regular reads.
+     */
+    private void configureScan(Scan scan, @Nullable SliceQuery columnSlice, boolean isFullScan) {
+        if (columnSlice != null && columnSlice.hasLimit()) {
+            scan.setCaching(Math.max(1, storeManager.getScanCellsPerRpc() / columnSlice.getLimit()));
+        }
+        if (isFullScan) {
+            scan.setCacheBlocks(false);
+        }
+    }
+
     private KeyIterator executeKeySliceQuery(@Nullable byte[] startKey,
                                             @Nullable byte[] endKey,
                                             FilterList filters,
                                             @Nullable SliceQuery columnSlice) throws BackendException {
+        return executeKeySliceQuery(startKey, endKey, filters, columnSlice, startKey == null && endKey == null);
+    }
+
+    private KeyIterator executeKeySliceQuery(@Nullable byte[] startKey,
+                                            @Nullable byte[] endKey,
+                                            FilterList filters,
+                                            @Nullable SliceQuery columnSlice,
+                                            boolean isFullScan) throws BackendException {
         Scan scan = new Scan().addFamily(columnFamilyBytes);
 
         try {
@@ -235,6 +445,8 @@ public class HBaseKeyColumnValueStore implements KeyColumnValueStore {
             filters.addFilter(getFilter(columnSlice));
         }
 
+        configureScan(scan, columnSlice, isFullScan);
+
         TableMask table = null;
 
         try {
@@ -34,6 +34,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
@@ -42,6 +46,7 @@ import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.HColumnDescriptor;
@@ -238,6 +243,27 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
             "at runtime.  Setting this option forces JanusGraph to instead reflectively load and instantiate the specified class.",
             ConfigOption.Type.MASKABLE, String.class);
 
+    /**
+     * The HBase 1.x client only offers a blocking read API. Asynchronous reads are therefore executed by a bounded pool
+     * of threads owned by the store manager, so that callers issuing many reads do not each pin a thread of their own.
+     */
+    public static final ConfigOption<Integer> ASYNC_READ_THREADS =
+            new ConfigOption<>(HBASE_NS, "async-read-threads",
+            "The maximum number of threads used to execute asynchronous reads against HBase",
+            ConfigOption.Type.MASKABLE, 16, ConfigOption.positiveInt());
+
+    public static final ConfigOption<Integer> PARALLEL_MULTI_GET_THRESHOLD =
+            new ConfigOption<>(HBASE_NS, "parallel-multi-get-threshold",
+            "The minimum number of keys of a multi-key read for it to be split by region server and for the parts to be " +
+            "read in parallel on the async read threads. 0 disables splitting.",
+            ConfigOption.Type.MASKABLE, 64, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Integer> SCAN_CELLS_PER_RPC =
+            new ConfigOption<>(HBASE_NS, "scan-cells-per-rpc",
+            "The number of cells that a row scan for a slice query with a limit should fetch with each RPC. The scan " +
+            "caching is set to this number divided by the limit of the slice query.",
+            ConfigOption.Type.MASKABLE, 10000, ConfigOption.positiveInt());
+
     public static final int PORT_DEFAULT = 9160;
 
     public static final TimestampProviders PREFERRED_TIMESTAMPS = TimestampProviders.MILLI;
@@ -257,6 +283,9 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
     private final boolean shortCfNames;
     private final boolean skipSchemaCheck;
     private final HBaseCompat compat;
+    private final ExecutorService readExecutor;
+    private final int parallelMultiGetThreshold;
+    private final int scanCellsPerRpc;
     // Cached return value of getDeployment() as requesting it can be expensive.
     private Deployment deployment = null;
 
@@ -281,6 +310,8 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
         this.regionCount = config.has(REGION_COUNT) ? config.get(REGION_COUNT) : -1;
         this.regionsPerServer = config.has(REGIONS_PER_SERVER) ? config.get(REGIONS_PER_SERVER) : -1;
         this.skipSchemaCheck = config.get(SKIP_SCHEMA_CHECK);
+        this.parallelMultiGetThreshold = config.get(PARALLEL_MULTI_GET_THRESHOLD);
+        this.scanCellsPerRpc = config.get(SCAN_CELLS_PER_RPC);
         final String compatClass = config.has(COMPAT_CLASS) ? config.get(COMPAT_CLASS) : null;
         this.compat = HBaseCompatLoader.getCompat(compatClass);
 
@@ -341,6 +372,13 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
         logger.debug("End of HBase config key=value pairs");
 
         openStores = new ConcurrentHashMap<>();
+
+        final int readThreads = config.get(ASYNC_READ_THREADS);
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(readThreads, readThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("HBaseStoreManager-read-%d").build());
+        executor.allowCoreThreadTimeOut(true);
+        readExecutor = executor;
     }
 
     public static BiMap<String, String> createShortCfMap(Configuration config) {
@@ -389,6 +427,7 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
 
     @Override
     public void close() {
+        readExecutor.shutdownNow();
         openStores.clear();
         if (logger.isTraceEnabled())
             openManagers.remove(this);
@@ -490,6 +529,18 @@ public class HBaseStoreManager extends DistributedStoreManager implements KeyCol
         return new HBaseTransaction(config);
     }
 
+    ExecutorService getReadExecutor() {
+        return readExecutor;
+    }
+
+    int getParallelMultiGetThreshold() {
+        return parallelMultiGetThreshold;
+    }
+
+    int getScanCellsPerRpc() {
+        return scanCellsPerRpc;
+    }
+
     @Override
     public String getName() {
         return tableName;
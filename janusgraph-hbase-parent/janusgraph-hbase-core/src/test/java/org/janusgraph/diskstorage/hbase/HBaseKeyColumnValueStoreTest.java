@@ -0,0 +1,303 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.hbase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.ColumnPaginationFilter;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests how {@link HBaseKeyColumnValueStore} splits multi-key reads by region server and configures its scans, against
+ * a mocked connection
+ */
+public class HBaseKeyColumnValueStoreTest {
+
+    private static final String TABLE = "janusgraph";
+    private static final String STORE = "edgestore";
+    private static final byte[] FAMILY = Bytes.toBytes("e");
+    private static final int SCAN_CELLS_PER_RPC = 1000;
+
+    private static final ServerName SERVER_1 = ServerName.valueOf("server1", 16020, 1L);
+    private static final ServerName SERVER_2 = ServerName.valueOf("server2", 16020, 1L);
+
+    private final Map<Byte, List<Cell>> rows = new TreeMap<>();
+    private final List<Set<Byte>> gets = Collections.synchronizedList(new ArrayList<>());
+    private final List<Filter> getFilters = Collections.synchronizedList(new ArrayList<>());
+
+    private ExecutorService readExecutor;
+    private HBaseStoreManager storeManager;
+    private ConnectionMask cnx;
+    private TableMask table;
+    private IOException failure;
+    private HBaseKeyColumnValueStore store;
+
+    @Before
+    public void setup() throws IOException {
+        readExecutor = Executors.newFixedThreadPool(2);
+        storeManager = mock(HBaseStoreManager.class);
+        when(storeManager.getMetaDataSchema(STORE)).thenReturn(StaticArrayEntry.EMPTY_SCHEMA);
+        when(storeManager.getReadExecutor()).thenReturn(readExecutor);
+        when(storeManager.getParallelMultiGetThreshold()).thenReturn(2);
+        when(storeManager.getScanCellsPerRpc()).thenReturn(SCAN_CELLS_PER_RPC);
+
+        //Regions [,0x40) and [0x80,) are hosted by the first server, [0x40,0x80) by the second one
+        cnx = mock(ConnectionMask.class);
+        when(cnx.getRegionLocations(TABLE)).thenReturn(ImmutableList.of(
+                getLocation(0x80, 0, SERVER_1), getLocation(0, 0x40, SERVER_1), getLocation(0x40, 0x80, SERVER_2)));
+        table = mock(TableMask.class);
+        when(cnx.getTable(anyString())).thenReturn(table);
+        when(table.get(anyListOf(Get.class))).thenAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final List<Get> requests = (List<Get>) invocation.getArguments()[0];
+            return get(requests);
+        });
+
+        store = new HBaseKeyColumnValueStore(storeManager, cnx, TABLE, Bytes.toString(FAMILY), STORE);
+    }
+
+    @After
+    public void teardown() {
+        readExecutor.shutdownNow();
+    }
+
+    private static HRegionLocation getLocation(int startKey, int endKey, ServerName server) {
+        return new HRegionLocation(new HRegionInfo(TableName.valueOf(TABLE), getRow(startKey), getRow(endKey)), server);
+    }
+
+    private static byte[] getRow(int key) {
+        return key == 0 ? new byte[0] : new byte[]{(byte) key};
+    }
+
+    private static StaticBuffer getKey(int key) {
+        return StaticArrayBuffer.of(new byte[]{(byte) key});
+    }
+
+    private void addRow(int key, int columns) {
+        final List<Cell> cells = new ArrayList<>(columns);
+        for (int column = 0; column < columns; column++) {
+            cells.add(new KeyValue(getRow(key), FAMILY, new byte[]{(byte) column}, 1L, new byte[]{(byte) key}));
+        }
+        rows.put((byte) key, cells);
+    }
+
+    /**
+     * Answers a multi-get like a region server, which applies the pagination filter of a get to its row
+     */
+    private Result[] get(List<Get> requests) throws IOException {
+        final Set<Byte> keys = new HashSet<>();
+        final Result[] results = new Result[requests.size()];
+        for (int i = 0; i < results.length; i++) {
+            final Get request = requests.get(i);
+            final byte key = request.getRow()[0];
+            keys.add(key);
+            getFilters.add(request.getFilter());
+            final List<Cell> cells = rows.getOrDefault(key, Collections.emptyList());
+            final int limit = getPaginationLimit(request.getFilter());
+            results[i] = Result.create(cells.subList(0, Math.min(limit, cells.size())));
+        }
+        gets.add(keys);
+        if (failure != null && keys.contains((byte) 0x50)) throw failure;
+        return results;
+    }
+
+    private static int getPaginationLimit(Filter filter) {
+        if (filter instanceof FilterList) {
+            for (Filter f : ((FilterList) filter).getFilters()) {
+                if (f instanceof ColumnPaginationFilter) return ((ColumnPaginationFilter) f).getLimit();
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private static SliceQuery getSliceQuery(int limit) {
+        final SliceQuery query = new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(1));
+        return limit > 0 ? query.setLimit(limit) : query;
+    }
+
+    private static Set<Byte> getKeys(int... keys) {
+        final Set<Byte> result = new HashSet<>();
+        for (int key : keys) result.add((byte) key);
+        return result;
+    }
+
+    @Test
+    public void testMultiGetIsGroupedByRegionServer() throws BackendException {
+        final List<StaticBuffer> keys = new ArrayList<>();
+        for (int key : new int[]{0x10, 0x50, 0x90, 0x20, 0x60}) {
+            addRow(key, 1);
+            keys.add(getKey(key));
+        }
+        final Map<StaticBuffer, EntryList> result = store.getSlice(keys, getSliceQuery(-1), null);
+        assertEquals(ImmutableSet.of(getKeys(0x10, 0x20, 0x90), getKeys(0x50, 0x60)), new HashSet<>(gets));
+        assertEquals(2, gets.size());
+        assertEquals(new HashSet<>(keys), result.keySet());
+    }
+
+    @Test
+    public void testMultiGetBelowThresholdIsNotSplit() throws BackendException {
+        when(storeManager.getParallelMultiGetThreshold()).thenReturn(3);
+        store.getSlice(ImmutableList.of(getKey(0x10), getKey(0x50)), getSliceQuery(-1), null);
+        assertEquals(ImmutableList.of(getKeys(0x10, 0x50)), gets);
+    }
+
+    @Test
+    public void testPartialGetsAreReassembledWithColumnPagination() throws BackendException {
+        final List<StaticBuffer> keys = new ArrayList<>();
+        final int[] columns = {5, 1, 0, 3, 2, 4};
+        final int[] rowKeys = {0x10, 0x20, 0x30, 0x50, 0x60, 0x90};
+        for (int i = 0; i < rowKeys.length; i++) {
+            if (columns[i] > 0) addRow(rowKeys[i], columns[i]);
+            keys.add(getKey(rowKeys[i]));
+        }
+        final SliceQuery query = getSliceQuery(2);
+        final Map<StaticBuffer, EntryList> result = store.getSlice(keys, query, null);
+        assertEquals(2, gets.size());
+
+        //Every part carries the pagination filter of the query
+        assertEquals(keys.size(), getFilters.size());
+        for (Filter filter : getFilters) assertEquals(2, getPaginationLimit(filter));
+
+        assertEquals(keys.size(), result.size());
+        for (int i = 0; i < rowKeys.length; i++) {
+            final EntryList entries = result.get(getKey(rowKeys[i]));
+            assertEquals(Math.min(2, columns[i]), entries.size());
+            for (int column = 0; column < entries.size(); column++) {
+                final Entry entry = entries.get(column);
+                assertEquals(column, entry.getColumn().getByte(0));
+                assertEquals((byte) rowKeys[i], entry.getValue().getByte(0));
+            }
+        }
+    }
+
+    @Test
+    public void testFailingPartialGet() {
+        failure = new IOException("Region server unavailable");
+        final List<StaticBuffer> keys = ImmutableList.of(getKey(0x10), getKey(0x50), getKey(0x90));
+        try {
+            store.getSlice(keys, getSliceQuery(-1), null);
+            fail();
+        } catch (BackendException e) {
+            assertTrue(e instanceof TemporaryBackendException);
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    private Scan getScan(boolean isRangeScan, SliceQuery query) throws Exception {
+        final ResultScanner scanner = mock(ResultScanner.class);
+        when(scanner.iterator()).thenReturn(Collections.<Result>emptyIterator());
+        final ArgumentCaptor<Scan> scan = ArgumentCaptor.forClass(Scan.class);
+        when(table.getScanner(scan.capture())).thenReturn(scanner);
+        if (isRangeScan) {
+            store.getKeys(new KeyRangeQuery(getKey(0x10), getKey(0x50), query), null).close();
+        } else {
+            store.getKeys(query, null).close();
+        }
+        return scan.getValue();
+    }
+
+    @Test
+    public void testRangeScanConfiguration() throws Exception {
+        final Scan scan = getScan(true, getSliceQuery(10));
+        assertEquals(SCAN_CELLS_PER_RPC / 10, scan.getCaching());
+        assertTrue(scan.getCacheBlocks());
+        assertEquals(10, getPaginationLimit(((FilterList) scan.getFilter()).getFilters().get(0)));
+    }
+
+    @Test
+    public void testFullScanConfiguration() throws Exception {
+        final Scan scan = getScan(false, getSliceQuery(SCAN_CELLS_PER_RPC * 2));
+        //At least one row is fetched with each RPC
+        assertEquals(1, scan.getCaching());
+        assertFalse(scan.getCacheBlocks());
+    }
+
+    @Test
+    public void testScanPartitionsFollowRegions() throws Exception {
+        final List<KeyRange> partitions = store.getScanPartitions(2, null);
+        assertEquals(2, partitions.size());
+        //Partitions are contiguous groups of regions, empty bounds denote the start and the end of the table
+        assertEquals(BufferUtil.emptyBuffer(), partitions.get(0).getStart());
+        assertEquals(getKey(0x40), partitions.get(0).getEnd());
+        assertEquals(getKey(0x40), partitions.get(1).getStart());
+        assertEquals(BufferUtil.emptyBuffer(), partitions.get(1).getEnd());
+        assertEquals(3, store.getScanPartitions(8, null).size());
+
+        final ResultScanner scanner = mock(ResultScanner.class);
+        when(scanner.iterator()).thenReturn(Collections.<Result>emptyIterator());
+        final ArgumentCaptor<Scan> scan = ArgumentCaptor.forClass(Scan.class);
+        when(table.getScanner(scan.capture())).thenReturn(scanner);
+        store.getPartitionKeys(partitions.get(1), getSliceQuery(10), null).close();
+        assertTrue(Bytes.equals(getRow(0x40), scan.getValue().getStartRow()));
+        assertEquals(0, scan.getValue().getStopRow().length);
+        assertFalse(scan.getValue().getCacheBlocks());
+    }
+
+    @Test
+    public void testScanWithoutLimitKeepsDefaultCaching() throws Exception {
+        final Scan scan = getScan(false, getSliceQuery(-1));
+        assertEquals(new Scan().getCaching(), scan.getCaching());
+        assertEquals(Integer.MAX_VALUE, getPaginationLimit(((FilterList) scan.getFilter()).getFilters().get(0)));
+    }
+
+}
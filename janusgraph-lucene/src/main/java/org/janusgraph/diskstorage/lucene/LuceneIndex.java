@@ -25,14 +25,16 @@ import org.janusgraph.core.schema.Mapping;
 import org.janusgraph.graphdb.internal.Order;
 import org.janusgraph.core.attribute.*;
 import org.janusgraph.diskstorage.*;
+import org.janusgraph.diskstorage.configuration.ConfigNamespace;
+import org.janusgraph.diskstorage.configuration.ConfigOption;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.indexing.*;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
 import org.janusgraph.graphdb.database.serialize.AttributeUtil;
 import org.janusgraph.graphdb.query.JanusGraphPredicate;
 import org.janusgraph.graphdb.query.condition.*;
 import org.janusgraph.graphdb.types.ParameterType;
-import org.janusgraph.util.system.IOUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -56,6 +58,7 @@ import org.apache.lucene.spatial.prefix.tree.SpatialPrefixTree;
 import org.apache.lucene.spatial.query.SpatialArgs;
 import org.apache.lucene.spatial.query.SpatialOperation;
 import org.apache.lucene.spatial.vector.PointVectorStrategy;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.util.QueryBuilder;
@@ -68,10 +71,15 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -80,9 +88,20 @@ import java.util.stream.Stream;
  * @author Matthias Broecheler (me@matthiasb.com)
  */
 
+@PreInitializeConfigOptions
 public class LuceneIndex implements IndexProvider {
     private static final Logger log = LoggerFactory.getLogger(LuceneIndex.class);
 
+    public static final ConfigNamespace LUCENE_NS =
+            new ConfigNamespace(GraphDatabaseConfiguration.INDEX_NS, "lucene", "Lucene index configuration");
+
+    public static final ConfigOption<Duration> REFRESH_INTERVAL =
+            new ConfigOption<>(LUCENE_NS, "refresh-interval",
+            "Interval at which the shared near-real-time searchers are refreshed in the background to expose " +
+            "committed changes to queries. When set to zero, the searchers of a store are refreshed after every " +
+            "mutation instead so that changes are visible to subsequent transactions immediately.",
+            ConfigOption.Type.MASKABLE, Duration.ZERO);
+
     private static final String DOCID = "_____elementid";
     private static final String GEOID = "_____geo";
 
@@ -109,6 +128,24 @@ public class LuceneIndex implements IndexProvider {
     private final Map<String, IndexWriter> writers = new HashMap<>(4);
     private final ReentrantLock writerLock = new ReentrantLock();
 
+    /**
+     * Shared searchers for each store. Opened on top of the store's writer once one exists (near-real-time) or on
+     * top of the store's directory otherwise.
+     */
+    private final Map<String, SearcherManager> searcherManagers = new ConcurrentHashMap<>(4);
+
+    /**
+     * Group commit state: every mutation draws a sequence number once it has been applied to the writers and
+     * returns only after a writer commit covering that number has completed. Concurrent transactions therefore
+     * share a single commit (and fsync) instead of committing one after another.
+     */
+    private final AtomicLong mutationSequence = new AtomicLong(0);
+    private final Object commitLock = new Object();
+    private long committedSequence = 0;
+
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService refresher;
+
     private final Map<String, SpatialStrategy> spatial = new ConcurrentHashMap<>(12);
     private final SpatialContext ctx = Geoshape.getSpatialContext();
 
@@ -127,6 +164,20 @@ public class LuceneIndex implements IndexProvider {
         }
         basePath = directory.getAbsolutePath();
         log.debug("Configured Lucene to use base directory [{}]", basePath);
+
+        refreshInterval = config.get(REFRESH_INTERVAL);
+        Preconditions.checkArgument(!refreshInterval.isNegative(), "Invalid refresh interval: %s", refreshInterval);
+        if (refreshInterval.isZero()) {
+            refresher = null;
+        } else {
+            refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread t = new Thread(r, "LuceneIndex-refresher");
+                t.setDaemon(true);
+                return t;
+            });
+            final long interval = refreshInterval.toNanos();
+            refresher.scheduleWithFixedDelay(this::refreshSearchers, interval, interval, TimeUnit.NANOSECONDS);
+        }
     }
 
     private Directory getStoreDirectory(String store) throws BackendException {
@@ -154,6 +205,7 @@ public class LuceneIndex implements IndexProvider {
             try {
                 writer = new IndexWriter(getStoreDirectory(store), iwc);
                 writers.put(store, writer);
+                openSearcherManager(store, writer);
             } catch (final IOException e) {
                 throw new PermanentBackendException("Could not create writer", e);
             }
@@ -161,6 +213,73 @@ public class LuceneIndex implements IndexProvider {
         return writer;
     }
 
+    /**
+     * Replaces any directory based searcher manager of the store with a near-real-time one opened on the writer.
+     * Searchers acquired from the replaced manager remain valid until they are released.
+     */
+    private void openSearcherManager(String store, IndexWriter writer) throws IOException {
+        synchronized (searcherManagers) {
+            final SearcherManager previous = searcherManagers.put(store, new SearcherManager(writer, null));
+            if (previous != null) previous.close();
+        }
+    }
+
+    /**
+     * Returns the shared searcher manager of the store or null if the index of the store does not yet exist.
+     */
+    private SearcherManager getSearcherManager(String store) throws BackendException {
+        SearcherManager manager = searcherManagers.get(store);
+        if (manager == null) {
+            synchronized (searcherManagers) {
+                manager = searcherManagers.get(store);
+                if (manager == null) {
+                    try {
+                        final Directory directory = getStoreDirectory(store);
+                        if (!DirectoryReader.indexExists(directory)) return null;
+                        manager = new SearcherManager(directory, null);
+                        searcherManagers.put(store, manager);
+                    } catch (final IOException e) {
+                        throw new PermanentBackendException("Could not open index reader on store: " + store, e);
+                    }
+                }
+            }
+        }
+        return manager;
+    }
+
+    private void refreshSearchers() {
+        for (final Map.Entry<String, SearcherManager> entry : searcherManagers.entrySet()) {
+            try {
+                entry.getValue().maybeRefresh();
+            } catch (final AlreadyClosedException e) {
+                //The manager has been replaced in the meantime
+            } catch (final IOException | RuntimeException e) {
+                log.warn("Could not refresh searcher on store [{}]", entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Commits the writers such that all mutations up to and including the given sequence number are durable.
+     * Only one thread commits at a time and each commit covers all mutations applied before it started, so callers
+     * that queued up behind a running commit are typically satisfied by the next one without committing again.
+     */
+    private void commitWriters(long sequence) throws IOException {
+        synchronized (commitLock) {
+            if (committedSequence >= sequence) return;
+            final long target = mutationSequence.get();
+            final List<IndexWriter> toCommit;
+            writerLock.lock();
+            try {
+                toCommit = new ArrayList<>(writers.values());
+            } finally {
+                writerLock.unlock();
+            }
+            for (final IndexWriter writer : toCommit) writer.commit();
+            committedSequence = target;
+        }
+    }
+
     private SpatialStrategy getSpatialStrategy(String key, KeyInformation ki) {
         SpatialStrategy strategy = spatial.get(key);
         final Mapping mapping = Mapping.getMapping(ki);
@@ -208,26 +327,51 @@ public class LuceneIndex implements IndexProvider {
     @Override
     public void mutate(Map<String, Map<String, IndexMutation>> mutations, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
         final Transaction ltx = (Transaction) tx;
+        final long sequence;
         writerLock.lock();
         try {
             for (final Map.Entry<String, Map<String, IndexMutation>> stores : mutations.entrySet()) {
                 mutateStores(stores, information);
             }
+            sequence = mutationSequence.incrementAndGet();
             ltx.postCommit();
         } catch (final IOException e) {
             throw new TemporaryBackendException("Could not update Lucene index", e);
         } finally {
             writerLock.unlock();
         }
+        try {
+            commitWriters(sequence);
+        } catch (final IOException e) {
+            throw new TemporaryBackendException("Could not commit Lucene index", e);
+        }
+    }
+
+    /**
+     * Acquires a searcher of the store which reflects all changes applied to the store's writer so far.
+     * Must be called while holding the writer lock and be paired with {@link #releaseCurrentSearcher(String, IndexSearcher)}.
+     * <p>
+     * Each mutation refreshes the searcher exactly once: on release if the refresh interval is zero, since every
+     * mutation then leaves the searcher current, and otherwise on acquire.
+     */
+    private IndexSearcher acquireCurrentSearcher(String store) throws IOException {
+        Preconditions.checkArgument(writerLock.isHeldByCurrentThread());
+        final SearcherManager manager = searcherManagers.get(store);
+        if (!refreshInterval.isZero()) manager.maybeRefreshBlocking();
+        return manager.acquire();
+    }
+
+    private void releaseCurrentSearcher(String store, IndexSearcher searcher) throws IOException {
+        final SearcherManager manager = searcherManagers.get(store);
+        if (refreshInterval.isZero()) manager.maybeRefreshBlocking();
+        manager.release(searcher);
     }
 
     private void mutateStores(Map.Entry<String, Map<String, IndexMutation>> stores, KeyInformation.IndexRetriever information) throws IOException, BackendException {
-        IndexReader reader = null;
+        final String storeName = stores.getKey();
+        final IndexWriter writer = getWriter(storeName, information);
+        final IndexSearcher searcher = acquireCurrentSearcher(storeName);
         try {
-            final String storeName = stores.getKey();
-            final IndexWriter writer = getWriter(storeName, information);
-            reader = DirectoryReader.open(writer, true, true);
-            final IndexSearcher searcher = new IndexSearcher(reader);
             for (final Map.Entry<String, IndexMutation> entry : stores.getValue().entrySet()) {
                 final String documentId = entry.getKey();
                 final IndexMutation mutation = entry.getValue();
@@ -262,48 +406,55 @@ public class LuceneIndex implements IndexProvider {
                 //write the old document to the index with the modifications
                 writer.updateDocument(new Term(DOCID, documentId), doc);
             }
-            writer.commit();
         } finally {
-            IOUtils.closeQuietly(reader);
+            releaseCurrentSearcher(storeName, searcher);
         }
     }
 
     @Override
     public void restore(Map<String, Map<String, List<IndexEntry>>> documents, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
+        final long sequence;
         writerLock.lock();
         try {
             for (final Map.Entry<String, Map<String, List<IndexEntry>>> stores : documents.entrySet()) {
                 final String store = stores.getKey();
                 final IndexWriter writer = getWriter(store, information);
-                final IndexReader reader = DirectoryReader.open(writer, true, true);
-                final IndexSearcher searcher = new IndexSearcher(reader);
-
-                for (final Map.Entry<String, List<IndexEntry>> entry : stores.getValue().entrySet()) {
-                    final String docID = entry.getKey();
-                    final List<IndexEntry> content = entry.getValue();
+                final IndexSearcher searcher = acquireCurrentSearcher(store);
+                try {
+                    for (final Map.Entry<String, List<IndexEntry>> entry : stores.getValue().entrySet()) {
+                        final String docID = entry.getKey();
+                        final List<IndexEntry> content = entry.getValue();
 
-                    if (content == null || content.isEmpty()) {
-                        if (log.isTraceEnabled())
-                            log.trace("Deleting document [{}]", docID);
+                        if (content == null || content.isEmpty()) {
+                            if (log.isTraceEnabled())
+                                log.trace("Deleting document [{}]", docID);
 
-                        writer.deleteDocuments(new Term(DOCID, docID));
-                        continue;
-                    }
+                            writer.deleteDocuments(new Term(DOCID, docID));
+                            continue;
+                        }
 
-                    final Pair<Document, Map<String, Shape>> docAndGeo = retrieveOrCreate(docID, searcher);
-                    addToDocument(store, docID, docAndGeo.getKey(), content, docAndGeo.getValue(), information);
+                        final Pair<Document, Map<String, Shape>> docAndGeo = retrieveOrCreate(docID, searcher);
+                        addToDocument(store, docID, docAndGeo.getKey(), content, docAndGeo.getValue(), information);
 
-                    //write the old document to the index with the modifications
-                    writer.updateDocument(new Term(DOCID, docID), docAndGeo.getKey());
+                        //write the old document to the index with the modifications
+                        writer.updateDocument(new Term(DOCID, docID), docAndGeo.getKey());
+                    }
+                } finally {
+                    releaseCurrentSearcher(store, searcher);
                 }
-                writer.commit();
             }
+            sequence = mutationSequence.incrementAndGet();
             tx.commit();
         } catch (final IOException e) {
             throw new TemporaryBackendException("Could not update Lucene index", e);
         } finally {
             writerLock.unlock();
         }
+        try {
+            commitWriters(sequence);
+        } catch (final IOException e) {
+            throw new TemporaryBackendException("Could not commit Lucene index", e);
+        }
     }
 
     private Pair<Document, Map<String, Shape>> retrieveOrCreate(String docID, IndexSearcher searcher) throws IOException {
@@ -820,7 +971,10 @@ public class LuceneIndex implements IndexProvider {
 
     @Override
     public void close() throws BackendException {
+        if (refresher != null) refresher.shutdownNow();
         try {
+            for (SearcherManager m : searcherManagers.values()) m.close();
+            searcherManagers.clear();
             for (IndexWriter w : writers.values()) w.close();
         } catch (IOException e) {
             throw new PermanentBackendException("Could not close writers", e);
@@ -854,6 +1008,7 @@ public class LuceneIndex implements IndexProvider {
         private final BaseTransactionConfig config;
         private final Set<String> updatedStores = Sets.newHashSet();
         private final Map<String, IndexSearcher> searchers = new HashMap<>(4);
+        private final Map<String, SearcherManager> managers = new HashMap<>(4);
 
         private Transaction(BaseTransactionConfig config) {
             this.config = config;
@@ -861,15 +1016,15 @@ public class LuceneIndex implements IndexProvider {
 
         private synchronized IndexSearcher getSearcher(String store) throws BackendException {
             IndexSearcher searcher = searchers.get(store);
-            if (searcher == null) {
-                final IndexReader reader;
-                try {
-                    reader = DirectoryReader.open(getStoreDirectory(store));
-                    searcher = new IndexSearcher(reader);
-                } catch (final IndexNotFoundException e) {
-                    searcher = null;
-                } catch (final IOException e) {
-                    throw new PermanentBackendException("Could not open index reader on store: " + store, e);
+            if (searcher == null && !searchers.containsKey(store)) {
+                final SearcherManager manager = getSearcherManager(store);
+                if (manager != null) {
+                    try {
+                        searcher = manager.acquire();
+                    } catch (final IOException e) {
+                        throw new PermanentBackendException("Could not acquire searcher on store: " + store, e);
+                    }
+                    managers.put(store, manager);
                 }
                 searchers.put(store, searcher);
             }
@@ -878,7 +1033,6 @@ public class LuceneIndex implements IndexProvider {
 
         public void postCommit() throws BackendException {
             close();
-            searchers.clear();
         }
 
 
@@ -892,13 +1046,16 @@ public class LuceneIndex implements IndexProvider {
             close();
         }
 
-        private void close() throws BackendException {
+        private synchronized void close() throws BackendException {
             try {
-                for (final IndexSearcher searcher : searchers.values()) {
-                    if (searcher != null) searcher.getIndexReader().close();
+                for (final Map.Entry<String, SearcherManager> entry : managers.entrySet()) {
+                    entry.getValue().release(searchers.get(entry.getKey()));
                 }
             } catch (final IOException e) {
-                throw new PermanentBackendException("Could not close searcher", e);
+                throw new PermanentBackendException("Could not release searcher", e);
+            } finally {
+                searchers.clear();
+                managers.clear();
             }
         }
 
@@ -21,19 +21,30 @@ import org.janusgraph.core.attribute.*;
 import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.indexing.IndexEntry;
 import org.janusgraph.diskstorage.indexing.IndexProvider;
 import org.janusgraph.diskstorage.indexing.IndexProviderTest;
+import org.janusgraph.diskstorage.indexing.IndexQuery;
+import org.janusgraph.diskstorage.indexing.IndexTransaction;
 import org.janusgraph.core.schema.Mapping;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.query.condition.PredicateCondition;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -67,12 +78,69 @@ public class LuceneIndexTest extends IndexProviderTest {
     }
 
     public static Configuration getLocalLuceneTestConfig() {
+        return getLocalLuceneTestConfig(Duration.ZERO);
+    }
+
+    public static Configuration getLocalLuceneTestConfig(Duration refreshInterval) {
         final String index = "lucene";
         ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
         config.set(GraphDatabaseConfiguration.INDEX_DIRECTORY, StorageSetup.getHomeDir("lucene"),index);
+        config.set(LuceneIndex.REFRESH_INTERVAL, refreshInterval, index);
         return config.restrictTo(index);
     }
 
+    @Test
+    public void testConcurrentCommits() throws Exception {
+        final String store = "vertex";
+        final int numThreads = 8, numDocs = 50;
+        initialize(store);
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(numThreads);
+            for (int t = 0; t < numThreads; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    final IndexTransaction itx = openTx();
+                    for (int i = 0; i < numDocs; i++) {
+                        itx.add(store, "doc" + thread + "-" + i, new IndexEntry(TIME, (long) i), true);
+                    }
+                    itx.commit();
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdown();
+        }
+        newTx();
+        assertEquals(numThreads * numDocs, tx.queryStream(new IndexQuery(store, PredicateCondition.of(TIME, Cmp.GREATER_THAN_EQUAL, 0L))).count());
+        clopen();
+        assertEquals(numThreads * numDocs, tx.queryStream(new IndexQuery(store, PredicateCondition.of(TIME, Cmp.GREATER_THAN_EQUAL, 0L))).count());
+    }
+
+    @Test
+    public void testRefreshInterval() throws Exception {
+        close();
+        index = new LuceneIndex(getLocalLuceneTestConfig(Duration.ofMillis(50)));
+        tx = openTx();
+
+        final String store = "vertex";
+        initialize(store);
+        add(store, "doc1", getRandomDocument(), true);
+        newTx();
+        add(store, "doc2", getRandomDocument(), true);
+        newTx();
+
+        final IndexQuery query = new IndexQuery(store, PredicateCondition.of(TIME, Cmp.GREATER_THAN_EQUAL, 0L));
+        long count = 0;
+        for (int i = 0; i < 100 && count < 2; i++) {
+            Thread.sleep(50);
+            newTx();
+            count = tx.queryStream(query).count();
+        }
+        assertEquals(2, count);
+    }
+
     @Test
     public void testSupport() {
         // DEFAULT(=TEXT) support
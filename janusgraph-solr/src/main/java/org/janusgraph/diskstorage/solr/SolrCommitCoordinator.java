@@ -0,0 +1,155 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.solr;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.google.common.base.Preconditions;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Coalesces the mutations that concurrent transactions submit for the same collection into shared update requests.
+ * <p>
+ * Mutations are appended to the last pending batch of their collection, until it holds the maximum number of
+ * documents and delete ids. At most one batch per collection is written at a time: the transactions that submit
+ * mutations while a batch is being written wait and the first of them to find the collection idle writes the batches
+ * in order. A transaction returns once the batch holding its mutations has been written, or throws if it failed, so
+ * that mutations are never acknowledged before Solr has accepted them.
+ * <p>
+ * Since the deletions of a batch are written before its documents, a transaction that deletes a document which an
+ * earlier transaction of the pending batch adds starts a new batch, so that the deletion is not overridden.
+ */
+class SolrCommitCoordinator {
+
+    /**
+     * Writes a batch of mutations to a collection, the deletions before the documents
+     */
+    interface BatchWriter {
+        void write(String collection, List<String> deleteIds, List<SolrInputDocument> documents)
+                throws SolrServerException, IOException;
+    }
+
+    private final BatchWriter writer;
+    private final Function<String, String> keyFieldIds;
+    private final int maxBatchSize;
+    private final Map<String, CollectionQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * @param keyFieldIds returns the name of the field that holds the document id for a collection
+     */
+    SolrCommitCoordinator(BatchWriter writer, Function<String, String> keyFieldIds, int maxBatchSize) {
+        Preconditions.checkArgument(writer != null && keyFieldIds != null && maxBatchSize > 0);
+        this.writer = writer;
+        this.keyFieldIds = keyFieldIds;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Submits the mutations of a transaction and waits until they have been written
+     */
+    void submit(String collection, List<String> deleteIds, List<SolrInputDocument> documents)
+            throws SolrServerException, IOException {
+        if (deleteIds.isEmpty() && documents.isEmpty()) return;
+        queues.computeIfAbsent(collection, CollectionQueue::new).submit(deleteIds, documents);
+    }
+
+    private static class Batch {
+        private final List<String> deleteIds = new ArrayList<>();
+        private final List<SolrInputDocument> documents = new ArrayList<>();
+        private final Set<String> documentIds = new HashSet<>();
+        private boolean isWritten;
+        private Exception failure;
+
+        private int size() {
+            return deleteIds.size() + documents.size();
+        }
+    }
+
+    private class CollectionQueue {
+        private final String collection;
+        private final String keyFieldId;
+        private final Deque<Batch> batches = new ArrayDeque<>();
+        private boolean isWriting;
+
+        private CollectionQueue(String collection) {
+            this.collection = collection;
+            this.keyFieldId = keyFieldIds.apply(collection);
+        }
+
+        private boolean canAppend(Batch batch, List<String> deleteIds, List<SolrInputDocument> documents) {
+            if (batch.size() == 0) return true;
+            return batch.size() + deleteIds.size() + documents.size() <= maxBatchSize
+                && deleteIds.stream().noneMatch(batch.documentIds::contains);
+        }
+
+        private void submit(List<String> deleteIds, List<SolrInputDocument> documents)
+                throws SolrServerException, IOException {
+            final Batch batch;
+            synchronized (this) {
+                Batch last = batches.peekLast();
+                if (last == null || !canAppend(last, deleteIds, documents)) {
+                    last = new Batch();
+                    batches.add(last);
+                }
+                batch = last;
+                batch.deleteIds.addAll(deleteIds);
+                batch.documents.addAll(documents);
+                documents.forEach(document -> batch.documentIds.add(String.valueOf(document.getFieldValue(keyFieldId))));
+            }
+            boolean interrupted = false;
+            while (true) {
+                final Batch next;
+                synchronized (this) {
+                    while (!batch.isWritten && isWriting) {
+                        try {
+                            wait();
+                        } catch (final InterruptedException e) {
+                            //The mutations are already queued and must be written before returning
+                            interrupted = true;
+                        }
+                    }
+                    if (batch.isWritten) break;
+                    isWriting = true;
+                    next = batches.poll();
+                }
+                try {
+                    writer.write(collection, next.deleteIds, next.documents);
+                } catch (final Exception e) {
+                    next.failure = e;
+                } finally {
+                    synchronized (this) {
+                        next.isWritten = true;
+                        isWriting = false;
+                        notifyAll();
+                    }
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (batch.failure != null) {
+                throw new SolrServerException("Could not write mutations to collection " + collection, batch.failure);
+            }
+        }
+    }
+}
@@ -205,6 +205,22 @@ public class SolrIndex implements IndexProvider {
             "When mutating - wait for the index to reflect new mutations before returning. This can have a negative impact on performance.",
             ConfigOption.Type.LOCAL, false);
 
+    public static final ConfigOption<Integer> COMMIT_WITHIN = new ConfigOption<>(SOLR_NS, "commit-within",
+            "When mutating - the maximum time in milliseconds until new mutations become visible to searches. If positive, " +
+            "mutations are sent with this commitWithin time and made visible by Solr's soft commits instead of a hard commit " +
+            "per update request, which takes precedence over wait-searcher. 0 disables commitWithin.",
+            ConfigOption.Type.LOCAL, 0, ConfigOption.nonnegativeInt());
+
+    public static final ConfigOption<Boolean> COALESCE_MUTATIONS = new ConfigOption<>(SOLR_NS, "coalesce-mutations",
+            "Whether to coalesce the mutations of concurrent transactions into shared update requests per collection. " +
+            "Transactions still wait until their mutations have been accepted by Solr.",
+            ConfigOption.Type.LOCAL, false);
+
+    public static final ConfigOption<Integer> MUTATION_BATCH_SIZE = new ConfigOption<>(SOLR_NS, "mutation-batch-size",
+            "Maximum number of documents and deletions of a coalesced update request. The mutations of a single " +
+            "transaction are never split.",
+            ConfigOption.Type.LOCAL, 1000, ConfigOption.positiveInt());
+
 
     private static final IndexFeatures SOLR_FEATURES = new IndexFeatures.Builder()
         .supportsDocumentTTL()
@@ -227,6 +243,8 @@ public class SolrIndex implements IndexProvider {
     private final String ttlField;
     private final int batchSize;
     private final boolean waitSearcher;
+    private final int commitWithin;
+    private final SolrCommitCoordinator commitCoordinator;
 
     public SolrIndex(final Configuration config) throws BackendException {
         Preconditions.checkArgument(config!=null);
@@ -238,6 +256,9 @@ public class SolrIndex implements IndexProvider {
         batchSize = config.get(INDEX_MAX_RESULT_SET_SIZE);
         ttlField = config.get(TTL_FIELD);
         waitSearcher = config.get(WAIT_SEARCHER);
+        commitWithin = config.get(COMMIT_WITHIN);
+        commitCoordinator = config.get(COALESCE_MUTATIONS)
+            ? new SolrCommitCoordinator(this::writeBatch, this::getKeyFieldId, config.get(MUTATION_BATCH_SIZE)) : null;
 
         switch (mode) {
             case CLOUD:
@@ -350,7 +371,7 @@ public class SolrIndex implements IndexProvider {
                 final String keyIdField = getKeyFieldId(collectionName);
 
                 final List<String> deleteIds = new ArrayList<>();
-                final Collection<SolrInputDocument> changes = new ArrayList<>();
+                final List<SolrInputDocument> changes = new ArrayList<>();
 
                 for (final Map.Entry<String, IndexMutation> entry : stores.getValue().entrySet()) {
                     final String docId = entry.getKey();
@@ -371,7 +392,7 @@ public class SolrIndex implements IndexProvider {
                                     fieldDeletions.remove(indexEntry);
                                 }
                             }
-                            handleRemovalsFromIndex(collectionName, keyIdField, docId, fieldDeletions, information);
+                            changes.add(newRemovalDocument(collectionName, keyIdField, docId, fieldDeletions, information));
                         }
                     }
 
@@ -405,8 +426,7 @@ public class SolrIndex implements IndexProvider {
                     }
                 }
 
-                commitDeletes(collectionName, deleteIds);
-                commitChanges(collectionName, changes);
+                write(collectionName, deleteIds, changes);
             }
         } catch (final IllegalArgumentException e) {
             throw new PermanentBackendException("Unable to complete query on Solr.", e);
@@ -415,9 +435,9 @@ public class SolrIndex implements IndexProvider {
         }
     }
 
-    private void handleRemovalsFromIndex(String collectionName, String keyIdField, String docId,
-                                         List<IndexEntry> fieldDeletions, KeyInformation.IndexRetriever information)
-                                             throws SolrServerException, IOException, BackendException {
+    private SolrInputDocument newRemovalDocument(String collectionName, String keyIdField, String docId,
+                                                 List<IndexEntry> fieldDeletions, KeyInformation.IndexRetriever information)
+                                                     throws BackendException {
         final Map<String, String> fieldDeletes = new HashMap<>(1);
         fieldDeletes.put("set", null);
         final SolrInputDocument doc = new SolrInputDocument();
@@ -440,10 +460,7 @@ public class SolrIndex implements IndexProvider {
             });
         }
 
-        final UpdateRequest singleDocument = newUpdateRequest();
-        singleDocument.add(doc);
-        solrClient.request(singleDocument, collectionName);
-
+        return doc;
     }
 
     private Object convertValue(Object value) throws BackendException {
@@ -489,8 +506,7 @@ public class SolrIndex implements IndexProvider {
                     adds.forEach(doc::setField);
                     newDocuments.add(doc);
                 }
-                commitDeletes(collectionName, deleteIds);
-                commitChanges(collectionName, newDocuments);
+                write(collectionName, deleteIds, newDocuments);
             }
         } catch (final Exception e) {
             throw new TemporaryBackendException("Could not restore Solr index", e);
@@ -525,6 +541,26 @@ public class SolrIndex implements IndexProvider {
         return docs;
     }
 
+    /**
+     * Writes the mutations of a transaction, coalesced with those of concurrent transactions if enabled. Since
+     * deletions and documents are sent in separate update requests, removals from existing documents are sent along
+     * with the documents in the order of the given list.
+     */
+    private void write(String collectionName, List<String> deleteIds, List<SolrInputDocument> documents)
+            throws SolrServerException, IOException {
+        if (commitCoordinator != null) {
+            commitCoordinator.submit(collectionName, deleteIds, documents);
+        } else {
+            writeBatch(collectionName, deleteIds, documents);
+        }
+    }
+
+    private void writeBatch(String collectionName, List<String> deleteIds, List<SolrInputDocument> documents)
+            throws SolrServerException, IOException {
+        commitDeletes(collectionName, deleteIds);
+        commitChanges(collectionName, documents);
+    }
+
     private void commitChanges(String collectionName,
                                Collection<SolrInputDocument> documents) throws SolrServerException, IOException {
         if (documents.size() == 0) return;
@@ -1061,7 +1097,9 @@ public class SolrIndex implements IndexProvider {
 
     private UpdateRequest newUpdateRequest() {
         final UpdateRequest req = new UpdateRequest();
-        if(waitSearcher) {
+        if (commitWithin > 0) {
+            req.setCommitWithin(commitWithin);
+        } else if(waitSearcher) {
             req.setAction(UpdateRequest.ACTION.COMMIT, true, true);
         }
         return req;
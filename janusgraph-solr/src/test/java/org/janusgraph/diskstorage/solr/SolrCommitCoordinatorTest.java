@@ -0,0 +1,218 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.solr;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the coalescing of concurrent mutations by {@link SolrCommitCoordinator}
+ */
+public class SolrCommitCoordinatorTest {
+
+    private static final String COLLECTION = "store";
+
+    private ExecutorService executor;
+    private List<List<String>> writes;
+    private CountDownLatch firstWriteStarted;
+    private CountDownLatch firstWriteReleased;
+    private IOException failure;
+
+    @Before
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+        writes = Collections.synchronizedList(new ArrayList<>());
+        firstWriteStarted = new CountDownLatch(1);
+        firstWriteReleased = new CountDownLatch(0);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    private void write(String collection, List<String> deleteIds, List<SolrInputDocument> documents)
+            throws IOException {
+        assertEquals(COLLECTION, collection);
+        final List<String> write = new ArrayList<>();
+        deleteIds.forEach(id -> write.add("-" + id));
+        documents.forEach(document -> write.add((String) document.getFieldValue("id")));
+        writes.add(write);
+        firstWriteStarted.countDown();
+        try {
+            firstWriteReleased.await();
+        } catch (final InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        if (failure != null) throw failure;
+    }
+
+    private SolrCommitCoordinator newCoordinator(int maxBatchSize) {
+        return new SolrCommitCoordinator(this::write, collection -> "id", maxBatchSize);
+    }
+
+    private static List<SolrInputDocument> documents(String... ids) {
+        final List<SolrInputDocument> documents = new ArrayList<>();
+        for (final String id : ids) {
+            final SolrInputDocument document = new SolrInputDocument();
+            document.setField("id", id);
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    private Future<?> submit(SolrCommitCoordinator coordinator, List<String> deleteIds, String... ids) {
+        return executor.submit(() -> {
+            coordinator.submit(COLLECTION, deleteIds, documents(ids));
+            return null;
+        });
+    }
+
+    /**
+     * Blocks the first write until released and returns once it has started
+     */
+    private Future<?> blockFirstWrite(SolrCommitCoordinator coordinator) throws InterruptedException {
+        firstWriteReleased = new CountDownLatch(1);
+        final Future<?> first = submit(coordinator, Collections.emptyList(), "a");
+        assertTrue(firstWriteStarted.await(10, TimeUnit.SECONDS));
+        return first;
+    }
+
+    private void awaitQueued(SolrCommitCoordinator coordinator, Future<?>... futures) throws InterruptedException {
+        //Queued transactions keep waiting while the first write is blocked
+        Thread.sleep(100);
+        for (final Future<?> future : futures) {
+            assertFalse(future.isDone());
+        }
+    }
+
+    @Test
+    public void testWriteWithoutConcurrency() throws SolrServerException, IOException {
+        final SolrCommitCoordinator coordinator = newCoordinator(10);
+        coordinator.submit(COLLECTION, ImmutableList.of("x"), documents("a", "b"));
+        coordinator.submit(COLLECTION, Collections.emptyList(), Collections.emptyList());
+        coordinator.submit(COLLECTION, Collections.emptyList(), documents("c"));
+        assertEquals(ImmutableList.of(ImmutableList.of("-x", "a", "b"), ImmutableList.of("c")), writes);
+    }
+
+    @Test
+    public void testCoalesceConcurrentMutations() throws Exception {
+        final SolrCommitCoordinator coordinator = newCoordinator(10);
+        final Future<?> first = blockFirstWrite(coordinator);
+        final Future<?> second = submit(coordinator, ImmutableList.of("x"), "b");
+        final Future<?> third = submit(coordinator, Collections.emptyList(), "c", "d");
+        awaitQueued(coordinator, first, second, third);
+        firstWriteReleased.countDown();
+        for (final Future<?> future : ImmutableList.of(first, second, third)) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(2, writes.size());
+        assertEquals(ImmutableList.of("a"), writes.get(0));
+        assertEquals(ImmutableList.of("-x", "b", "c", "d"), writes.get(1).stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testBatchSizeLimit() throws Exception {
+        final SolrCommitCoordinator coordinator = newCoordinator(2);
+        final Future<?> first = blockFirstWrite(coordinator);
+        final List<Future<?>> queued = new ArrayList<>();
+        for (final String id : ImmutableList.of("b", "c", "d")) {
+            queued.add(submit(coordinator, Collections.emptyList(), id));
+        }
+        //The mutations of a single transaction are never split
+        queued.add(submit(coordinator, Collections.emptyList(), "e", "f", "g"));
+        awaitQueued(coordinator, queued.toArray(new Future<?>[0]));
+        firstWriteReleased.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        for (final Future<?> future : queued) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(7, writes.stream().mapToInt(List::size).sum());
+        assertTrue(writes.stream().allMatch(write -> write.size() <= 2 || write.equals(ImmutableList.of("e", "f", "g"))));
+    }
+
+    @Test
+    public void testFailureIsReportedToCoalescedTransactions() throws Exception {
+        final SolrCommitCoordinator coordinator = newCoordinator(10);
+        final Future<?> first = blockFirstWrite(coordinator);
+        final Future<?> second = submit(coordinator, Collections.emptyList(), "b");
+        final Future<?> third = submit(coordinator, Collections.emptyList(), "c");
+        awaitQueued(coordinator, second, third);
+        failure = new IOException("Write failed");
+        firstWriteReleased.countDown();
+        for (final Future<?> future : ImmutableList.of(first, second, third)) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (final ExecutionException e) {
+                assertTrue(e.getCause() instanceof SolrServerException);
+                assertSame(failure, e.getCause().getCause());
+            }
+        }
+        assertEquals(2, writes.size());
+    }
+
+    @Test
+    public void testDeletionAfterAdditionIsNotCoalesced() throws Exception {
+        final SolrCommitCoordinator coordinator = newCoordinator(10);
+        final Future<?> first = blockFirstWrite(coordinator);
+        final Future<?> addition = submit(coordinator, Collections.emptyList(), "x", "b");
+        awaitQueued(coordinator, addition);
+        final Future<?> deletion = submit(coordinator, ImmutableList.of("x"), "c");
+        awaitQueued(coordinator, addition, deletion);
+        firstWriteReleased.countDown();
+        for (final Future<?> future : ImmutableList.of(first, addition, deletion)) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        //The deletion is written after the addition it follows, rather than before it in a shared batch
+        assertEquals(ImmutableList.of(ImmutableList.of("a"), ImmutableList.of("x", "b"), ImmutableList.of("-x", "c")),
+                writes);
+    }
+
+    @Test
+    public void testAdditionAfterDeletionIsCoalesced() throws Exception {
+        final SolrCommitCoordinator coordinator = newCoordinator(10);
+        final Future<?> first = blockFirstWrite(coordinator);
+        final Future<?> deletion = submit(coordinator, ImmutableList.of("x"));
+        awaitQueued(coordinator, deletion);
+        final Future<?> addition = submit(coordinator, Collections.emptyList(), "x");
+        awaitQueued(coordinator, deletion, addition);
+        firstWriteReleased.countDown();
+        for (final Future<?> future : ImmutableList.of(first, deletion, addition)) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        //Deletions are written before the documents of a batch, which preserves the order of the transactions
+        assertEquals(ImmutableList.of(ImmutableList.of("a"), ImmutableList.of("-x", "x")), writes);
+    }
+
+}
@@ -968,6 +968,40 @@ public abstract class KeyColumnValueStoreTest extends AbstractKCVSTest {
         }
     }
 
+    @Test
+    public void testGetSlicesAsync() throws Exception {
+        populateDBWith100Keys();
+
+        tx.commit();
+        tx = startTx();
+
+        final List<StaticBuffer> keys = new ArrayList<>(100);
+
+        for (int i = 1; i <= 100; i++) {
+            keys.add(KeyColumnValueStoreUtil.longToByteBuffer(i));
+        }
+
+        StaticBuffer start = KeyColumnValueStoreUtil.stringToByteBuffer("a");
+        StaticBuffer end = KeyColumnValueStoreUtil.stringToByteBuffer("d");
+        SliceQuery query = new SliceQuery(start, end);
+
+        List<CompletableFuture<EntryList>> futures = new ArrayList<>(keys.size());
+        for (StaticBuffer key : keys) {
+            futures.add(store.getSliceAsync(new KeySliceQuery(key, query), tx));
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            Assert.assertEquals(store.getSlice(new KeySliceQuery(keys.get(i), query), tx), futures.get(i).get());
+        }
+
+        if (manager.getFeatures().hasMultiQuery()) {
+            Map<StaticBuffer,EntryList> results = store.getSliceAsync(keys, query, tx).get();
+            Assert.assertEquals(100, results.size());
+            for (List<Entry> entries : results.values()) {
+                Assert.assertEquals(3, entries.size());
+            }
+        }
+    }
+
     @Test
     @Category({UnorderedKeyStoreTests.class})
     public void testGetKeysWithSliceQuery() throws Exception {
@@ -1191,11 +1225,45 @@ public abstract class KeyColumnValueStoreTest extends AbstractKCVSTest {
         SimpleScanJob.runBasicTests(keys, columns, runner);
     }
 
+    @Test
+    public void scanTestWithPartitionedSimpleJob() throws Exception {
+        int keys = 1000, columns = 40;
+        String[][] values = KeyValueStoreUtil.generateData(keys, columns);
+        //Make it only half the number of columns for every 2nd key
+        for (int i = 0; i < values.length; i++) {
+            if (i%2==0) values[i]=Arrays.copyOf(values[i],columns/2);
+        }
+        loadValues(values);
+        clopen();
+
+        final int partitions = 4;
+        StandardScanner scanner = new StandardScanner(manager);
+        SimpleScanJobRunner runner = (ScanJob job, Configuration jobConf, String rootNSName) -> runSimpleJob(scanner, job, jobConf, partitions);
+
+        SimpleScanJob.runBasicTests(keys, columns, runner);
+
+        if (manager.getFeatures().hasOrderedScan()) {
+            Configuration jobConf = SimpleScanJob.getJobConf(
+                    ImmutableList.of(new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(128))));
+            ScanMetrics result = runSimpleJob(scanner, new SimpleScanJob(), jobConf, partitions);
+            long rows = 0;
+            for (int i = 0; i < partitions; i++) {
+                rows += result.getCustom(ScanMetrics.getPartitionMetric(i));
+            }
+            assertEquals(keys, rows);
+        }
+    }
+
     private ScanMetrics runSimpleJob(StandardScanner scanner, ScanJob job, Configuration jobConf) throws BackendException, ExecutionException, InterruptedException {
+        return runSimpleJob(scanner, job, jobConf, 1);
+    }
+
+    private ScanMetrics runSimpleJob(StandardScanner scanner, ScanJob job, Configuration jobConf, int partitions) throws BackendException, ExecutionException, InterruptedException {
         StandardScanner.Builder jobBuilder = scanner.build();
         jobBuilder.setStoreName(store.getName());
         jobBuilder.setJobConfiguration(jobConf);
         jobBuilder.setNumProcessingThreads(2);
+        jobBuilder.setNumScanPartitions(partitions);
         jobBuilder.setWorkBlockSize(100);
         jobBuilder.setTimestampProvider(times);
         jobBuilder.setJob(job);
@@ -224,6 +224,38 @@ public abstract class KeyValueStoreTest extends AbstractKCVSTest {
         }
     }
 
+    @Test
+    public void multiSliceTest() throws BackendException {
+        if (manager.getFeatures().hasMultiQuery()) {
+            String[] values = generateValues();
+            loadValues(values);
+            Set<Integer> deleted = deleteValues(0, 10);
+            clopen();
+            //Queries are neither sorted nor disjoint
+            int[][] slices = {{500, 600, 20}, {5, 25, -1}, {50, 20, -1}, {550, 1250, 5}, {numKeys - 5, numKeys + 5, -1}};
+            List<KVQuery> queries = Lists.newArrayList();
+            for (int[] slice : slices) {
+                StaticBuffer start = KeyValueStoreUtil.getBuffer(slice[0]), end = KeyValueStoreUtil.getBuffer(slice[1]);
+                queries.add(slice[2] > 0 ? new KVQuery(start, end, slice[2]) : new KVQuery(start, end));
+            }
+            Map<KVQuery,RecordIterator<KeyValueEntry>> results = store.getSlices(queries, tx);
+            for (int i = 0; i < slices.length; i++) {
+                RecordIterator<KeyValueEntry> result = results.get(queries.get(i));
+                int count = 0;
+                for (int id = slices[i][0]; id < Math.min(slices[i][1], numKeys); id++) {
+                    if (deleted.contains(id)) continue;
+                    if (slices[i][2] > 0 && count >= slices[i][2]) break;
+                    Assert.assertTrue(result.hasNext());
+                    KeyValueEntry entry = result.next();
+                    Assert.assertEquals(id, KeyValueStoreUtil.getID(entry.getKey()));
+                    Assert.assertEquals(values[id], KeyValueStoreUtil.getString(entry.getValue()));
+                    count++;
+                }
+                Assert.assertFalse(result.hasNext());
+            }
+        }
+    }
+
     private RecordIterator<KeyValueEntry> getAllData(StoreTransaction tx) throws BackendException {
         return store.getSlice(new KVQuery(BackendTransaction.EDGESTORE_MIN_KEY, BackendTransaction.EDGESTORE_MAX_KEY), tx);
     }
@@ -158,6 +158,35 @@ public abstract class KCVSCacheTest {
         assertEquals(4,store.getSliceCalls());
     }
 
+    @Test
+    public void testAsyncReads() throws Exception {
+        final int numKeys = 20, numCols = 10;
+        loadStore(numKeys,numCols);
+
+        final List<StaticBuffer> keys = new ArrayList<>();
+        for (int i=1;i<=numKeys;i++) keys.add(BufferUtil.getIntBuffer(i));
+
+        //Async reads populate the cache and are served from it subsequently
+        for (int t=0;t<3;t++) {
+            CacheTransaction tx = getCacheTx();
+            for (int i=1;i<=numKeys;i++) {
+                assertEquals(3,cache.getSliceAsync(getQuery(i,2,5),tx).get().size());
+            }
+            Map<StaticBuffer,EntryList> result = cache.getSliceAsync(keys,getQuery(4,9),tx).get();
+            assertEquals(keys.size(),result.size());
+            for (EntryList r : result.values()) {
+                assertEquals(5,r.size());
+            }
+            tx.commit();
+            assertEquals(numKeys+1,store.getSliceCalls());
+        }
+
+        //Results read asynchronously are also returned by synchronous reads
+        CacheTransaction tx = getCacheTx();
+        assertEquals(3,cache.getSlice(getQuery(1,2,5),tx).size());
+        tx.commit();
+        assertEquals(numKeys+1,store.getSliceCalls());
+    }
 
     public static KeySliceQuery getQuery(int key, int startCol, int endCol) {
         return new KeySliceQuery(BufferUtil.getIntBuffer(key),getQuery(startCol, endCol));
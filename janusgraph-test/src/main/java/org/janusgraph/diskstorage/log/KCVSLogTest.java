@@ -14,14 +14,41 @@
 
 package org.janusgraph.diskstorage.log;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
 import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSUtil;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.log.kcvs.KCVSLog;
 import org.janusgraph.diskstorage.log.kcvs.KCVSLogManager;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.RecordIterator;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.janusgraph.diskstorage.util.time.TimestampProviders;
 
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Implementation of the {@link LogTest} for {@link KCVSLogManager} based log implementations.
@@ -35,12 +62,21 @@ public abstract class KCVSLogTest extends LogTest {
 
     public static final String LOG_NAME = "testlog";
 
+    private static final int COMPRESSION_THRESHOLD = 64;
+    private static final long READ_TIMEOUT_MS = 30000;
+
     private KeyColumnValueStoreManager storeManager;
 
     @Override
     public LogManager openLogManager(String senderId, boolean requiresOrderPreserving) throws BackendException {
         storeManager = openStorageManager();
-        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        return openLogManager(senderId, requiresOrderPreserving, GraphDatabaseConfiguration.buildGraphConfiguration());
+    }
+
+    /**
+     * Opens a log manager on the store manager of the test with the given configuration of the test log
+     */
+    private LogManager openLogManager(String senderId, boolean requiresOrderPreserving, ModifiableConfiguration config) {
         config.set(GraphDatabaseConfiguration.UNIQUE_INSTANCE_ID,senderId);
         config.set(GraphDatabaseConfiguration.LOG_READ_INTERVAL, Duration.ofMillis(500L), LOG_NAME);
         //To ensure that the write order is preserved in reading, we need to ensure that all writes go to the same partition
@@ -49,6 +85,127 @@ public abstract class KCVSLogTest extends LogTest {
         return new KCVSLogManager(storeManager,config.restrictTo(LOG_NAME));
     }
 
+    @Test
+    public void testConcurrentSendersWithGroupCommit() throws Exception {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.LOG_SEND_DELAY, Duration.ZERO, LOG_NAME);
+        config.set(KCVSLog.LOG_GROUP_COMMIT, true, LOG_NAME);
+        config.set(KCVSLog.LOG_GROUP_COMMIT_WAIT, Duration.ofMillis(5L), LOG_NAME);
+        LogManager groupCommitManager = openLogManager(DEFAULT_SENDER_ID, false, config);
+        try {
+            concurrentSendReceive(groupCommitManager, 8, 250, true);
+        } finally {
+            groupCommitManager.close();
+        }
+    }
+
+    private LogManager openCompressingLogManager(String senderId, String algorithm) {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(KCVSLog.LOG_COMPRESSION, algorithm, LOG_NAME);
+        config.set(KCVSLog.LOG_COMPRESSION_THRESHOLD, COMPRESSION_THRESHOLD, LOG_NAME);
+        return openLogManager(senderId, false, config);
+    }
+
+    /**
+     * Returns large and redundant content, which is compressed, for even rounds and small random content for odd ones
+     */
+    private static StaticBuffer getMessageContent(int round, Random random) {
+        if (round % 2 == 0) {
+            final StringBuilder json = new StringBuilder();
+            for (int j = 0; j < 100 * (round + 1); j++) json.append("{\"id\":").append(j).append(",\"name\":\"vertex\"}");
+            return StaticArrayBuffer.of(json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        final byte[] raw = new byte[1 + random.nextInt(COMPRESSION_THRESHOLD)];
+        random.nextBytes(raw);
+        return StaticArrayBuffer.of(raw);
+    }
+
+    private static LatchMessageReader getCollectingReader(int numMessages, List<StaticBuffer> received) {
+        return new LatchMessageReader(numMessages) {
+            @Override
+            protected void processMessage(Message message) {
+                received.add(message.getContent());
+            }
+        };
+    }
+
+    @Test
+    public void testMixedSizeMessagesWithCompression() throws Exception {
+        final int rounds = 16;
+        final List<StaticBuffer> expected = new ArrayList<>(rounds);
+        final List<StaticBuffer> received = Collections.synchronizedList(new ArrayList<>(rounds));
+        final LatchMessageReader reader = getCollectingReader(rounds, received);
+        final LogManager compressingManager = openCompressingLogManager(DEFAULT_SENDER_ID, "lz4");
+        try {
+            Log l = compressingManager.openLog(LOG_NAME);
+            l.registerReader(ReadMarker.fromNow(), reader);
+            final Random random = new Random();
+            int maxContentLength = 0;
+            for (int i = 0; i < rounds; i++) {
+                final StaticBuffer content = getMessageContent(i, random);
+                l.add(content);
+                expected.add(content);
+                maxContentLength = Math.max(maxContentLength, content.length());
+            }
+            reader.await(READ_TIMEOUT_MS);
+            assertEquals(new HashSet<>(expected), new HashSet<>(received));
+            //The largest stored message must be much smaller than the largest content, which is highly redundant
+            assertTrue(getMaxStoredMessageLength() < maxContentLength / 4);
+        } finally {
+            compressingManager.close();
+        }
+    }
+
+    @Test
+    public void testSwitchingCompressionWithUnreadMessages() throws Exception {
+        final Instant start = Instant.now();
+        final Random random = new Random();
+        final List<StaticBuffer> expected = new ArrayList<>();
+        //Messages are written alternately with and without compression and are read by a log without compression
+        for (String algorithm : new String[]{"none", "lz4", "none", "deflate"}) {
+            final LogManager writer = openCompressingLogManager("sender-" + expected.size(), algorithm);
+            try {
+                final Log l = writer.openLog(LOG_NAME);
+                for (int i = 0; i < 2; i++) {
+                    final StaticBuffer content = getMessageContent(i, random);
+                    l.add(content).get();
+                    expected.add(content);
+                }
+            } finally {
+                writer.close();
+            }
+        }
+        final List<StaticBuffer> received = Collections.synchronizedList(new ArrayList<>());
+        final LatchMessageReader reader = getCollectingReader(expected.size(), received);
+        final LogManager readerManager = openCompressingLogManager("reader", "none");
+        try {
+            readerManager.openLog(LOG_NAME).registerReader(ReadMarker.fromTime(start), reader);
+            reader.await(READ_TIMEOUT_MS);
+            assertEquals(new HashSet<>(expected), new HashSet<>(received));
+        } finally {
+            readerManager.close();
+        }
+    }
+
+    private int getMaxStoredMessageLength() throws BackendException {
+        final KeyColumnValueStore store = storeManager.openDatabase(LOG_NAME);
+        final StoreTransaction tx = storeManager.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO));
+        int maxLength = 0;
+        try (KeyIterator keys = KCVSUtil.getKeys(store, new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(128)),
+                storeManager.getFeatures(), 12, tx)) {
+            while (keys.hasNext()) {
+                keys.next();
+                final RecordIterator<Entry> entries = keys.getEntries();
+                while (entries.hasNext()) maxLength = Math.max(maxLength, entries.next().getValue().length());
+            }
+        } catch (IOException e) {
+            throw new PermanentBackendException(e);
+        } finally {
+            tx.commit();
+        }
+        return maxLength;
+    }
+
     @Override
     public void setup() throws Exception {
         StoreManager m = openStorageManager();
@@ -33,6 +33,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -252,6 +255,11 @@ public abstract class LogTest {
         assertEquals(3, reader2.totalValue.get());
     }
 
+    @Test
+    public void testConcurrentSenders() throws Exception {
+        concurrentSendReceive(manager, 8, 250, false);
+    }
+
     protected void simpleSendReceive(int numMessages, int delayMS) throws Exception {
         sendReceive(1, numMessages, delayMS, true, LogTest.TIMEOUT_MS);
     }
@@ -281,6 +289,41 @@ public abstract class LogTest {
 
     }
 
+    /**
+     * Adds messages to a single log from multiple threads at once and verifies that a reader receives all of them.
+     *
+     * @param logManager the log manager through which the log is opened
+     * @param expectDelivered whether each message is expected to be persisted by the time adding it returns
+     */
+    protected void concurrentSendReceive(LogManager logManager, int numThreads, int numMessagesPerThread,
+                                         boolean expectDelivered) throws Exception {
+        final Log log1 = logManager.openLog("test1");
+        final int numMessages = numThreads * numMessagesPerThread;
+        final CountingReader count = new CountingReader(numMessages, false);
+        log1.registerReader(ReadMarker.fromNow(),count);
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<?>> senders = new ArrayList<>(numThreads);
+            for (int t = 0; t < numThreads; t++) {
+                final long offset = t * numMessagesPerThread;
+                senders.add(executor.submit(() -> {
+                    for (long i = 1; i <= numMessagesPerThread; i++) {
+                        final Future<Message> future = log1.add(BufferUtil.getLongBuffer(offset + i));
+                        if (expectDelivered) assertTrue(future.isDone());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> sender : senders) sender.get();
+        } finally {
+            executor.shutdown();
+        }
+        count.await(TIMEOUT_MS);
+        assertEquals(numMessages, count.totalMsg.get());
+        assertEquals((long) numMessages * (numMessages + 1) / 2, count.totalValue.get());
+        log1.close();
+    }
+
     /**
      * Test MessageReader implementation. Allows waiting until an expected number of messages have
      * been read.
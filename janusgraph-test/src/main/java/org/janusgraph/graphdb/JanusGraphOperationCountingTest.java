@@ -28,6 +28,7 @@ import static org.janusgraph.diskstorage.Backend.*;
 import org.janusgraph.diskstorage.configuration.BasicConfiguration;
 import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
 import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.diskstorage.configuration.backend.KCVSConfiguration;
 import org.janusgraph.diskstorage.util.CacheMetricsAction;
 import org.janusgraph.diskstorage.util.MetricInstrumentedStore;
 import static org.janusgraph.diskstorage.util.MetricInstrumentedStore.*;
@@ -39,6 +40,7 @@ import static org.janusgraph.graphdb.database.cache.MetricInstrumentedSchemaCach
 import static org.janusgraph.testutil.JanusGraphAssert.assertCount;
 import static org.junit.Assert.*;
 
+import org.janusgraph.graphdb.database.cache.SchemaSnapshot;
 import org.janusgraph.graphdb.internal.ElementCategory;
 import org.janusgraph.graphdb.internal.InternalRelationType;
 import org.janusgraph.graphdb.internal.InternalVertexLabel;
@@ -48,6 +50,7 @@ import org.janusgraph.testcategory.SerialTests;
 import org.janusgraph.util.stats.MetricManager;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.junit.Test;
@@ -317,6 +320,59 @@ public abstract class JanusGraphOperationCountingTest extends JanusGraphBaseTest
 
     }
 
+    @Test
+    public void testSchemaPreload() {
+        testSchemaPreload(false);
+    }
+
+    @Test
+    public void testSchemaSnapshot() {
+        testSchemaPreload(true);
+    }
+
+    public void testSchemaPreload(boolean snapshot) {
+        PropertyKey uid = makeKey("uid", String.class);
+        mgmt.buildIndex("uid", Vertex.class).addKey(uid).buildCompositeIndex();
+        makeKey("age", Integer.class);
+        makeLabel("knows");
+        mgmt.makeVertexLabel("person").make();
+        finishSchema();
+
+        JanusGraphVertex v = graph.addVertex(T.label, "person", "uid", "v1", "age", 25);
+        JanusGraphVertex u = graph.addVertex(T.label, "person", "uid", "u1", "age", 35);
+        v.addEdge("knows", u);
+        graph.tx().commit();
+
+        clopen(option(SCHEMA_PRELOAD), !snapshot, option(SCHEMA_SNAPSHOT), snapshot);
+        if (snapshot) {
+            //The first instance retrieves the schema and persists the snapshot which the second one loads
+            assertNotNull(readSchemaSnapshot());
+            clopen();
+        }
+
+        metricsPrefix = "testSchemaPreload" + snapshot;
+        resetMetrics();
+        JanusGraphTransaction tx = graph.buildTransaction().groupName(metricsPrefix).start();
+        assertTrue(tx.containsVertexLabel("person"));
+        v = getOnlyElement(tx.query().has("uid", "v1").vertices());
+        assertEquals("person", v.label());
+        assertEquals(25, v.<Integer>value("age").intValue());
+        assertCount(1, v.query().direction(Direction.OUT).labels("knows").edges());
+        verifyTypeCacheMetrics(0, 0);
+        tx.commit();
+
+        if (snapshot) {
+            makeKey("name", String.class);
+            finishSchema();
+            assertNull(readSchemaSnapshot());
+        }
+    }
+
+    private SchemaSnapshot readSchemaSnapshot() {
+        KCVSConfiguration snapshotStore = graph.getBackend().getSchemaSnapshotConfiguration();
+        return SchemaSnapshot.read(snapshotStore, graph.getDataSerializer(), SchemaSnapshot.getVersion(snapshotStore));
+    }
+
     @Test
     public void checkPropertyLockingAndIndex() {
         PropertyKey uid = makeKey("uid",String.class);
@@ -14,7 +14,7 @@
 
 package org.janusgraph.graphdb;
 
-
+import com.codahale.metrics.Counter;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -68,6 +68,7 @@ import org.janusgraph.diskstorage.log.Message;
 import org.janusgraph.diskstorage.log.MessageReader;
 import org.janusgraph.diskstorage.log.ReadMarker;
 import org.janusgraph.diskstorage.log.kcvs.KCVSLog;
+import org.janusgraph.diskstorage.util.MetricInstrumentedStore;
 import org.janusgraph.diskstorage.util.time.TimestampProvider;
 import org.janusgraph.example.GraphOfTheGodsFactory;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
@@ -86,6 +87,7 @@ import org.janusgraph.graphdb.internal.RelationCategory;
 import org.janusgraph.graphdb.log.StandardTransactionLogProcessor;
 import org.janusgraph.graphdb.olap.job.IndexRemoveJob;
 import org.janusgraph.graphdb.olap.job.IndexRepairJob;
+import org.janusgraph.graphdb.query.condition.PredicateCondition;
 import org.janusgraph.graphdb.query.graph.GraphCentricQueryBuilder;
 import org.janusgraph.graphdb.query.profile.QueryProfiler;
 import org.janusgraph.graphdb.query.profile.SimpleQueryProfiler;
@@ -107,6 +109,7 @@ import org.janusgraph.graphdb.types.system.BaseVertexLabel;
 import org.janusgraph.graphdb.types.system.ImplicitKey;
 import org.janusgraph.testcategory.BrittleTests;
 import org.janusgraph.testutil.TestGraphConfigs;
+import org.janusgraph.util.stats.MetricManager;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
@@ -136,6 +139,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashSet;
@@ -424,6 +428,68 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
         }
     }
 
+    /**
+     * Tests that vertices retrieved by id, in a batch or by themselves, have their label and properties loaded with
+     * their existence check, so that accessing them makes no further backend calls, and that the existence checks of
+     * adjacent vertices are batched
+     */
+    @Test
+    public void testVertexLookupPrefetching() {
+        clopen(option(LOOKUP_PREFETCH_LABEL), true, option(LOOKUP_PREFETCH_KEYS), new String[]{"name"},
+                option(BASIC_METRICS), true, option(METRICS_MERGE_STORES), false);
+        mgmt.makeVertexLabel("person").make();
+        mgmt.makePropertyKey("name").dataType(String.class).make();
+        mgmt.makeEdgeLabel("knows").make();
+        finishSchema();
+
+        final int numV = 10;
+        final Object[] ids = new Object[numV];
+        final JanusGraphVertex hub = tx.addVertex(T.label, "person", "name", "hub");
+        for (int i = 0; i < numV; i++) {
+            final JanusGraphVertex v = tx.addVertex(T.label, "person", "name", "v" + i);
+            hub.addEdge("knows", v);
+            ids[i] = v.id();
+        }
+        final Object hubId = hub.id();
+        newTx();
+
+        final String metricsPrefix = "testVertexLookupPrefetching";
+        final Counter edgeStoreCalls = MetricManager.INSTANCE.getCounter(metricsPrefix, Backend.EDGESTORE_NAME,
+                MetricInstrumentedStore.M_GET_SLICE, MetricInstrumentedStore.M_CALLS);
+        JanusGraphTransaction lookupTx = graph.buildTransaction().groupName(metricsPrefix).start();
+        final List<Vertex> vertices = lookupTx.traversal().V(ids).toList();
+        assertEquals(numV, vertices.size());
+        long calls = edgeStoreCalls.getCount();
+        assertTrue(calls > 0);
+        for (int i = 0; i < numV; i++) {
+            assertEquals(ids[i], vertices.get(i).id());
+            assertEquals("person", vertices.get(i).label());
+            assertEquals("v" + i, vertices.get(i).value("name"));
+        }
+        assertEquals(calls, edgeStoreCalls.getCount());
+
+        //A vertex retrieved by itself is prefetched with its existence check as well
+        final Vertex single = lookupTx.traversal().V(hubId).next();
+        calls = edgeStoreCalls.getCount();
+        assertEquals("person", single.label());
+        assertEquals("hub", single.value("name"));
+        assertEquals(calls, edgeStoreCalls.getCount());
+        lookupTx.rollback();
+
+        //The existence of adjacent vertices is verified in a batch rather than one backend call per vertex
+        lookupTx = graph.buildTransaction().groupName(metricsPrefix).checkInternalVertexExistence(true).start();
+        final Vertex hubVertex = lookupTx.traversal().V(hubId).next();
+        calls = edgeStoreCalls.getCount();
+        final List<Vertex> neighbors = lookupTx.traversal().V(hubVertex).out("knows").toList();
+        assertEquals(numV, neighbors.size());
+        for (Vertex v : neighbors) {
+            assertEquals("person", v.label());
+            assertTrue(v.<String>value("name").startsWith("v"));
+        }
+        //Stores without multi-queries retrieve the batch with one call per vertex
+        if (features.hasMultiQuery()) assertTrue(edgeStoreCalls.getCount() - calls < numV);
+        lookupTx.rollback();
+    }
 
     /* ==================================================================================
                             SCHEMA TESTS
@@ -3643,6 +3709,107 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
 
     }
 
+    @Test
+    public void testMultiQueryPropertyPrefetching() {
+        clopen(option(USE_MULTIQUERY), true, option(PROPERTY_PREFETCHING), false);
+        mgmt.makePropertyKey("name").dataType(String.class).make();
+        mgmt.makePropertyKey("age").dataType(Integer.class).make();
+        mgmt.makeEdgeLabel("knows").make();
+        finishSchema();
+
+        final int numV = 50;
+        JanusGraphVertex hub = tx.addVertex();
+        for (int i = 0; i < numV; i++) {
+            hub.addEdge("knows", tx.addVertex("name", "v" + i, "age", i));
+        }
+        newTx();
+
+        assertEquals(5, tx.traversal().V(hub).out("knows").has("age", P.lt(5)).values("name").toList().size());
+        assertEquals(numV, tx.traversal().V(hub).out("knows").valueMap("name").toList().size());
+        newTx();
+
+        //The ages of all adjacent vertices are loaded in a batch
+        assertEquals(numV, tx.traversal().V(hub).out("knows").values("age").toList().size());
+        //Only the first adjacent vertex needs to be filtered, so a limit disables prefetching
+        final JanusGraphTransaction limited = graph.newTransaction();
+        assertEquals(1, limited.traversal().V(hub).out("knows").has("age", P.gte(0)).limit(1).toList().size());
+        //Remove the ages in another transaction, which the vertices with prefetched ages don't observe
+        JanusGraphTransaction tx2 = graph.newTransaction();
+        tx2.traversal().V(hub).out("knows").properties("age").drop().iterate();
+        tx2.commit();
+        List<Vertex> adjacent = tx.traversal().V(hub).out("knows").toList();
+        assertEquals(numV, adjacent.size());
+        for (Vertex v : adjacent) assertTrue(v.property("age").isPresent());
+        adjacent = limited.traversal().V(hub).out("knows").toList();
+        assertEquals(numV, adjacent.size());
+        assertTrue(adjacent.stream().filter(v -> v.property("age").isPresent()).count() < numV);
+        limited.rollback();
+    }
+
+    @Test
+    public void testPagedAdjacencyRetrieval() {
+        clopen(option(SLICE_PAGE_SIZE), 10);
+        mgmt.makePropertyKey("weight").dataType(Integer.class).make();
+        mgmt.makeEdgeLabel("knows").make();
+        finishSchema();
+
+        final int numE = 95;
+        JanusGraphVertex hub = tx.addVertex();
+        for (int i = 0; i < numE; i++) {
+            hub.addEdge("knows", tx.addVertex(), "weight", i);
+        }
+        newTx();
+
+        //Read-only transactions do not cache paged adjacency lists
+        final JanusGraphTransaction readOnly = graph.buildTransaction().readOnly().start();
+        JanusGraphVertex v = getV(readOnly, hub);
+        final Set<Integer> weights = new HashSet<>();
+        for (JanusGraphEdge e : v.query().direction(OUT).labels("knows").edges()) {
+            assertTrue(weights.add(e.<Integer>value("weight")));
+        }
+        assertEquals(numE, weights.size());
+        assertEquals(numE, v.query().direction(OUT).labels("knows").count());
+        assertEquals(numE, Iterables.size(v.query().direction(OUT).labels("knows").vertexIds()));
+        assertEquals(25, Iterables.size(v.query().direction(OUT).labels("knows").limit(25).edges()));
+        //Filtered in memory, the pages are read until the limit is reached or the adjacency list is exhausted
+        assertEquals(5, Iterables.size(v.query().direction(OUT).labels("knows").has("weight", Cmp.GREATER_THAN_EQUAL, 90).edges()));
+        assertEquals(3, Iterables.size(v.query().direction(OUT).labels("knows").has("weight", Cmp.LESS_THAN, 50).limit(3).edges()));
+        //Sorted in memory, the adjacency list is read at once
+        final List<Integer> top = new ArrayList<>();
+        for (JanusGraphEdge e : v.query().direction(OUT).labels("knows").orderBy("weight", decr).limit(3).edges()) {
+            top.add(e.value("weight"));
+        }
+        assertEquals(ImmutableList.of(94, 93, 92), top);
+        assertEquals(numE, readOnly.traversal().V(v).outE("knows").count().next().intValue());
+        readOnly.rollback();
+
+        //Read-write transactions cache an adjacency list which has been paged to its end, hence read it consistently
+        hub = getV(tx, hub);
+        assertEquals(numE, hub.query().direction(OUT).labels("knows").count());
+        JanusGraphTransaction tx2 = graph.newTransaction();
+        tx2.traversal().V(hub).outE("knows").has("weight", P.lt(10)).drop().iterate();
+        tx2.commit();
+        assertEquals(numE, hub.query().direction(OUT).labels("knows").count());
+        assertEquals(numE, Iterables.size(hub.query().direction(OUT).labels("knows").edges()));
+        newTx();
+        assertEquals(numE - 10, getV(tx, hub).query().direction(OUT).labels("knows").count());
+
+        //The pages of read-write transactions are merged with their own additions and removals
+        newTx();
+        hub = getV(tx, hub);
+        hub.addEdge("knows", tx.addVertex(), "weight", numE);
+        Iterables.getOnlyElement(hub.query().direction(OUT).labels("knows").has("weight", 50).edges()).remove();
+        weights.clear();
+        for (JanusGraphEdge e : hub.query().direction(OUT).labels("knows").edges()) {
+            assertTrue(weights.add(e.<Integer>value("weight")));
+        }
+        assertEquals(numE - 10, weights.size());
+        assertTrue(weights.contains(numE));
+        assertFalse(weights.contains(50));
+        assertEquals(3, Iterables.size(hub.query().direction(OUT).labels("knows").has("weight", Cmp.GREATER_THAN_EQUAL, 90).limit(3).edges()));
+        newTx();
+    }
+
     private static void assertNumStep(int expectedResults, int expectedSteps, GraphTraversal traversal, Class<? extends Step>... expectedStepTypes) {
         int num = 0;
         while (traversal.hasNext()) {
@@ -4641,6 +4808,98 @@ public abstract class JanusGraphTest extends JanusGraphBaseTest {
         }
     }
 
+    @Test
+    public void testIndexUnionQuery() {
+        //Disjunctions across indexes must not require a full scan
+        clopen(option(FORCE_INDEX_USAGE), true);
+        makeVertexIndexedKey("name", String.class);
+        makeVertexIndexedKey("city", String.class);
+        makeKey("age", Integer.class);
+        finishSchema();
+
+        for (int i = 0; i < 30; i++) {
+            tx.addVertex("name", "n" + i, "city", "c" + (i % 3), "age", i);
+        }
+        newTx();
+
+        assertCount(11, ((GraphCentricQueryBuilder) tx.query()).or(ImmutableList.of(
+                new PredicateCondition<>("name", Cmp.EQUAL, "n1"),
+                new PredicateCondition<>("city", Cmp.EQUAL, "c2"))).vertices());
+        //Elements matching multiple alternatives are returned once
+        assertCount(10, ((GraphCentricQueryBuilder) tx.query()).or(ImmutableList.of(
+                new PredicateCondition<>("name", Cmp.EQUAL, "n2"),
+                new PredicateCondition<>("city", Cmp.EQUAL, "c2"))).vertices());
+        assertCount(4, ((GraphCentricQueryBuilder) tx.query()).or(ImmutableList.of(
+                new PredicateCondition<>("name", Contain.IN, ImmutableList.of("n1", "n4")),
+                new PredicateCondition<>("city", Cmp.EQUAL, "c2"))).has("age", Cmp.LESS_THAN, 6).vertices());
+        assertCount(5, ((GraphCentricQueryBuilder) tx.query()).or(ImmutableList.of(
+                new PredicateCondition<>("name", Cmp.EQUAL, "n1"),
+                new PredicateCondition<>("city", Cmp.EQUAL, "c2"))).limit(5).vertices());
+
+        assertCount(11, tx.traversal().V().or(__.has("name", "n1"), __.has("city", "c2")));
+        assertCount(11, tx.traversal().V().has("name", "n1").or().has("city", "c2"));
+        assertCount(12, tx.traversal().V().or(__.has("name", P.within("n1", "n4")), __.has("city", "c2")));
+        List<Integer> ages = tx.traversal().V().or(__.has("name", "n1"), __.has("city", "c2"))
+                .order().by("age", decr).limit(3).<Integer>values("age").toList();
+        assertEquals(ImmutableList.of(29, 26, 23), ages);
+
+        //An alternative without index support requires a full scan
+        try {
+            assertCount(11, ((GraphCentricQueryBuilder) tx.query()).or(ImmutableList.of(
+                    new PredicateCondition<>("name", Cmp.EQUAL, "n1"),
+                    new PredicateCondition<>("age", Cmp.EQUAL, 2))).vertices());
+            fail();
+        } catch (Exception ignored) {
+        }
+    }
+
+    @Test
+    public void testIndexUnionQueryWithOverlappingResults() {
+        clopen(option(FORCE_INDEX_USAGE), true);
+        makeVertexIndexedKey("city", String.class);
+        makeVertexIndexedKey("group", String.class);
+        makeKey("age", Integer.class);
+        finishSchema();
+
+        //The ages decrease with the vertex ids, so that the branches of the union return their results in non-id order
+        for (int i = 0; i < 20; i++) {
+            tx.addVertex("city", "c" + (i % 2), "group", i < 10 ? "g0" : "g1", "age", 100 - i);
+        }
+        newTx();
+
+        //Even vertices and the first ten vertices overlap in five vertices
+        final List<PredicateCondition<String, JanusGraphElement>> alternatives = ImmutableList.of(
+                new PredicateCondition<>("city", Cmp.EQUAL, "c0"),
+                new PredicateCondition<>("group", Cmp.EQUAL, "g0"));
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            if (i % 2 == 0 || i < 10) expected.add(100 - i);
+        }
+        Collections.sort(expected);
+
+        final List<Integer> unordered = new ArrayList<>();
+        for (JanusGraphVertex v : ((GraphCentricQueryBuilder) tx.query()).or(alternatives).vertices()) {
+            unordered.add(v.value("age"));
+        }
+        Collections.sort(unordered);
+        assertEquals(expected, unordered);
+
+        final List<Integer> ordered = new ArrayList<>();
+        for (JanusGraphVertex v : ((GraphCentricQueryBuilder) tx.query()).or(alternatives).orderBy("age", incr).vertices()) {
+            ordered.add(v.value("age"));
+        }
+        assertEquals(expected, ordered);
+
+        final List<Integer> descending = new ArrayList<>();
+        for (JanusGraphVertex v : ((GraphCentricQueryBuilder) tx.query()).or(alternatives).orderBy("age", decr).limit(7).vertices()) {
+            descending.add(v.value("age"));
+        }
+        assertEquals(Lists.reverse(expected).subList(0, 7), descending);
+
+        assertEquals(expected, tx.traversal().V().or(__.has("city", "c0"), __.has("group", "g0"))
+                .order().by("age", incr).<Integer>values("age").toList());
+    }
+
     @Test
     public void testLimitWithMixedIndexCoverage() {
         final String vt = "vt";
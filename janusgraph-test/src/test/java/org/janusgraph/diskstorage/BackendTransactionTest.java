@@ -0,0 +1,164 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+import org.janusgraph.core.JanusGraphException;
+import org.janusgraph.diskstorage.indexing.IndexProvider;
+import org.janusgraph.diskstorage.indexing.IndexTransaction;
+import org.janusgraph.diskstorage.indexing.KeyInformation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BackendTransactionTest {
+
+    private IMocksControl ctrl;
+    private ExecutorService threadPool;
+
+    @Before
+    public void setup() {
+        ctrl = EasyMock.createNiceControl();
+        threadPool = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void teardown() {
+        threadPool.shutdownNow();
+    }
+
+    @Test
+    public void testIndexesCommitConcurrently() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(3);
+        final Map<String, IndexTransaction> indexTx = new HashMap<>();
+        for (String index : new String[]{"search", "lucene", "solr"}) {
+            final BaseTransactionConfigurable tx = ctrl.createMock(BaseTransactionConfigurable.class);
+            EasyMock.makeThreadSafe(tx, false);
+            tx.commit();
+            //Only succeeds if all three index commits are running at the same time
+            expectLastCall().andAnswer(() -> {
+                barrier.await(10, TimeUnit.SECONDS);
+                return null;
+            });
+            indexTx.put(index, newIndexTransaction(tx));
+        }
+        ctrl.replay();
+
+        final Map<String, Throwable> exceptions = newBackendTransaction(indexTx, threadPool).commitIndexes();
+        assertTrue(exceptions.isEmpty());
+        ctrl.verify();
+    }
+
+    @Test
+    public void testIndexFailuresAreCollected() throws Exception {
+        for (ExecutorService pool : new ExecutorService[]{threadPool, null}) {
+            ctrl.reset();
+            final BackendException failure = new TemporaryBackendException("index unavailable");
+            final BaseTransactionConfigurable failingTx = ctrl.createMock(BaseTransactionConfigurable.class);
+            failingTx.commit();
+            expectLastCall().andThrow(failure);
+            final BaseTransactionConfigurable succeedingTx = ctrl.createMock(BaseTransactionConfigurable.class);
+            succeedingTx.commit();
+            expectLastCall();
+
+            final Map<String, IndexTransaction> indexTx = new HashMap<>();
+            indexTx.put("failing", newIndexTransaction(failingTx));
+            indexTx.put("succeeding", newIndexTransaction(succeedingTx));
+            ctrl.replay();
+
+            final Map<String, Throwable> exceptions = newBackendTransaction(indexTx, pool).commitIndexes();
+            assertEquals(1, exceptions.size());
+            assertEquals(failure, exceptions.get("failing"));
+            ctrl.verify();
+        }
+    }
+
+    @Test
+    public void testInterruptCancelsIndexCommits() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch cancelled = new CountDownLatch(2);
+        final Map<String, IndexTransaction> indexTx = new HashMap<>();
+        for (String index : new String[]{"search", "lucene"}) {
+            final BaseTransactionConfigurable tx = ctrl.createMock(BaseTransactionConfigurable.class);
+            EasyMock.makeThreadSafe(tx, false);
+            tx.commit();
+            //Blocks until the commit is cancelled
+            expectLastCall().andAnswer(() -> {
+                started.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    cancelled.countDown();
+                }
+                return null;
+            });
+            indexTx.put(index, newIndexTransaction(tx));
+        }
+        ctrl.replay();
+
+        final BackendTransaction backendTx = newBackendTransaction(indexTx, threadPool);
+        final ExecutorService committer = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Boolean> interrupted = committer.submit(() -> {
+                try {
+                    backendTx.commitIndexes();
+                    fail();
+                } catch (JanusGraphException e) {
+                    assertTrue(e.getCause() instanceof InterruptedException);
+                }
+                return Thread.currentThread().isInterrupted();
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            committer.shutdownNow();
+            //The interrupt flag is restored and the outstanding commits are cancelled
+            assertTrue(interrupted.get(10, TimeUnit.SECONDS));
+            assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+        } finally {
+            committer.shutdownNow();
+        }
+    }
+
+    private IndexTransaction newIndexTransaction(BaseTransactionConfigurable tx) throws BackendException {
+        final IMocksControl providerCtrl = EasyMock.createNiceControl();
+        final IndexProvider provider = providerCtrl.createMock(IndexProvider.class);
+        expect(provider.beginTransaction(anyObject())).andReturn(tx);
+        final KeyInformation.IndexRetriever retriever = providerCtrl.createMock(KeyInformation.IndexRetriever.class);
+        providerCtrl.replay();
+        return new IndexTransaction(provider, retriever, null, Duration.ofSeconds(10));
+    }
+
+    private BackendTransaction newBackendTransaction(Map<String, IndexTransaction> indexTx, ExecutorService pool) {
+        return new BackendTransaction(null, null, null, null, null, null,
+                Duration.ofSeconds(10), indexTx, pool);
+    }
+}
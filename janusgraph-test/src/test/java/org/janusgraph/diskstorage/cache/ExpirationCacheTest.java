@@ -49,7 +49,7 @@ public class ExpirationCacheTest extends KCVSCacheTest {
         return getCache(store,Duration.ofDays(1), Duration.ZERO);
     }
 
-    private static KCVSCache getCache(KeyColumnValueStore store, Duration expirationTime, Duration graceWait) {
+    protected KCVSCache getCache(KeyColumnValueStore store, Duration expirationTime, Duration graceWait) {
         return new ExpirationKCVSCache(store,METRICS_STRING,expirationTime.toMillis(),graceWait.toMillis(),CACHE_SIZE);
     }
 
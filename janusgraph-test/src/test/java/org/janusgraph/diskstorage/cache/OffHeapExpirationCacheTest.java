@@ -0,0 +1,200 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.cache;
+
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.ExpirationKCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.OffHeapSliceCache;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the expiration cache tests against an {@link OffHeapSliceCache} and tests its storage and eviction policy
+ */
+public class OffHeapExpirationCacheTest extends ExpirationCacheTest {
+
+    @Override
+    protected KCVSCache getCache(KeyColumnValueStore store, Duration expirationTime, Duration graceWait) {
+        return new ExpirationKCVSCache(store,METRICS_STRING,expirationTime.toMillis(),graceWait.toMillis(),
+                new OffHeapSliceCache(expirationTime.toMillis(),CACHE_SIZE));
+    }
+
+    private static EntryList getEntries(int numCols) {
+        final List<Entry> entries = new ArrayList<>(numCols);
+        for (int j=1;j<=numCols;j++) entries.add(getEntry(j,j*j));
+        return StaticArrayEntryList.of(entries);
+    }
+
+    @Test
+    public void testSerializationAndSize() {
+        final OffHeapSliceCache sliceCache = new OffHeapSliceCache(Duration.ofDays(1).toMillis(), CACHE_SIZE);
+        try {
+            long expectedBytes = 0;
+            for (int i=0;i<10;i++) {
+                final EntryList entries = getEntries(i);
+                sliceCache.put(getQuery(i,0,100),entries);
+                //Number of entries, their limits and value positions, and their data
+                expectedBytes += 4 + i*8 + i*8;
+                assertEquals(expectedBytes,sliceCache.getOffHeapByteSize());
+                //The heap memory of the queries and their bookkeeping is counted towards the size as well
+                assertTrue(sliceCache.getByteSize()>sliceCache.getOffHeapByteSize());
+            }
+            assertEquals(10,sliceCache.size());
+            for (int i=0;i<10;i++) {
+                assertEquals(getEntries(i),sliceCache.getIfPresent(getQuery(i,0,100)));
+            }
+            assertNull(sliceCache.getIfPresent(getQuery(10,0,100)));
+
+            sliceCache.put(getQuery(9,0,100),getEntries(1));
+            assertEquals(expectedBytes - 9*16 + 16,sliceCache.getOffHeapByteSize());
+            assertEquals(getEntries(1),sliceCache.getIfPresent(getQuery(9,0,100)));
+
+            sliceCache.invalidate(key -> key.equals(getQuery(3,0,100).getKey()));
+            assertNull(sliceCache.getIfPresent(getQuery(3,0,100)));
+            assertEquals(9,sliceCache.size());
+
+            sliceCache.invalidateAll();
+            assertEquals(0,sliceCache.size());
+            assertEquals(0,sliceCache.getByteSize());
+            assertEquals(0,sliceCache.getOffHeapByteSize());
+        } finally {
+            sliceCache.close();
+        }
+    }
+
+    @Test
+    public void testFrequencyBasedAdmission() {
+        final EntryList entries = getEntries(10);
+        final OffHeapSliceCache sizing = new OffHeapSliceCache(Duration.ofDays(1).toMillis(), CACHE_SIZE);
+        sizing.put(getQuery(0,0,100),entries);
+        final long cacheSize = sizing.getByteSize() * 100;
+        sizing.close();
+        final OffHeapSliceCache sliceCache = new OffHeapSliceCache(Duration.ofDays(1).toMillis(), cacheSize);
+        try {
+            final List<KeySliceQuery> hot = new ArrayList<>();
+            for (int i=0;i<50;i++) {
+                hot.add(getQuery(i,0,100));
+                sliceCache.put(hot.get(i),entries);
+            }
+            for (int t=0;t<5;t++) {
+                for (KeySliceQuery query : hot) assertNotNull(sliceCache.getIfPresent(query));
+            }
+            //A scan over many results which are read once...
+            for (int i=1000;i<2000;i++) {
+                final KeySliceQuery query = getQuery(i,0,100);
+                assertNull(sliceCache.getIfPresent(query));
+                sliceCache.put(query,entries);
+                assertTrue(sliceCache.getByteSize()<=cacheSize);
+            }
+            //...does not displace the frequently read ones
+            for (KeySliceQuery query : hot) assertEquals(entries,sliceCache.getIfPresent(query));
+        } finally {
+            sliceCache.close();
+        }
+    }
+
+    @Test
+    public void testViewOfResult() {
+        final OffHeapSliceCache sliceCache = new OffHeapSliceCache(Duration.ofDays(1).toMillis(), CACHE_SIZE);
+        try {
+            final EntryList entries = getEntries(5);
+            sliceCache.put(getQuery(1,0,100),entries);
+            final EntryList result = sliceCache.getIfPresent(getQuery(1,0,100));
+            //Entries are only copied onto the heap when read and then reused
+            assertSame(result.get(3),result.get(3));
+            assertEquals(entries.get(3),result.get(3));
+            sliceCache.invalidateAll();
+            //Views remain readable after their result has been evicted
+            assertEquals(entries,result);
+        } finally {
+            sliceCache.close();
+        }
+    }
+
+    @Test
+    public void testSingleLoadForConcurrentMisses() throws Exception {
+        final OffHeapSliceCache sliceCache = new OffHeapSliceCache(Duration.ofDays(1).toMillis(), CACHE_SIZE);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final EntryList entries = getEntries(3);
+            final KeySliceQuery query = getQuery(1,0,100);
+            final AtomicInteger loads = new AtomicInteger();
+            final CountDownLatch loading = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final List<Future<EntryList>> results = new ArrayList<>();
+            results.add(executor.submit(() -> sliceCache.get(query, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+                return entries;
+            })));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            for (int i=0;i<3;i++) {
+                results.add(executor.submit(() -> sliceCache.get(query, () -> {
+                    loads.incrementAndGet();
+                    return entries;
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<EntryList> result : results) assertEquals(entries,result.get(10, TimeUnit.SECONDS));
+            assertEquals(1,loads.get());
+
+            //Failed loads are reported to all waiting callers and are not cached
+            final KeySliceQuery failing = getQuery(2,0,100);
+            try {
+                sliceCache.get(failing, () -> {
+                    throw new IllegalStateException();
+                });
+                fail();
+            } catch (IllegalStateException expected) {
+            }
+            assertEquals(entries,sliceCache.get(failing, () -> entries));
+        } finally {
+            executor.shutdownNow();
+            sliceCache.close();
+        }
+    }
+
+    @Test
+    public void testCacheSizeExceedingMaxDirectMemoryIsRejected() {
+        final long maxDirectMemory = OffHeapSliceCache.getMaxDirectMemory();
+        assertTrue(maxDirectMemory > 0);
+        try {
+            JanusGraphFactory.build().set("storage.backend", "inmemory").set("cache.db-cache", true)
+                    .set("cache.db-cache-off-heap", true).set("cache.db-cache-size", 2.0 * maxDirectMemory).open();
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+}
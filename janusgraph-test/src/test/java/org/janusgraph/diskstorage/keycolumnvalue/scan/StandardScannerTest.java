@@ -0,0 +1,205 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.keycolumnvalue.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.StoreMetaData;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSManagerProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StandardStoreFeatures;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.RecordIterator;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.time.TimestampProviders;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StandardScannerTest {
+
+    private static final int PARTITIONS = 4;
+
+    private final RuntimeException storageFailure = new RuntimeException("Storage failure");
+    private final CountDownLatch closedIterators = new CountDownLatch(PARTITIONS - 1);
+
+    private InMemoryStoreManager manager;
+    private StandardScanner scanner;
+
+    @Before
+    public void setup() {
+        manager = new InMemoryStoreManager();
+        scanner = new StandardScanner(new KCVSManagerProxy(manager) {
+            @Override
+            public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException {
+                return new KCVSProxy(manager.openDatabase(name, metaData)) {
+                    @Override
+                    public KeyIterator getPartitionKeys(KeyRange partition, SliceQuery query, StoreTransaction txh) {
+                        //The first key range fails while all others keep waiting for data
+                        return partition.getStart().equals(BufferUtil.zeroBuffer(1))
+                            ? new TestKeyIterator(true) : new TestKeyIterator(false);
+                    }
+                };
+            }
+        });
+    }
+
+    @After
+    public void teardown() throws BackendException {
+        scanner.close();
+        manager.close();
+    }
+
+    @Test
+    public void testFailingPartitionStopsOtherPartitions() throws Exception {
+        final JanusGraphManagement.IndexJobFuture future = scanner.build()
+            .setStoreName("store")
+            .setJob(new NoopScanJob())
+            .setNumScanPartitions(PARTITIONS)
+            .setTimestampProvider(TimestampProviders.MICRO)
+            .execute();
+        try {
+            future.get(30, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(storageFailure, e.getCause().getCause());
+        }
+        assertTrue(closedIterators.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUnorderedStoreIsScannedByItsPartitions() throws Exception {
+        final int numKeys = 100;
+        final KeyColumnValueStore store = manager.openDatabase("store");
+        final StoreTransaction tx = manager.beginTransaction(StandardBaseTransactionConfig.of(TimestampProviders.MICRO));
+        for (int i = 0; i < numKeys; i++) {
+            store.mutate(BufferUtil.getIntBuffer(i), Collections.singletonList(StaticArrayEntry.of(BufferUtil.getIntBuffer(0),
+                BufferUtil.getIntBuffer(i))), KeyColumnValueStore.NO_DELETIONS, tx);
+        }
+        tx.commit();
+
+        final StoreFeatures unordered = new StandardStoreFeatures.Builder(manager.getFeatures()).orderedScan(false).build();
+        final StandardScanner partitionedScanner = new StandardScanner(new KCVSManagerProxy(manager) {
+            @Override
+            public StoreFeatures getFeatures() {
+                return unordered;
+            }
+
+            @Override
+            public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container metaData) throws BackendException {
+                return new KCVSProxy(manager.openDatabase(name, metaData)) {
+                    @Override
+                    public List<KeyRange> getScanPartitions(int numPartitions, StoreTransaction txh) {
+                        final List<KeyRange> partitions = new ArrayList<>(numPartitions);
+                        for (int i = 0; i < numPartitions; i++) {
+                            partitions.add(new KeyRange(BufferUtil.getIntBuffer(i * numKeys / numPartitions),
+                                BufferUtil.getIntBuffer((i + 1) * numKeys / numPartitions)));
+                        }
+                        return partitions;
+                    }
+                };
+            }
+        });
+        try {
+            final ScanMetrics metrics = partitionedScanner.build()
+                .setStoreName("store")
+                .setJob(new NoopScanJob())
+                .setNumScanPartitions(PARTITIONS)
+                .setTimestampProvider(TimestampProviders.MICRO)
+                .execute().get(30, TimeUnit.SECONDS);
+            for (int i = 0; i < PARTITIONS; i++) {
+                assertEquals(numKeys / PARTITIONS, metrics.getCustom(ScanMetrics.getPartitionMetric(i)));
+            }
+        } finally {
+            partitionedScanner.close();
+        }
+    }
+
+    private class TestKeyIterator implements KeyIterator {
+
+        private final boolean fails;
+
+        private TestKeyIterator(boolean fails) {
+            this.fails = fails;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (fails) throw storageFailure;
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        @Override
+        public StaticBuffer next() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RecordIterator<Entry> getEntries() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            if (!fails) closedIterators.countDown();
+        }
+    }
+
+    private static class NoopScanJob implements ScanJob {
+
+        @Override
+        public void process(StaticBuffer key, Map<SliceQuery, EntryList> entries, ScanMetrics metrics) {
+        }
+
+        @Override
+        public List<SliceQuery> getQueries() {
+            return Collections.singletonList(new SliceQuery(BufferUtil.zeroBuffer(1), BufferUtil.oneBuffer(128)));
+        }
+
+        @Override
+        public NoopScanJob clone() {
+            return this;
+        }
+    }
+}
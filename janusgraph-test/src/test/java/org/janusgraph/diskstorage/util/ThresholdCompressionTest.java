@@ -0,0 +1,115 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.diskstorage.util;
+
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ThresholdCompressionTest {
+
+    private static final Random random = new Random();
+
+    private static StaticBuffer getRedundantBuffer(int numRecords) {
+        final StringBuilder json = new StringBuilder();
+        for (int i = 0; i < numRecords; i++) json.append("{\"id\":").append(i).append(",\"label\":\"person\"}");
+        return StaticArrayBuffer.of(json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static StaticBuffer getRandomBuffer(int length) {
+        final byte[] raw = new byte[length];
+        random.nextBytes(raw);
+        return StaticArrayBuffer.of(raw);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (CompressionAlgorithm algorithm : new CompressionAlgorithm[]{CompressionAlgorithm.LZ4, CompressionAlgorithm.DEFLATE}) {
+            final BackendCompression compression = algorithm.getCompression(128);
+            for (StaticBuffer value : new StaticBuffer[]{getRedundantBuffer(1), getRedundantBuffer(1000),
+                    getRandomBuffer(0), getRandomBuffer(100), getRandomBuffer(10000)}) {
+                final StaticBuffer compressed = compression.compress(value);
+                assertEquals(value, compression.decompress(compressed));
+            }
+        }
+    }
+
+    @Test
+    public void testHeader() {
+        final BackendCompression compression = CompressionAlgorithm.LZ4.getCompression(128);
+        //Below threshold
+        StaticBuffer value = getRedundantBuffer(2);
+        assertTrue(value.length() < 128);
+        StaticBuffer compressed = compression.compress(value);
+        assertEquals(CompressionAlgorithm.NONE.getId(), compressed.getByte(0));
+        assertEquals(value.length() + 1, compressed.length());
+        //Incompressible
+        value = getRandomBuffer(1000);
+        compressed = compression.compress(value);
+        assertEquals(CompressionAlgorithm.NONE.getId(), compressed.getByte(0));
+        //Compressible
+        value = getRedundantBuffer(1000);
+        compressed = compression.compress(value);
+        assertEquals(CompressionAlgorithm.LZ4.getId(), compressed.getByte(0));
+        assertTrue(compressed.length() < value.length() / 4);
+    }
+
+    @Test
+    public void testReadAcrossAlgorithms() {
+        final StaticBuffer value = getRedundantBuffer(500);
+        final StaticBuffer lz4 = CompressionAlgorithm.LZ4.getCompression(0).compress(value);
+        final StaticBuffer deflate = CompressionAlgorithm.DEFLATE.getCompression(0).compress(value);
+        assertEquals(value, CompressionAlgorithm.DEFLATE.getCompression(0).decompress(lz4));
+        assertEquals(value, CompressionAlgorithm.LZ4.getCompression(1 << 20).decompress(deflate));
+    }
+
+    @Test
+    public void testCorruptData() {
+        for (CompressionAlgorithm algorithm : new CompressionAlgorithm[]{CompressionAlgorithm.LZ4, CompressionAlgorithm.DEFLATE}) {
+            final byte[] compressed = algorithm.getCompression(0).compress(getRedundantBuffer(500)).as(StaticBuffer.ARRAY_FACTORY);
+            //Truncated data
+            assertCorrupt(StaticArrayBuffer.of(Arrays.copyOf(compressed, compressed.length / 2)));
+            //Overwritten data
+            final byte[] overwritten = compressed.clone();
+            Arrays.fill(overwritten, 5, overwritten.length, (byte) 0xFF);
+            assertCorrupt(StaticArrayBuffer.of(overwritten));
+        }
+    }
+
+    private static void assertCorrupt(StaticBuffer compressed) {
+        try {
+            ThresholdCompression.decompressValue(compressed);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().startsWith("Corrupt"));
+        }
+    }
+
+    @Test
+    public void testNoCompression() {
+        assertSame(BackendCompression.NO_COMPRESSION, CompressionAlgorithm.getFromName("none").getCompression(0));
+        assertEquals(CompressionAlgorithm.LZ4, CompressionAlgorithm.getFromName("lz4"));
+        assertEquals(CompressionAlgorithm.DEFLATE, CompressionAlgorithm.getFromName("Deflate"));
+    }
+
+}
@@ -0,0 +1,276 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.cache;
+
+import com.google.common.collect.ImmutableList;
+import org.janusgraph.StorageSetup;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.cache.KCVSCacheTest;
+import org.janusgraph.diskstorage.configuration.Configuration;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.KCVSManagerProxy;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStoreManager;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
+import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.CacheTransaction;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.ExpirationKCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.cache.KCVSCache;
+import org.janusgraph.diskstorage.keycolumnvalue.inmemory.InMemoryStoreManager;
+import org.janusgraph.diskstorage.log.Log;
+import org.janusgraph.diskstorage.log.kcvs.KCVSMessage;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StandardBaseTransactionConfig;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.database.serialize.StandardSerializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_INVALIDATION;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.DB_CACHE_TIME;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_READ_INTERVAL;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.LOG_SEND_DELAY;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.MANAGEMENT_LOG;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.STORAGE_BACKEND;
+import static org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration.UNIQUE_INSTANCE_ID;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CacheInvalidationLoggerTest {
+
+    private static final long CACHE_SIZE = 1024 * 1024;
+
+    private static InMemoryStoreManager sharedStoreManager;
+
+    private KeyColumnValueStoreManager storeManager;
+    private KeyColumnValueStore store;
+    private KCVSCache edgeCache1, indexCache1, edgeCache2, indexCache2;
+    private CacheInvalidationLogger logger1, logger2;
+    private final List<StaticBuffer> sent = new ArrayList<>();
+
+    @Before
+    public void setup() throws Exception {
+        storeManager = sharedStoreManager = new InMemoryStoreManager();
+        store = storeManager.openDatabase("store");
+        edgeCache1 = getCache();
+        indexCache1 = getCache();
+        edgeCache2 = getCache();
+        indexCache2 = getCache();
+        final Log log = mock(Log.class);
+        when(log.add(any(StaticBuffer.class))).thenAnswer(invocation -> {
+            sent.add((StaticBuffer) invocation.getArguments()[0]);
+            return null;
+        });
+        final StandardSerializer serializer = new StandardSerializer();
+        logger1 = new CacheInvalidationLogger(log, edgeCache1, indexCache1, serializer, "instance1");
+        logger2 = new CacheInvalidationLogger(log, edgeCache2, indexCache2, serializer, "instance2");
+    }
+
+    private KCVSCache getCache() {
+        return new ExpirationKCVSCache(store, "metrics", Duration.ofDays(1).toMillis(), 0, CACHE_SIZE);
+    }
+
+    @After
+    public void shutdown() throws Exception {
+        for (KCVSCache cache : ImmutableList.of(edgeCache1, indexCache1, edgeCache2, indexCache2)) cache.close();
+        storeManager.close();
+    }
+
+    private StoreTransaction getStoreTx() throws BackendException {
+        return storeManager.beginTransaction(StandardBaseTransactionConfig.of(KCVSCacheTest.times));
+    }
+
+    private int readSlice(KCVSCache cache, int key) throws BackendException {
+        final CacheTransaction tx = new CacheTransaction(getStoreTx(), storeManager, 1024,
+                KCVSCacheTest.MAX_WRITE_TIME, false);
+        final KeySliceQuery query = KCVSCacheTest.getQuery(key, 0, 100);
+        final int size = cache.getSlice(query, tx).size();
+        tx.commit();
+        return size;
+    }
+
+    private void addColumn(int key, int column) throws BackendException {
+        final StoreTransaction tx = getStoreTx();
+        store.mutate(BufferUtil.getIntBuffer(key), ImmutableList.of(KCVSCacheTest.getEntry(column, column)),
+                KeyColumnValueStore.NO_DELETIONS, tx);
+        tx.commit();
+    }
+
+    private void deliver(String senderId, CacheInvalidationLogger receiver) {
+        for (StaticBuffer content : sent) receiver.read(new KCVSMessage(content, Instant.now(), senderId));
+        sent.clear();
+    }
+
+    @Test
+    public void testRemoteInvalidation() throws Exception {
+        addColumn(1, 1);
+        addColumn(2, 1);
+        assertEquals(1, readSlice(edgeCache2, 1));
+        assertEquals(1, readSlice(indexCache2, 2));
+
+        //Mutations by another instance are not visible in the cache until they are received
+        addColumn(1, 2);
+        addColumn(2, 2);
+        assertEquals(1, readSlice(edgeCache2, 1));
+        assertEquals(1, readSlice(indexCache2, 2));
+
+        logger1.sendInvalidation(ImmutableList.of(BufferUtil.getIntBuffer(1)), ImmutableList.of(BufferUtil.getIntBuffer(2)));
+        assertEquals(1, sent.size());
+        deliver("instance1", logger2);
+        assertEquals(2, readSlice(edgeCache2, 1));
+        assertEquals(2, readSlice(indexCache2, 2));
+    }
+
+    @Test
+    public void testOwnMessagesIgnored() throws Exception {
+        addColumn(1, 1);
+        assertEquals(1, readSlice(edgeCache2, 1));
+        addColumn(1, 2);
+        logger2.sendInvalidation(ImmutableList.of(BufferUtil.getIntBuffer(1)), Collections.emptyList());
+        deliver("instance2", logger2);
+        assertEquals(1, readSlice(edgeCache2, 1));
+    }
+
+    @Test
+    public void testBatchedMessages() throws Exception {
+        final int numKeys = CacheInvalidationLogger.MAX_KEYS_PER_MESSAGE * 2 + 10;
+        final List<StaticBuffer> edgeKeys = new ArrayList<>(), indexKeys = new ArrayList<>();
+        for (int i = 0; i < numKeys; i++) {
+            addColumn(i, 1);
+            assertEquals(1, readSlice(edgeCache2, i));
+            assertEquals(1, readSlice(indexCache2, i));
+            addColumn(i, 2);
+            if (i % 2 == 0) edgeKeys.add(BufferUtil.getIntBuffer(i));
+            else indexKeys.add(BufferUtil.getIntBuffer(i));
+        }
+        logger1.sendInvalidation(edgeKeys, indexKeys);
+        assertEquals(3, sent.size());
+        deliver("instance1", logger2);
+        for (int i = 0; i < numKeys; i++) {
+            assertEquals(i % 2 == 0 ? 2 : 1, readSlice(edgeCache2, i));
+            assertEquals(i % 2 == 0 ? 1 : 2, readSlice(indexCache2, i));
+        }
+    }
+
+    /**
+     * Gives all graph instances of a test access to the same in-memory storage
+     */
+    public static class SharedStoreManager extends KCVSManagerProxy {
+
+        public SharedStoreManager(Configuration config) {
+            super(sharedStoreManager);
+        }
+
+        @Override
+        public void close() {
+            //The storage is closed once all instances have been closed
+        }
+    }
+
+    private static StandardJanusGraph openGraph(String instanceId, boolean invalidation) {
+        final ModifiableConfiguration config = StorageSetup.getInMemoryConfiguration();
+        config.set(STORAGE_BACKEND, SharedStoreManager.class.getName());
+        config.set(UNIQUE_INSTANCE_ID, instanceId);
+        config.set(DB_CACHE, true);
+        config.set(DB_CACHE_TIME, 0L);
+        config.set(DB_CACHE_INVALIDATION, invalidation);
+        config.set(LOG_READ_INTERVAL, Duration.ofMillis(100), MANAGEMENT_LOG);
+        config.set(LOG_SEND_DELAY, Duration.ZERO, MANAGEMENT_LOG);
+        return (StandardJanusGraph) JanusGraphFactory.open(config.getConfiguration());
+    }
+
+    private static Object addVertex(StandardJanusGraph graph, String name) {
+        final JanusGraphTransaction tx = graph.newTransaction();
+        final JanusGraphVertex vertex = tx.addVertex();
+        vertex.property("name", name);
+        tx.commit();
+        return vertex.id();
+    }
+
+    private static void setName(StandardJanusGraph graph, Object vertexId, String name) {
+        final JanusGraphTransaction tx = graph.newTransaction();
+        tx.getVertex((Long) vertexId).property("name", name);
+        tx.commit();
+    }
+
+    private static String getName(StandardJanusGraph graph, Object vertexId) {
+        final JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            return tx.getVertex((Long) vertexId).value("name");
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    /**
+     * Reads the name of the vertex from the second instance until it has the expected value or the timeout expires
+     */
+    private static String awaitName(StandardJanusGraph graph, Object vertexId, String expected, long timeoutMs)
+            throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMs;
+        String name = getName(graph, vertexId);
+        while (!expected.equals(name) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            name = getName(graph, vertexId);
+        }
+        return name;
+    }
+
+    @Test
+    public void testCommitInvalidatesRemoteCache() throws Exception {
+        final StandardJanusGraph graph1 = openGraph("instance1", true);
+        final StandardJanusGraph graph2 = openGraph("instance2", true);
+        try {
+            final Object vertexId = addVertex(graph1, "a");
+            assertEquals("a", awaitName(graph2, vertexId, "a", 10000));
+            setName(graph1, vertexId, "b");
+            assertEquals("b", awaitName(graph2, vertexId, "b", 10000));
+        } finally {
+            graph1.close();
+            graph2.close();
+        }
+    }
+
+    @Test
+    public void testRemoteCacheIsStaleWithoutInvalidation() throws Exception {
+        final StandardJanusGraph graph1 = openGraph("instance1", false);
+        final StandardJanusGraph graph2 = openGraph("instance2", false);
+        try {
+            final Object vertexId = addVertex(graph1, "a");
+            assertEquals("a", awaitName(graph2, vertexId, "a", 10000));
+            setName(graph1, vertexId, "b");
+            //Several read intervals of the system log pass without the second instance noticing the change
+            assertEquals("a", awaitName(graph2, vertexId, "b", 1000));
+        } finally {
+            graph1.close();
+            graph2.close();
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.database.statistics;
+
+import com.google.common.collect.Iterables;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.core.PropertyKey;
+import org.janusgraph.core.schema.JanusGraphManagement;
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.keycolumnvalue.inmemory.InMemoryStoreManager;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.internal.ElementCategory;
+import org.janusgraph.graphdb.query.BackendQueryHolder;
+import org.janusgraph.graphdb.query.graph.JointIndexQuery;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class IndexStatisticsTest {
+
+    private static final int NUM_VERTICES = 2000;
+
+    private StandardJanusGraph graph;
+
+    @Before
+    public void setup() {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.STORAGE_BACKEND, InMemoryStoreManager.class.getCanonicalName());
+        config.set(GraphDatabaseConfiguration.INDEX_STATISTICS, true);
+        graph = (StandardJanusGraph) JanusGraphFactory.open(config);
+    }
+
+    @After
+    public void shutdown() {
+        if (graph!=null && graph.isOpen()) graph.close();
+    }
+
+    @Test
+    public void testHyperLogLog() {
+        HyperLogLog hll = new HyperLogLog();
+        assertEquals(0, hll.cardinality());
+        for (int i = 0; i < 100000; i++) hll.offer(HyperLogLog.mix(i % 20000));
+        assertEquals(20000, hll.cardinality(), 20000 * 0.05);
+
+        HyperLogLog other = new HyperLogLog();
+        for (int i = 10000; i < 30000; i++) other.offer(HyperLogLog.mix(i));
+        hll.merge(other);
+        assertEquals(30000, hll.cardinality(), 30000 * 0.05);
+    }
+
+    @Test
+    public void testHistogram() {
+        Random random = new Random(42);
+        double[] values = new double[10000];
+        for (int i = 0; i < values.length; i++) values[i] = random.nextDouble() * 100;
+        EquiDepthHistogram histogram = EquiDepthHistogram.of(values, 32);
+        assertEquals(32, histogram.numBuckets());
+        assertEquals(0.0, histogram.fractionBelow(-1), 0.0);
+        assertEquals(1.0, histogram.fractionBelow(100), 0.0);
+        assertEquals(0.25, histogram.fractionBelow(25), 0.02);
+        assertEquals(0.5, histogram.fractionBetween(25, 75), 0.02);
+        assertEquals(0.0, histogram.fractionBetween(75, 25), 0.0);
+
+        histogram = EquiDepthHistogram.of(new double[]{5, 5, 5}, 32);
+        assertEquals(3, histogram.numBuckets());
+        assertEquals(0.0, histogram.fractionBelow(4), 0.0);
+        assertEquals(1.0, histogram.fractionBelow(5), 0.0);
+    }
+
+    @Test
+    public void testSkipUnselectiveIndex() throws Exception {
+        JanusGraphManagement mgmt = graph.openManagement();
+        PropertyKey type = mgmt.makePropertyKey("type").dataType(String.class).make();
+        PropertyKey serial = mgmt.makePropertyKey("serial").dataType(Integer.class).make();
+        mgmt.buildIndex("byType", Vertex.class).addKey(type).buildCompositeIndex();
+        mgmt.buildIndex("bySerial", Vertex.class).addKey(serial).buildCompositeIndex();
+        mgmt.commit();
+
+        JanusGraphTransaction tx = graph.newTransaction();
+        for (int i = 0; i < NUM_VERTICES; i++) tx.addVertex("type", "item", "serial", i);
+        tx.commit();
+
+        GraphStatistics statistics = graph.getIndexStatistics();
+        assertNotNull(statistics);
+        verifyPlan();
+
+        //Rebuilding the statistics from the index store yields the same plan
+        statistics.clear();
+        graph.refreshIndexStatistics().get(1, TimeUnit.MINUTES);
+        verifyPlan();
+    }
+
+    private void verifyPlan() {
+        StandardJanusGraphTx tx = (StandardJanusGraphTx) graph.newTransaction();
+        try {
+            BackendQueryHolder<JointIndexQuery> query = tx.query().has("type", "item").has("serial", 42)
+                    .constructQuery(ElementCategory.VERTEX).getSubQuery(0);
+            JointIndexQuery jointQuery = query.getBackendQuery();
+            assertEquals(1, jointQuery.size());
+            assertEquals("bySerial", jointQuery.getQuery(0).getIndex().getName());
+            assertFalse(query.isFitted());
+
+            JanusGraphVertex v = Iterables.getOnlyElement(tx.query().has("type", "item").has("serial", 42).vertices());
+            assertEquals(42, v.<Integer>value("serial").intValue());
+            assertEquals(0, Iterables.size(tx.query().has("type", "other").has("serial", 42).vertices()));
+        } finally {
+            tx.rollback();
+        }
+    }
+
+}
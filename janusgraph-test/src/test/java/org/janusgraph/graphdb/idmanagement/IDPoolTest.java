@@ -28,7 +28,9 @@ import org.janusgraph.diskstorage.IDAuthority;
 import org.janusgraph.diskstorage.IDBlock;
 import org.janusgraph.diskstorage.TemporaryBackendException;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.graphdb.database.idassigner.AdaptiveIDBlockSizer;
 import org.janusgraph.graphdb.database.idassigner.IDBlockSizer;
+import org.janusgraph.graphdb.database.idassigner.StaticIDBlockSizer;
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
 import org.junit.Test;
@@ -66,6 +68,58 @@ public class IDPoolTest {
         testIDPoolWith(partitionID -> new StandardIDPool(idAuthority, partitionID, partitionID, Integer.MAX_VALUE, Duration.ofMillis(2000), 0.2), 10, 20, 100000);
     }
 
+    @Test
+    public void testStandardIDPoolWithPrefetch() throws InterruptedException {
+        final MockIDAuthority idAuthority = new MockIDAuthority(200, Integer.MAX_VALUE, 5);
+        testIDPoolWith(partitionID -> new StandardIDPool(idAuthority, partitionID, partitionID, Integer.MAX_VALUE,
+                Duration.ofMillis(2000), 0.2, null, 3), 10, 20, 100000);
+    }
+
+    @Test
+    public void testStandardIDPoolWithAdaptiveBlockSize() throws InterruptedException {
+        final MockIDAuthority idAuthority = new MockIDAuthority(200, Integer.MAX_VALUE, 5);
+        final AdaptiveIDBlockSizer sizer = new AdaptiveIDBlockSizer(new StaticIDBlockSizer(200, Integer.MAX_VALUE),
+                16, Duration.ofMinutes(5));
+        idAuthority.setIDBlockSizer(sizer);
+        testIDPoolWith(partitionID -> new StandardIDPool(idAuthority, partitionID, partitionID, Integer.MAX_VALUE,
+                Duration.ofMillis(2000), 0.2, sizer, 2), 2, 10, 100000);
+        //Ids are drawn much faster than blocks can be renewed, hence blocks must have grown
+        assertTrue(sizer.getBlockSize(0) > 200);
+        assertTrue(sizer.getBlockSize(0) <= 200 * 16);
+    }
+
+    @Test
+    public void testAdaptiveBlockSizer() {
+        final AdaptiveIDBlockSizer sizer = new AdaptiveIDBlockSizer(new StaticIDBlockSizer(1000, Long.MAX_VALUE),
+                4, Duration.ofSeconds(60));
+        assertEquals(1000, sizer.getBlockSize(1));
+        //Waiting on renewal grows the block size up to the maximum factor
+        for (int i = 0; i < 10; i++) {
+            sizer.blockConsumed(1, 1000, Duration.ofSeconds(30), Duration.ofMillis(10), Duration.ofMillis(5));
+        }
+        assertEquals(4000, sizer.getBlockSize(1));
+        assertEquals(1000, sizer.getBlockSize(2));
+        //Steady consumption leaves the block size untouched
+        sizer.blockConsumed(1, 4000, Duration.ofSeconds(30), Duration.ofMillis(10), Duration.ZERO);
+        assertEquals(4000, sizer.getBlockSize(1));
+        //Fast consumption relative to the renewal latency grows the block size
+        sizer.blockConsumed(2, 1000, Duration.ofMillis(50), Duration.ofMillis(10), Duration.ZERO);
+        assertEquals(2000, sizer.getBlockSize(2));
+        //Slow consumption shrinks the block size down to the minimum
+        for (int i = 0; i < 10; i++) {
+            sizer.blockConsumed(1, 1000, Duration.ofMinutes(2), Duration.ofMillis(10), Duration.ZERO);
+        }
+        assertEquals(250, sizer.getBlockSize(1));
+        assertEquals(Long.MAX_VALUE, sizer.getIdUpperBound(1));
+        //Block sizes stay well below the id upper bound
+        final AdaptiveIDBlockSizer bounded = new AdaptiveIDBlockSizer(new StaticIDBlockSizer(1000, 1L << 30),
+                16, Duration.ofSeconds(60));
+        for (int i = 0; i < 10; i++) {
+            bounded.blockConsumed(1, 1000, Duration.ofMillis(1), Duration.ofMillis(10), Duration.ZERO);
+        }
+        assertEquals(1024, bounded.getBlockSize(1));
+    }
+
     private void testIDPoolWith(IDPoolFactory poolFactory, final int numPartitions,
                                        final int numThreads, final int attemptsPerThread) throws InterruptedException {
         final Random random = new Random();
@@ -0,0 +1,35 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.inmemory;
+
+import org.janusgraph.diskstorage.configuration.ModifiableConfiguration;
+import org.janusgraph.diskstorage.configuration.WriteConfiguration;
+import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
+
+/**
+ * Runs the OLAP tests against an adjacency snapshot which is entirely memory-mapped since it has no heap budget
+ */
+public class InMemoryOLAPAdjacencySnapshotTest extends InMemoryOLAPTest {
+
+    @Override
+    public WriteConfiguration getConfiguration() {
+        ModifiableConfiguration config = GraphDatabaseConfiguration.buildGraphConfiguration();
+        config.set(GraphDatabaseConfiguration.STORAGE_BACKEND,"inmemory");
+        config.set(GraphDatabaseConfiguration.COMPUTER_ADJACENCY_SNAPSHOT,true);
+        config.set(GraphDatabaseConfiguration.COMPUTER_SNAPSHOT_HEAP_SIZE,0L);
+        return config.getConfiguration();
+    }
+
+}
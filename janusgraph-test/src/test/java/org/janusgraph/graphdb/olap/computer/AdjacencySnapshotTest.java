@@ -0,0 +1,99 @@
+// Copyright 2017 JanusGraph Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.janusgraph.graphdb.olap.computer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryList;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.util.BufferUtil;
+import org.janusgraph.diskstorage.util.StaticArrayEntry;
+import org.janusgraph.diskstorage.util.StaticArrayEntryList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AdjacencySnapshotTest {
+
+    private static final int NUM_ROWS = 50;
+    private static final int SEGMENT_SIZE = 256;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private AdjacencySnapshot snapshot;
+
+    @Before
+    public void setup() {
+        //The first segments are held on the heap and the remaining ones are memory-mapped
+        snapshot = new AdjacencySnapshot(4 * SEGMENT_SIZE, folder.getRoot(), SEGMENT_SIZE);
+        for (int row = 0; row < NUM_ROWS; row++) {
+            snapshot.add(BufferUtil.getLongBuffer(row), entries(row));
+        }
+        snapshot.seal();
+    }
+
+    @After
+    public void teardown() {
+        snapshot.close();
+    }
+
+    private static EntryList entries(int row) {
+        final List<Entry> entries = new ArrayList<>();
+        for (int column = 0; column < row % 7; column++) {
+            entries.add(StaticArrayEntry.of(BufferUtil.getIntBuffer(column), BufferUtil.getIntBuffer(row * column)));
+        }
+        return StaticArrayEntryList.of(entries);
+    }
+
+    @Test
+    public void testRowsOnHeapAndMapped() {
+        assertEquals(4 * SEGMENT_SIZE, snapshot.getHeapBytes());
+        assertTrue(snapshot.getMappedBytes() > 0);
+        assertEquals(NUM_ROWS, snapshot.getNumVertices());
+        for (int row = 0; row < NUM_ROWS; row++) {
+            final List<Entry> entries = new ArrayList<>();
+            final StaticBuffer key = snapshot.getRow(row, entries);
+            assertEquals(BufferUtil.getLongBuffer(row), key);
+            assertEquals(entries(row), entries);
+            for (int column = 0; column < entries.size(); column++) {
+                assertEquals(BufferUtil.getIntBuffer(column), entries.get(column).getColumn());
+                assertEquals(BufferUtil.getIntBuffer(row * column), entries.get(column).getValue());
+            }
+        }
+    }
+
+    @Test
+    public void testSlice() {
+        final List<Entry> entries = new ArrayList<>();
+        snapshot.getRow(6, entries);
+        final SliceQuery query = new SliceQuery(BufferUtil.getIntBuffer(2), BufferUtil.getIntBuffer(5));
+        final EntryList slice = AdjacencySnapshot.slice(entries, query);
+        assertEquals(entries.subList(2, 5), slice);
+        assertEquals(3 * entries.get(0).length(), slice.getByteSize());
+        assertEquals(entries.subList(2, 4), AdjacencySnapshot.slice(entries, query.updateLimit(2)));
+        assertEquals(EntryList.EMPTY_LIST,
+            AdjacencySnapshot.slice(entries, new SliceQuery(BufferUtil.getIntBuffer(7), BufferUtil.getIntBuffer(9))));
+    }
+
+}
@@ -28,6 +28,13 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.Assert.*;
 
@@ -127,6 +134,36 @@ public class QueryTest {
 
     }
 
-
+    @Test
+    public void testIntersectingRetrievals() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (Executor exe : Arrays.asList(null, executor)) {
+                List<QueryUtil.IndexCall<Object>> retrievals = Arrays.asList(
+                        limit -> LongStream.range(0, 1000).boxed().limit(limit).collect(Collectors.toList()),
+                        limit -> LongStream.iterate(999, i -> i - 3).limit(Math.min(limit, 334)).boxed().collect(Collectors.toList()),
+                        limit -> LongStream.range(0, 1000).filter(i -> i % 2 == 0).boxed().limit(limit).collect(Collectors.toList()));
+                List<Object> results = QueryUtil.processIntersectingRetrievals(retrievals, 1000, exe);
+                assertEquals(167, results.size());
+                assertTrue(results.contains(6L));
+                assertFalse(results.contains(3L));
+                assertFalse(results.contains(6));
+
+                //An empty retrieval short-circuits the intersection
+                AtomicInteger calls = new AtomicInteger();
+                retrievals = Arrays.asList(limit -> Collections.emptyList(),
+                        limit -> { calls.incrementAndGet(); return Collections.singletonList(1L); });
+                assertTrue(QueryUtil.processIntersectingRetrievals(retrievals, 10, null).isEmpty());
+                assertEquals(0, calls.get());
+                assertTrue(QueryUtil.processIntersectingRetrievals(retrievals, 10, exe).isEmpty());
+
+                //Non-numeric ids are intersected as objects
+                retrievals = Arrays.asList(limit -> Arrays.asList("a", "b", "c"), limit -> Arrays.asList("c", "a"));
+                assertEquals(Arrays.asList("a", "c"), QueryUtil.processIntersectingRetrievals(retrievals, 10, exe));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 
 }